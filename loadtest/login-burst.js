@@ -0,0 +1,91 @@
+// Teste de carga: rajada de logins (BCrypt) concorrendo com leituras de usuários.
+// Execute uma vez com VIRTUAL_THREADS_ENABLED=true e outra com false e compare o p99
+// das leituras (http_req_duration{scenario:reads}) nos arquivos de resumo gerados.
+//
+//   k6 run -e BASE_URL=http://localhost:8080/api -e MODE=virtual loadtest/login-burst.js
+//   k6 run -e BASE_URL=http://localhost:8080/api -e MODE=platform loadtest/login-burst.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080/api';
+const MODE = __ENV.MODE || 'default';
+const LOGIN_RATE = Number(__ENV.LOGIN_RATE || 200);
+const READ_RATE = Number(__ENV.READ_RATE || 100);
+const DURATION = __ENV.DURATION || '1m';
+
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+export const options = {
+    scenarios: {
+        logins: {
+            executor: 'constant-arrival-rate',
+            exec: 'login',
+            rate: LOGIN_RATE,
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: 100,
+            maxVUs: 1000,
+        },
+        reads: {
+            executor: 'constant-arrival-rate',
+            exec: 'readUsers',
+            rate: READ_RATE,
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: 50,
+            maxVUs: 500,
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        // As leituras não podem ser prejudicadas pela rajada de logins
+        'http_req_duration{scenario:reads}': ['p(99)<200'],
+        'http_req_failed{scenario:reads}': ['rate<0.01'],
+    },
+};
+
+export function setup() {
+    const suffix = Date.now();
+    const credentials = { username: `loadtest${suffix}`, password: 'Senha@123' };
+
+    const response = http.post(`${BASE_URL}/users`, JSON.stringify({
+        name: 'Usuário Teste de Carga',
+        email: `loadtest${suffix}@example.com`,
+        userIdentification: String(suffix).padStart(11, '0').slice(-11),
+        profile: 'client',
+        address: {
+            street: 'Rua das Flores',
+            number: 100,
+            complement: 'Casa',
+            neighborhood: 'Centro',
+            city: 'São Paulo',
+            state: 'SP',
+            country: 'Brasil',
+            cep: '01000-000',
+        },
+        credentials,
+    }), JSON_HEADERS);
+    check(response, { 'usuário criado': (r) => r.status === 201 });
+
+    return credentials;
+}
+
+export function login(credentials) {
+    const response = http.post(`${BASE_URL}/credentials/login`, JSON.stringify(credentials), JSON_HEADERS);
+    // 503 indica que o pool de hashing recusou a requisição (fila cheia), o que é esperado sob rajada
+    check(response, { 'login aceito ou recusado por carga': (r) => r.status === 200 || r.status === 503 });
+}
+
+export function readUsers() {
+    const response = http.get(`${BASE_URL}/users?size=20`);
+    check(response, { 'leitura ok': (r) => r.status === 200 });
+}
+
+export function handleSummary(data) {
+    const reads = data.metrics['http_req_duration{scenario:reads}'];
+    const p99 = reads ? reads.values['p(99)'] : undefined;
+    return {
+        [`loadtest/summary-${MODE}.json`]: JSON.stringify(data, null, 2),
+        stdout: `\n[${MODE}] p99 das leituras durante a rajada de logins: ${p99} ms\n`,
+    };
+}
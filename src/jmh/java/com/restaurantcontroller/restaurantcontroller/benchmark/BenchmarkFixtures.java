@@ -0,0 +1,93 @@
+package com.restaurantcontroller.restaurantcontroller.benchmark;
+
+import com.restaurantcontroller.restaurantcontroller.dto.AddressDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.NewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UpdateUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UserCredentialsDTO;
+import com.restaurantcontroller.restaurantcontroller.mapper.AddressMapper;
+import com.restaurantcontroller.restaurantcontroller.mapper.UserMapper;
+import com.restaurantcontroller.restaurantcontroller.model.Address;
+import com.restaurantcontroller.restaurantcontroller.model.EProfile;
+import com.restaurantcontroller.restaurantcontroller.model.User;
+import com.restaurantcontroller.restaurantcontroller.model.UserCredentials;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Dados usados pelos benchmarks, equivalentes aos de uma requisição real
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {}
+
+    static UserMapper userMapper(AddressMapper addressMapper) {
+        UserMapper userMapper = new UserMapper();
+        ReflectionTestUtils.setField(userMapper, "addressMapper", addressMapper);
+        return userMapper;
+    }
+
+    static Address address() {
+        Address address = new Address();
+        address.setStreet("Avenida São João");
+        address.setNumber(1500);
+        address.setComplement("Apartamento 42");
+        address.setNeighborhood("República");
+        address.setCity("São Paulo");
+        address.setState("SP");
+        address.setCountry("Brasil");
+        address.setCep("01035-100");
+        address.setLastUpdate(ZonedDateTime.now());
+        return address;
+    }
+
+    static AddressDTO addressDTO() {
+        AddressDTO addressDTO = new AddressDTO();
+        addressDTO.setStreet("Rua Conceição");
+        addressDTO.setNumber(230);
+        addressDTO.setComplement("Casa");
+        addressDTO.setNeighborhood("Centro");
+        addressDTO.setCity("Campinas");
+        addressDTO.setState("SP");
+        addressDTO.setCountry("Brasil");
+        addressDTO.setCep("13010-050");
+        return addressDTO;
+    }
+
+    static User user(long id) {
+        UserCredentials credentials = new UserCredentials();
+        credentials.setUsername("joao.conceicao" + id);
+        credentials.setPassword("$2a$10$abcdefghijklmnopqrstuuJ7m1Q9bH2n3x4y5z6A7B8C9D0E1F2G3");
+        credentials.setLastUpdate(ZonedDateTime.now());
+
+        User user = new User();
+        ReflectionTestUtils.setField(user, "id", id);
+        user.setName("João da Conceição");
+        user.setUserIdentification(String.format("%011d", id));
+        user.setEmail("joao" + id + "@example.com");
+        user.setProfile(EProfile.client);
+        user.setAddressUser(address());
+        user.setUserCredentials(credentials);
+        user.setLastUpdate(ZonedDateTime.now());
+        return user;
+    }
+
+    static NewUserDTO newUserDTO() {
+        UserCredentialsDTO credentials = new UserCredentialsDTO();
+        credentials.setUsername("maria.gonçalves");
+        credentials.setPassword("Senha@123");
+
+        NewUserDTO dto = new NewUserDTO();
+        dto.setName("Maria Gonçalves Araújo");
+        dto.setUserIdentification("12345678901");
+        dto.setEmail("maria@example.com");
+        dto.setProfile(EProfile.owner);
+        dto.setAddress(addressDTO());
+        dto.setCredentials(credentials);
+        return dto;
+    }
+
+    static UpdateUserDTO updateUserDTO() {
+        return new UpdateUserDTO("Maria Gonçalves Araújo", "12345678901", "maria@example.com", EProfile.owner, addressDTO());
+    }
+}
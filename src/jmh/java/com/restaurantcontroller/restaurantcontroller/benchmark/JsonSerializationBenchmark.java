@@ -0,0 +1,58 @@
+package com.restaurantcontroller.restaurantcontroller.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurantcontroller.restaurantcontroller.dto.ResponseNewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.mapper.AddressMapper;
+import com.restaurantcontroller.restaurantcontroller.mapper.UserMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização das páginas de usuários com o mesmo ObjectMapper padrão do Spring MVC.
+ * Os tamanhos cobrem a página padrão (20) e a máxima (100)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"1", "20", "100"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<ResponseNewUserDTO> users;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        UserMapper userMapper = BenchmarkFixtures.userMapper(new AddressMapper());
+        users = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            users.add(userMapper.toResponseNewUserDTO(BenchmarkFixtures.user(i)));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeUsers() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(users);
+    }
+}
@@ -0,0 +1,63 @@
+package com.restaurantcontroller.restaurantcontroller.benchmark;
+
+import com.restaurantcontroller.restaurantcontroller.dto.AddressDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.ResponseNewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.mapper.AddressMapper;
+import com.restaurantcontroller.restaurantcontroller.mapper.UserMapper;
+import com.restaurantcontroller.restaurantcontroller.model.Address;
+import com.restaurantcontroller.restaurantcontroller.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversões entre entidades e DTOs feitas em toda leitura e escrita de usuários
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private AddressMapper addressMapper;
+    private UserMapper userMapper;
+    private User user;
+    private Address address;
+    private AddressDTO addressDTO;
+
+    @Setup
+    public void setUp() {
+        addressMapper = new AddressMapper();
+        userMapper = BenchmarkFixtures.userMapper(addressMapper);
+        user = BenchmarkFixtures.user(1L);
+        address = BenchmarkFixtures.address();
+        addressDTO = BenchmarkFixtures.addressDTO();
+    }
+
+    @Benchmark
+    public ResponseNewUserDTO userToResponseNewUserDTO() {
+        return userMapper.toResponseNewUserDTO(user);
+    }
+
+    @Benchmark
+    public AddressDTO addressToAddressDTO() {
+        return addressMapper.toAddressDTO(address);
+    }
+
+    @Benchmark
+    public Address updateAddress() {
+        addressMapper.updateAddress(address, addressDTO);
+        return address;
+    }
+}
@@ -0,0 +1,188 @@
+package com.restaurantcontroller.restaurantcontroller.benchmark;
+
+import com.restaurantcontroller.restaurantcontroller.dto.AddressDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.NewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UpdateUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.ValidationPatterns;
+import com.restaurantcontroller.restaurantcontroller.mapper.AddressMapper;
+import com.restaurantcontroller.restaurantcontroller.mapper.UserMapper;
+import com.restaurantcontroller.restaurantcontroller.model.EProfile;
+import com.restaurantcontroller.restaurantcontroller.model.User;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean Validation dos DTOs (incluindo as regex com acentos), executada em todo POST e PUT /users.
+ * Os benchmarks "WithEntityRevalidation" reproduzem a segunda passada que o Hibernate fazia sobre as
+ * entidades no persist/update, para medir o custo economizado por requisição com a validação única.
+ * No cadastro, as duas variantes incluem a conversão do DTO nas entidades, como no UserService
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private AddressMapper addressMapper;
+    private UserMapper userMapper;
+    private NewUserDTO validUser;
+    private NewUserDTO invalidUser;
+    private UpdateUserDTO updateUser;
+    private LegacyUser legacyUser;
+    private LegacyAddress legacyAddress;
+    private LegacyCredentials legacyCredentials;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        addressMapper = new AddressMapper();
+        userMapper = BenchmarkFixtures.userMapper(addressMapper);
+        validUser = BenchmarkFixtures.newUserDTO();
+
+        invalidUser = BenchmarkFixtures.newUserDTO();
+        invalidUser.setName("Maria Gonçalves 3ª");
+        invalidUser.setUserIdentification("123");
+        invalidUser.getAddress().setCep("13010050");
+        invalidUser.getCredentials().setPassword("fraca");
+
+        updateUser = BenchmarkFixtures.updateUserDTO();
+        legacyUser = new LegacyUser(validUser);
+        legacyAddress = new LegacyAddress(validUser.getAddress());
+        legacyCredentials = new LegacyCredentials(validUser.getCredentials().getUsername());
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<NewUserDTO>> validateValidUser() {
+        return validator.validate(validUser);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<NewUserDTO>> validateInvalidUser() {
+        return validator.validate(invalidUser);
+    }
+
+    @Benchmark
+    public void createUserSinglePass(Blackhole blackhole) {
+        blackhole.consume(validator.validate(validUser));
+        blackhole.consume(toEntity(validUser));
+    }
+
+    @Benchmark
+    public void createUserWithEntityRevalidation(Blackhole blackhole) {
+        blackhole.consume(validator.validate(validUser));
+        blackhole.consume(toEntity(validUser));
+        blackhole.consume(validator.validate(legacyUser));
+        blackhole.consume(validator.validate(legacyAddress));
+        blackhole.consume(validator.validate(legacyCredentials));
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UpdateUserDTO>> updateUserSinglePass() {
+        return validator.validate(updateUser);
+    }
+
+    @Benchmark
+    public void updateUserWithEntityRevalidation(Blackhole blackhole) {
+        blackhole.consume(validator.validate(updateUser));
+        blackhole.consume(validator.validate(legacyUser));
+        blackhole.consume(validator.validate(legacyAddress));
+    }
+
+    // Conversão do cadastro: usuário e endereço a partir do DTO já validado
+    private User toEntity(NewUserDTO dto) {
+        User user = userMapper.createUser(dto);
+        user.setAddressUser(addressMapper.toAddress(dto.getAddress()));
+        return user;
+    }
+
+    // Restrições que as entidades declaravam antes da validação única
+    static class LegacyUser {
+        @NotBlank @Size(max = 100) @Pattern(regexp = ValidationPatterns.LETTERS)
+        final String name;
+        @NotBlank @Pattern(regexp = ValidationPatterns.USER_IDENTIFICATION)
+        final String userIdentification;
+        @NotBlank @Email @Size(max = 100)
+        final String email;
+        @NotNull
+        final EProfile profile;
+
+        LegacyUser(NewUserDTO dto) {
+            this.name = dto.getName();
+            this.userIdentification = dto.getUserIdentification();
+            this.email = dto.getEmail();
+            this.profile = dto.getProfile();
+        }
+    }
+
+    static class LegacyAddress {
+        @NotBlank @Size(max = 255) @Pattern(regexp = ValidationPatterns.ALPHANUMERIC)
+        final String street;
+        @Min(1)
+        final int number;
+        @NotBlank @Size(max = 50) @Pattern(regexp = ValidationPatterns.ALPHANUMERIC)
+        final String complement;
+        @NotBlank @Size(max = 50) @Pattern(regexp = ValidationPatterns.ALPHANUMERIC)
+        final String neighborhood;
+        @NotBlank @Size(max = 50) @Pattern(regexp = ValidationPatterns.ALPHANUMERIC)
+        final String city;
+        @NotBlank @Size(max = 50) @Pattern(regexp = ValidationPatterns.LETTERS)
+        final String state;
+        @NotBlank @Size(max = 50) @Pattern(regexp = ValidationPatterns.LETTERS)
+        final String country;
+        @NotBlank @Pattern(regexp = ValidationPatterns.CEP)
+        final String cep;
+
+        LegacyAddress(AddressDTO dto) {
+            this.street = dto.getStreet();
+            this.number = dto.getNumber();
+            this.complement = dto.getComplement();
+            this.neighborhood = dto.getNeighborhood();
+            this.city = dto.getCity();
+            this.state = dto.getState();
+            this.country = dto.getCountry();
+            this.cep = dto.getCep();
+        }
+    }
+
+    static class LegacyCredentials {
+        @NotBlank @Size(max = 50)
+        final String username;
+
+        LegacyCredentials(String username) {
+            this.username = username;
+        }
+    }
+}
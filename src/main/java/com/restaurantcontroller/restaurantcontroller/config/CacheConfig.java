@@ -0,0 +1,78 @@
+package com.restaurantcontroller.restaurantcontroller.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Cache de leitura (Caffeine) dos usuários e endereços, limitado por tamanho e TTL.
+ * Cada nó tem o seu cache e as invalidações (aplicadas após o commit) são locais; por isso cada entrada
+ * guarda também a versão dos dados, e os acertos são conferidos com a versão atual no banco antes de
+ * serem servidos. Uma entrada desatualizada (escrita em outro nó ou carga concorrente gravada após a
+ * invalidação) é recarregada. O TTL conta a partir da gravação (expireAfterWrite): toda entrada, mesmo muito
+ * acessada, é recarregada cache.ttl após ser gravada; ele não define o tempo de desatualização, já limitado pela conferência.
+ * A conferência é uma troca deliberada: todo acerto ainda custa uma consulta de projeção por ID (a mesma que
+ * responde o 304), atendida pela réplica quando habilitada, e o cache economiza a carga das três tabelas e o
+ * mapeamento. Servir acertos sem consulta exigiria invalidar os outros nós pelos eventos do outbox, e qualquer
+ * atraso na publicação serviria dados antigos. O resultado de cada conferência é medido em cache.version.checks
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Usuário (com endereço e username) e seu ETag por ID do usuário
+    public static final String USERS_CACHE = "users";
+
+    // Endereço e seu ETag por ID do usuário
+    public static final String USER_ADDRESSES_CACHE = "userAddresses";
+
+    // Resultados da conferência de versão: acerto servido, entrada desatualizada ou ausente (ambas recarregadas)
+    public static final String VERSION_CURRENT = "current";
+    public static final String VERSION_STALE = "stale";
+    public static final String VERSION_ABSENT = "absent";
+
+    /**
+     * Gerenciador de cache com estatísticas habilitadas (expostas como cache.gets, cache.puts e cache.evictions)
+     * @param maximumSize quantidade máxima de entradas por cache
+     * @param ttl tempo de vida de cada entrada após a escrita
+     * @return CacheManager transacional
+     */
+    @Bean
+    public CacheManager cacheManager(@Value("${cache.maximum-size:10000}") long maximumSize,
+                                     @Value("${cache.ttl:10m}") Duration ttl) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        caffeineCacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        caffeineCacheManager.setCacheNames(List.of(USERS_CACHE, USER_ADDRESSES_CACHE));
+        caffeineCacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+
+    /**
+     * Registra o resultado da conferência de versão de uma leitura por ID. A proporção de "current" indica quantas
+     * consultas de versão evitaram a carga completa, e "stale" quantas entradas foram invalidadas em outro nó
+     * @param meterRegistry registro de métricas
+     * @param cacheName nome do cache conferido
+     * @param result VERSION_CURRENT, VERSION_STALE ou VERSION_ABSENT
+     */
+    public static void recordVersionCheck(MeterRegistry meterRegistry, String cacheName, String result) {
+        Counter.builder("cache.version.checks")
+                .description("Conferências da versão das entradas do cache, por resultado")
+                .tag("cache", cacheName)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,93 @@
+package com.restaurantcontroller.restaurantcontroller.config;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.restaurantcontroller.restaurantcontroller.service.TokenService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Configuração dos tokens JWT assinados com HMAC-SHA256.
+ * A assinatura é validada com a chave em memória, sem BCrypt; a revogação consulta a versão das credenciais em cache
+ */
+@Configuration
+public class JwtConfig {
+
+    private static final int MIN_SECRET_LENGTH = 32;
+
+    @Value("${security.jwt.secret}")
+    private String secret;
+
+    @Value("${security.jwt.issuer}")
+    private String issuer;
+
+    /**
+     * Chave secreta usada para assinar e validar os tokens
+     * @return SecretKey HMAC-SHA256
+     */
+    @Bean
+    public SecretKey jwtSecretKey() {
+        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length < MIN_SECRET_LENGTH) {
+            throw new IllegalStateException("security.jwt.secret deve ter no mínimo " + MIN_SECRET_LENGTH + " bytes");
+        }
+        return new SecretKeySpec(keyBytes, "HmacSHA256");
+    }
+
+    @Bean
+    public JwtEncoder jwtEncoder(SecretKey jwtSecretKey) {
+        return new NimbusJwtEncoder(new ImmutableSecret<>(jwtSecretKey));
+    }
+
+    /**
+     * Decodificador que valida assinatura, expiração, emissor e revogação por troca de senha
+     * @param jwtSecretKey chave secreta
+     * @param tokenService serviço responsável pela revogação dos tokens
+     * @return JwtDecoder configurado
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(SecretKey jwtSecretKey, TokenService tokenService) {
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(jwtSecretKey)
+                .macAlgorithm(MacAlgorithm.HS256)
+                .build();
+
+        OAuth2TokenValidator<Jwt> revocationValidator = jwt -> tokenService.isRevoked(jwt)
+                ? OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid_token", "Token revogado", null))
+                : OAuth2TokenValidatorResult.success();
+
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(JwtValidators.createDefaultWithIssuer(issuer), revocationValidator));
+        return decoder;
+    }
+
+    /**
+     * Converte a claim "profile" do token em authorities (ROLE_client, ROLE_owner, ROLE_admin)
+     * @return JwtAuthenticationConverter configurado
+     */
+    @Bean
+    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+        JwtGrantedAuthoritiesConverter authoritiesConverter = new JwtGrantedAuthoritiesConverter();
+        authoritiesConverter.setAuthoritiesClaimName(TokenService.PROFILE_CLAIM);
+        authoritiesConverter.setAuthorityPrefix("ROLE_");
+
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(authoritiesConverter);
+        return converter;
+    }
+}
@@ -0,0 +1,24 @@
+package com.restaurantcontroller.restaurantcontroller.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuração das métricas da aplicação (expostas em /actuator/prometheus)
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Habilita o @Timed nas classes de serviço, registrando um timer com histograma
+     * por classe e método (tags class, method e exception)
+     * @param meterRegistry registro de métricas
+     * @return TimedAspect bean
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
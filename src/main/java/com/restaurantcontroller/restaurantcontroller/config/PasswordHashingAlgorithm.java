@@ -0,0 +1,117 @@
+package com.restaurantcontroller.restaurantcontroller.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Algoritmos de hashing de senhas (security.password-hashing.algorithm) e o significado do fator de
+ * trabalho de cada um. O fator mínimo é o piso da calibração: nunca mais fraco que o BCrypt padrão usado
+ * até aqui, nem que a recomendação atual da OWASP para o PBKDF2-HMAC-SHA256
+ */
+public enum PasswordHashingAlgorithm {
+
+    // Fator de trabalho: log2 da quantidade de rodadas (cada unidade dobra o custo)
+    bcrypt(10, 31) {
+        @Override
+        public PasswordEncoder encoder(int workFactor) {
+            return new BCryptPasswordEncoder(workFactor);
+        }
+
+        @Override
+        int scale(int workFactor, long nanos, long targetNanos) {
+            int factor = workFactor;
+            while (factor < maximumWorkFactor && nanos * 2 <= targetNanos) {
+                factor++;
+                nanos *= 2;
+            }
+            return factor;
+        }
+    },
+
+    // Fator de trabalho: quantidade de iterações (custo linear)
+    pbkdf2(600_000, Integer.MAX_VALUE) {
+        @Override
+        public PasswordEncoder encoder(int workFactor) {
+            return new Pbkdf2Sha256PasswordEncoder(workFactor);
+        }
+
+        @Override
+        int scale(int workFactor, long nanos, long targetNanos) {
+            long iterations = workFactor * targetNanos / Math.max(nanos, 1);
+            return (int) Math.min(maximumWorkFactor, Math.max(workFactor, iterations / 10_000 * 10_000));
+        }
+    };
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingAlgorithm.class);
+
+    // Senha usada somente para medir o tempo de hash durante a calibração
+    private static final String CALIBRATION_PASSWORD = "calibracao-do-hash-de-senhas";
+
+    final int minimumWorkFactor;
+    final int maximumWorkFactor;
+
+    PasswordHashingAlgorithm(int minimumWorkFactor, int maximumWorkFactor) {
+        this.minimumWorkFactor = minimumWorkFactor;
+        this.maximumWorkFactor = maximumWorkFactor;
+    }
+
+    /**
+     * Cria o encoder do algoritmo com o fator de trabalho informado
+     * @param workFactor fator de trabalho (bcrypt: log2 das rodadas, de 4 a 31; pbkdf2: iterações)
+     * @return PasswordEncoder do algoritmo
+     */
+    public abstract PasswordEncoder encoder(int workFactor);
+
+    // Fator estimado para que um hash leve até targetNanos, a partir do tempo medido com workFactor
+    abstract int scale(int workFactor, long nanos, long targetNanos);
+
+    /**
+     * Mede o tempo de hash nesta máquina e escolhe o maior fator de trabalho cujo hash leva até o tempo alvo,
+     * nunca abaixo do fator mínimo do algoritmo
+     * @param targetTime tempo alvo de um hash
+     * @return fator de trabalho calibrado
+     */
+    public int calibrate(Duration targetTime) {
+        PasswordEncoder encoder = encoder(minimumWorkFactor);
+        // A primeira execução inclui o aquecimento (JIT e inicialização dos providers) e é descartada
+        encoder.encode(CALIBRATION_PASSWORD);
+        long start = System.nanoTime();
+        encoder.encode(CALIBRATION_PASSWORD);
+        long nanos = System.nanoTime() - start;
+
+        int workFactor = scale(minimumWorkFactor, nanos, targetTime.toNanos());
+        log.info("(PasswordHashingAlgorithm.calibrate) {}: fator de trabalho {} para o alvo de {} ms ({} ms com o fator mínimo {})",
+                name(), workFactor, targetTime.toMillis(), nanos / 1_000_000, minimumWorkFactor);
+        return workFactor;
+    }
+
+    /**
+     * Cria o encoder que grava novos hashes com o algoritmo informado, prefixados com o id ("{bcrypt}", "{pbkdf2}"),
+     * e verifica hashes de qualquer algoritmo suportado. Hashes sem prefixo, gravados antes, são BCrypt.
+     * upgradeEncoding indica os hashes de outro algoritmo, sem prefixo ou com fator de trabalho menor que o atual
+     * @param algorithm algoritmo dos novos hashes
+     * @param workFactor fator de trabalho dos novos hashes
+     * @return PasswordEncoder delegante
+     */
+    public static PasswordEncoder delegatingEncoder(PasswordHashingAlgorithm algorithm, int workFactor) {
+        Map<PasswordHashingAlgorithm, PasswordEncoder> encoders = new EnumMap<>(PasswordHashingAlgorithm.class);
+        for (PasswordHashingAlgorithm candidate : values()) {
+            // O fator de trabalho de um hash existente vem do próprio hash; o dos demais algoritmos não importa
+            encoders.put(candidate, candidate == algorithm ? candidate.encoder(workFactor) : candidate.encoder(candidate.minimumWorkFactor));
+        }
+
+        Map<String, PasswordEncoder> encodersById = new HashMap<>();
+        encoders.forEach((candidate, encoder) -> encodersById.put(candidate.name(), encoder));
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm.name(), encodersById);
+        delegating.setDefaultPasswordEncoderForMatches(encoders.get(bcrypt));
+        return delegating;
+    }
+}
@@ -0,0 +1,82 @@
+package com.restaurantcontroller.restaurantcontroller.config;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * PBKDF2-HMAC-SHA256 com a quantidade de iterações gravada no próprio hash ("iterações$salt$hash", em base64).
+ * Diferente do Pbkdf2PasswordEncoder do Spring, que não guarda as iterações, o fator de trabalho pode
+ * ser alterado (ou recalibrado) sem invalidar os hashes existentes
+ */
+public class Pbkdf2Sha256PasswordEncoder implements PasswordEncoder {
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH_BITS = 256;
+
+    private final int iterations;
+    private final SecureRandom random = new SecureRandom();
+
+    public Pbkdf2Sha256PasswordEncoder(int iterations) {
+        if (iterations < 1)
+            throw new IllegalArgumentException("Quantidade de iterações do PBKDF2 deve ser positiva");
+        this.iterations = iterations;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        byte[] salt = new byte[SALT_LENGTH];
+        random.nextBytes(salt);
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return iterations + "$" + base64.encodeToString(salt) + "$" + base64.encodeToString(derive(rawPassword, salt, iterations));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Hash hash = Hash.parse(encodedPassword);
+        return hash != null && MessageDigest.isEqual(hash.value(), derive(rawPassword, hash.salt(), hash.iterations()));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        Hash hash = Hash.parse(encodedPassword);
+        return hash == null || hash.iterations() < iterations;
+    }
+
+    private static byte[] derive(CharSequence rawPassword, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(rawPassword.toString().toCharArray(), salt, iterations, HASH_LENGTH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("PBKDF2 indisponível: " + ex.getMessage(), ex);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private record Hash(int iterations, byte[] salt, byte[] value) {
+
+        // null se o hash não estiver no formato esperado
+        static Hash parse(String encodedPassword) {
+            if (encodedPassword == null)
+                return null;
+
+            String[] parts = encodedPassword.split("\\$");
+            if (parts.length != 3)
+                return null;
+
+            try {
+                int iterations = Integer.parseInt(parts[0]);
+                return iterations < 1 ? null : new Hash(iterations, Base64.getDecoder().decode(parts[1]), Base64.getDecoder().decode(parts[2]));
+            } catch (IllegalArgumentException ex) {
+                return null;
+            }
+        }
+    }
+}
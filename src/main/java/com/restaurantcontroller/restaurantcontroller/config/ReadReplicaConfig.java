@@ -0,0 +1,92 @@
+package com.restaurantcontroller.restaurantcontroller.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Separação de leitura e escrita entre o PostgreSQL primário e uma réplica de leitura.
+ * Ativada somente quando spring.datasource.replica.url é informada; sem ela a aplicação usa o DataSource
+ * único configurado pelo Spring Boot. Cada banco tem o seu pool Hikari (com métricas próprias)
+ */
+@Configuration
+@ConditionalOnExpression("!'${spring.datasource.replica.url:}'.isEmpty()")
+public class ReadReplicaConfig {
+
+    /**
+     * Pool do primário, configurado pelas propriedades spring.datasource.*
+     * @param properties propriedades do DataSource do Spring Boot
+     * @return Pool Hikari do primário
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Pool da réplica, configurado pelas propriedades spring.datasource.replica.*
+     * @return Pool Hikari da réplica
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${spring.datasource.replica.url}") String url,
+                                             @Value("${spring.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                             @Value("${spring.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        return DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+    }
+
+    /**
+     * Monitor do atraso da réplica
+     * @param lagQuery consulta que retorna o atraso da réplica em segundos
+     * @param maxLag atraso máximo tolerado para leituras na réplica
+     * @param checkInterval intervalo mínimo entre duas medições
+     * @return ReplicaLagMonitor
+     */
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               MeterRegistry meterRegistry,
+                                               @Value("${spring.datasource.replica.lag-query:" + ReplicaLagMonitor.POSTGRES_LAG_QUERY + "}") String lagQuery,
+                                               @Value("${spring.datasource.replica.max-lag:5s}") Duration maxLag,
+                                               @Value("${spring.datasource.replica.lag-check-interval:1s}") Duration checkInterval) {
+        return new ReplicaLagMonitor(replicaDataSource, lagQuery, maxLag, checkInterval, meterRegistry);
+    }
+
+    /**
+     * DataSource usado pela aplicação (JPA e JDBC): a conexão é obtida somente no primeiro comando
+     * e direcionada conforme a transação atual
+     * @param readYourWritesWindow tempo em que um cliente continua lendo do primário após uma escrita
+     * @param maxTrackedClients quantidade máxima de clientes com escrita recente em memória
+     * @return DataSource principal
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${spring.datasource.replica.read-your-writes-window:5s}") Duration readYourWritesWindow,
+                                 @Value("${spring.datasource.replica.max-tracked-clients:100000}") long maxTrackedClients) {
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource,
+                replicaLagMonitor, readYourWritesWindow, maxTrackedClients, meterRegistry);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,81 @@
+package com.restaurantcontroller.restaurantcontroller.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Acompanha o atraso (lag) da réplica de leitura em relação ao primário.
+ * A medição é feita em segundo plano, no máximo uma vez por intervalo, e nunca na thread da requisição;
+ * enquanto não houver medição recente dentro da tolerância, as leituras continuam no primário
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    // Lag em segundos; zero quando a réplica já aplicou todo o WAL recebido (primário ocioso)
+    public static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+            + " ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final String lagQuery;
+    private final long maxLagNanos;
+    private final long checkIntervalNanos;
+
+    // Último lag medido (ns) e instante da medição (System.nanoTime); -1 enquanto não houver medição válida
+    private volatile long lastLagNanos = -1;
+    private volatile long lastCheckNanos;
+
+    private final AtomicBoolean checking = new AtomicBoolean();
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, String lagQuery, Duration maxLag, Duration checkInterval, MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.lagQuery = lagQuery;
+        this.maxLagNanos = maxLag.toNanos();
+        this.checkIntervalNanos = checkInterval.toNanos();
+        this.lastCheckNanos = System.nanoTime() - checkIntervalNanos;
+
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lastLagNanos < 0 ? Double.NaN : monitor.lastLagNanos / 1e9)
+                .description("Último atraso medido da réplica de leitura")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Indica se a réplica pode atender leituras, disparando uma nova medição se a última estiver vencida
+     * @return true se o último lag medido está dentro da tolerância e a medição não está vencida
+     */
+    public boolean isWithinTolerance() {
+        long now = System.nanoTime();
+        long elapsed = now - lastCheckNanos;
+        if (elapsed >= checkIntervalNanos && checking.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("replica-lag-check").start(this::check);
+        }
+
+        // Medição antiga demais (réplica travada ou inacessível) não é confiável
+        long lag = lastLagNanos;
+        return lag >= 0 && lag + elapsed <= maxLagNanos + checkIntervalNanos && lag <= maxLagNanos;
+    }
+
+    /**
+     * Mede o lag da réplica imediatamente
+     */
+    void check() {
+        try {
+            Number lagSeconds = replicaJdbcTemplate.queryForObject(lagQuery, Number.class);
+            lastLagNanos = lagSeconds == null ? 0 : (long) (lagSeconds.doubleValue() * 1e9);
+        } catch (RuntimeException ex) {
+            lastLagNanos = -1;
+            log.warn("(ReplicaLagMonitor.check) Error: {}", ex.getMessage());
+        } finally {
+            lastCheckNanos = System.nanoTime();
+            checking.set(false);
+        }
+    }
+}
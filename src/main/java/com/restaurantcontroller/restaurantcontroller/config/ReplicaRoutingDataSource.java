@@ -0,0 +1,154 @@
+package com.restaurantcontroller.restaurantcontroller.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * DataSource que direciona as transações somente leitura (@Transactional(readOnly = true)) para a réplica
+ * e todo o restante para o primário. A leitura volta para o primário quando a réplica está atrasada além da
+ * tolerância ou quando o mesmo cliente escreveu há pouco tempo (read-your-writes). O cliente é o usuário
+ * autenticado ou, sem autenticação, o IP de origem (RequestClient): clientes anônimos no mesmo IP compartilham a janela.
+ * Deve ser envolvido por um LazyConnectionDataSourceProxy, para que a conexão seja obtida somente no primeiro
+ * comando, quando o tipo da transação já é conhecido
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Destinos possíveis de uma conexão
+     */
+    public enum Target {
+        PRIMARY("primary"),
+        REPLICA("replica");
+
+        private final String tag;
+
+        Target(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    // Leituras que devem ser feitas no primário mesmo em transações somente leitura
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    // Clientes que escreveram dentro da janela de read-your-writes
+    private final Cache<String, Boolean> recentWriters;
+
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+    private final Counter replicaFallbacks;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                    Duration readYourWritesWindow, long maxTrackedClients, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxTrackedClients)
+                .expireAfterWrite(readYourWritesWindow)
+                .build();
+
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+
+        this.primaryConnections = routingCounter(Target.PRIMARY, meterRegistry);
+        this.replicaConnections = routingCounter(Target.REPLICA, meterRegistry);
+        this.replicaFallbacks = Counter.builder("datasource.replica.fallbacks")
+                .description("Leituras somente leitura atendidas pelo primário (réplica atrasada ou read-your-writes)")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            primaryConnections.increment();
+            return Target.PRIMARY;
+        }
+
+        String client = RequestClient.current().orElse(null);
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (client != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                // O cliente passa a ler do primário somente após o commit efetivo da escrita
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recentWriters.put(client, Boolean.TRUE);
+                    }
+                });
+            }
+            primaryConnections.increment();
+            return Target.PRIMARY;
+        }
+
+        if (Boolean.TRUE.equals(PRIMARY_READS.get())) {
+            primaryConnections.increment();
+            return Target.PRIMARY;
+        }
+
+        if ((client != null && recentWriters.getIfPresent(client) != null) || !lagMonitor.isWithinTolerance()) {
+            replicaFallbacks.increment();
+            primaryConnections.increment();
+            return Target.PRIMARY;
+        }
+
+        replicaConnections.increment();
+        return Target.REPLICA;
+    }
+
+    /**
+     * Executa uma leitura no primário, mesmo dentro de uma transação somente leitura. Usado pelas leituras cujo
+     * resultado é compartilhado além da requisição (ex.: carga do cache): uma linha lida da réplica atrasada
+     * ficaria no cache por todo o TTL. Como a conexão é obtida somente no primeiro comando, a leitura deve ser
+     * o primeiro acesso ao banco da transação
+     * @param read Leitura a ser executada
+     * @return Resultado da leitura
+     */
+    public static <T> T readFromPrimary(Supplier<T> read) {
+        Boolean previous = PRIMARY_READS.get();
+        PRIMARY_READS.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_READS.remove();
+            } else {
+                PRIMARY_READS.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Executa uma leitura no primário em uma nova transação somente leitura, suspendendo a atual. Usado quando
+     * a transação atual já pode ter obtido a sua conexão (ex.: uma consulta de versão atendida pela réplica)
+     * e somente a leitura seguinte precisa do primário
+     * @param transactionManager Gerenciador de transações da aplicação
+     * @param read Leitura a ser executada
+     * @return Resultado da leitura
+     */
+    public static <T> T readFromPrimaryInNewTransaction(PlatformTransactionManager transactionManager, Supplier<T> read) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.setReadOnly(true);
+        return readFromPrimary(() -> transaction.execute(status -> read.get()));
+    }
+
+    private static Counter routingCounter(Target target, MeterRegistry meterRegistry) {
+        return Counter.builder("datasource.routing")
+                .description("Conexões obtidas por destino (primário ou réplica)")
+                .tag("target", target.tag)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,38 @@
+package com.restaurantcontroller.restaurantcontroller.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+
+/**
+ * Identificação do cliente da requisição atual, usada como escopo por cliente (read-your-writes na réplica,
+ * chaves de idempotência)
+ */
+public final class RequestClient {
+
+    private RequestClient() {}
+
+    /**
+     * Identifica o cliente da requisição atual: usuário autenticado ou, na falta dele, o IP de origem
+     * @return "user:&lt;username&gt;" ou "ip:&lt;endereço&gt;", ou vazio fora de uma requisição HTTP
+     */
+    public static Optional<String> current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return Optional.of("user:" + authentication.getName());
+        }
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            return Optional.of("ip:" + request.getRemoteAddr());
+        }
+        return Optional.empty();
+    }
+}
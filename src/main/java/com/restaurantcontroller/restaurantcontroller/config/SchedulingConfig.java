@@ -0,0 +1,12 @@
+package com.restaurantcontroller.restaurantcontroller.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas agendadas (@Scheduled), executadas pelo agendador configurado pelo Spring Boot
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,5 +1,9 @@
 package com.restaurantcontroller.restaurantcontroller.config;
 
+import com.restaurantcontroller.restaurantcontroller.model.EProfile;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -7,21 +11,60 @@ import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
     /**
-     * Configura o PasswordEncoder para criptografia de senhas
-     * @return BCryptPasswordEncoder bean
+     * Pool de CPU dedicado ao hashing de senhas, com fila limitada.
+     * Por padrão usa uma thread a menos que o número de núcleos (mínimo 1), já que o hashing não faz I/O
+     * e um núcleo fica livre para as demais requisições
+     * @param threads quantidade de threads (0 = número de processadores menos 1)
+     * @param queueCapacity quantidade máxima de operações aguardando na fila
+     * @param meterRegistry registro de métricas do pool
+     * @return ExecutorService do hashing de senhas
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService passwordHashingExecutor(@Value("${security.password-hashing.threads:0}") int threads,
+                                                   @Value("${security.password-hashing.queue-capacity:100}") int queueCapacity,
+                                                   MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hashing-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "password.hashing");
+    }
+
+    /**
+     * Configura o PasswordEncoder para criptografia de senhas, executado no pool de hashing.
+     * Novos hashes usam o algoritmo e o fator de trabalho configurados; hashes existentes de qualquer
+     * algoritmo suportado continuam válidos e são refeitos no próximo login (PasswordRehashService)
+     * @param passwordHashingExecutor pool de CPU do hashing
+     * @param timeout tempo máximo de espera por um encode/matches (incluindo a fila)
+     * @param algorithm algoritmo dos novos hashes
+     * @param workFactor fator de trabalho (0 = calibrado na subida para o tempo alvo)
+     * @param targetTime tempo alvo de um hash na calibração
+     * @return PasswordEncoder bean
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(ExecutorService passwordHashingExecutor,
+                                           @Value("${security.password-hashing.timeout:5s}") Duration timeout,
+                                           @Value("${security.password-hashing.algorithm:bcrypt}") PasswordHashingAlgorithm algorithm,
+                                           @Value("${security.password-hashing.work-factor:0}") int workFactor,
+                                           @Value("${security.password-hashing.target-time:100ms}") Duration targetTime) {
+        int effectiveWorkFactor = workFactor > 0 ? workFactor : algorithm.calibrate(targetTime);
+        return new OffloadingPasswordEncoder(PasswordHashingAlgorithm.delegatingEncoder(algorithm, effectiveWorkFactor),
+                passwordHashingExecutor, timeout);
     }
 
     /**
@@ -37,6 +80,7 @@ public class SecurityConfig {
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers(
                     "/ping",
+                    "/actuator/health",
                     "/v3/api-docs/**",
                     "/swagger-ui/**",
                     "/swagger-ui.html",
@@ -46,9 +90,13 @@ public class SecurityConfig {
                         "/addresses/**",
                         "/users/**"
                 ).permitAll()
+                // Métricas completas (inclui nomes de caches, pools e endpoints): somente para administradores
+                .requestMatchers("/actuator/prometheus").hasRole(EProfile.admin.name())
                 .anyRequest().authenticated()
             )
-            .httpBasic(Customizer.withDefaults())
+            // Autenticação stateless por token JWT (validado em memória, sem BCrypt por requisição)
+            .oauth2ResourceServer(oauth2 -> oauth2.jwt(Customizer.withDefaults()))
+            .httpBasic(AbstractHttpConfigurer::disable)
             .formLogin(AbstractHttpConfigurer::disable)
             .sessionManagement(session -> session.sessionCreationPolicy(org.springframework.security.config.http.SessionCreationPolicy.STATELESS)
             );
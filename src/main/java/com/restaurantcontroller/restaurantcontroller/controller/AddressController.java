@@ -1,13 +1,26 @@
 package com.restaurantcontroller.restaurantcontroller.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.restaurantcontroller.restaurantcontroller.dto.AddressDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.VersionedDTO;
+import com.restaurantcontroller.restaurantcontroller.exception.PreconditionFailedException;
+import com.restaurantcontroller.restaurantcontroller.mapper.JsonMergePatchMapper;
 import com.restaurantcontroller.restaurantcontroller.service.AddressService;
+import com.restaurantcontroller.restaurantcontroller.service.IdempotencyService;
+import com.restaurantcontroller.restaurantcontroller.service.OptimisticLockRetry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Optional;
 
@@ -16,39 +29,85 @@ import java.util.Optional;
 @Tag(name = "3. Endereços", description = "Operações de gerenciamento de endereços")
 public class AddressController {
 
+    private static final Logger log = LoggerFactory.getLogger(AddressController.class);
+
     @Autowired
     private AddressService addressService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private OptimisticLockRetry optimisticLockRetry;
+
     @GetMapping("/user/{userId}")
-    @Operation(summary = "Buscar endereço por ID do usuário", description = "Retorna o endereço de um usuário específico pelo ID do usuário")
-    public ResponseEntity<AddressDTO> getAddressByUserId(@PathVariable Long userId) {
+    @Operation(summary = "Buscar endereço por ID do usuário", description = "Retorna o endereço de um usuário específico pelo ID do usuário, com ETag. Envie o ETag em 'If-None-Match' para receber 304 Not Modified quando não houver alteração")
+    public ResponseEntity<AddressDTO> getAddressByUserId(@PathVariable Long userId, WebRequest request) {
         try {
-            Optional<AddressDTO> address = addressService.getAddressByUserId(userId);
-            return address.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+            // A versão é consultada antes do corpo (ver UserController.getUserById)
+            Optional<String> eTag = addressService.getAddressETag(userId);
+            if (eTag.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+
+            // Responde 304 sem consultar o cache nem carregar ou serializar o endereço
+            if (request.checkNotModified(eTag.get())) {
+                return null;
+            }
+
+            Optional<VersionedDTO<AddressDTO>> address = addressService.getVersionedAddressByUserId(userId, eTag.get());
+            return address.map(body -> ResponseEntity.ok().eTag(eTag.get()).cacheControl(CacheControl.noCache()).body(body.getBody()))
+                    .orElse(ResponseEntity.notFound().build());
         } catch (IllegalArgumentException e) {
-            System.err.println("(AddressController.getAddressByUserId) Error: " + e.getMessage());
+            log.warn("(AddressController.getAddressByUserId) Error: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
-            System.err.println("(AddressController.getAddressByUserId) Error: " + e.getMessage());
+            log.error("(AddressController.getAddressByUserId) Error: {}", e.getMessage());
             return ResponseEntity.internalServerError().build();
         }
     }
 
     @PutMapping("/user/{userId}")
-    @Operation(summary = "Atualizar endereço do usuário", description = "Atualiza o endereço de um usuário existente")
-    public ResponseEntity<AddressDTO> updateAddressByUserId(@PathVariable Long userId, @Valid @RequestBody AddressDTO addressDTO) {
+    @Operation(summary = "Atualizar endereço do usuário", description = "Atualiza o endereço de um usuário existente. Com 'If-Match', a atualização só é feita se o ETag ainda for o atual (senão 412 Precondition Failed); uma escrita concorrente recebe 409 Conflict. Com 'Idempotency-Key', repetições com a mesma chave recebem a resposta da primeira atualização")
+    public ResponseEntity<AddressDTO> updateAddressByUserId(@PathVariable Long userId, @Valid @RequestBody AddressDTO addressDTO,
+                                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "PUT /addresses/user/" + userId, addressDTO, () -> {
+            try {
+                // O PUT substitui todos os campos: um conflito de versão não é repetido e vira 409
+                VersionedDTO<AddressDTO> updatedAddress = addressService.updateAddressByUserId(userId, addressDTO, ifMatch);
+                return ResponseEntity.ok().eTag(updatedAddress.getETag()).body(updatedAddress.getBody());
+            } catch (IllegalArgumentException e) {
+                log.warn("(AddressController.updateAddressByUserId) Error: {}", e.getMessage());
+                if (e.getMessage().contains("não encontrado")) {
+                    return ResponseEntity.notFound().build();
+                }
+                return ResponseEntity.badRequest().build();
+            } catch (OptimisticLockingFailureException | PreconditionFailedException e) {
+                // Tratado pelo GlobalExceptionHandler (409 / 412)
+                throw e;
+            } catch (RuntimeException e) {
+                log.error("(AddressController.updateAddressByUserId) Error: {}", e.getMessage());
+                return ResponseEntity.internalServerError().build();
+            }
+        });
+    }
+
+    @PatchMapping(value = "/user/{userId}", consumes = {JsonMergePatchMapper.MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Atualizar endereço do usuário parcialmente", description = "Aplica um JSON Merge Patch (RFC 7386) ao endereço: apenas os campos enviados são alterados e um patch sem alterações não gera escrita. Com 'If-Match', a atualização só é feita se o ETag ainda for o atual (senão 412 Precondition Failed)")
+    public ResponseEntity<AddressDTO> patchAddressByUserId(@PathVariable Long userId, @RequestBody JsonNode patch,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            AddressDTO updatedAddress = addressService.updateAddressByUserId(userId, addressDTO);
-            return ResponseEntity.ok(updatedAddress);
+            // Sem If-Match o merge patch é reaplicado sobre o estado atual em caso de conflito de versão
+            VersionedDTO<AddressDTO> patchedAddress = ifMatch != null ? addressService.patchAddressByUserId(userId, patch, ifMatch)
+                    : optimisticLockRetry.execute(() -> addressService.patchAddressByUserId(userId, patch, null));
+            return ResponseEntity.ok().eTag(patchedAddress.getETag()).body(patchedAddress.getBody());
         } catch (IllegalArgumentException e) {
-            System.err.println("(AddressController.updateAddressByUserId) Error: " + e.getMessage());
+            log.warn("(AddressController.patchAddressByUserId) Error: {}", e.getMessage());
             if (e.getMessage().contains("não encontrado")) {
                 return ResponseEntity.notFound().build();
             }
             return ResponseEntity.badRequest().build();
-        } catch (RuntimeException e) {
-            System.err.println("(AddressController.updateAddressByUserId) Error: " + e.getMessage());
-            return ResponseEntity.internalServerError().build();
         }
     }
     
@@ -2,6 +2,8 @@ package com.restaurantcontroller.restaurantcontroller.controller;
 
 import com.restaurantcontroller.restaurantcontroller.dto.PingDTO;
 import com.restaurantcontroller.restaurantcontroller.service.PingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +18,8 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "1. Health Check", description = "Operações de verificação de saúde do serviço")
 public class PingController {
 
+    private static final Logger log = LoggerFactory.getLogger(PingController.class);
+
     @Autowired
     private PingService pingService;
     
@@ -26,7 +30,7 @@ public class PingController {
             PingDTO reponse = pingService.getPing();
             return ResponseEntity.status(HttpStatus.OK).body(reponse);
         } catch (RuntimeException e) {
-            System.err.println("(PingController.ping) Error: " + e.getMessage());
+            log.error("(PingController.ping) Error: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
@@ -1,61 +1,209 @@
 package com.restaurantcontroller.restaurantcontroller.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.restaurantcontroller.restaurantcontroller.dto.BatchImportResultDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.ChangeFeedPageDTO;
 import com.restaurantcontroller.restaurantcontroller.dto.NewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.PageResponseDTO;
 import com.restaurantcontroller.restaurantcontroller.dto.ResponseNewUserDTO;
 import com.restaurantcontroller.restaurantcontroller.dto.UpdateUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.VersionedDTO;
+import com.restaurantcontroller.restaurantcontroller.mapper.JsonMergePatchMapper;
+import com.restaurantcontroller.restaurantcontroller.mapper.UserExportMapper;
+import com.restaurantcontroller.restaurantcontroller.service.ChangeFeedService;
+import com.restaurantcontroller.restaurantcontroller.service.ChangeFeedStreamer;
+import com.restaurantcontroller.restaurantcontroller.service.IdempotencyService;
+import com.restaurantcontroller.restaurantcontroller.service.OptimisticLockRetry;
+import com.restaurantcontroller.restaurantcontroller.service.UserBatchService;
 import com.restaurantcontroller.restaurantcontroller.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/users")
 @Tag(name = "2. Usuários", description = "Operações de gerenciamento de usuários")
 public class UserController {
+
+    // Buffer do compressor gzip da exportação
+    private static final int EXPORT_GZIP_BUFFER_SIZE = 8192;
     
     @Autowired
     private UserService userService;
+
+    @Autowired
+    private UserBatchService userBatchService;
+
+    @Autowired
+    private UserExportMapper userExportMapper;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private ChangeFeedStreamer changeFeedStreamer;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private OptimisticLockRetry optimisticLockRetry;
     
     @PostMapping
-    @Operation(summary = "Criar usuário", description = "Cria um novo usuário com todos os dados (dados pessoais, endereço e credenciais)")
-    public ResponseEntity<ResponseNewUserDTO> createUser(@Valid @RequestBody NewUserDTO newUsertDTO) {
-        ResponseNewUserDTO createdUser = userService.createUser(newUsertDTO);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
+    @Operation(summary = "Criar usuário", description = "Cria um novo usuário com todos os dados (dados pessoais, endereço e credenciais). Com 'Idempotency-Key', repetições com a mesma chave recebem a resposta da primeira criação sem criar o usuário de novo")
+    public ResponseEntity<ResponseNewUserDTO> createUser(@Valid @RequestBody NewUserDTO newUsertDTO,
+                                                         @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "POST /users", newUsertDTO, () -> {
+            ResponseNewUserDTO createdUser = userService.createUser(newUsertDTO);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
+        });
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Criar usuários em lote", description = "Cria até 1000 usuários de uma vez, retornando o resultado de cada linha sem interromper o lote em caso de erro")
+    public ResponseEntity<BatchImportResultDTO> createUsers(@RequestBody List<NewUserDTO> users) {
+        BatchImportResultDTO result = userBatchService.importUsers(users);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Criar usuários em lote (NDJSON)", description = "Cria usuários a partir de um fluxo NDJSON (um usuário por linha), processado em trechos sem carregar o lote inteiro em memória. Linhas com JSON inválido são reportadas como erro da linha, sem interromper o lote")
+    public ResponseEntity<BatchImportResultDTO> createUsersFromNdjson(HttpServletRequest request) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+            BatchImportResultDTO result = userBatchService.importUsersFromNdjson(reader);
+            return ResponseEntity.ok(result);
+        }
     }
 
     @GetMapping
-    @Operation(summary = "Listar usuários", description = "Retorna todos os usuários cadastrados")
-    public ResponseEntity<List<ResponseNewUserDTO>> getAllUsers() {
-        List<ResponseNewUserDTO> users = userService.getAllUsers();
+    @Operation(summary = "Listar usuários", description = "Retorna os usuários paginados por cursor (keyset). Informe 'page' para usar a paginação legada por offset")
+    public ResponseEntity<PageResponseDTO<ResponseNewUserDTO>> getAllUsers(@RequestParam(required = false) String cursor,
+                                                                           @RequestParam(required = false) Integer size,
+                                                                           @RequestParam(required = false) Integer page) {
+        if (page != null) {
+            return ResponseEntity.ok(userService.getUsersPageByOffset(page, size));
+        }
+
+        PageResponseDTO<ResponseNewUserDTO> users = userService.getUsersPage(cursor, size);
         return ResponseEntity.ok(users);
     }
     
+    @GetMapping("/export")
+    @Operation(summary = "Exportar usuários", description = "Exporta todos os usuários (com endereço e username) em NDJSON ou CSV ('format'), enviados à medida que são lidos do banco, com uso de memória constante. Com 'Accept-Encoding: gzip', a resposta é compactada durante o envio")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format,
+                                                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        UserExportMapper.Format exportFormat = UserExportMapper.Format.of(format);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            // syncFlush: cada flush do escritor também envia o que já foi compactado
+            OutputStream target = gzip ? new GZIPOutputStream(out, EXPORT_GZIP_BUFFER_SIZE, true) : out;
+            try (UserExportMapper.RowWriter writer = userExportMapper.writer(exportFormat, target)) {
+                userService.exportUsers(writer::write);
+            }
+            if (target instanceof GZIPOutputStream gzipOut) {
+                gzipOut.finish();
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, exportFormat.getContentType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("users." + exportFormat.getExtension()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @GetMapping("/changes")
+    @Operation(summary = "Feed de alterações de usuários", description = "Retorna, em ordem, os usuários criados ou alterados (upsert, com o estado atual) e excluídos (delete) após o cursor 'since'. Sem 'since' o feed começa do início; com 'since=now' retorna apenas o cursor da posição atual. Use 'nextCursor' na próxima consulta")
+    public ResponseEntity<ChangeFeedPageDTO> getChanges(@RequestParam(required = false) String since,
+                                                        @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(changeFeedService.getChanges(since, limit));
+    }
+
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Feed de alterações de usuários (SSE)", description = "Envia as alterações após o cursor 'since' e, em seguida, as novas alterações em tempo real via Server-Sent Events (eventos 'upsert' e 'delete'). Na reconexão, o header 'Last-Event-ID' retoma a partir do último evento recebido")
+    public SseEmitter streamChanges(@RequestParam(required = false) String since,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return changeFeedStreamer.subscribe(lastEventId != null && !lastEventId.isBlank() ? lastEventId : since);
+    }
+
     @GetMapping("/{id}")
-    @Operation(summary = "Buscar usuário por ID", description = "Retorna um usuário específico pelo ID")
-    public ResponseEntity<ResponseNewUserDTO> getUserById(@PathVariable Long id) {
-        Optional<ResponseNewUserDTO> user = userService.getUserById(id);
-        return user.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    @Operation(summary = "Buscar usuário por ID", description = "Retorna um usuário específico pelo ID, com ETag. Envie o ETag em 'If-None-Match' para receber 304 Not Modified quando não houver alteração")
+    public ResponseEntity<ResponseNewUserDTO> getUserById(@PathVariable Long id, WebRequest request) {
+        // A versão é consultada antes do corpo: se houver uma escrita entre as duas leituras,
+        // o corpo enviado é mais novo que o ETag e a próxima consulta apenas recebe 200
+        Optional<String> eTag = userService.getUserETag(id);
+        if (eTag.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // Responde 304 sem consultar o cache nem carregar ou serializar o usuário
+        if (request.checkNotModified(eTag.get())) {
+            return null;
+        }
+
+        Optional<VersionedDTO<ResponseNewUserDTO>> user = userService.getVersionedUserById(id, eTag.get());
+        return user.map(body -> ResponseEntity.ok().eTag(eTag.get()).cacheControl(CacheControl.noCache()).body(body.getBody()))
+                .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/search")
-    @Operation(summary = "Buscar usuários por nome", description = "Retorna uma lista de usuários cujo nome contém o termo buscado (busca parcial, case insensitive)")
-    public ResponseEntity<List<ResponseNewUserDTO>> searchUsersByName(@RequestParam String name) {
-        List<ResponseNewUserDTO> users = userService.searchUsersByName(name);
+    @Operation(summary = "Buscar usuários por nome", description = "Retorna uma página de usuários cujo nome corresponde ao termo buscado (busca parcial, sem distinção de maiúsculas e acentos), ordenada por relevância")
+    public ResponseEntity<PageResponseDTO<ResponseNewUserDTO>> searchUsersByName(@RequestParam String name,
+                                                                                 @RequestParam(required = false) Integer page,
+                                                                                 @RequestParam(required = false) Integer size) {
+        PageResponseDTO<ResponseNewUserDTO> users = userService.searchUsersByName(name, page, size);
         return ResponseEntity.ok(users);
     }
     
     @PutMapping("/{id}")
-    @Operation(summary = "Atualizar usuário", description = "Atualiza um usuário existente (não altera credenciais)")
-    public ResponseEntity<ResponseNewUserDTO> updateUser(@PathVariable Long id, @Valid @RequestBody UpdateUserDTO updateUserDTO) {
-        ResponseNewUserDTO updatedUser = userService.updateUser(id, updateUserDTO);
-        return ResponseEntity.ok(updatedUser);
+    @Operation(summary = "Atualizar usuário", description = "Atualiza um usuário existente (não altera credenciais). Com 'If-Match', a atualização só é feita se o ETag ainda for o atual (senão 412 Precondition Failed); uma escrita concorrente recebe 409 Conflict. Com 'Idempotency-Key', repetições com a mesma chave recebem a resposta da primeira atualização")
+    public ResponseEntity<ResponseNewUserDTO> updateUser(@PathVariable Long id, @Valid @RequestBody UpdateUserDTO updateUserDTO,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                         @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "PUT /users/" + id, updateUserDTO, () -> {
+            // O PUT substitui todos os campos: um conflito de versão não é repetido (seria sobrescrever a escrita
+            // concorrente) e vira 409; o If-Match é verificado na mesma transação da escrita
+            VersionedDTO<ResponseNewUserDTO> updatedUser = userService.updateUser(id, updateUserDTO, ifMatch);
+            return ResponseEntity.ok().eTag(updatedUser.getETag()).body(updatedUser.getBody());
+        });
+    }
+    
+    @PatchMapping(value = "/{id}", consumes = {JsonMergePatchMapper.MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Atualizar usuário parcialmente", description = "Aplica um JSON Merge Patch (RFC 7386) ao usuário: apenas os campos enviados são alterados e um patch sem alterações não gera escrita. Com 'If-Match', a atualização só é feita se o ETag ainda for o atual (senão 412 Precondition Failed)")
+    public ResponseEntity<ResponseNewUserDTO> patchUser(@PathVariable Long id, @RequestBody JsonNode patch,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        // Sem If-Match o merge patch é reaplicado sobre o estado atual em caso de conflito de versão
+        // (só altera os campos enviados); com If-Match o conflito vira 412 ou 409
+        VersionedDTO<ResponseNewUserDTO> patchedUser = ifMatch != null ? userService.patchUser(id, patch, ifMatch)
+                : optimisticLockRetry.execute(() -> userService.patchUser(id, patch, null));
+        return ResponseEntity.ok().eTag(patchedUser.getETag()).body(patchedUser.getBody());
     }
     
     @DeleteMapping("/{id}")
@@ -65,4 +213,11 @@ public class UserController {
         return deletedUser.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
+    @DeleteMapping
+    @Operation(summary = "Deletar usuários em lote", description = "Deleta até 1000 usuários de uma vez (ex.: /users?ids=1,2,3) e retorna os dados dos usuários deletados")
+    public ResponseEntity<List<ResponseNewUserDTO>> deleteUsers(@RequestParam List<Long> ids) {
+        List<ResponseNewUserDTO> deletedUsers = userService.deleteUsers(ids);
+        return ResponseEntity.ok(deletedUsers);
+    }
+
 }
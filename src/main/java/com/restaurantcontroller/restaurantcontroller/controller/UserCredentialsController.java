@@ -2,13 +2,24 @@ package com.restaurantcontroller.restaurantcontroller.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
+import com.restaurantcontroller.restaurantcontroller.service.LoginRateLimiter;
+import com.restaurantcontroller.restaurantcontroller.service.PasswordRehashService;
+import com.restaurantcontroller.restaurantcontroller.service.TokenService;
 import com.restaurantcontroller.restaurantcontroller.service.UserCredentialsService;
 import org.springframework.http.ResponseEntity;
 import com.restaurantcontroller.restaurantcontroller.dto.UpdateUsernameDTO;
 import com.restaurantcontroller.restaurantcontroller.dto.UpdatePasswordDTO;
 import com.restaurantcontroller.restaurantcontroller.dto.LoginRequestDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.LoginResponseDTO;
+import com.restaurantcontroller.restaurantcontroller.exception.LoginRateLimitedException;
+import com.restaurantcontroller.restaurantcontroller.exception.PasswordHashingUnavailableException;
+import com.restaurantcontroller.restaurantcontroller.exception.UsernameAlreadyExistsException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import java.util.Optional;
@@ -17,13 +28,22 @@ import java.util.Optional;
 @RequestMapping("/credentials")
 @Tag(name = "4. Credenciais", description = "Operações de gerenciamento de credenciais de usuários")
 public class UserCredentialsController {
+
+    private static final Logger log = LoggerFactory.getLogger(UserCredentialsController.class);
     
     private final UserCredentialsService userCredentialsService;
     private final PasswordEncoder passwordEncoder;
+    private final TokenService tokenService;
+    private final LoginRateLimiter loginRateLimiter;
+    private final PasswordRehashService passwordRehashService;
 
-    public UserCredentialsController(UserCredentialsService userCredentialsService, PasswordEncoder passwordEncoder) {
+    public UserCredentialsController(UserCredentialsService userCredentialsService, PasswordEncoder passwordEncoder, TokenService tokenService,
+                                     LoginRateLimiter loginRateLimiter, PasswordRehashService passwordRehashService) {
         this.userCredentialsService = userCredentialsService;
         this.passwordEncoder = passwordEncoder;
+        this.tokenService = tokenService;
+        this.loginRateLimiter = loginRateLimiter;
+        this.passwordRehashService = passwordRehashService;
     }
 
     /**
@@ -33,16 +53,18 @@ public class UserCredentialsController {
      * @return ResponseEntity com a mensagem de sucesso ou erro
      */
     @PutMapping("/{id}/username")
-    @Operation(summary = "Atualizar username", description = "Atualiza o username de um usuário")
+    @Operation(summary = "Atualizar username", description = "Atualiza o username de um usuário (409 Conflict se o username já estiver em uso)")
     public ResponseEntity<String> updateUserName(@PathVariable Long id, @RequestBody @Valid UpdateUsernameDTO body) {
         try {
             userCredentialsService.updateUsername(id, body.getUsername());
             return ResponseEntity.ok(String.format("Username (%s) atualizado com sucesso!", body.getUsername()));
+        } catch (UsernameAlreadyExistsException | OptimisticLockingFailureException e) {
+            throw e;
         } catch (IllegalArgumentException e) {
-            System.err.println("(UserCredentialsController.updateUserName) Error: " + e.getMessage());
+            log.warn("(UserCredentialsController.updateUserName) Error: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
-            System.err.println("(UserCredentialsController.updateUserName) Error: " + e.getMessage());
+            log.error("(UserCredentialsController.updateUserName) Error: {}", e.getMessage());
             if (e.getMessage() != null && e.getMessage().contains("não encontradas")) {
                 return ResponseEntity.notFound().build();
             }
@@ -61,11 +83,13 @@ public class UserCredentialsController {
         try {
             userCredentialsService.updatePassword(id, body.getPassword());
             return ResponseEntity.ok("Password atualizada com sucesso!");
+        } catch (PasswordHashingUnavailableException | OptimisticLockingFailureException e) {
+            throw e;
         } catch (IllegalArgumentException e) {
-            System.err.println("(UserCredentialsController.updatePassword) Error: " + e.getMessage());
+            log.warn("(UserCredentialsController.updatePassword) Error: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
-            System.err.println("(UserCredentialsController.updatePassword) Error: " + e.getMessage());
+            log.error("(UserCredentialsController.updatePassword) Error: {}", e.getMessage());
             if (e.getMessage() != null && e.getMessage().contains("não encontradas")) {
                 return ResponseEntity.notFound().build();
             }
@@ -74,23 +98,32 @@ public class UserCredentialsController {
     }
 
     /**
-     * Realiza o login de um usuário
+     * Realiza o login de um usuário e emite um token de acesso de curta duração
      * @param loginRequest Objeto contendo username e password
-     * @return ResponseEntity com a mensagem de sucesso ou erro
+     * @param request Requisição HTTP, usada para obter o IP do cliente
+     * @return ResponseEntity com o token de acesso ou erro
+     * @throws LoginRateLimitedException se o username ou o IP excederem o limite de tentativas (429)
      */
     @PostMapping("/login")
-    @Operation(summary = "Login", description = "Verifica se as credenciais de login são válidas")
-    public ResponseEntity<String> login(@RequestBody @Valid LoginRequestDTO loginRequest) {
+    @Operation(summary = "Login", description = "Verifica as credenciais e retorna um token de acesso (JWT) a ser enviado como 'Authorization: Bearer <token>'. Tentativas em excesso por username ou IP recebem 429 Too Many Requests com 'Retry-After'. Senhas com hash desatualizado são regravadas em segundo plano")
+    public ResponseEntity<LoginResponseDTO> login(@RequestBody @Valid LoginRequestDTO loginRequest, HttpServletRequest request) {
+        // Rejeita o excesso de tentativas antes da consulta ao banco e do BCrypt
+        loginRateLimiter.acquire(loginRequest.getUsername(), request.getRemoteAddr());
+
         try {
-            var userOpt = userCredentialsService.findByUsername(loginRequest.getUsername());
+            var userOpt = userCredentialsService.findUserByUsername(loginRequest.getUsername());
 
-            if (userOpt.isPresent() && passwordEncoder.matches(loginRequest.getPassword(), userOpt.get().getPassword())) {
-                return ResponseEntity.ok("Login realizado com sucesso!");
+            if (userOpt.isPresent() && passwordEncoder.matches(loginRequest.getPassword(), userOpt.get().getUserCredentials().getPassword())) {
+                // Hash de outro algoritmo ou com fator de trabalho menor: regravado em segundo plano
+                passwordRehashService.rehashIfNeeded(userOpt.get().getUserCredentials(), loginRequest.getPassword());
+                return ResponseEntity.ok(tokenService.issueToken(userOpt.get()));
             } else {
-                return ResponseEntity.status(401).body("Credenciais inválidas");
+                return ResponseEntity.status(401).body(new LoginResponseDTO("Credenciais inválidas", null, null, 0));
             }
+        } catch (PasswordHashingUnavailableException e) {
+            throw e;
         } catch (Exception e) {
-            System.err.println("(UserCredentialsController.login) Error: " + e.getMessage());
+            log.error("(UserCredentialsController.login) Error: {}", e.getMessage());
             return ResponseEntity.internalServerError().build();
         }
     }
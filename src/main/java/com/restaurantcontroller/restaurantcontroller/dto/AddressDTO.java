@@ -7,7 +7,7 @@ public class AddressDTO {
     
     @NotBlank(message = "Rua não pode ser nula ou vazia")
     @Size(max = 255, message = "Rua não pode exceder 255 caracteres")
-    @Pattern(regexp = "^[a-zA-Z0-9\\s\\.\\-áàâãéêíóôõúçÁÀÂÃÉÊÍÓÔÕÚÇ]+$", message = "Rua pode conter apenas caracteres alfanuméricos, espaços, pontos, hífens, acentuações e ç")
+    @Pattern(regexp = ValidationPatterns.ALPHANUMERIC, message = "Rua pode conter apenas caracteres alfanuméricos, espaços, pontos, hífens, acentuações e ç")
     private String street;
 
     @NotNull(message = "Número não pode ser nulo")
@@ -16,31 +16,31 @@ public class AddressDTO {
 
     @NotBlank(message = "Complemento não pode ser nulo ou vazio")
     @Size(max = 50, message = "Complemento não pode exceder 50 caracteres")
-    @Pattern(regexp = "^[a-zA-Z0-9\\s\\.\\-áàâãéêíóôõúçÁÀÂÃÉÊÍÓÔÕÚÇ]+$", message = "Complemento pode conter apenas caracteres alfanuméricos, espaços, pontos, hífens, acentuações e ç")
+    @Pattern(regexp = ValidationPatterns.ALPHANUMERIC, message = "Complemento pode conter apenas caracteres alfanuméricos, espaços, pontos, hífens, acentuações e ç")
     private String complement;
 
     @NotBlank(message = "Bairro não pode ser nulo ou vazio")
     @Size(max = 50, message = "Bairro não pode exceder 50 caracteres")
-    @Pattern(regexp = "^[a-zA-Z0-9\\s\\.\\-áàâãéêíóôõúçÁÀÂÃÉÊÍÓÔÕÚÇ]+$", message = "Bairro pode conter apenas caracteres alfanuméricos, espaços, pontos, hífens, acentuações e ç")
+    @Pattern(regexp = ValidationPatterns.ALPHANUMERIC, message = "Bairro pode conter apenas caracteres alfanuméricos, espaços, pontos, hífens, acentuações e ç")
     private String neighborhood;
 
     @NotBlank(message = "Cidade não pode ser nula ou vazia")
     @Size(max = 50, message = "Cidade não pode exceder 50 caracteres")
-    @Pattern(regexp = "^[a-zA-Z0-9\\s\\.\\-áàâãéêíóôõúçÁÀÂÃÉÊÍÓÔÕÚÇ]+$", message = "Cidade pode conter apenas caracteres alfanuméricos, espaços, pontos, hífens, acentuações e ç")
+    @Pattern(regexp = ValidationPatterns.ALPHANUMERIC, message = "Cidade pode conter apenas caracteres alfanuméricos, espaços, pontos, hífens, acentuações e ç")
     private String city;
 
     @NotBlank(message = "Estado não pode ser nulo ou vazio")
     @Size(max = 50, message = "Estado não pode exceder 50 caracteres")
-    @Pattern(regexp = "^[a-zA-Z\\s\\.\\-áàâãéêíóôõúçÁÀÂÃÉÊÍÓÔÕÚÇ]+$", message = "Estado pode conter apenas letras, espaços, pontos, hífens, acentuações e ç")
+    @Pattern(regexp = ValidationPatterns.LETTERS, message = "Estado pode conter apenas letras, espaços, pontos, hífens, acentuações e ç")
     private String state;
 
     @NotBlank(message = "País não pode ser nulo ou vazio")
     @Size(max = 50, message = "País não pode exceder 50 caracteres")
-    @Pattern(regexp = "^[a-zA-Z\\s\\.\\-áàâãéêíóôõúçÁÀÂÃÉÊÍÓÔÕÚÇ]+$", message = "País pode conter apenas letras, espaços, pontos, hífens, acentuações e ç")
+    @Pattern(regexp = ValidationPatterns.LETTERS, message = "País pode conter apenas letras, espaços, pontos, hífens, acentuações e ç")
     private String country;
 
     @NotBlank(message = "CEP não pode ser nulo ou vazio")
-    @Pattern(regexp = "^\\d{5}-\\d{3}$", message = "CEP deve seguir o formato XXXXX-XXX")
+    @Pattern(regexp = ValidationPatterns.CEP, message = "CEP deve seguir o formato XXXXX-XXX")
     private String cep;
 
 
@@ -0,0 +1,53 @@
+package com.restaurantcontroller.restaurantcontroller.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchImportResultDTO {
+
+    // Quantidade de linhas recebidas
+    private int total;
+
+    // Quantidade de usuários criados
+    private int created;
+
+    // Quantidade de linhas com erro
+    private int failed;
+
+    // Resultado de cada linha
+    private List<BatchRowResultDTO> results = new ArrayList<>();
+
+    /**
+     * Adiciona os resultados de um trecho do lote, atualizando os totais
+     * @param rowResults resultados das linhas processadas
+     */
+    public void addResults(List<BatchRowResultDTO> rowResults) {
+        for (BatchRowResultDTO rowResult : rowResults) {
+            results.add(rowResult);
+            total++;
+            if (BatchRowResultDTO.STATUS_CREATED.equals(rowResult.getStatus())) {
+                created++;
+            } else {
+                failed++;
+            }
+        }
+    }
+
+    // Métodos getter
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<BatchRowResultDTO> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,74 @@
+package com.restaurantcontroller.restaurantcontroller.dto;
+
+import java.util.Map;
+
+public class BatchRowResultDTO {
+
+    public static final String STATUS_CREATED = "CREATED";
+    public static final String STATUS_ERROR = "ERROR";
+
+    // Posição da linha no lote (iniciando em 0)
+    private int index;
+
+    // Situação da linha (CREATED ou ERROR)
+    private String status;
+
+    // ID do usuário criado
+    private Long id;
+
+    // Erros por campo, no mesmo formato dos erros de validação
+    private Map<String, String> errors;
+
+    // Construtor padrão
+    public BatchRowResultDTO() {}
+
+    public static BatchRowResultDTO created(int index, Long id) {
+        BatchRowResultDTO result = new BatchRowResultDTO();
+        result.setIndex(index);
+        result.setStatus(STATUS_CREATED);
+        result.setId(id);
+        return result;
+    }
+
+    public static BatchRowResultDTO error(int index, Map<String, String> errors) {
+        BatchRowResultDTO result = new BatchRowResultDTO();
+        result.setIndex(index);
+        result.setStatus(STATUS_ERROR);
+        result.setErrors(errors);
+        return result;
+    }
+
+    // Métodos getter e setter
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(Map<String, String> errors) {
+        this.errors = errors;
+    }
+}
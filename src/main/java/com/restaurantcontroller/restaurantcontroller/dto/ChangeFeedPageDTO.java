@@ -0,0 +1,55 @@
+package com.restaurantcontroller.restaurantcontroller.dto;
+
+import java.util.List;
+
+/**
+ * Página do feed de alterações de usuários
+ */
+public class ChangeFeedPageDTO {
+
+    // Alterações em ordem de ocorrência
+    private List<UserChangeDTO> changes;
+
+    // Cursor para a próxima consulta (sempre presente, mesmo sem alterações novas)
+    private String nextCursor;
+
+    // Indica se já existem mais alterações após esta página
+    private boolean hasMore;
+
+    // Construtor padrão
+    public ChangeFeedPageDTO() {}
+
+    // Construtor com parâmetros
+    public ChangeFeedPageDTO(List<UserChangeDTO> changes, String nextCursor, boolean hasMore) {
+        this.changes = changes;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+
+    // Métodos getter e setter
+
+    public List<UserChangeDTO> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<UserChangeDTO> changes) {
+        this.changes = changes;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
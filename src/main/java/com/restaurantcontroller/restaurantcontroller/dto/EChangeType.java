@@ -0,0 +1,11 @@
+package com.restaurantcontroller.restaurantcontroller.dto;
+
+/**
+ * Tipo de uma alteração do feed de usuários
+ */
+public enum EChangeType {
+    // Usuário criado ou alterado (dados, endereço ou credenciais)
+    upsert,
+    // Usuário excluído
+    delete
+}
@@ -0,0 +1,61 @@
+package com.restaurantcontroller.restaurantcontroller.dto;
+
+public class LoginResponseDTO {
+
+    // Mensagem de retorno do login
+    private String message;
+
+    // Token de acesso (JWT) a ser enviado no header Authorization
+    private String accessToken;
+
+    // Tipo do token (Bearer)
+    private String tokenType;
+
+    // Tempo de validade do token em segundos
+    private long expiresIn;
+
+    // Construtor padrão
+    public LoginResponseDTO() {}
+
+    // Construtor com parâmetros
+    public LoginResponseDTO(String message, String accessToken, String tokenType, long expiresIn) {
+        this.message = message;
+        this.accessToken = accessToken;
+        this.tokenType = tokenType;
+        this.expiresIn = expiresIn;
+    }
+
+    // Métodos getter e setter
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    public void setAccessToken(String accessToken) {
+        this.accessToken = accessToken;
+    }
+
+    public String getTokenType() {
+        return tokenType;
+    }
+
+    public void setTokenType(String tokenType) {
+        this.tokenType = tokenType;
+    }
+
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+
+    public void setExpiresIn(long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
+}
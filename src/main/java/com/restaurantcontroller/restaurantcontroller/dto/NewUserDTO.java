@@ -13,11 +13,11 @@ public class NewUserDTO {
     // Dados pessoais do usuário
     @NotBlank(message = "Nome não pode ser nulo ou vazio")
     @Size(max = 100, message = "Nome não pode exceder 100 caracteres")
-    @Pattern(regexp = "^[a-zA-Z\\s\\.\\-áàâãéêíóôõúçÁÀÂÃÉÊÍÓÔÕÚÇ]+$", message = "Nome deve conter apenas letras, espaços, hífens e apostrofes")
+    @Pattern(regexp = ValidationPatterns.LETTERS, message = "Nome deve conter apenas letras, espaços, hífens e apostrofes")
     private String name;
     
     @NotBlank(message = "Identificação do usuário não pode ser nula ou vazia")
-    @Pattern(regexp = "^(\\d{11}|\\d{9})$",
+    @Pattern(regexp = ValidationPatterns.USER_IDENTIFICATION,
              message = "Identificação deve ser um CPF válido (XXXXXXXXXXX) ou RG válido (XXXXXXXXX)")
     private String userIdentification;
     
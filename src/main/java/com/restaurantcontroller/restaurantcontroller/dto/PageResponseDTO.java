@@ -0,0 +1,65 @@
+package com.restaurantcontroller.restaurantcontroller.dto;
+
+import java.util.List;
+
+
+public class PageResponseDTO<T> {
+
+    // Itens da página atual
+    private List<T> content;
+
+    // Tamanho máximo da página
+    private int size;
+
+    // Cursor da próxima página (null quando não houver mais itens)
+    private String nextCursor;
+
+    // Número da página (somente na paginação legada por offset)
+    private Integer page;
+
+    // Construtor padrão
+    public PageResponseDTO() {}
+
+    // Construtor com parâmetros
+    public PageResponseDTO(List<T> content, int size, String nextCursor, Integer page) {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+        this.page = page;
+    }
+
+
+    // Métodos getter e setter
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Integer getPage() {
+        return page;
+    }
+
+    public void setPage(Integer page) {
+        this.page = page;
+    }
+}
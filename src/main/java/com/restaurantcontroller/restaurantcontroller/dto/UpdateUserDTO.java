@@ -1,20 +1,24 @@
 package com.restaurantcontroller.restaurantcontroller.dto;
 
+import com.fasterxml.jackson.annotation.JsonMerge;
 import com.restaurantcontroller.restaurantcontroller.model.EProfile;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 
 public class UpdateUserDTO {
     
     @NotBlank(message = "Nome não pode ser nulo ou vazio")
     @Size(max = 100, message = "Nome não pode exceder 100 caracteres")
+    @Pattern(regexp = ValidationPatterns.LETTERS, message = "Nome deve conter apenas letras, espaços, hífens e apostrofes")
     private String name;
     
     @NotBlank(message = "Identificação do usuário não pode ser nula ou vazia")
-    @Size(max = 20, message = "Identificação do usuário não pode exceder 20 caracteres")
+    @Pattern(regexp = ValidationPatterns.USER_IDENTIFICATION,
+             message = "Identificação deve ser um CPF válido (XXXXXXXXXXX) ou RG válido (XXXXXXXXX)")
     private String userIdentification;
     
     @NotBlank(message = "Email não pode ser nulo ou vazio")
@@ -25,7 +29,9 @@ public class UpdateUserDTO {
     @NotNull(message = "Perfil não pode ser nulo")
     private EProfile profile;
     
+    // No PATCH os campos do endereço são mesclados com os atuais em vez de substituir o objeto inteiro
     @Valid
+    @JsonMerge
     private AddressDTO address;
 
     // Construtor padrão
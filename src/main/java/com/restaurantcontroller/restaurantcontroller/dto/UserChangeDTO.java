@@ -0,0 +1,78 @@
+package com.restaurantcontroller.restaurantcontroller.dto;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Alteração de um usuário no feed de alterações
+ */
+public class UserChangeDTO {
+
+    // Tipo da alteração
+    private EChangeType type;
+
+    // ID do usuário alterado ou excluído
+    private Long id;
+
+    // Momento da alteração (maior lastUpdate do usuário, endereço e credenciais) ou da exclusão
+    private ZonedDateTime changedAt;
+
+    // Cursor desta alteração; retomar a partir dele entrega somente as alterações seguintes
+    private String cursor;
+
+    // Estado atual do usuário (null nas exclusões)
+    private ResponseNewUserDTO user;
+
+    // Construtor padrão
+    public UserChangeDTO() {}
+
+    // Construtor com parâmetros
+    public UserChangeDTO(EChangeType type, Long id, ZonedDateTime changedAt, ResponseNewUserDTO user) {
+        this.type = type;
+        this.id = id;
+        this.changedAt = changedAt;
+        this.user = user;
+    }
+
+
+    // Métodos getter e setter
+
+    public EChangeType getType() {
+        return type;
+    }
+
+    public void setType(EChangeType type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public ZonedDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(ZonedDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public ResponseNewUserDTO getUser() {
+        return user;
+    }
+
+    public void setUser(ResponseNewUserDTO user) {
+        this.user = user;
+    }
+}
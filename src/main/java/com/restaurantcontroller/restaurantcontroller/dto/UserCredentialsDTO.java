@@ -11,7 +11,7 @@ public class UserCredentialsDTO {
     
     @NotBlank(message = "Password não pode ser nulo ou vazio")
     @Size(min = 8, max = 32, message = "Password deve ter entre 8 e 32 caracteres")
-    @Pattern(regexp = "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[@$!%*#?&])[A-Za-z\\d@$!%*#?&]{8,32}$",
+    @Pattern(regexp = ValidationPatterns.PASSWORD,
              message = "Password deve conter pelo menos: 1 letra minúscula, 1 letra maiúscula, 1 número e 1 caractere especial (@$!%*?&)")
     private String password;
 
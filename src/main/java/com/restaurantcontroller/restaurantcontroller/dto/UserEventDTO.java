@@ -0,0 +1,84 @@
+package com.restaurantcontroller.restaurantcontroller.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.restaurantcontroller.restaurantcontroller.model.EUserEventType;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Evento do ciclo de vida do usuário como é entregue aos destinos de publicação do outbox.
+ * A entrega é "pelo menos uma vez": consumidores devem descartar IDs já processados
+ */
+public class UserEventDTO {
+
+    // ID do evento (crescente na ordem de gravação)
+    private Long id;
+
+    // Tipo do evento
+    private EUserEventType type;
+
+    // ID do usuário afetado
+    private Long userId;
+
+    // Momento da alteração
+    private ZonedDateTime occurredAt;
+
+    // Dados do evento: o usuário (criação, alteração e exclusão) ou o endereço (alteração de endereço), em JSON
+    @JsonRawValue
+    private String data;
+
+    // Construtor padrão
+    public UserEventDTO() {}
+
+    // Construtor com parâmetros
+    public UserEventDTO(Long id, EUserEventType type, Long userId, ZonedDateTime occurredAt, String data) {
+        this.id = id;
+        this.type = type;
+        this.userId = userId;
+        this.occurredAt = occurredAt;
+        this.data = data;
+    }
+
+
+    // Métodos getter e setter
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public EUserEventType getType() {
+        return type;
+    }
+
+    public void setType(EUserEventType type) {
+        this.type = type;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public ZonedDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(ZonedDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public String getData() {
+        return data;
+    }
+
+    public void setData(String data) {
+        this.data = data;
+    }
+}
@@ -0,0 +1,116 @@
+package com.restaurantcontroller.restaurantcontroller.dto;
+
+import com.restaurantcontroller.restaurantcontroller.model.Address;
+import com.restaurantcontroller.restaurantcontroller.model.User;
+import org.springframework.http.ETag;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Versão de um usuário e de seus dados relacionados, obtida sem carregar as entidades.
+ * Usada para gerar os ETags das respostas de usuário e de endereço
+ */
+public class UserVersionDTO {
+
+    // ID do usuário
+    private Long id;
+
+    // Versão (@Version) do usuário
+    private Long userVersion;
+
+    // ID do endereço (null se o usuário não tiver endereço)
+    private Long addressId;
+
+    // Versão (@Version) do endereço
+    private Long addressVersion;
+
+    // Data da última atualização das credenciais (o username faz parte da resposta do usuário). Usa-se a data
+    // e não a versão porque a regravação do hash da senha incrementa a versão sem alterar a representação
+    private ZonedDateTime credentialsLastUpdate;
+
+    // Construtor usado pela consulta JPQL
+    public UserVersionDTO(Long id, Long userVersion, Long addressId, Long addressVersion, ZonedDateTime credentialsLastUpdate) {
+        this.id = id;
+        this.userVersion = userVersion;
+        this.addressId = addressId;
+        this.addressVersion = addressVersion;
+        this.credentialsLastUpdate = credentialsLastUpdate;
+    }
+
+    /**
+     * Versão de um usuário já carregado (após o flush, as versões são as gravadas pela transação)
+     * @param user Usuário com endereço e credenciais
+     * @return UserVersionDTO do usuário
+     */
+    public static UserVersionDTO of(User user) {
+        Address address = user.getAddressUser();
+        return new UserVersionDTO(user.getId(), user.getVersion(),
+                address == null ? null : address.getId(), address == null ? null : address.getVersion(),
+                user.getUserCredentials() == null ? null : user.getUserCredentials().getLastUpdate());
+    }
+
+    /**
+     * Verifica a pré-condição If-Match (RFC 9110): comparação forte, e '*' aceita qualquer versão existente
+     * @param ifMatch Valor do header If-Match (null se ausente)
+     * @param eTag ETag atual, sem aspas (null se o recurso não existir)
+     * @return true se não houver pré-condição ou se algum dos ETags informados for o atual
+     */
+    public static boolean matches(String ifMatch, String eTag) {
+        if (ifMatch == null) {
+            return true;
+        }
+        if (eTag == null) {
+            return false;
+        }
+        return ETag.parse(ifMatch).stream().anyMatch(tag -> tag.isWildcard() || (!tag.weak() && tag.tag().equals(eTag)));
+    }
+
+    /**
+     * ETag forte da representação do usuário (dados, endereço e username)
+     * @return ETag sem aspas
+     */
+    public String getUserETag() {
+        return id + "." + version(userVersion) + "." + version(addressVersion) + "." + version(credentialsLastUpdate);
+    }
+
+    /**
+     * ETag forte da representação do endereço do usuário
+     * @return ETag sem aspas, ou null se o usuário não tiver endereço
+     */
+    public String getAddressETag() {
+        return addressId == null ? null : addressId + "." + version(addressVersion);
+    }
+
+    private static String version(Long version) {
+        return version == null ? "0" : Long.toString(version, 36);
+    }
+
+    // Microssegundos desde a época, em base 36 (mesma precisão do timestamp do PostgreSQL)
+    private static String version(ZonedDateTime lastUpdate) {
+        return lastUpdate == null ? "0" : Long.toString(ChronoUnit.MICROS.between(Instant.EPOCH, lastUpdate.toInstant()), 36);
+    }
+
+    // Métodos getter
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserVersion() {
+        return userVersion;
+    }
+
+    public Long getAddressId() {
+        return addressId;
+    }
+
+    public Long getAddressVersion() {
+        return addressVersion;
+    }
+
+    public ZonedDateTime getCredentialsLastUpdate() {
+        return credentialsLastUpdate;
+    }
+}
@@ -0,0 +1,25 @@
+package com.restaurantcontroller.restaurantcontroller.dto;
+
+/**
+ * Expressões regulares usadas nas validações dos DTOs.
+ * As regras ficam apenas nos DTOs: cada escrita é validada uma única vez na entrada da API
+ */
+public final class ValidationPatterns {
+
+    // Letras (com acentos), espaços, pontos e hífens
+    public static final String LETTERS = "^[a-zA-Z\\s\\.\\-áàâãéêíóôõúçÁÀÂÃÉÊÍÓÔÕÚÇ]+$";
+
+    // Letras (com acentos), números, espaços, pontos e hífens
+    public static final String ALPHANUMERIC = "^[a-zA-Z0-9\\s\\.\\-áàâãéêíóôõúçÁÀÂÃÉÊÍÓÔÕÚÇ]+$";
+
+    // CPF (11 dígitos) ou RG (9 dígitos)
+    public static final String USER_IDENTIFICATION = "^(\\d{11}|\\d{9})$";
+
+    // CEP no formato XXXXX-XXX
+    public static final String CEP = "^\\d{5}-\\d{3}$";
+
+    // Ao menos uma letra minúscula, uma maiúscula, um número e um caractere especial
+    public static final String PASSWORD = "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[@$!%*#?&])[A-Za-z\\d@$!%*#?&]{8,32}$";
+
+    private ValidationPatterns() {}
+}
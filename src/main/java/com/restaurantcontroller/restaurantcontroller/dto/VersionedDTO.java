@@ -0,0 +1,30 @@
+package com.restaurantcontroller.restaurantcontroller.dto;
+
+/**
+ * Representação retornada por uma escrita junto com o ETag da versão gravada,
+ * calculado a partir das entidades atualizadas na própria transação
+ * @param <T> Tipo da representação
+ */
+public class VersionedDTO<T> {
+
+    // Representação do recurso
+    private final T body;
+
+    // ETag da versão gravada, sem aspas
+    private final String eTag;
+
+    public VersionedDTO(T body, String eTag) {
+        this.body = body;
+        this.eTag = eTag;
+    }
+
+    // Métodos getter
+
+    public T getBody() {
+        return body;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+}
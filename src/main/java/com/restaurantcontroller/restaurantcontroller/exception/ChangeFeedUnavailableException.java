@@ -0,0 +1,8 @@
+package com.restaurantcontroller.restaurantcontroller.exception;
+
+public class ChangeFeedUnavailableException extends RuntimeException {
+
+    public ChangeFeedUnavailableException(String message) {
+        super(message);
+    }
+}
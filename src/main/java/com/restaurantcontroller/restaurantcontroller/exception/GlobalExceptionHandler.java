@@ -1,23 +1,43 @@
 package com.restaurantcontroller.restaurantcontroller.exception;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.net.URI;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private final MeterRegistry meterRegistry;
+
+    private final StackTraceSampler stackTraceSampler;
+
+    // Construtor para injeção de dependência
+    public GlobalExceptionHandler(MeterRegistry meterRegistry, StackTraceSampler stackTraceSampler) {
+        this.meterRegistry = meterRegistry;
+        this.stackTraceSampler = stackTraceSampler;
+    }
+
     @ExceptionHandler(EmailAlreadyExistsException.class)
     public ProblemDetail handleEmailAlreadyExists(EmailAlreadyExistsException ex) {
+        countError("handleEmailAlreadyExists", ex, HttpStatus.CONFLICT);
         ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
         problem.setTitle("Email já está em uso");
         return problem;
@@ -25,6 +45,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(UsernameAlreadyExistsException.class)
     public ProblemDetail handleUsernameAlreadyExists(UsernameAlreadyExistsException ex) {
+        countError("handleUsernameAlreadyExists", ex, HttpStatus.CONFLICT);
         ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
         problem.setTitle("Username já está em uso");
         return problem;
@@ -32,13 +53,80 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(UserIdentificationAlreadyExistsException.class)
     public ProblemDetail handleUserIdentificationAlreadyExists(UserIdentificationAlreadyExistsException ex) {
+        countError("handleUserIdentificationAlreadyExists", ex, HttpStatus.CONFLICT);
         ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
         problem.setTitle("Identificação do usuário já está em uso");
         return problem;
     }
 
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<ProblemDetail> handlePasswordHashingUnavailable(PasswordHashingUnavailableException ex) {
+        countError("handlePasswordHashingUnavailable", ex, HttpStatus.SERVICE_UNAVAILABLE);
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+        problem.setTitle("Serviço temporariamente indisponível");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(problem);
+    }
+
+    @ExceptionHandler(ChangeFeedUnavailableException.class)
+    public ResponseEntity<ProblemDetail> handleChangeFeedUnavailable(ChangeFeedUnavailableException ex) {
+        countError("handleChangeFeedUnavailable", ex, HttpStatus.SERVICE_UNAVAILABLE);
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+        problem.setTitle("Serviço temporariamente indisponível");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(problem);
+    }
+
+    @ExceptionHandler(LoginRateLimitedException.class)
+    public ResponseEntity<ProblemDetail> handleLoginRateLimited(LoginRateLimitedException ex) {
+        countError("handleLoginRateLimited", ex, HttpStatus.TOO_MANY_REQUESTS);
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage());
+        problem.setTitle("Muitas tentativas de login");
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(problem);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ProblemDetail handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        countError("handleIdempotencyKeyReused", ex, HttpStatus.UNPROCESSABLE_ENTITY);
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage());
+        problem.setTitle("Idempotency-Key reutilizada");
+        return problem;
+    }
+
+    @ExceptionHandler(IdempotentRequestInProgressException.class)
+    public ResponseEntity<ProblemDetail> handleIdempotentRequestInProgress(IdempotentRequestInProgressException ex) {
+        countError("handleIdempotentRequestInProgress", ex, HttpStatus.CONFLICT);
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
+        problem.setTitle("Requisição em processamento");
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(problem);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        countError("handleOptimisticLockingFailure", ex, HttpStatus.CONFLICT);
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT,
+                "O registro foi alterado por outra requisição; consulte-o novamente e repita a alteração");
+        problem.setTitle("Conflito de atualização concorrente");
+        return problem;
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ProblemDetail handlePreconditionFailed(PreconditionFailedException ex) {
+        countError("handlePreconditionFailed", ex, HttpStatus.PRECONDITION_FAILED);
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+        problem.setTitle("Versão desatualizada");
+        return problem;
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ProblemDetail handleIllegalArgumentException(IllegalArgumentException ex) {
+        countError("handleIllegalArgumentException", ex, HttpStatus.BAD_REQUEST);
         ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
         problem.setTitle("Dados inválidos");
         return problem;
@@ -46,7 +134,8 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ProblemDetail handleValidationExceptions(MethodArgumentNotValidException ex) {
-        System.err.println("Validation error occurred: " + ex.getMessage());
+        countError("handleValidationExceptions", ex, HttpStatus.BAD_REQUEST);
+        log.warn("Validation error occurred: {}", ex.getMessage());
 
         ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Dados de entrada inválidos");
         problem.setTitle("Erro de validação");
@@ -62,14 +151,55 @@ public class GlobalExceptionHandler {
         return problem;
     }
 
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ProblemDetail handleConstraintViolation(ConstraintViolationException ex) {
+        countError("handleConstraintViolation", ex, HttpStatus.BAD_REQUEST);
+
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Dados de entrada inválidos");
+        problem.setTitle("Erro de validação");
+
+        Map<String, String> errors = new HashMap<>();
+        ex.getConstraintViolations().forEach(violation ->
+                errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+
+        problem.setProperty("validationErrors", errors);
+        return problem;
+    }
+
+    // Corpo ausente ou JSON malformado (ex.: merge patch inválido)
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ProblemDetail handleMessageNotReadable(HttpMessageNotReadableException ex) {
+        countError("handleMessageNotReadable", ex, HttpStatus.BAD_REQUEST);
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Corpo da requisição inválido ou malformado");
+        problem.setTitle("Dados inválidos");
+        return problem;
+    }
+
+    // Parâmetro de rota ou de consulta com tipo inválido (ex.: ID não numérico)
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ProblemDetail handleArgumentTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        countError("handleArgumentTypeMismatch", ex, HttpStatus.BAD_REQUEST);
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Valor inválido para o parâmetro '" + ex.getName() + "'");
+        problem.setTitle("Dados inválidos");
+        return problem;
+    }
+
     // Tratamento genérico para outras exceções
     @ExceptionHandler(Exception.class)
     public ProblemDetail handleRuntimeException(RuntimeException ex) {
-        System.err.println("Unexpected error occurred: " + ex.getMessage());
-        System.err.println(Arrays.toString(ex.getStackTrace()));
+        countError("handleRuntimeException", ex, HttpStatus.INTERNAL_SERVER_ERROR);
+        // Stack trace amostrado por tipo de exceção; a escrita é feita pelo appender assíncrono
+        log.error("Unexpected error occurred: {}", ex.getMessage(), stackTraceSampler.sample(ex));
 
         ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR, "Erro interno do servidor");
         problem.setTitle("Erro interno");
         return problem;
     }
+
+    private void countError(String handler, Exception ex, HttpStatus status) {
+        meterRegistry.counter("http.errors.handled",
+                "handler", handler,
+                "exception", ex.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())).increment();
+    }
 }
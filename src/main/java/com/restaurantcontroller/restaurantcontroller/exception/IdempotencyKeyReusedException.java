@@ -0,0 +1,8 @@
+package com.restaurantcontroller.restaurantcontroller.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String idempotencyKey) {
+        super("Idempotency-Key já utilizada com outra requisição: " + idempotencyKey);
+    }
+}
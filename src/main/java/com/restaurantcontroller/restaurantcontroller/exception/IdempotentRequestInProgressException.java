@@ -0,0 +1,8 @@
+package com.restaurantcontroller.restaurantcontroller.exception;
+
+public class IdempotentRequestInProgressException extends RuntimeException {
+
+    public IdempotentRequestInProgressException(String idempotencyKey) {
+        super("Requisição com a Idempotency-Key " + idempotencyKey + " ainda em processamento");
+    }
+}
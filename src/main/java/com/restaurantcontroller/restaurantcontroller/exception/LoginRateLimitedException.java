@@ -0,0 +1,16 @@
+package com.restaurantcontroller.restaurantcontroller.exception;
+
+public class LoginRateLimitedException extends RuntimeException {
+
+    // Segundos até que uma nova tentativa seja aceita
+    private final long retryAfterSeconds;
+
+    public LoginRateLimitedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
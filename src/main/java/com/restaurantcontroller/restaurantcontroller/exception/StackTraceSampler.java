@@ -0,0 +1,44 @@
+package com.restaurantcontroller.restaurantcontroller.exception;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limita os stack traces registrados em log a um por tipo de exceção a cada intervalo.
+ * Em uma rajada de erros iguais apenas a primeira ocorrência leva o stack trace; as demais
+ * registram somente a mensagem, evitando formatar e escrever milhares de stack traces idênticos
+ */
+@Component
+public class StackTraceSampler {
+
+    private final long intervalNanos;
+
+    // Instante (System.nanoTime) do último stack trace registrado por tipo de exceção
+    private final ConcurrentMap<Class<?>, AtomicLong> lastLogged = new ConcurrentHashMap<>();
+
+    // Construtor para injeção de dependência
+    public StackTraceSampler(@Value("${logging.stack-trace.sample-interval:10s}") Duration interval) {
+        this.intervalNanos = interval.toNanos();
+    }
+
+    /**
+     * Retorna a exceção se o stack trace deste tipo ainda não foi registrado no intervalo atual.
+     * O retorno pode ser passado como último argumento do logger: null registra só a mensagem
+     * @param ex exceção a ser registrada
+     * @return a própria exceção, ou null se o stack trace deve ser omitido
+     */
+    public Throwable sample(Throwable ex) {
+        AtomicLong last = lastLogged.computeIfAbsent(ex.getClass(), type -> new AtomicLong(System.nanoTime() - intervalNanos));
+        long previous = last.get();
+        long now = System.nanoTime();
+        if (now - previous >= intervalNanos && last.compareAndSet(previous, now)) {
+            return ex;
+        }
+        return null;
+    }
+}
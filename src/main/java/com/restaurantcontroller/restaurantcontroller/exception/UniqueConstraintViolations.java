@@ -0,0 +1,54 @@
+package com.restaurantcontroller.restaurantcontroller.exception;
+
+import com.restaurantcontroller.restaurantcontroller.model.User;
+import com.restaurantcontroller.restaurantcontroller.model.UserCredentials;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Tradução das violações das constraints únicas de usuários e credenciais nas exceções de negócio.
+ * A unicidade é garantida somente pelo banco (sem consultas prévias, que custam uma ida ao banco
+ * e não impedem a corrida entre duas requisições); a constraint violada é identificada pelo nome
+ */
+public final class UniqueConstraintViolations {
+
+    private UniqueConstraintViolations() {
+    }
+
+    /**
+     * Converte a violação na exceção correspondente à constraint violada
+     * @param ex violação retornada pelo banco
+     * @param email email gravado
+     * @param userIdentification identificação gravada
+     * @param username username gravado
+     * @return EmailAlreadyExistsException, UserIdentificationAlreadyExistsException ou UsernameAlreadyExistsException;
+     * a própria exceção se a violação for de outra constraint
+     */
+    public static RuntimeException translate(DataIntegrityViolationException ex, String email, String userIdentification, String username) {
+        String constraint = constraintName(ex);
+        if (constraint.contains(User.EMAIL_CONSTRAINT))
+            return new EmailAlreadyExistsException(email);
+        if (constraint.contains(User.USER_IDENTIFICATION_CONSTRAINT))
+            return new UserIdentificationAlreadyExistsException(userIdentification);
+        if (constraint.contains(UserCredentials.USERNAME_CONSTRAINT))
+            return new UsernameAlreadyExistsException(username);
+        return ex;
+    }
+
+    // Nome extraído pelo Hibernate quando disponível; senão a mensagem do driver, que cita a constraint
+    // (PostgreSQL) ou o índice criado para ela (H2)
+    private static String constraintName(DataIntegrityViolationException ex) {
+        Throwable cause = ex;
+        while (cause != null) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT);
+            }
+            cause = cause.getCause();
+        }
+
+        Throwable root = ex.getMostSpecificCause();
+        return root.getMessage() == null ? "" : root.getMessage().toLowerCase(Locale.ROOT);
+    }
+}
@@ -4,6 +4,8 @@ import com.restaurantcontroller.restaurantcontroller.dto.AddressDTO;
 import com.restaurantcontroller.restaurantcontroller.model.Address;
 import org.springframework.stereotype.Component;
 
+import java.util.Objects;
+
 /**
  * Mapper responsável por converter objetos Address para DTOs
  */
@@ -57,15 +59,32 @@ public class AddressMapper {
     }
 
     /**
-     * Atualiza um objeto Address existente com dados de um AddressDTO
+     * Atualiza um objeto Address existente com dados de um AddressDTO.
+     * Se nenhum campo mudou o endereço não é tocado (nem o lastUpdate), evitando o UPDATE no flush
      * @param existingAddress Objeto Address existente a ser atualizado
      * @param addressDTO Objeto AddressDTO com os novos dados
+     * @return true se algum campo foi alterado
      */
-    public void updateAddress(Address existingAddress, AddressDTO addressDTO) {
+    public boolean updateAddress(Address existingAddress, AddressDTO addressDTO) {
         if (addressDTO == null || existingAddress == null) {
-            return;
+            return false;
         }
-        
+
+        // Endereço recém-criado (sem ID) sempre precisa ser gravado
+        boolean changed = existingAddress.getId() == null
+                || !Objects.equals(existingAddress.getStreet(), addressDTO.getStreet())
+                || !Objects.equals(existingAddress.getNumber(), addressDTO.getNumber())
+                || !Objects.equals(existingAddress.getComplement(), addressDTO.getComplement())
+                || !Objects.equals(existingAddress.getNeighborhood(), addressDTO.getNeighborhood())
+                || !Objects.equals(existingAddress.getCity(), addressDTO.getCity())
+                || !Objects.equals(existingAddress.getState(), addressDTO.getState())
+                || !Objects.equals(existingAddress.getCep(), addressDTO.getCep())
+                || !Objects.equals(existingAddress.getCountry(), addressDTO.getCountry());
+        if (!changed) {
+            return false;
+        }
+
+
         existingAddress.setStreet(addressDTO.getStreet());
         existingAddress.setNumber(addressDTO.getNumber());
         existingAddress.setComplement(addressDTO.getComplement());
@@ -75,5 +94,6 @@ public class AddressMapper {
         existingAddress.setCep(addressDTO.getCep());
         existingAddress.setCountry(addressDTO.getCountry());
         existingAddress.setLastUpdate(java.time.ZonedDateTime.now());
+        return true;
     }
 }
@@ -0,0 +1,56 @@
+package com.restaurantcontroller.restaurantcontroller.mapper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Mapper responsável por aplicar um JSON Merge Patch (RFC 7386) sobre um DTO
+ */
+@Component
+public class JsonMergePatchMapper {
+
+    // Content-Type definido pela RFC 7386
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    /**
+     * Aplica o patch sobre o DTO informado e valida o resultado.
+     * Campos ausentes no patch são mantidos; campos com null são removidos (e barrados pela validação se obrigatórios)
+     * @param target DTO com o estado atual, alterado no próprio objeto
+     * @param patch Documento JSON do merge patch
+     * @return O próprio DTO com o patch aplicado
+     * @throws IllegalArgumentException se o patch não for um objeto JSON ou tiver valores incompatíveis
+     * @throws ConstraintViolationException se o resultado violar as validações do DTO
+     */
+    public <T> T apply(T target, JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("Patch deve ser um objeto JSON");
+        }
+
+        T patched;
+        try {
+            patched = objectMapper.readerForUpdating(target).readValue(patch);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Patch inválido: " + e.getMessage(), e);
+        }
+
+        Set<ConstraintViolation<T>> violations = validator.validate(patched);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return patched;
+    }
+}
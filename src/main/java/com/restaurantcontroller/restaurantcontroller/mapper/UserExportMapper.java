@@ -0,0 +1,197 @@
+package com.restaurantcontroller.restaurantcontroller.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.restaurantcontroller.restaurantcontroller.dto.AddressDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.ResponseNewUserDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Mapper responsável por escrever usuários no formato de exportação (NDJSON ou CSV), uma linha por usuário
+ */
+@Component
+public class UserExportMapper {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    // Linhas escritas entre dois flushes: o cliente recebe os dados aos poucos, sem um flush por linha
+    static final int FLUSH_EVERY_ROWS = 500;
+
+    private static final String CSV_HEADER = "id,name,user_identification,email,username,profile,last_update,"
+            + "street,number,complement,neighborhood,city,state,country,cep";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Formatos de exportação suportados
+     */
+    public enum Format {
+        NDJSON(MediaType.APPLICATION_NDJSON_VALUE, "ndjson"),
+        CSV(TEXT_CSV_VALUE + ";charset=UTF-8", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Converte o parâmetro da requisição no formato
+         * @param value Nome do formato (ndjson ou csv, sem distinção de maiúsculas)
+         * @return Formato correspondente
+         * @throws IllegalArgumentException se o formato não for suportado
+         */
+        public static Format of(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Formato de exportação inválido: use ndjson ou csv");
+            }
+        }
+    }
+
+    /**
+     * Cria um escritor de linhas no formato informado
+     * @param format Formato da exportação
+     * @param out Stream de saída (não é fechado pelo escritor)
+     * @return RowWriter que deve ser fechado ao fim da exportação para enviar as linhas pendentes
+     */
+    public RowWriter writer(Format format, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        return format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer, objectMapper.writerFor(ResponseNewUserDTO.class));
+    }
+
+    /**
+     * Escritor de uma exportação; escreve cada usuário recebido e faz flush periodicamente
+     */
+    public abstract static class RowWriter implements AutoCloseable {
+
+        protected final Writer writer;
+        private int pendingRows;
+
+        RowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        /**
+         * Escreve um usuário
+         * @param user Usuário a ser escrito
+         * @throws UncheckedIOException se a escrita falhar (ex.: cliente desconectado)
+         */
+        public void write(ResponseNewUserDTO user) {
+            try {
+                writeRow(user);
+                if (++pendingRows >= FLUSH_EVERY_ROWS) {
+                    writer.flush();
+                    pendingRows = 0;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        protected abstract void writeRow(ResponseNewUserDTO user) throws IOException;
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class NdjsonRowWriter extends RowWriter {
+
+        private final ObjectWriter objectWriter;
+
+        NdjsonRowWriter(Writer writer, ObjectWriter objectWriter) {
+            super(writer);
+            this.objectWriter = objectWriter;
+        }
+
+        @Override
+        protected void writeRow(ResponseNewUserDTO user) throws IOException {
+            writer.write(objectWriter.writeValueAsString(user));
+            writer.write('\n');
+        }
+    }
+
+    private static final class CsvRowWriter extends RowWriter {
+
+        CsvRowWriter(Writer writer) {
+            super(writer);
+            try {
+                writer.write(CSV_HEADER);
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        protected void writeRow(ResponseNewUserDTO user) throws IOException {
+            AddressDTO address = user.getAddress() == null ? new AddressDTO() : user.getAddress();
+            writeField(user.getId(), false);
+            writeField(user.getName(), true);
+            writeField(user.getUserIdentification(), true);
+            writeField(user.getEmail(), true);
+            writeField(user.getUsername(), true);
+            writeField(user.getProfile(), true);
+            writeField(user.getLastUpdate() == null ? null : DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(user.getLastUpdate()), true);
+            writeField(address.getStreet(), true);
+            writeField(address.getNumber(), true);
+            writeField(address.getComplement(), true);
+            writeField(address.getNeighborhood(), true);
+            writeField(address.getCity(), true);
+            writeField(address.getState(), true);
+            writeField(address.getCountry(), true);
+            writeField(address.getCep(), true);
+            writer.write("\r\n");
+        }
+
+        // Campos com separador, aspas ou quebra de linha vão entre aspas (RFC 4180); textos iniciados
+        // por =, +, - ou @ recebem um apóstrofo para não serem interpretados como fórmula em planilhas
+        private void writeField(Object value, boolean separator) throws IOException {
+            if (separator) {
+                writer.write(',');
+            }
+            if (value == null) {
+                return;
+            }
+
+            String text = value.toString();
+            if (value instanceof CharSequence && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+                text = "'" + text;
+            }
+
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+    }
+}
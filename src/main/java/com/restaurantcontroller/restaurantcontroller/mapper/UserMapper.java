@@ -7,6 +7,8 @@ import com.restaurantcontroller.restaurantcontroller.model.User;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Objects;
+
 /**
  * Mapper responsável por converter objetos User para DTOs de resposta
  */
@@ -50,20 +52,45 @@ public class UserMapper {
     }
 
     /**
-     * Atualiza um objeto User existente com dados de um UpdateUserDTO
+     * Converte um objeto User para UpdateUserDTO, usado como base para aplicar um merge patch
+     * @param user Objeto User a ser convertido
+     * @return UpdateUserDTO com os dados atuais do usuário e do endereço
+     */
+    public UpdateUserDTO toUpdateUserDTO(User user) {
+        if (user == null) {
+            return null;
+        }
+
+        return new UpdateUserDTO(user.getName(), user.getUserIdentification(), user.getEmail(), user.getProfile(),
+                addressMapper.toAddressDTO(user.getAddressUser()));
+    }
+
+    /**
+     * Atualiza um objeto User existente com dados de um UpdateUserDTO.
+     * Se nenhum campo mudou o usuário não é tocado (nem o lastUpdate), evitando o UPDATE no flush
      * @param existingUser Objeto User existente a ser atualizado
      * @param updateUserDTO Objeto UpdateUserDTO com os novos dados
+     * @return true se algum campo foi alterado
      */
-    public void updateUser(User existingUser, UpdateUserDTO updateUserDTO) {
+    public boolean updateUser(User existingUser, UpdateUserDTO updateUserDTO) {
         if (updateUserDTO == null || existingUser == null) {
-            return;
+            return false;
         }
-        
+
+        boolean changed = !Objects.equals(existingUser.getName(), updateUserDTO.getName())
+                || !Objects.equals(existingUser.getUserIdentification(), updateUserDTO.getUserIdentification())
+                || !Objects.equals(existingUser.getEmail(), updateUserDTO.getEmail())
+                || existingUser.getProfile() != updateUserDTO.getProfile();
+        if (!changed) {
+            return false;
+        }
+
         existingUser.setName(updateUserDTO.getName());
         existingUser.setUserIdentification(updateUserDTO.getUserIdentification());
         existingUser.setEmail(updateUserDTO.getEmail());
         existingUser.setProfile(updateUserDTO.getProfile());
         existingUser.setLastUpdate(java.time.ZonedDateTime.now());
+        return true;
     }
 
     /**
@@ -0,0 +1,15 @@
+package com.restaurantcontroller.restaurantcontroller.model;
+
+/**
+ * Tipo de um evento do ciclo de vida do usuário publicado pelo outbox
+ */
+public enum EUserEventType {
+    // Usuário criado (individualmente ou pela importação em lote)
+    user_created,
+    // Dados do usuário ou do seu endereço alterados pela atualização do usuário
+    user_updated,
+    // Usuário excluído (dados no momento da exclusão)
+    user_deleted,
+    // Endereço do usuário alterado pelos endpoints de endereço
+    address_updated
+}
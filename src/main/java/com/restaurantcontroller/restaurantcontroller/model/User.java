@@ -1,55 +1,59 @@
 package com.restaurantcontroller.restaurantcontroller.model;
 
 import jakarta.persistence.*;
-import jakarta.validation.constraints.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.ZonedDateTime;
 
 
 @Entity
-@Table(name = "users")
+@DynamicUpdate
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email"),
+        @UniqueConstraint(name = User.USER_IDENTIFICATION_CONSTRAINT, columnNames = "user_identification")
+})
 public class User {
+
+    // Nomes das constraints únicas, usados para traduzir as violações (UniqueConstraintViolations)
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+    public static final String USER_IDENTIFICATION_CONSTRAINT = "uk_users_user_identification";
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     @Column(nullable = false)
     private Long id;
     
-    @NotBlank(message = "Nome não pode ser nulo ou vazio")
-    @Size(max = 100, message = "Nome não pode exceder 100 caracteres")
-    @Pattern(regexp = "^[a-zA-Z\\s\\.\\-áàâãéêíóôõúçÁÀÂÃÉÊÍÓÔÕÚÇ]+$", message = "Nome deve conter apenas letras, espaços, hífens e apostrofes")
     @Column(nullable = false, length = 100)
     private String name;
     
-    @NotBlank(message = "Identificação do usuário não pode ser nula ou vazia")
-    @Pattern(regexp = "^(\\d{11}|\\d{9})$",
-             message = "Identificação deve ser um CPF válido (XXXXXXXXXXX) ou RG válido (XXXXXXXXX)")
-    @Column(nullable = false, unique = true, length = 14)
+    @Column(nullable = false, length = 14)
     private String userIdentification;
     
-    @NotBlank(message = "Email não pode ser nulo ou vazio")
-    @Email(message = "Email deve ter um formato válido")
-    @Size(max = 100, message = "Email não pode exceder 100 caracteres")
-    @Column(nullable = false, length = 100, unique = true)
+    @Column(nullable = false, length = 100)
     private String email;
 
     @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "address_id")
-    @NotNull(message = "Endereço é obrigatório")
     private Address addressUser;
 
     @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "user_credentials_id")
-    @NotNull(message = "Credenciais são obrigatórias")
     private UserCredentials userCredentials;
 
     @Enumerated(EnumType.STRING)
-    @NotNull(message = "Perfil não pode ser nulo")
     @Column(nullable = false)
     private EProfile profile;
     
     @Column(name = "last_update")
     private ZonedDateTime lastUpdate;
 
+    // Versão para o controle de concorrência otimista: o UPDATE só é aplicado se a versão lida ainda for a atual
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
 
 
     // Métodos getter e setter
@@ -114,4 +118,8 @@ public class User {
     public void setLastUpdate(ZonedDateTime lastUpdate) {
         this.lastUpdate = lastUpdate;
     }
+
+    public Long getVersion() {
+        return version;
+    }
 }
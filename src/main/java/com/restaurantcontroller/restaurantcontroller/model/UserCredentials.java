@@ -1,32 +1,37 @@
 package com.restaurantcontroller.restaurantcontroller.model;
 
 import jakarta.persistence.*;
-import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.ZonedDateTime;
 
 @Entity
-@Table(name = "user_credentials")
+@Table(name = "user_credentials", uniqueConstraints = @UniqueConstraint(name = UserCredentials.USERNAME_CONSTRAINT, columnNames = "username"))
 public class UserCredentials {
+
+    public static final String USERNAME_CONSTRAINT = "uk_user_credentials_username";
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_credentials_seq")
+    @SequenceGenerator(name = "user_credentials_seq", sequenceName = "user_credentials_seq", allocationSize = 50)
     @Column(nullable = false)
     private Long id;
 
-    @NotBlank(message = "Username não pode ser nulo ou vazio")
-    @Size(max = 50, message = "Username não pode exceder 50 caracteres")
-    @Column(nullable = false, length = 50, unique = true)
+    @Column(nullable = false, length = 50)
     private String username;
     
-    @NotBlank(message = "Password não pode ser nulo ou vazio")
     @Column(nullable = false)
     private String password;
 
     @Column(name = "last_update")
     private ZonedDateTime lastUpdate;
 
+    // Controle de concorrência otimista das credenciais
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
 
     // Métodos getter e setter
 
@@ -57,4 +62,8 @@ public class UserCredentials {
     public void setLastUpdate(ZonedDateTime lastUpdate) {
         this.lastUpdate = lastUpdate;
     }
+
+    public Long getVersion() {
+        return version;
+    }
 }
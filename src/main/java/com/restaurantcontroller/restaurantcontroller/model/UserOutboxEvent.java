@@ -0,0 +1,73 @@
+package com.restaurantcontroller.restaurantcontroller.model;
+
+import jakarta.persistence.*;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Evento do ciclo de vida do usuário gravado na mesma transação da alteração (transactional outbox).
+ * O relay publica e remove os eventos; o ID (crescente) identifica o evento para os consumidores
+ */
+@Entity
+@Table(name = "user_outbox_events")
+public class UserOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_outbox_events_seq")
+    @SequenceGenerator(name = "user_outbox_events_seq", sequenceName = "user_outbox_events_seq", allocationSize = 50)
+    @Column(nullable = false)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private EUserEventType eventType;
+
+    // Dados do evento já serializados em JSON
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "occurred_at", nullable = false)
+    private ZonedDateTime occurredAt;
+
+
+    // Métodos getter e setter
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public EUserEventType getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(EUserEventType eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public ZonedDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(ZonedDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
@@ -0,0 +1,40 @@
+package com.restaurantcontroller.restaurantcontroller.model;
+
+import jakarta.persistence.*;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Registro de um usuário excluído, mantido para que o feed de alterações informe a exclusão
+ * aos consumidores (os IDs vêm de sequence e nunca são reutilizados)
+ */
+@Entity
+@Table(name = "user_tombstones")
+public class UserTombstone {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private ZonedDateTime deletedAt;
+
+
+    // Métodos getter e setter
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public ZonedDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(ZonedDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
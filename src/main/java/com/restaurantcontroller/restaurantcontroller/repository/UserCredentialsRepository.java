@@ -2,9 +2,13 @@ package com.restaurantcontroller.restaurantcontroller.repository;
 
 import com.restaurantcontroller.restaurantcontroller.model.UserCredentials;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface UserCredentialsRepository extends JpaRepository<UserCredentials, Long> {
@@ -23,5 +27,13 @@ public interface UserCredentialsRepository extends JpaRepository<UserCredentials
      */
     boolean existsByUsername(String username);
 
+    /**
+     * Retorna, dentre os usernames informados, os que já estão cadastrados
+     * @param usernames os usernames a serem verificados
+     * @return Conjunto de usernames já existentes
+     */
+    @Query("select c.username from UserCredentials c where c.username in :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
     
 }
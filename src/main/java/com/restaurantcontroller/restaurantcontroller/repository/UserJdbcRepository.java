@@ -0,0 +1,389 @@
+package com.restaurantcontroller.restaurantcontroller.repository;
+
+import com.restaurantcontroller.restaurantcontroller.dto.AddressDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.EChangeType;
+import com.restaurantcontroller.restaurantcontroller.dto.ResponseNewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UserChangeDTO;
+import com.restaurantcontroller.restaurantcontroller.model.Address;
+import com.restaurantcontroller.restaurantcontroller.model.EProfile;
+import com.restaurantcontroller.restaurantcontroller.model.User;
+import com.restaurantcontroller.restaurantcontroller.model.UserCredentials;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Operações de usuários executadas diretamente via JDBC, para os casos em que
+ * o custo por entidade do Hibernate não é aceitável (ex.: importação em lote)
+ */
+@Repository
+public class UserJdbcRepository {
+
+    // Mesmo allocationSize dos @SequenceGenerator das entidades (otimizador pooled-lo):
+    // cada valor obtido da sequence reserva os IDs [valor, valor + ID_ALLOCATION_SIZE - 1]
+    static final int ID_ALLOCATION_SIZE = 50;
+
+    // Linhas trazidas por ida ao banco nas leituras em streaming
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    // Colunas do usuário com endereço e username, com os aliases u (usuário), a (endereço) e c (credenciais)
+    private static final String USER_SELECT = "SELECT u.id, u.name, u.user_identification, u.email, u.profile, u.address_id, u.last_update,"
+            + " a.street, a.number, a.complement, a.neighborhood, a.city, a.state, a.country, a.cep, c.username";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String schemaPrefix;
+
+    // Detectado na primeira exclusão: o DELETE ... RETURNING em CTE só existe no PostgreSQL
+    private volatile Boolean postgres;
+
+    public UserJdbcRepository(JdbcTemplate jdbcTemplate,
+                              @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.schemaPrefix = schema == null || schema.isBlank() ? "" : schema + ".";
+    }
+
+    /**
+     * Insere usuários com endereço e credenciais usando batch JDBC (um batch por tabela).
+     * Os IDs são reservados em blocos nas mesmas sequences usadas pelo Hibernate
+     * @param users Usuários a serem inseridos, com endereço e credenciais preenchidos
+     * @return IDs gerados para os usuários, na mesma ordem da lista recebida
+     */
+    public List<Long> insertAll(List<User> users) {
+        if (users.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> addressIds = allocateIds("addresse_user_seq", users.size());
+        List<Long> credentialsIds = allocateIds("user_credentials_seq", users.size());
+        List<Long> userIds = allocateIds("users_seq", users.size());
+
+        batchInsert(
+                "INSERT INTO " + schemaPrefix + "addresse_user (id, street, number, complement, neighborhood, city, state, country, cep, last_update) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                users.size(),
+                (ps, i) -> {
+                    Address address = users.get(i).getAddressUser();
+                    ps.setLong(1, addressIds.get(i));
+                    ps.setString(2, address.getStreet());
+                    ps.setInt(3, address.getNumber());
+                    ps.setString(4, address.getComplement());
+                    ps.setString(5, address.getNeighborhood());
+                    ps.setString(6, address.getCity());
+                    ps.setString(7, address.getState());
+                    ps.setString(8, address.getCountry());
+                    ps.setString(9, address.getCep());
+                    setTimestamp(ps, 10, address.getLastUpdate());
+                });
+
+        batchInsert(
+                "INSERT INTO " + schemaPrefix + "user_credentials (id, username, password, last_update) VALUES (?, ?, ?, ?)",
+                users.size(),
+                (ps, i) -> {
+                    UserCredentials credentials = users.get(i).getUserCredentials();
+                    ps.setLong(1, credentialsIds.get(i));
+                    ps.setString(2, credentials.getUsername());
+                    ps.setString(3, credentials.getPassword());
+                    setTimestamp(ps, 4, credentials.getLastUpdate());
+                });
+
+        batchInsert(
+                "INSERT INTO " + schemaPrefix + "users (id, name, user_identification, email, profile, address_id, user_credentials_id, last_update) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                users.size(),
+                (ps, i) -> {
+                    User user = users.get(i);
+                    ps.setLong(1, userIds.get(i));
+                    ps.setString(2, user.getName());
+                    ps.setString(3, user.getUserIdentification());
+                    ps.setString(4, user.getEmail());
+                    ps.setString(5, user.getProfile().name());
+                    ps.setLong(6, addressIds.get(i));
+                    ps.setLong(7, credentialsIds.get(i));
+                    setTimestamp(ps, 8, user.getLastUpdate());
+                });
+
+        return userIds;
+    }
+
+    /**
+     * Exclui usuários com endereço e credenciais e retorna os dados excluídos, registrando um tombstone
+     * por usuário para o feed de alterações. No PostgreSQL é um único statement (CTEs com DELETE ... RETURNING
+     * e o INSERT dos tombstones); no H2 dos testes, que não aceita CTEs de escrita, é feito um SELECT ... FOR UPDATE
+     * seguido de um DELETE por tabela e do INSERT em lote dos tombstones, na transação de quem chama
+     * @param ids IDs dos usuários a serem excluídos
+     * @return Dados dos usuários excluídos (IDs inexistentes são ignorados)
+     */
+    public List<ResponseNewUserDTO> deleteAllReturning(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Long[] idArray = ids.toArray(Long[]::new);
+        ZonedDateTime deletedAt = ZonedDateTime.now();
+        if (isPostgres()) {
+            return jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        "WITH deleted_users AS ("
+                        + " DELETE FROM " + schemaPrefix + "users WHERE id = ANY(?)"
+                        + " RETURNING id, name, user_identification, email, profile, address_id, user_credentials_id, last_update"
+                        + "), deleted_addresses AS ("
+                        + " DELETE FROM " + schemaPrefix + "addresse_user a USING deleted_users d WHERE a.id = d.address_id"
+                        + " RETURNING a.id, a.street, a.number, a.complement, a.neighborhood, a.city, a.state, a.country, a.cep"
+                        + "), deleted_credentials AS ("
+                        + " DELETE FROM " + schemaPrefix + "user_credentials c USING deleted_users d WHERE c.id = d.user_credentials_id"
+                        + " RETURNING c.id, c.username"
+                        + "), tombstones AS ("
+                        + " INSERT INTO " + schemaPrefix + "user_tombstones (user_id, deleted_at) SELECT id, ? FROM deleted_users"
+                        + ") " + USER_SELECT
+                        + " FROM deleted_users u"
+                        + " LEFT JOIN deleted_addresses a ON a.id = u.address_id"
+                        + " LEFT JOIN deleted_credentials c ON c.id = u.user_credentials_id"
+                        + " ORDER BY u.id");
+                ps.setArray(1, con.createArrayOf("bigint", idArray));
+                setTimestamp(ps, 2, deletedAt);
+                return ps;
+            }, this::mapUser);
+        }
+
+        // Os IDs do endereço e das credenciais são lidos junto com os dados retornados
+        List<Long> addressIds = new ArrayList<>();
+        List<Long> credentialsIds = new ArrayList<>();
+        List<ResponseNewUserDTO> deleted = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(USER_SELECT + ", u.user_credentials_id"
+                    + " FROM " + schemaPrefix + "users u"
+                    + " LEFT JOIN " + schemaPrefix + "addresse_user a ON a.id = u.address_id"
+                    + " LEFT JOIN " + schemaPrefix + "user_credentials c ON c.id = u.user_credentials_id"
+                    + " WHERE u.id = ANY(?) ORDER BY u.id FOR UPDATE");
+            ps.setArray(1, con.createArrayOf("bigint", idArray));
+            return ps;
+        }, (rs, rowNum) -> {
+            if (rs.getObject("address_id") != null)
+                addressIds.add(rs.getLong("address_id"));
+            if (rs.getObject("user_credentials_id") != null)
+                credentialsIds.add(rs.getLong("user_credentials_id"));
+            return mapUser(rs, rowNum);
+        });
+
+        if (!deleted.isEmpty()) {
+            jdbcTemplate.update("DELETE FROM " + schemaPrefix + "users WHERE id = ANY(?)", (Object) idArray);
+            jdbcTemplate.update("DELETE FROM " + schemaPrefix + "addresse_user WHERE id = ANY(?)", (Object) addressIds.toArray(Long[]::new));
+            jdbcTemplate.update("DELETE FROM " + schemaPrefix + "user_credentials WHERE id = ANY(?)", (Object) credentialsIds.toArray(Long[]::new));
+            batchInsert("INSERT INTO " + schemaPrefix + "user_tombstones (user_id, deleted_at) VALUES (?, ?)", deleted.size(), (ps, i) -> {
+                ps.setLong(1, deleted.get(i).getId());
+                setTimestamp(ps, 2, deletedAt);
+            });
+        }
+        return deleted;
+    }
+
+    /**
+     * Percorre email, identificação e username de todos os usuários em streaming (fetch size),
+     * sem materializar o resultado em memória. Deve ser chamado dentro de uma transação
+     * para que o driver do PostgreSQL use cursor
+     * @param consumer Recebe email, identificação e username de cada usuário
+     */
+    public void forEachUniqueKey(UniqueKeyConsumer consumer) {
+        String sql = "SELECT u.email, u.user_identification, c.username FROM " + schemaPrefix + "users u "
+                + "LEFT JOIN " + schemaPrefix + "user_credentials c ON c.id = u.user_credentials_id";
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getString(1), rs.getString(2), rs.getString(3)));
+    }
+
+    /**
+     * Percorre todos os usuários, com endereço e username, em ordem de ID e em streaming (fetch size),
+     * sem materializar o resultado em memória. Deve ser chamado dentro de uma transação
+     * para que o driver do PostgreSQL use cursor
+     * @param consumer Recebe cada usuário; o objeto não é retido após a chamada
+     */
+    public void forEachUser(Consumer<ResponseNewUserDTO> consumer) {
+        String sql = USER_SELECT
+                + " FROM " + schemaPrefix + "users u"
+                + " LEFT JOIN " + schemaPrefix + "addresse_user a ON a.id = u.address_id"
+                + " LEFT JOIN " + schemaPrefix + "user_credentials c ON c.id = u.user_credentials_id"
+                + " ORDER BY u.id";
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(mapUser(rs, rs.getRow())));
+    }
+
+    /**
+     * Busca os usuários alterados após o cursor (data e ID), em ordem de alteração. A data de alteração é a
+     * maior entre as do usuário, do endereço e das credenciais; os candidatos vêm dos índices de last_update
+     * das três tabelas, sem percorrer os usuários não alterados
+     * @param afterTime Data do cursor
+     * @param afterId ID do cursor (desempate entre alterações com a mesma data)
+     * @param until Data máxima das alterações retornadas
+     * @param limit Quantidade máxima de alterações
+     * @return Alterações (tipo upsert) com o estado atual de cada usuário
+     */
+    public List<UserChangeDTO> findChangedUsers(ZonedDateTime afterTime, long afterId, ZonedDateTime until, int limit) {
+        String sql = "SELECT * FROM (" + USER_SELECT + ", GREATEST(u.last_update, COALESCE(a.last_update, u.last_update),"
+                + " COALESCE(c.last_update, u.last_update)) AS changed_at"
+                + " FROM " + schemaPrefix + "users u"
+                + " LEFT JOIN " + schemaPrefix + "addresse_user a ON a.id = u.address_id"
+                + " LEFT JOIN " + schemaPrefix + "user_credentials c ON c.id = u.user_credentials_id"
+                + " WHERE u.id IN ("
+                + " SELECT id FROM " + schemaPrefix + "users WHERE last_update >= ?"
+                + " UNION SELECT ua.id FROM " + schemaPrefix + "addresse_user ca JOIN " + schemaPrefix + "users ua ON ua.address_id = ca.id WHERE ca.last_update >= ?"
+                + " UNION SELECT uc.id FROM " + schemaPrefix + "user_credentials cc JOIN " + schemaPrefix + "users uc ON uc.user_credentials_id = cc.id WHERE cc.last_update >= ?"
+                + ")) feed"
+                + " WHERE (changed_at > ? OR (changed_at = ? AND id > ?)) AND changed_at <= ?"
+                + " ORDER BY changed_at, id LIMIT ?";
+
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            setTimestamp(ps, 1, afterTime);
+            setTimestamp(ps, 2, afterTime);
+            setTimestamp(ps, 3, afterTime);
+            setTimestamp(ps, 4, afterTime);
+            setTimestamp(ps, 5, afterTime);
+            ps.setLong(6, afterId);
+            setTimestamp(ps, 7, until);
+            ps.setInt(8, limit);
+            return ps;
+        }, (rs, rowNum) -> new UserChangeDTO(EChangeType.upsert, rs.getLong("id"), getTimestamp(rs, "changed_at"), mapUser(rs, rowNum)));
+    }
+
+    /**
+     * Busca as exclusões após o cursor (data e ID), em ordem de exclusão
+     * @param afterTime Data do cursor
+     * @param afterId ID do cursor (desempate entre exclusões com a mesma data)
+     * @param until Data máxima das exclusões retornadas
+     * @param limit Quantidade máxima de exclusões
+     * @return Alterações do tipo delete
+     */
+    public List<UserChangeDTO> findTombstones(ZonedDateTime afterTime, long afterId, ZonedDateTime until, int limit) {
+        String sql = "SELECT user_id, deleted_at FROM " + schemaPrefix + "user_tombstones"
+                + " WHERE (deleted_at > ? OR (deleted_at = ? AND user_id > ?)) AND deleted_at <= ?"
+                + " ORDER BY deleted_at, user_id LIMIT ?";
+
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            setTimestamp(ps, 1, afterTime);
+            setTimestamp(ps, 2, afterTime);
+            ps.setLong(3, afterId);
+            setTimestamp(ps, 4, until);
+            ps.setInt(5, limit);
+            return ps;
+        }, (rs, rowNum) -> new UserChangeDTO(EChangeType.delete, rs.getLong("user_id"), getTimestamp(rs, "deleted_at"), null));
+    }
+
+    /**
+     * Remove os tombstones anteriores à data informada
+     * @param before Data limite (exclusiva)
+     * @return Quantidade de tombstones removidos
+     */
+    public int deleteTombstonesBefore(ZonedDateTime before) {
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement("DELETE FROM " + schemaPrefix + "user_tombstones WHERE deleted_at < ?");
+            setTimestamp(ps, 1, before);
+            return ps;
+        });
+    }
+
+    private ResponseNewUserDTO mapUser(ResultSet rs, int rowNum) throws SQLException {
+        ResponseNewUserDTO user = new ResponseNewUserDTO();
+        user.setId(rs.getLong("id"));
+        user.setName(rs.getString("name"));
+        user.setUserIdentification(rs.getString("user_identification"));
+        user.setEmail(rs.getString("email"));
+        user.setUsername(rs.getString("username"));
+        user.setProfile(rs.getString("profile") == null ? null : EProfile.valueOf(rs.getString("profile")));
+        user.setLastUpdate(getTimestamp(rs, "last_update"));
+
+        if (rs.getObject("address_id") != null) {
+            AddressDTO address = new AddressDTO();
+            address.setStreet(rs.getString("street"));
+            address.setNumber((Integer) rs.getObject("number", Integer.class));
+            address.setComplement(rs.getString("complement"));
+            address.setNeighborhood(rs.getString("neighborhood"));
+            address.setCity(rs.getString("city"));
+            address.setState(rs.getString("state"));
+            address.setCountry(rs.getString("country"));
+            address.setCep(rs.getString("cep"));
+            user.setAddress(address);
+        }
+        return user;
+    }
+
+    private boolean isPostgres() {
+        Boolean postgres = this.postgres;
+        if (postgres == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equalsIgnoreCase(product);
+            this.postgres = postgres;
+        }
+        return postgres;
+    }
+
+    /**
+     * Reserva IDs na sequence informada, um bloco de ID_ALLOCATION_SIZE por chamada ao banco
+     * @param sequence nome da sequence
+     * @param count quantidade de IDs necessários
+     * @return Lista com os IDs reservados
+     */
+    private List<Long> allocateIds(String sequence, int count) {
+        String sql = "SELECT nextval('" + schemaPrefix + sequence + "')";
+        List<Long> ids = new ArrayList<>(count);
+
+        while (ids.size() < count) {
+            long low = jdbcTemplate.queryForObject(sql, Long.class);
+            for (long id = low; id < low + ID_ALLOCATION_SIZE && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private void batchInsert(String sql, int size, RowSetter rowSetter) {
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                rowSetter.setValues(ps, i);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return size;
+            }
+        });
+    }
+
+    private static ZonedDateTime getTimestamp(ResultSet rs, String column) throws SQLException {
+        OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+        return value == null ? null : value.atZoneSameInstant(ZoneId.systemDefault());
+    }
+
+    private static void setTimestamp(PreparedStatement ps, int index, ZonedDateTime value) throws SQLException {
+        ps.setObject(index, value == null ? null : value.toOffsetDateTime());
+    }
+
+    @FunctionalInterface
+    public interface UniqueKeyConsumer {
+        void accept(String email, String userIdentification, String username);
+    }
+
+    @FunctionalInterface
+    private interface RowSetter {
+        void setValues(PreparedStatement ps, int i) throws SQLException;
+    }
+}
@@ -0,0 +1,33 @@
+package com.restaurantcontroller.restaurantcontroller.repository;
+
+import com.restaurantcontroller.restaurantcontroller.model.UserOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UserOutboxRepository extends JpaRepository<UserOutboxEvent, Long> {
+
+    /**
+     * Bloqueia os próximos eventos pendentes, em ordem de gravação, pulando os já bloqueados por outra
+     * transação (FOR UPDATE SKIP LOCKED): vários nós drenam o outbox ao mesmo tempo sem publicar o mesmo evento
+     * @param limit Quantidade máxima de eventos
+     * @return Eventos bloqueados até o fim da transação
+     */
+    @Query(value = "SELECT * FROM {h-schema}user_outbox_events ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<UserOutboxEvent> lockNextBatch(@Param("limit") int limit);
+
+    /**
+     * Remove os eventos já publicados
+     * @param ids IDs dos eventos
+     * @return Quantidade de eventos removidos
+     */
+    @Modifying
+    @Query("delete from UserOutboxEvent e where e.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
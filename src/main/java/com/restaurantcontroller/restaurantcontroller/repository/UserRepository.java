@@ -1,14 +1,42 @@
 package com.restaurantcontroller.restaurantcontroller.repository;
 
+import com.restaurantcontroller.restaurantcontroller.dto.UserVersionDTO;
 import com.restaurantcontroller.restaurantcontroller.model.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    /**
+     * Busca um usuário pelo ID carregando endereço e credenciais na mesma consulta
+     * @param id ID do usuário
+     * @return Optional contendo o usuário se encontrado
+     */
+    @Override
+    @EntityGraph(attributePaths = {"addressUser", "userCredentials"})
+    Optional<User> findById(Long id);
+
+    /**
+     * Lista uma página de usuários carregando endereço e credenciais na mesma consulta
+     * @param pageable parâmetros de paginação
+     * @return Página de usuários
+     */
+    @Override
+    @EntityGraph(attributePaths = {"addressUser", "userCredentials"})
+    Page<User> findAll(Pageable pageable);
     
     Optional<User> findByEmail(String email);
     
@@ -20,5 +48,91 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByUserCredentials_Username(String username);
 
-    List<User> findByNameContainingIgnoreCase(String name);
+    /**
+     * Busca as versões do usuário e do endereço e a data de atualização das credenciais em uma única
+     * consulta de projeção, sem carregar as entidades (usada para ETag / requisições condicionais)
+     * @param id ID do usuário
+     * @return Optional contendo a versão do usuário se encontrado
+     */
+    @Query("""
+            select new com.restaurantcontroller.restaurantcontroller.dto.UserVersionDTO(u.id, u.version, a.id, a.version, c.lastUpdate)
+            from User u left join u.addressUser a left join u.userCredentials c
+            where u.id = :id
+            """)
+    Optional<UserVersionDTO> findVersionById(@Param("id") Long id);
+
+    /**
+     * Busca a data da última alteração das credenciais do usuário (versão usada na revogação dos tokens)
+     * @param id ID do usuário
+     * @return Optional contendo a data se o usuário for encontrado
+     */
+    @Query("select c.lastUpdate from User u join u.userCredentials c where u.id = :id")
+    Optional<ZonedDateTime> findCredentialsLastUpdateById(@Param("id") Long id);
+
+    /**
+     * Busca o ID do usuário dono do endereço informado
+     * @param addressId ID do endereço
+     * @return Optional contendo o ID do usuário se encontrado
+     */
+    @Query("select u.id from User u where u.addressUser.id = :addressId")
+    Optional<Long> findIdByAddressId(@Param("addressId") Long addressId);
+
+    /**
+     * Retorna, dentre os emails informados, os que já estão cadastrados
+     * @param emails emails a serem verificados
+     * @return Conjunto de emails já existentes
+     */
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Retorna, dentre as identificações informadas, as que já estão cadastradas
+     * @param userIdentifications identificações a serem verificadas
+     * @return Conjunto de identificações já existentes
+     */
+    @Query("select u.userIdentification from User u where u.userIdentification in :userIdentifications")
+    Set<String> findExistingUserIdentifications(@Param("userIdentifications") Collection<String> userIdentifications);
+
+    /**
+     * Busca um usuário pelo username das credenciais, carregando as credenciais na mesma consulta
+     * @param username o username a ser buscado
+     * @return Optional contendo o usuário se encontrado
+     */
+    @EntityGraph(attributePaths = {"userCredentials"})
+    Optional<User> findByUserCredentials_Username(String username);
+
+    /**
+     * Busca os IDs dos usuários cujo nome corresponde ao termo, ignorando maiúsculas e acentos,
+     * ordenados por relevância. Utiliza o índice trigram (pg_trgm) criado em db/user-search.sql
+     * @param term termo buscado
+     * @param likeTerm termo buscado com os curingas do LIKE escapados
+     * @param limit quantidade máxima de IDs retornados
+     * @param offset quantidade de IDs ignorados
+     * @return Lista de IDs ordenada por relevância
+     */
+    @Query(value = """
+            SELECT u.id FROM {h-schema}users u
+            WHERE {h-schema}immutable_unaccent(lower(u.name)) LIKE '%' || {h-schema}immutable_unaccent(lower(:likeTerm)) || '%'
+               OR {h-schema}immutable_unaccent(lower(:term)) <% {h-schema}immutable_unaccent(lower(u.name))
+            ORDER BY word_similarity({h-schema}immutable_unaccent(lower(:term)), {h-schema}immutable_unaccent(lower(u.name))) DESC, u.id
+            LIMIT :limit OFFSET :offset
+            """, nativeQuery = true)
+    List<Long> searchIdsByName(@Param("term") String term, @Param("likeTerm") String likeTerm, @Param("limit") int limit, @Param("offset") long offset);
+
+    /**
+     * Busca usuários pelos IDs carregando endereço e credenciais na mesma consulta
+     * @param ids IDs dos usuários
+     * @return Lista de usuários encontrados (sem ordem garantida)
+     */
+    @EntityGraph(attributePaths = {"addressUser", "userCredentials"})
+    List<User> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Busca a próxima página de usuários após o ID informado (paginação keyset)
+     * @param id ID do último usuário da página anterior
+     * @param limit quantidade máxima de usuários retornados
+     * @return Lista de usuários ordenada pelo ID
+     */
+    @EntityGraph(attributePaths = {"addressUser", "userCredentials"})
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
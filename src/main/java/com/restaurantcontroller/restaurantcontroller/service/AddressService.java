@@ -1,17 +1,33 @@
 package com.restaurantcontroller.restaurantcontroller.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.restaurantcontroller.restaurantcontroller.config.CacheConfig;
+import com.restaurantcontroller.restaurantcontroller.config.ReplicaRoutingDataSource;
 import com.restaurantcontroller.restaurantcontroller.dto.AddressDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UserVersionDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.VersionedDTO;
+import com.restaurantcontroller.restaurantcontroller.exception.PreconditionFailedException;
 import com.restaurantcontroller.restaurantcontroller.mapper.AddressMapper;
+import com.restaurantcontroller.restaurantcontroller.mapper.JsonMergePatchMapper;
 import com.restaurantcontroller.restaurantcontroller.model.Address;
 import com.restaurantcontroller.restaurantcontroller.model.User;
 import com.restaurantcontroller.restaurantcontroller.repository.AddressRepository;
 import com.restaurantcontroller.restaurantcontroller.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 @Service
+@Timed(value = "service.method", description = "Tempo de execução dos métodos de serviço", histogram = true)
 public class AddressService {
 
     @Autowired
@@ -23,27 +39,101 @@ public class AddressService {
     @Autowired
     private AddressMapper addressMapper;
 
+    @Autowired
+    private JsonMergePatchMapper jsonMergePatchMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private UserOutboxService userOutboxService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     /**
      * Busca um endereço pelo ID do usuário
      * @param userId ID do usuário
      * @return Optional contendo o AddressDTO se encontrado
      */
+    @Transactional(readOnly = true)
     public Optional<AddressDTO> getAddressByUserId(Long userId) {
+        return getVersionedAddressByUserId(userId).map(VersionedDTO::getBody);
+    }
+
+    /**
+     * Busca o endereço de um usuário junto com o ETag calculado a partir dos mesmos dados do corpo
+     * @param userId ID do usuário
+     * @return Optional com o endereço e o ETag correspondente, vazio se o usuário não possuir endereço
+     * @throws IllegalArgumentException se o ID for inválido ou o usuário não for encontrado
+     */
+    @Transactional(readOnly = true)
+    public Optional<VersionedDTO<AddressDTO>> getVersionedAddressByUserId(Long userId) {
+        Optional<String> currentETag = getAddressETag(userId);
+        if (currentETag.isEmpty()) {
+            evictAddress(userId);
+            return Optional.empty();
+        }
+
+        return getVersionedAddressByUserId(userId, currentETag.get());
+    }
+
+    /**
+     * Busca o endereço de um usuário a partir do ETag atual já consultado (getAddressETag), usado quando o
+     * If-None-Match não corresponde. O acerto no cache só é servido se o ETag guardado for o atual
+     * (ver UserService.getVersionedUserById)
+     * @param userId ID do usuário
+     * @param currentETag ETag atual do endereço (sem aspas)
+     * @return Optional com o endereço e o ETag da entidade carregada, vazio se o endereço não existir mais
+     * @throws IllegalArgumentException se o ID for inválido
+     */
+    @Transactional(readOnly = true)
+    public Optional<VersionedDTO<AddressDTO>> getVersionedAddressByUserId(Long userId, String currentETag) {
         if (userId == null || userId <= 0) {
             throw new IllegalArgumentException("ID do usuário deve ser válido");
         }
 
-        Optional<User> user = userRepository.findById(userId);
-        if (user.isEmpty()) {
-            throw new IllegalArgumentException("Usuário com ID " + userId + " não encontrado");
+        Cache userAddressesCache = cacheManager.getCache(CacheConfig.USER_ADDRESSES_CACHE);
+
+        @SuppressWarnings("unchecked")
+        VersionedDTO<AddressDTO> cached = userAddressesCache == null ? null : userAddressesCache.get(userId, VersionedDTO.class);
+        if (cached != null && cached.getETag().equals(currentETag)) {
+            CacheConfig.recordVersionCheck(meterRegistry, CacheConfig.USER_ADDRESSES_CACHE, CacheConfig.VERSION_CURRENT);
+            return Optional.of(cached);
         }
+        CacheConfig.recordVersionCheck(meterRegistry, CacheConfig.USER_ADDRESSES_CACHE, cached == null ? CacheConfig.VERSION_ABSENT : CacheConfig.VERSION_STALE);
 
-        Address address = user.get().getAddressUser();
-        if (address == null) {
-            return Optional.empty();
+        // Ausente ou desatualizado: carga lida no primário, em transação própria, com o ETag da entidade carregada
+        Optional<VersionedDTO<AddressDTO>> loaded = ReplicaRoutingDataSource.readFromPrimaryInNewTransaction(transactionManager,
+                () -> userRepository.findById(userId)
+                        .map(User::getAddressUser)
+                        .map(address -> new VersionedDTO<>(addressMapper.toAddressDTO(address), eTag(address))));
+        if (userAddressesCache != null)
+            loaded.ifPresentOrElse(address -> userAddressesCache.put(userId, address), () -> userAddressesCache.evict(userId));
+        return loaded;
+    }
+
+    /**
+     * Busca o ETag atual do endereço de um usuário sem carregar as entidades (uma consulta de projeção), para
+     * responder 304 antes de consultar o cache ou carregar o endereço
+     * @param userId ID do usuário
+     * @return Optional contendo o ETag (sem aspas), vazio se o usuário não possuir endereço
+     * @throws IllegalArgumentException se o ID for inválido ou o usuário não for encontrado
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> getAddressETag(Long userId) {
+        if (userId == null || userId <= 0) {
+            throw new IllegalArgumentException("ID do usuário deve ser válido");
         }
 
-        return Optional.of(addressMapper.toAddressDTO(address));
+        Optional<UserVersionDTO> version = userRepository.findVersionById(userId);
+        if (version.isEmpty()) {
+            throw new IllegalArgumentException("Usuário com ID " + userId + " não encontrado");
+        }
+        return Optional.ofNullable(version.get().getAddressETag());
     }
 
     /**
@@ -51,6 +141,7 @@ public class AddressService {
      * @param id ID do endereço
      * @return Optional contendo o AddressDTO se encontrado
      */
+    @Transactional(readOnly = true)
     public Optional<AddressDTO> getAddressById(Long id) {
         if (id == null || id <= 0) {
             throw new IllegalArgumentException("ID do endereço deve ser válido");
@@ -64,10 +155,17 @@ public class AddressService {
      * Atualiza um endereço pelo ID do usuário
      * @param userId ID do usuário
      * @param addressDTO Dados do endereço para atualização
-     * @return AddressDTO atualizado
+     * @param ifMatch Valor do header If-Match, comparado com a versão carregada na mesma transação (null para atualização incondicional)
+     * @return VersionedDTO com o endereço atualizado e o ETag da versão gravada
      * @throws IllegalArgumentException se o usuário ou endereço não for encontrado
+     * @throws PreconditionFailedException se o ETag informado em If-Match não for o atual
      */
-    public AddressDTO updateAddressByUserId(Long userId, AddressDTO addressDTO) {
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#userId"),
+            @CacheEvict(cacheNames = CacheConfig.USER_ADDRESSES_CACHE, key = "#userId")
+    })
+    @Transactional
+    public VersionedDTO<AddressDTO> updateAddressByUserId(Long userId, AddressDTO addressDTO, String ifMatch) {
         if (userId == null || userId <= 0) {
             throw new IllegalArgumentException("ID do usuário deve ser válido");
         }
@@ -85,12 +183,47 @@ public class AddressService {
         if (address == null) {
             throw new IllegalArgumentException("Usuário não possui endereço cadastrado");
         }
-        
-        // Atualiza os campos do endereço usando o mapper
-        addressMapper.updateAddress(address, addressDTO);
 
-        Address savedAddress = addressRepository.save(address);
-        return addressMapper.toAddressDTO(savedAddress);
+        checkIfMatch(address, ifMatch);
+        return saveIfChanged(userId, address, addressDTO);
+    }
+
+    /**
+     * Atualiza parcialmente o endereço de um usuário com um JSON Merge Patch (RFC 7386).
+     * Somente as colunas alteradas entram no UPDATE; um patch sem alterações não gera escrita no banco
+     * @param userId ID do usuário
+     * @param patch Documento do merge patch (campos ausentes são mantidos)
+     * @param ifMatch Valor do header If-Match, comparado com a versão carregada na mesma transação (null para atualização incondicional)
+     * @return VersionedDTO com os dados do endereço e o ETag da versão gravada
+     * @throws IllegalArgumentException se o usuário ou endereço não for encontrado ou o patch for inválido
+     * @throws PreconditionFailedException se o ETag informado em If-Match não for o atual
+     * @throws jakarta.validation.ConstraintViolationException se o resultado do patch violar as validações
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#userId"),
+            @CacheEvict(cacheNames = CacheConfig.USER_ADDRESSES_CACHE, key = "#userId")
+    })
+    @Transactional
+    public VersionedDTO<AddressDTO> patchAddressByUserId(Long userId, JsonNode patch, String ifMatch) {
+        if (userId == null || userId <= 0) {
+            throw new IllegalArgumentException("ID do usuário deve ser válido");
+        }
+
+        Optional<User> user = userRepository.findById(userId);
+        if (user.isEmpty()) {
+            throw new IllegalArgumentException("Usuário com ID " + userId + " não encontrado");
+        }
+
+        Address address = user.get().getAddressUser();
+        if (address == null) {
+            throw new IllegalArgumentException("Usuário não possui endereço cadastrado");
+        }
+
+        checkIfMatch(address, ifMatch);
+
+        // O estado atual do endereço é a base sobre a qual o patch é aplicado
+        AddressDTO patchedAddress = jsonMergePatchMapper.apply(addressMapper.toAddressDTO(address), patch);
+        return saveIfChanged(userId, address, patchedAddress);
     }
 
     /**
@@ -100,6 +233,7 @@ public class AddressService {
      * @return AddressDTO atualizado
      * @throws IllegalArgumentException se o endereço não for encontrado
      */
+    @Transactional
     public AddressDTO updateAddress(Long id, AddressDTO addressDTO) {
         if (id == null || id <= 0) {
             throw new IllegalArgumentException("ID do endereço deve ser válido");
@@ -115,11 +249,63 @@ public class AddressService {
         }
 
         Address address = existingAddress.get();
-        
-        // Atualiza os campos do endereço usando o mapper
-        addressMapper.updateAddress(address, addressDTO);
+
+        // Atualiza os campos do endereço usando o mapper (somente se algo mudou)
+        if (!addressMapper.updateAddress(address, addressDTO)) {
+            return addressMapper.toAddressDTO(address);
+        }
 
         Address savedAddress = addressRepository.save(address);
-        return addressMapper.toAddressDTO(savedAddress);
+        AddressDTO savedAddressDTO = addressMapper.toAddressDTO(savedAddress);
+
+        // O cache e o evento são indexados pelo ID do usuário, que precisa ser resolvido a partir do endereço
+        userRepository.findIdByAddressId(id).ifPresent(userId -> {
+            evictUserCaches(userId);
+            userOutboxService.recordAddressUpdated(userId, savedAddressDTO);
+        });
+        return savedAddressDTO;
+    }
+
+    // A pré-condição é verificada sobre o endereço carregado nesta transação: uma escrita concorrente que
+    // termine depois desta leitura faz o UPDATE (where version = ?) falhar, em vez de ser sobrescrita
+    private static void checkIfMatch(Address address, String ifMatch) {
+        if (!UserVersionDTO.matches(ifMatch, eTag(address)))
+            throw new PreconditionFailedException("O endereço foi alterado desde a versão informada em If-Match");
+    }
+
+    private static String eTag(Address address) {
+        return new UserVersionDTO(null, null, address.getId(), address.getVersion(), null).getAddressETag();
+    }
+
+    private VersionedDTO<AddressDTO> saveIfChanged(Long userId, Address address, AddressDTO addressDTO) {
+        // Nada mudou: nenhuma escrita nem alteração do lastUpdate
+        if (!addressMapper.updateAddress(address, addressDTO)) {
+            return new VersionedDTO<>(addressMapper.toAddressDTO(address), eTag(address));
+        }
+
+        // @DynamicUpdate grava apenas as colunas alteradas; o flush atualiza a versão usada no ETag da resposta
+        Address savedAddress = addressRepository.saveAndFlush(address);
+        AddressDTO savedAddressDTO = addressMapper.toAddressDTO(savedAddress);
+        userOutboxService.recordAddressUpdated(userId, savedAddressDTO);
+        return new VersionedDTO<>(savedAddressDTO, eTag(savedAddress));
+    }
+
+    private void evictAddress(Long userId) {
+        Cache userAddresses = cacheManager.getCache(CacheConfig.USER_ADDRESSES_CACHE);
+        if (userAddresses != null) {
+            userAddresses.evict(userId);
+        }
+    }
+
+    private void evictUserCaches(Long userId) {
+        Cache users = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        if (users != null) {
+            users.evict(userId);
+        }
+
+        Cache userAddresses = cacheManager.getCache(CacheConfig.USER_ADDRESSES_CACHE);
+        if (userAddresses != null) {
+            userAddresses.evict(userId);
+        }
     }
 }
@@ -0,0 +1,174 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import com.restaurantcontroller.restaurantcontroller.dto.ChangeFeedPageDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UserChangeDTO;
+import com.restaurantcontroller.restaurantcontroller.repository.UserJdbcRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Feed incremental de alterações de usuários (criações, alterações e exclusões), paginado por um cursor
+ * estável (data da alteração e ID). Somente alterações com mais de settle-time são entregues, para que
+ * transações ainda não confirmadas (ou ainda não replicadas) com data anterior não sejam puladas pelo cursor
+ */
+@Service
+@Timed(value = "service.method", description = "Tempo de execução dos métodos de serviço", histogram = true)
+public class ChangeFeedService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    // Valor de 'since' que retorna o cursor da posição atual do feed, sem alterações
+    public static final String CURSOR_NOW = "now";
+
+    // Quantidade padrão e máxima de alterações por página
+    private static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    private static final Comparator<UserChangeDTO> CHANGE_ORDER = Comparator
+            .comparing((UserChangeDTO change) -> change.getChangedAt().toInstant())
+            .thenComparing(UserChangeDTO::getId);
+
+    private final UserJdbcRepository userJdbcRepository;
+    private final Duration settleTime;
+    private final Duration tombstoneRetention;
+
+    // Construtor para injeção de dependência
+    public ChangeFeedService(UserJdbcRepository userJdbcRepository,
+                             @Value("${change-feed.settle-time:10s}") Duration settleTime,
+                             @Value("${change-feed.tombstone-retention:30d}") Duration tombstoneRetention) {
+        this.userJdbcRepository = userJdbcRepository;
+        this.settleTime = settleTime;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    /**
+     * Busca as alterações de usuários ocorridas após o cursor, em ordem de ocorrência
+     * @param since Cursor retornado pela consulta anterior (null para desde o início; "now" para a posição atual)
+     * @param limit Quantidade máxima de alterações (padrão 100, máximo 1000)
+     * @return ChangeFeedPageDTO com as alterações e o cursor da próxima consulta
+     * @throws IllegalArgumentException se o cursor ou o limite forem inválidos, ou se o cursor for mais antigo que a retenção dos tombstones
+     */
+    @Transactional(readOnly = true)
+    public ChangeFeedPageDTO getChanges(String since, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_LIMIT : limit;
+        if (pageSize < 1 || pageSize > MAX_LIMIT)
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + MAX_LIMIT);
+
+        ZonedDateTime until = settledUntil();
+        return getChanges(resolveCursor(since, until), pageSize, until);
+    }
+
+    /**
+     * Valida o cursor informado pelo cliente e o converte no cursor inicial de uma leitura
+     * @param since Cursor recebido (null para desde o início; "now" para a posição atual)
+     * @return Cursor a ser usado na primeira leitura (null para desde o início)
+     * @throws IllegalArgumentException se o cursor for inválido ou mais antigo que a retenção dos tombstones
+     */
+    public String resolveCursor(String since) {
+        return resolveCursor(since, settledUntil());
+    }
+
+    /**
+     * Busca as alterações após o cursor até a data informada; usado pelo streaming (SSE) para que os
+     * assinantes no mesmo ponto do feed compartilhem a mesma consulta
+     */
+    @Transactional(readOnly = true)
+    ChangeFeedPageDTO getChanges(String since, int pageSize, ZonedDateTime until) {
+        Cursor cursor = decodeCursor(since);
+
+        // Busca um item a mais de cada origem para saber se existe próxima página
+        List<UserChangeDTO> changes = new ArrayList<>(userJdbcRepository.findChangedUsers(cursor.time(), cursor.id(), until, pageSize + 1));
+        changes.addAll(userJdbcRepository.findTombstones(cursor.time(), cursor.id(), until, pageSize + 1));
+        changes.sort(CHANGE_ORDER);
+
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = new ArrayList<>(changes.subList(0, pageSize));
+        }
+        changes.forEach(change -> change.setCursor(encodeCursor(change.getChangedAt(), change.getId())));
+
+        // Sem próxima página, todas as alterações até 'until' já foram entregues: o cursor avança até lá,
+        // mantendo atual o cursor de consumidores sem alterações novas
+        // (sem retroceder, caso o cursor recebido venha de um nó com o relógio adiantado)
+        String nextCursor;
+        if (hasMore) {
+            nextCursor = changes.get(changes.size() - 1).getCursor();
+        } else {
+            nextCursor = cursor.time().isAfter(until) ? encodeCursor(cursor.time(), cursor.id()) : encodeCursor(until, Long.MAX_VALUE);
+        }
+        return new ChangeFeedPageDTO(changes, nextCursor, hasMore);
+    }
+
+    /**
+     * Data máxima das alterações que podem ser entregues agora
+     * @return Data atual menos o settle-time
+     */
+    ZonedDateTime settledUntil() {
+        return ZonedDateTime.now().minus(settleTime);
+    }
+
+    /**
+     * Remove os tombstones mais antigos que a retenção configurada. Consumidores parados por mais tempo
+     * que a retenção precisam refazer a sincronização completa
+     */
+    @Transactional
+    @Scheduled(initialDelayString = "${change-feed.tombstone-purge-interval:1h}", fixedDelayString = "${change-feed.tombstone-purge-interval:1h}")
+    public void purgeTombstones() {
+        int removed = userJdbcRepository.deleteTombstonesBefore(ZonedDateTime.now().minus(tombstoneRetention));
+        if (removed > 0) {
+            log.info("(ChangeFeedService.purgeTombstones) {} tombstones removidos", removed);
+        }
+    }
+
+    private String resolveCursor(String since, ZonedDateTime until) {
+        if (since == null || since.isBlank())
+            return null;
+        if (CURSOR_NOW.equals(since))
+            return encodeCursor(until, Long.MAX_VALUE);
+
+        if (decodeCursor(since).time().isBefore(ZonedDateTime.now().minus(tombstoneRetention)))
+            throw new IllegalArgumentException("Cursor expirado: exclusões anteriores já foram descartadas, refaça a sincronização completa");
+        return since;
+    }
+
+    // Cursor: microssegundos desde a época (mesma precisão do timestamp do PostgreSQL) e ID, em base64
+    private static String encodeCursor(ZonedDateTime time, long id) {
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, time.toInstant());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((micros + "." + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank())
+            return new Cursor(Instant.EPOCH.atZone(ZoneId.systemDefault()), 0L);
+
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\.");
+            if (parts.length != 2)
+                throw new IllegalArgumentException("Cursor inválido");
+
+            Instant time = Instant.EPOCH.plus(Long.parseLong(parts[0]), ChronoUnit.MICROS);
+            return new Cursor(time.atZone(ZoneId.systemDefault()), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | ArithmeticException ex) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    private record Cursor(ZonedDateTime time, long id) {
+    }
+}
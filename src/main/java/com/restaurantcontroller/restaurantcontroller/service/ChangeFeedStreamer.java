@@ -0,0 +1,237 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import com.restaurantcontroller.restaurantcontroller.dto.ChangeFeedPageDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UserChangeDTO;
+import com.restaurantcontroller.restaurantcontroller.exception.ChangeFeedUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Envio das alterações de usuários em tempo real via Server-Sent Events. Uma única tarefa agendada consulta
+ * o feed e distribui as alterações; os assinantes que estão no mesmo ponto do feed (todos os já sincronizados)
+ * compartilham uma única consulta por ciclo, em vez de cada conexão consultar o banco.
+ * A tarefa agendada apenas enfileira os eventos: cada assinante tem uma fila limitada, escrita na conexão por uma
+ * virtual thread própria, e o assinante cuja fila enche (conexão lenta) é desconectado em vez de atrasar os demais.
+ * Ao reconectar com o Last-Event-ID ele retoma a partir do último evento recebido
+ */
+@Component
+public class ChangeFeedStreamer {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeedStreamer.class);
+
+    // Páginas lidas por grupo de assinantes em cada ciclo (limita o tempo de um ciclo durante a recuperação)
+    static final int MAX_PAGES_PER_POLL = 10;
+
+    private final ChangeFeedService changeFeedService;
+    private final long streamTimeoutMillis;
+    private final long heartbeatIntervalNanos;
+    private final int maxSubscribers;
+    private final int sendQueueCapacity;
+    private final Counter droppedSubscribers;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    // Construtor para injeção de dependência
+    public ChangeFeedStreamer(ChangeFeedService changeFeedService, MeterRegistry meterRegistry,
+                              @Value("${change-feed.stream.timeout:30m}") Duration streamTimeout,
+                              @Value("${change-feed.stream.heartbeat-interval:15s}") Duration heartbeatInterval,
+                              @Value("${change-feed.stream.max-subscribers:1000}") int maxSubscribers,
+                              @Value("${change-feed.stream.send-queue-capacity:2000}") int sendQueueCapacity) {
+        // A fila precisa comportar ao menos uma página inteira do feed e o heartbeat
+        if (sendQueueCapacity <= ChangeFeedService.MAX_LIMIT)
+            throw new IllegalArgumentException("change-feed.stream.send-queue-capacity deve ser maior que " + ChangeFeedService.MAX_LIMIT);
+
+        this.changeFeedService = changeFeedService;
+        this.streamTimeoutMillis = streamTimeout.toMillis();
+        this.heartbeatIntervalNanos = heartbeatInterval.toNanos();
+        this.maxSubscribers = maxSubscribers;
+        this.sendQueueCapacity = sendQueueCapacity;
+
+        Gauge.builder("change.feed.subscribers", subscribers, List::size)
+                .description("Conexões SSE ativas do feed de alterações")
+                .register(meterRegistry);
+        this.droppedSubscribers = Counter.builder("change.feed.subscribers.dropped")
+                .description("Conexões SSE encerradas por não acompanharem o feed (fila de envio cheia)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra um assinante do feed a partir do cursor informado
+     * @param since Cursor inicial (null para desde o início; "now" para somente as próximas alterações)
+     * @return SseEmitter que recebe um evento por alteração, com o cursor da alteração como id do evento
+     * @throws IllegalArgumentException se o cursor for inválido ou expirado
+     * @throws ChangeFeedUnavailableException se o limite de assinantes foi atingido
+     */
+    public SseEmitter subscribe(String since) {
+        String cursor = changeFeedService.resolveCursor(since);
+        Subscriber subscriber;
+        synchronized (subscribers) {
+            if (subscribers.size() >= maxSubscribers)
+                throw new ChangeFeedUnavailableException("Limite de " + maxSubscribers + " conexões do feed de alterações atingido");
+
+            subscriber = new Subscriber(new SseEmitter(streamTimeoutMillis), cursor);
+            subscribers.add(subscriber);
+        }
+        subscriber.emitter.onCompletion(subscriber::stop);
+        subscriber.emitter.onTimeout(subscriber::stop);
+        subscriber.emitter.onError(ex -> subscriber.stop());
+        subscriber.start();
+        return subscriber.emitter;
+    }
+
+    /**
+     * Consulta o feed e envia as alterações aos assinantes, agrupados pelo cursor atual de cada um
+     */
+    @Scheduled(fixedDelayString = "${change-feed.stream.poll-interval:1s}")
+    public void poll() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        ZonedDateTime until = changeFeedService.settledUntil();
+        Map<String, List<Subscriber>> groups = new LinkedHashMap<>();
+        for (Subscriber subscriber : subscribers) {
+            groups.computeIfAbsent(Objects.requireNonNullElse(subscriber.cursor, ""), cursor -> new CopyOnWriteArrayList<>()).add(subscriber);
+        }
+
+        groups.forEach((cursor, group) -> {
+            try {
+                String nextCursor = cursor.isEmpty() ? null : cursor;
+                for (int page = 0; page < MAX_PAGES_PER_POLL && !group.isEmpty(); page++) {
+                    ChangeFeedPageDTO changes = changeFeedService.getChanges(nextCursor, ChangeFeedService.MAX_LIMIT, until);
+                    for (Subscriber subscriber : group) {
+                        if (!subscriber.send(changes.getChanges())) {
+                            group.remove(subscriber);
+                        }
+                    }
+
+                    nextCursor = changes.getNextCursor();
+                    for (Subscriber subscriber : group) {
+                        subscriber.cursor = nextCursor;
+                    }
+                    if (!changes.isHasMore()) {
+                        break;
+                    }
+                    // Recuperação: quem ainda não escreveu as páginas anteriores sai do grupo sem ser desconectado
+                    // e continua no próximo ciclo a partir do próprio cursor
+                    group.removeIf(subscriber -> subscriber.queue.remainingCapacity() < ChangeFeedService.MAX_LIMIT);
+                }
+            } catch (RuntimeException ex) {
+                // Falha na consulta: os assinantes mantêm o cursor e recebem as alterações no próximo ciclo
+                log.warn("(ChangeFeedStreamer.poll) Error: {}", ex.getMessage());
+            }
+        });
+
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (now - subscriber.lastQueuedNanos >= heartbeatIntervalNanos) {
+                subscriber.heartbeat();
+            }
+        }
+    }
+
+    /**
+     * Conexão SSE de um consumidor, a sua posição no feed e a fila de eventos ainda não escritos na conexão.
+     * Somente a tarefa agendada enfileira; somente a virtual thread do assinante escreve no SseEmitter
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(sendQueueCapacity);
+        private volatile Thread sender;
+        private volatile boolean stopped;
+        private volatile String cursor;
+        private volatile long lastQueuedNanos = System.nanoTime();
+
+        Subscriber(SseEmitter emitter, String cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+        void start() {
+            sender = Thread.ofVirtual().name("change-feed-sse").start(this::drain);
+        }
+
+        // Retorna false se a conexão foi encerrada ou se o assinante foi desconectado por estar atrasado
+        boolean send(List<UserChangeDTO> changes) {
+            if (stopped) {
+                return false;
+            }
+            if (changes.isEmpty()) {
+                return true;
+            }
+            if (queue.remainingCapacity() < changes.size()) {
+                drop();
+                return false;
+            }
+
+            for (UserChangeDTO change : changes) {
+                queue.add(SseEmitter.event()
+                        .id(change.getCursor())
+                        .name(change.getType().name())
+                        .data(change, MediaType.APPLICATION_JSON));
+            }
+            lastQueuedNanos = System.nanoTime();
+            return true;
+        }
+
+        // Comentário periódico para manter a conexão aberta em proxies e balanceadores
+        void heartbeat() {
+            if (!queue.offer(SseEmitter.event().comment("keep-alive"))) {
+                drop();
+                return;
+            }
+            lastQueuedNanos = System.nanoTime();
+        }
+
+        // Escreve os eventos enfileirados na conexão, bloqueando somente esta virtual thread
+        private void drain() {
+            try {
+                while (true) {
+                    emitter.send(queue.take());
+                }
+            } catch (InterruptedException ex) {
+                // Conexão encerrada (stop)
+            } catch (IOException | IllegalStateException ex) {
+                stop();
+                emitter.completeWithError(ex);
+            }
+        }
+
+        // Fila cheia: o consumidor não acompanha o feed e é desconectado
+        private void drop() {
+            droppedSubscribers.increment();
+            log.warn("(ChangeFeedStreamer.drop) Subscriber dropped: send queue full ({} events)", sendQueueCapacity);
+            stop();
+            emitter.complete();
+        }
+
+        void stop() {
+            stopped = true;
+            subscribers.remove(this);
+            queue.clear();
+            Thread thread = sender;
+            if (thread != null && thread != Thread.currentThread()) {
+                thread.interrupt();
+            }
+        }
+    }
+}
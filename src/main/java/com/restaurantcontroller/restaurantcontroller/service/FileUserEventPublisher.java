@@ -0,0 +1,57 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurantcontroller.restaurantcontroller.dto.UserEventDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Publica os eventos em um arquivo local NDJSON (um evento por linha), em modo append. Substitui um broker
+ * em desenvolvimento e em instalações de um único nó; o arquivo é sincronizado em disco antes da confirmação
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.publisher", havingValue = "file", matchIfMissing = true)
+public class FileUserEventPublisher implements UserEventPublisher {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    // Construtor para injeção de dependência
+    public FileUserEventPublisher(ObjectMapper objectMapper,
+                                  @Value("${outbox.file.path:outbox/user-events.ndjson}") Path path) {
+        this.objectMapper = objectMapper;
+        this.path = path;
+    }
+
+    @Override
+    public synchronized void publish(List<UserEventDTO> events) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        for (UserEventDTO event : events) {
+            lines.write(objectMapper.writeValueAsBytes(event));
+            lines.write('\n');
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurantcontroller.restaurantcontroller.dto.UserEventDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Publica cada lote de eventos como um array JSON em um POST para o endpoint configurado (webhook ou
+ * gateway de um broker). Qualquer resposta fora de 2xx é tratada como falha e o lote é reenviado
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.publisher", havingValue = "http")
+public class HttpUserEventPublisher implements UserEventPublisher {
+
+    private final ObjectMapper objectMapper;
+    private final URI uri;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+
+    // Construtor para injeção de dependência
+    public HttpUserEventPublisher(ObjectMapper objectMapper,
+                                  @Value("${outbox.http.url}") URI uri,
+                                  @Value("${outbox.http.timeout:5s}") Duration timeout) {
+        if (!uri.isAbsolute())
+            throw new IllegalStateException("outbox.http.url é obrigatório quando outbox.publisher=http");
+
+        this.objectMapper = objectMapper;
+        this.uri = uri;
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public void publish(List<UserEventDTO> events) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(events)))
+                .build();
+
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Destino dos eventos respondeu HTTP " + response.statusCode());
+        }
+    }
+}
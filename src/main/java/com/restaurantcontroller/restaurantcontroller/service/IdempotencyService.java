@@ -0,0 +1,189 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.restaurantcontroller.restaurantcontroller.config.RequestClient;
+import com.restaurantcontroller.restaurantcontroller.exception.IdempotencyKeyReusedException;
+import com.restaurantcontroller.restaurantcontroller.exception.IdempotentRequestInProgressException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Suporte ao header Idempotency-Key nas escritas: a resposta de sucesso da primeira execução fica em um
+ * cache limitado (tamanho e TTL) e é devolvida às repetições com a mesma chave, sem executar a escrita de novo.
+ * Repetições que chegam enquanto a primeira ainda executa aguardam o resultado dela em vez de concorrer com ela.
+ * Respostas de erro não são guardadas: a escrita não ocorreu e a repetição é executada normalmente.
+ * As execuções em andamento ficam fora do cache limitado, para que a remoção por tamanho nunca descarte
+ * uma execução pendente e deixe uma repetição concorrente executar a escrita de novo
+ */
+@Component
+public class IdempotencyService {
+
+    // Header enviado pelo cliente (mesmo valor em todas as tentativas da mesma operação)
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    // Header das respostas devolvidas a partir do cache
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    // Tamanho máximo aceito para a chave
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final ObjectMapper objectMapper;
+    private final Duration waitTimeout;
+    private final Cache<String, Execution> executions;
+    private final ConcurrentMap<String, Execution> inFlight = new ConcurrentHashMap<>();
+
+    // Construtor para injeção de dependência
+    public IdempotencyService(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                              @Value("${idempotency.maximum-size:10000}") long maximumSize,
+                              @Value("${idempotency.ttl:24h}") Duration ttl,
+                              @Value("${idempotency.wait-timeout:30s}") Duration waitTimeout) {
+        this.objectMapper = objectMapper;
+        this.waitTimeout = waitTimeout;
+        this.executions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, executions, "idempotency");
+    }
+
+    /**
+     * Executa a escrita uma única vez por chave de idempotência
+     * @param idempotencyKey Valor do header Idempotency-Key (null executa a escrita sem idempotência)
+     * @param operation Operação e recurso (ex.: "PUT /users/1"); a mesma chave em outra operação é uma execução distinta
+     * @param request Corpo da requisição; a mesma chave com outro corpo é rejeitada
+     * @param action Escrita a ser executada
+     * @return Resposta da escrita, ou a resposta guardada da primeira execução (com o header Idempotent-Replayed)
+     * @throws IllegalArgumentException se a chave for vazia ou longa demais
+     * @throws IdempotencyKeyReusedException se a chave já foi usada com outro corpo
+     * @throws IdempotentRequestInProgressException se a primeira execução não terminar dentro do wait-timeout
+     */
+    public <T> ResponseEntity<T> execute(String idempotencyKey, String operation, Object request, Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH)
+            throw new IllegalArgumentException(IDEMPOTENCY_KEY_HEADER + " deve ter entre 1 e " + MAX_KEY_LENGTH + " caracteres");
+
+        // Escopo das chaves: usuário autenticado ou, nas escritas sem autenticação (ex.: cadastro), o IP do cliente,
+        // para que dois clientes anônimos que gerem a mesma chave não recebam a resposta um do outro
+        String cacheKey = RequestClient.current().orElse("anonymous") + "|" + operation + "|" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+
+        while (true) {
+            Execution existing = executions.getIfPresent(cacheKey);
+            if (existing == null) {
+                Execution execution = new Execution(fingerprint, new CompletableFuture<>());
+                existing = inFlight.putIfAbsent(cacheKey, execution);
+                if (existing == null) {
+                    // Concluída entre a consulta ao cache e o registro: a resposta guardada prevalece
+                    Execution completed = executions.getIfPresent(cacheKey);
+                    if (completed == null) {
+                        return run(cacheKey, execution, action);
+                    }
+                    release(cacheKey, execution);
+                    existing = completed;
+                }
+            }
+
+            if (!existing.fingerprint().equals(fingerprint))
+                throw new IdempotencyKeyReusedException(idempotencyKey);
+
+            StoredResponse stored = await(existing, idempotencyKey);
+            if (stored != null) {
+                return stored.replay();
+            }
+            // A execução anterior terminou com erro e liberou a chave: esta requisição tenta de novo
+        }
+    }
+
+    private <T> ResponseEntity<T> run(String cacheKey, Execution execution, Supplier<ResponseEntity<T>> action) {
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error ex) {
+            release(cacheKey, execution);
+            throw ex;
+        }
+
+        if (response == null || !response.getStatusCode().is2xxSuccessful()) {
+            release(cacheKey, execution);
+            return response;
+        }
+
+        // Guardada no cache antes de sair das execuções em andamento: a chave nunca fica sem registro
+        execution.response().complete(new StoredResponse(response.getStatusCode(), HttpHeaders.readOnlyHttpHeaders(response.getHeaders()), response.getBody()));
+        executions.put(cacheKey, execution);
+        inFlight.remove(cacheKey, execution);
+        return response;
+    }
+
+    // Remove a chave e acorda as requisições que aguardavam, que passam a executar por conta própria
+    private void release(String cacheKey, Execution execution) {
+        inFlight.remove(cacheKey, execution);
+        execution.response().complete(null);
+    }
+
+    private StoredResponse await(Execution execution, String idempotencyKey) {
+        try {
+            return execution.response().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            throw new IdempotentRequestInProgressException(idempotencyKey);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IdempotentRequestInProgressException(idempotencyKey);
+        } catch (ExecutionException ex) {
+            return null;
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Erro ao calcular o hash da requisição", ex);
+        }
+    }
+
+    /**
+     * Execução de uma chave: hash do corpo da requisição e a resposta, concluída ao fim da primeira execução
+     * (null se ela falhou)
+     */
+    private record Execution(String fingerprint, CompletableFuture<StoredResponse> response) {
+    }
+
+    /**
+     * Resposta de sucesso guardada para as repetições
+     */
+    private record StoredResponse(HttpStatusCode status, HttpHeaders headers, Object body) {
+
+        @SuppressWarnings("unchecked")
+        <T> ResponseEntity<T> replay() {
+            return ResponseEntity.status(status)
+                    .headers(headers)
+                    .header(REPLAYED_HEADER, "true")
+                    .body((T) body);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.restaurantcontroller.restaurantcontroller.exception.LoginRateLimitedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limita as tentativas de login com token buckets em memória, um por username e um por IP do cliente.
+ * A verificação é feita antes de qualquer consulta ao banco ou BCrypt, então uma rajada de tentativas
+ * (credential stuffing) é rejeitada sem consumir CPU. Os buckets ficam em caches limitados, com remoção
+ * dos buckets ociosos, e são protegidos por locks particionados (striped) em vez de um lock global
+ */
+@Component
+public class LoginRateLimiter {
+
+    /**
+     * Chaves pelas quais as tentativas são limitadas
+     */
+    public enum Key {
+        USERNAME("username"),
+        IP("ip");
+
+        private final String tag;
+
+        Key(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final boolean enabled;
+    private final TokenBuckets usernameBuckets;
+    private final TokenBuckets ipBuckets;
+
+    @Autowired
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${security.login-rate-limit.enabled:true}") boolean enabled,
+                            @Value("${security.login-rate-limit.username.capacity:5}") int usernameCapacity,
+                            @Value("${security.login-rate-limit.username.refill-interval:12s}") Duration usernameRefillInterval,
+                            @Value("${security.login-rate-limit.ip.capacity:30}") int ipCapacity,
+                            @Value("${security.login-rate-limit.ip.refill-interval:2s}") Duration ipRefillInterval,
+                            @Value("${security.login-rate-limit.max-keys:100000}") long maxKeys,
+                            @Value("${security.login-rate-limit.idle-timeout:15m}") Duration idleTimeout,
+                            @Value("${security.login-rate-limit.stripes:64}") int stripes) {
+        this(meterRegistry, enabled, usernameCapacity, usernameRefillInterval, ipCapacity, ipRefillInterval,
+                maxKeys, idleTimeout, stripes, Ticker.systemTicker());
+    }
+
+    // Construtor com relógio configurável, usado nos testes
+    LoginRateLimiter(MeterRegistry meterRegistry, boolean enabled,
+                     int usernameCapacity, Duration usernameRefillInterval,
+                     int ipCapacity, Duration ipRefillInterval,
+                     long maxKeys, Duration idleTimeout, int stripes, Ticker ticker) {
+        this.enabled = enabled;
+        this.usernameBuckets = new TokenBuckets(Key.USERNAME, usernameCapacity, usernameRefillInterval, maxKeys, idleTimeout, stripes, ticker, meterRegistry);
+        this.ipBuckets = new TokenBuckets(Key.IP, ipCapacity, ipRefillInterval, maxKeys, idleTimeout, stripes, ticker, meterRegistry);
+    }
+
+    /**
+     * Consome uma tentativa de login do IP e do username informados
+     * @param username Username informado no login
+     * @param clientIp Endereço IP do cliente
+     * @throws LoginRateLimitedException se o IP ou o username excederem o limite de tentativas
+     */
+    public void acquire(String username, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+
+        // O IP é verificado primeiro para que uma rajada vinda de um único cliente não bloqueie o username
+        ipBuckets.acquire(clientIp == null ? "" : clientIp);
+        usernameBuckets.acquire(username == null ? "" : username.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Buckets de uma chave (username ou IP), com um lock por partição do espaço de chaves
+     */
+    private static final class TokenBuckets {
+
+        private final int capacity;
+        private final long nanosPerToken;
+        private final Ticker ticker;
+        private final Cache<String, Bucket> buckets;
+        private final ReentrantLock[] locks;
+        private final Counter rejected;
+
+        TokenBuckets(Key key, int capacity, Duration refillInterval, long maxKeys, Duration idleTimeout,
+                     int stripes, Ticker ticker, MeterRegistry meterRegistry) {
+            if (capacity < 1 || refillInterval.isNegative() || refillInterval.isZero()) {
+                throw new IllegalArgumentException("Limite de login inválido para " + key.tag);
+            }
+
+            this.capacity = capacity;
+            this.nanosPerToken = refillInterval.toNanos();
+            this.ticker = ticker;
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(idleTimeout)
+                    .ticker(ticker)
+                    .build();
+
+            // Quantidade de partições arredondada para potência de 2
+            this.locks = new ReentrantLock[Integer.highestOneBit(Math.max(1, stripes - 1)) << 1];
+            for (int i = 0; i < locks.length; i++) {
+                locks[i] = new ReentrantLock();
+            }
+
+            this.rejected = Counter.builder("login.attempts.rejected")
+                    .description("Tentativas de login rejeitadas pelo limite de tentativas")
+                    .tag("key", key.tag)
+                    .register(meterRegistry);
+            Gauge.builder("login.rate.limiter.buckets", buckets, Cache::estimatedSize)
+                    .description("Buckets de tentativas de login em memória")
+                    .tag("key", key.tag)
+                    .register(meterRegistry);
+        }
+
+        void acquire(String key) {
+            int hash = key.hashCode();
+            ReentrantLock lock = locks[(hash ^ (hash >>> 16)) & (locks.length - 1)];
+
+            long waitNanos;
+            lock.lock();
+            try {
+                long now = ticker.read();
+                Bucket bucket = buckets.get(key, k -> new Bucket(capacity, now));
+                waitNanos = bucket.tryConsume(now, capacity, nanosPerToken);
+            } finally {
+                lock.unlock();
+            }
+
+            if (waitNanos > 0) {
+                rejected.increment();
+                long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+                throw new LoginRateLimitedException("Muitas tentativas de login. Tente novamente em " + retryAfterSeconds + "s", retryAfterSeconds);
+            }
+        }
+    }
+
+    /**
+     * Token bucket de uma chave; acessado somente com o lock da partição da chave
+     */
+    private static final class Bucket {
+
+        private double tokens;
+        private long lastRefill;
+
+        Bucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        // Retorna 0 se a tentativa foi aceita, ou o tempo (ns) até o próximo token
+        long tryConsume(long now, int capacity, long nanosPerToken) {
+            tokens = Math.min(capacity, tokens + (double) (now - lastRefill) / nanosPerToken);
+            lastRefill = now;
+
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) * nanosPerToken);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Repetição limitada, com backoff exponencial e jitter, de escritas que falharam por conflito de versão
+ * (@Version). Cada tentativa é uma nova transação, que relê o estado atual e reaplica a alteração; por isso
+ * só deve envolver alterações que continuem corretas sobre o estado atual (ex.: JSON Merge Patch, que altera
+ * apenas os campos enviados), nunca um PUT completo (sobrescreveria a escrita concorrente) nem alterações
+ * que dependam de uma versão conhecida pelo cliente (If-Match)
+ */
+@Component
+public class OptimisticLockRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final Counter retriesCounter;
+    private final Counter exhaustedCounter;
+
+    // Construtor para injeção de dependência
+    public OptimisticLockRetry(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                               @Value("${optimistic-lock.retry.max-attempts:3}") int maxAttempts,
+                               @Value("${optimistic-lock.retry.initial-backoff:10ms}") Duration initialBackoff,
+                               @Value("${optimistic-lock.retry.max-backoff:200ms}") Duration maxBackoff) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.retriesCounter = Counter.builder("optimistic.lock.retries")
+                .description("Escritas repetidas após conflito de versão")
+                .register(meterRegistry);
+        this.exhaustedCounter = Counter.builder("optimistic.lock.retries.exhausted")
+                .description("Escritas que continuaram em conflito após todas as tentativas (409)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executa a escrita em uma transação própria, repetindo-a enquanto houver conflito de versão
+     * (até max-attempts). Chamada dentro de uma transação já existente, executa uma única vez: o conflito
+     * só aparece no commit da transação externa, que é quem deve decidir repetir
+     * @param action Escrita idempotente a ser executada
+     * @return Resultado da escrita
+     * @throws OptimisticLockingFailureException se o conflito persistir após todas as tentativas
+     */
+    public <T> T execute(Supplier<T> action) {
+        if (maxAttempts <= 1 || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException ex) {
+                if (attempt >= maxAttempts) {
+                    exhaustedCounter.increment();
+                    throw ex;
+                }
+                retriesCounter.increment();
+                backoff(attempt);
+            }
+        }
+    }
+
+    // Espera aleatória entre zero e o backoff exponencial da tentativa ("full jitter"), para que as
+    // requisições em conflito não voltem a colidir ao mesmo tempo
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+
+        try {
+            Thread.sleep(Duration.ofNanos(ThreadLocalRandom.current().nextLong(ceiling + 1)));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido durante a espera para repetir a escrita", ex);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import com.restaurantcontroller.restaurantcontroller.exception.PasswordHashingUnavailableException;
+import com.restaurantcontroller.restaurantcontroller.model.UserCredentials;
+import com.restaurantcontroller.restaurantcontroller.repository.UserCredentialsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Regrava, após um login bem-sucedido, as senhas cujo hash está desatualizado (outro algoritmo, sem prefixo
+ * ou com fator de trabalho menor que o configurado). O novo hash é calculado em segundo plano, fora do tempo
+ * de resposta do login, e só é gravado se o hash armazenado ainda for o verificado no login; a escrita
+ * incrementa a versão das credenciais, então uma troca de senha concorrente prevalece
+ */
+@Component
+public class PasswordRehashService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordRehashService.class);
+
+    private final UserCredentialsRepository userCredentialsRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter upgradedCounter;
+    private final Counter skippedCounter;
+    private final Counter failedCounter;
+
+    // Credenciais com regravação em andamento (logins repetidos não calculam o hash de novo)
+    private final Set<Long> inProgress = ConcurrentHashMap.newKeySet();
+
+    // Construtor para injeção de dependência
+    public PasswordRehashService(UserCredentialsRepository userCredentialsRepository, PasswordEncoder passwordEncoder,
+                                 PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.userCredentialsRepository = userCredentialsRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.upgradedCounter = counter(meterRegistry, "upgraded");
+        this.skippedCounter = counter(meterRegistry, "skipped");
+        this.failedCounter = counter(meterRegistry, "failed");
+    }
+
+    /**
+     * Agenda a regravação da senha se o hash verificado no login estiver desatualizado
+     * @param credentials credenciais cuja senha acabou de ser verificada
+     * @param rawPassword senha informada no login
+     * @return true se a regravação foi agendada
+     */
+    public boolean rehashIfNeeded(UserCredentials credentials, String rawPassword) {
+        String verifiedHash = credentials.getPassword();
+        if (!passwordEncoder.upgradeEncoding(verifiedHash) || !inProgress.add(credentials.getId())) {
+            return false;
+        }
+
+        Thread.ofVirtual().name("password-rehash").start(() -> {
+            try {
+                rehash(credentials.getId(), verifiedHash, rawPassword);
+            } finally {
+                inProgress.remove(credentials.getId());
+            }
+        });
+        return true;
+    }
+
+    void rehash(Long credentialsId, String verifiedHash, String rawPassword) {
+        try {
+            // O hash é calculado no pool de hashing, antes de abrir a transação
+            String newHash = passwordEncoder.encode(rawPassword);
+
+            Boolean upgraded = transactionTemplate.execute(status -> {
+                UserCredentials current = userCredentialsRepository.findById(credentialsId).orElse(null);
+                if (current == null || !verifiedHash.equals(current.getPassword())) {
+                    return false;
+                }
+
+                // Somente o hash muda: o lastUpdate (e, com ele, os tokens emitidos) é mantido
+                current.setPassword(newHash);
+                return true;
+            });
+            (Boolean.TRUE.equals(upgraded) ? upgradedCounter : skippedCounter).increment();
+        } catch (OptimisticLockingFailureException | PasswordHashingUnavailableException ex) {
+            // Credenciais alteradas ao mesmo tempo ou pool de hashing ocupado: a regravação fica para o próximo login
+            skippedCounter.increment();
+            log.debug("(PasswordRehashService.rehash) Regravação adiada: {}", ex.getMessage());
+        } catch (RuntimeException ex) {
+            failedCounter.increment();
+            log.warn("(PasswordRehashService.rehash) Error: {}", ex.getMessage());
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("password.rehash")
+                .description("Senhas regravadas após o login com hash desatualizado")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,124 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.restaurantcontroller.restaurantcontroller.config.ReplicaRoutingDataSource;
+import com.restaurantcontroller.restaurantcontroller.dto.LoginResponseDTO;
+import com.restaurantcontroller.restaurantcontroller.model.User;
+import com.restaurantcontroller.restaurantcontroller.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Emissão e revogação dos tokens de acesso (JWT) entregues no login.
+ * A revogação é feita pela versão das credenciais (lastUpdate, gravado no banco e portanto comum a todos os nós):
+ * ao trocar a senha ou o username, os tokens emitidos com a versão anterior deixam de ser aceitos.
+ * A versão atual de cada usuário fica em um cache local curto; o nó que altera as credenciais remove a entrada na hora
+ * e os demais passam a rejeitar os tokens antigos em até revocation-cache.ttl
+ */
+@Service
+public class TokenService {
+
+    public static final String PROFILE_CLAIM = "profile";
+    public static final String USERNAME_CLAIM = "username";
+    public static final String PASSWORD_VERSION_CLAIM = "pwdv";
+
+    // Versão de usuário inexistente: nenhum token é aceito
+    private static final long UNKNOWN_USER_VERSION = Long.MAX_VALUE;
+
+    private final JwtEncoder jwtEncoder;
+    private final UserRepository userRepository;
+    private final String issuer;
+    private final Duration expiration;
+
+    // Versão atual das credenciais por ID do usuário
+    private final Cache<Long, Long> passwordVersions;
+
+    // Construtor para injeção de dependência
+    public TokenService(JwtEncoder jwtEncoder, UserRepository userRepository,
+                        @Value("${security.jwt.issuer}") String issuer,
+                        @Value("${security.jwt.expiration}") Duration expiration,
+                        @Value("${security.jwt.revocation-cache.maximum-size:10000}") long maximumSize,
+                        @Value("${security.jwt.revocation-cache.ttl:30s}") Duration ttl) {
+        this.jwtEncoder = jwtEncoder;
+        this.userRepository = userRepository;
+        this.issuer = issuer;
+        this.expiration = expiration;
+        this.passwordVersions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Emite um token de acesso para o usuário autenticado
+     * @param user Usuário autenticado (com credenciais carregadas)
+     * @return LoginResponseDTO com o token e o tempo de expiração
+     */
+    public LoginResponseDTO issueToken(User user) {
+        Instant now = Instant.now();
+
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(issuer)
+                .issuedAt(now)
+                .expiresAt(now.plus(expiration))
+                .subject(String.valueOf(user.getId()))
+                .claim(USERNAME_CLAIM, user.getUserCredentials().getUsername())
+                .claim(PROFILE_CLAIM, List.of(user.getProfile().name()))
+                .claim(PASSWORD_VERSION_CLAIM, passwordVersion(user.getUserCredentials().getLastUpdate()))
+                .build();
+
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
+        String token = jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+
+        return new LoginResponseDTO("Login realizado com sucesso!", token, "Bearer", expiration.toSeconds());
+    }
+
+    /**
+     * Revoga, neste nó, os tokens emitidos antes da última alteração das credenciais do usuário.
+     * Deve ser chamado após o commit da alteração, para que a próxima validação leia a nova versão
+     * @param userId ID do usuário
+     */
+    public void revokeTokens(Long userId) {
+        passwordVersions.invalidate(userId);
+    }
+
+    /**
+     * Verifica se o token foi emitido antes da última alteração das credenciais do usuário
+     * @param jwt Token decodificado
+     * @return true se o token estiver revogado
+     */
+    public boolean isRevoked(Jwt jwt) {
+        Long userId;
+        try {
+            userId = Long.valueOf(jwt.getSubject());
+        } catch (NumberFormatException ex) {
+            return true;
+        }
+
+        Object version = jwt.getClaims().get(PASSWORD_VERSION_CLAIM);
+        return !(version instanceof Number number) || number.longValue() < passwordVersions.get(userId, this::loadPasswordVersion);
+    }
+
+    // Lida no primário: uma versão antiga vinda da réplica manteria os tokens revogados válidos por todo o TTL
+    private long loadPasswordVersion(Long userId) {
+        return ReplicaRoutingDataSource.readFromPrimary(() -> userRepository.findCredentialsLastUpdateById(userId))
+                .map(TokenService::passwordVersion)
+                .orElse(UNKNOWN_USER_VERSION);
+    }
+
+    private static long passwordVersion(ZonedDateTime passwordChangedAt) {
+        return passwordChangedAt == null ? 0L : passwordChangedAt.toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,221 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import com.restaurantcontroller.restaurantcontroller.config.ReplicaRoutingDataSource;
+import com.restaurantcontroller.restaurantcontroller.repository.UserJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pré-verificação de unicidade de email, identificação e username com filtros de Bloom em memória,
+ * usada pela importação em lote para apontar as linhas duplicadas sem abortar o lote inteiro.
+ * Quando o filtro responde que o valor com certeza não existe, a consulta ao banco é dispensada;
+ * somente um possível acerto precisa ser confirmado via SQL. As escritas individuais não consultam
+ * o índice: dependem só das constraints únicas do banco (UniqueConstraintViolations), mas continuam
+ * registrando aqui os valores gravados (algumas operações em bits, sem acesso ao banco). Sem esse registro,
+ * um valor gravado neste nó após a última reconstrução seria um "com certeza não existe" falso na importação.
+ * Valores gravados por outros nós só entram na próxima reconstrução; a importação trata a violação
+ * de constraint resultante repetindo o trecho sem o índice
+ */
+@Component
+public class UniquenessIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UniquenessIndex.class);
+
+    /**
+     * Colunas únicas cobertas pelo índice
+     */
+    public enum Key {
+        EMAIL("email"),
+        USER_IDENTIFICATION("user_identification"),
+        USERNAME("username");
+
+        private final String tag;
+
+        Key(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final UserJdbcRepository userJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long expectedInsertions;
+    private final double falsePositiveProbability;
+    private final double rebuildRemovalRatio;
+
+    // Filtros em uso e, durante uma reconstrução, os filtros que vão substituí-los
+    private volatile Map<Key, BloomFilter> filters;
+    private volatile Map<Key, BloomFilter> nextFilters;
+
+    // Enquanto a primeira carga não termina, todo valor é tratado como possível acerto
+    private volatile boolean ready;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicLong insertions = new AtomicLong();
+    private final AtomicLong removals = new AtomicLong();
+
+    private final Map<Key, Counter> definiteMisses = new EnumMap<>(Key.class);
+    private final Map<Key, Counter> possibleHits = new EnumMap<>(Key.class);
+
+    // Construtor para injeção de dependência
+    public UniquenessIndex(UserJdbcRepository userJdbcRepository, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                           @Value("${uniqueness-index.expected-insertions:1000000}") long expectedInsertions,
+                           @Value("${uniqueness-index.false-positive-probability:0.01}") double falsePositiveProbability,
+                           @Value("${uniqueness-index.rebuild-removal-ratio:0.1}") double rebuildRemovalRatio) {
+        this.userJdbcRepository = userJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.rebuildRemovalRatio = rebuildRemovalRatio;
+        this.filters = newFilters();
+
+        for (Key key : Key.values()) {
+            Gauge.builder("uniqueness.index.memory", this, index -> index.filters.get(key).memoryBytes())
+                    .description("Memória ocupada pelo filtro de Bloom")
+                    .baseUnit("bytes")
+                    .tag("key", key.tag)
+                    .register(meterRegistry);
+            Gauge.builder("uniqueness.index.false.positive.probability", this, index -> index.filters.get(key).expectedFalsePositiveProbability())
+                    .description("Taxa de falsos positivos esperada com a ocupação atual do filtro")
+                    .tag("key", key.tag)
+                    .register(meterRegistry);
+            definiteMisses.put(key, Counter.builder("uniqueness.index.checks")
+                    .tag("key", key.tag).tag("result", "definite_miss").register(meterRegistry));
+            possibleHits.put(key, Counter.builder("uniqueness.index.checks")
+                    .tag("key", key.tag).tag("result", "possible_hit").register(meterRegistry));
+        }
+    }
+
+    /**
+     * Dispara a carga inicial em segundo plano quando a aplicação termina de subir
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuildAsync();
+    }
+
+    /**
+     * Verifica se o valor pode já existir na coluna informada
+     * @param key coluna única
+     * @param value valor a ser verificado
+     * @return false se o valor com certeza não existe; true se é preciso confirmar no banco
+     */
+    public boolean mightContain(Key key, String value) {
+        if (!ready) {
+            return true;
+        }
+
+        boolean possibleHit = filters.get(key).mightContain(value);
+        (possibleHit ? possibleHits : definiteMisses).get(key).increment();
+        return possibleHit;
+    }
+
+    /**
+     * Registra os valores de um usuário criado ou atualizado
+     * @param email email do usuário
+     * @param userIdentification identificação do usuário
+     * @param username username das credenciais
+     */
+    public void add(String email, String userIdentification, String username) {
+        put(filters, email, userIdentification, username);
+
+        // Valores gravados durante uma reconstrução também entram nos novos filtros
+        Map<Key, BloomFilter> next = nextFilters;
+        if (next != null) {
+            put(next, email, userIdentification, username);
+        }
+        insertions.incrementAndGet();
+    }
+
+    /**
+     * Registra um valor que deixou de existir (usuário excluído ou valor alterado).
+     * Filtros de Bloom não suportam remoção: o valor continua gerando possíveis acertos
+     * (resolvidos pelo SQL) até a próxima reconstrução. Apenas contabiliza: a reconstrução
+     * é disparada pela importação (rebuildIfStale), e não pelas escritas individuais
+     */
+    public void recordRemoval() {
+        removals.incrementAndGet();
+    }
+
+    /**
+     * Reconstrói os filtros em segundo plano quando as remoções passam de rebuild-removal-ratio
+     * do total de valores. Chamado pela importação em lote, única leitora do índice
+     */
+    public void rebuildIfStale() {
+        if (ready && removals.get() > rebuildRemovalRatio * Math.max(insertions.get(), 1)) {
+            rebuildAsync();
+        }
+    }
+
+    /**
+     * Reconstrói os filtros em segundo plano, caso não haja uma reconstrução em andamento
+     */
+    public void rebuildAsync() {
+        if (rebuilding.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("uniqueness-index-rebuild").start(() -> {
+                try {
+                    rebuild();
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Carrega os valores atuais do banco em novos filtros e os coloca em uso.
+     * A leitura é feita no primário: uma linha ainda não replicada ficaria fora dos filtros
+     * e seria respondida como "com certeza não existe"
+     */
+    void rebuild() {
+        Map<Key, BloomFilter> next = newFilters();
+        nextFilters = next;
+        try {
+            AtomicLong count = new AtomicLong();
+            ReplicaRoutingDataSource.readFromPrimary(() -> {
+                transactionTemplate.executeWithoutResult(status -> userJdbcRepository.forEachUniqueKey((email, userIdentification, username) -> {
+                    put(next, email, userIdentification, username);
+                    count.incrementAndGet();
+                }));
+                return null;
+            });
+
+            filters = next;
+            insertions.set(count.get());
+            removals.set(0);
+            ready = true;
+        } catch (RuntimeException ex) {
+            log.error("(UniquenessIndex.rebuild) Error: {}", ex.getMessage(), ex);
+        } finally {
+            nextFilters = null;
+        }
+    }
+
+    private Map<Key, BloomFilter> newFilters() {
+        Map<Key, BloomFilter> map = new EnumMap<>(Key.class);
+        for (Key key : Key.values()) {
+            map.put(key, new BloomFilter(expectedInsertions, falsePositiveProbability));
+        }
+        return map;
+    }
+
+    private static void put(Map<Key, BloomFilter> target, String email, String userIdentification, String username) {
+        target.get(Key.EMAIL).put(email);
+        target.get(Key.USER_IDENTIFICATION).put(userIdentification);
+        target.get(Key.USERNAME).put(username);
+    }
+}
@@ -0,0 +1,390 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurantcontroller.restaurantcontroller.dto.BatchImportResultDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.BatchRowResultDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.NewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.ResponseNewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.exception.PasswordHashingUnavailableException;
+import com.restaurantcontroller.restaurantcontroller.mapper.AddressMapper;
+import com.restaurantcontroller.restaurantcontroller.mapper.UserMapper;
+import com.restaurantcontroller.restaurantcontroller.model.Address;
+import com.restaurantcontroller.restaurantcontroller.model.EUserEventType;
+import com.restaurantcontroller.restaurantcontroller.model.User;
+import com.restaurantcontroller.restaurantcontroller.model.UserCredentials;
+import com.restaurantcontroller.restaurantcontroller.repository.UserCredentialsRepository;
+import com.restaurantcontroller.restaurantcontroller.repository.UserJdbcRepository;
+import com.restaurantcontroller.restaurantcontroller.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Importação de usuários em lote: validação e verificação de unicidade feitas
+ * para o lote inteiro e inserção via batch JDBC, reportando os erros por linha.
+ * A validação e o hash das senhas são feitos antes de abrir a transação de cada trecho,
+ * que fica aberta somente para as consultas de unicidade e a inserção
+ */
+@Service
+public class UserBatchService {
+
+    // Tamanho máximo do lote enviado como array JSON
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    // Quantidade de linhas processadas por transação
+    static final int CHUNK_SIZE = 500;
+
+    private final UserRepository userRepository;
+    private final UserCredentialsRepository userCredentialsRepository;
+    private final UserJdbcRepository userJdbcRepository;
+    private final UserMapper userMapper;
+    private final AddressMapper addressMapper;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final UniquenessIndex uniquenessIndex;
+    private final UserOutboxService userOutboxService;
+    private final ObjectMapper objectMapper;
+    private final int hashingParallelism;
+
+    // Construtor para injeção de dependência
+    public UserBatchService(UserRepository userRepository, UserCredentialsRepository userCredentialsRepository,
+                            UserJdbcRepository userJdbcRepository, UserMapper userMapper, AddressMapper addressMapper,
+                            PasswordEncoder passwordEncoder, Validator validator, PlatformTransactionManager transactionManager,
+                            UniquenessIndex uniquenessIndex, UserOutboxService userOutboxService, ObjectMapper objectMapper,
+                            @Value("${user-import.hashing-parallelism:0}") int hashingParallelism) {
+        this.userRepository = userRepository;
+        this.userCredentialsRepository = userCredentialsRepository;
+        this.userJdbcRepository = userJdbcRepository;
+        this.userMapper = userMapper;
+        this.addressMapper = addressMapper;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.uniquenessIndex = uniquenessIndex;
+        this.userOutboxService = userOutboxService;
+        this.objectMapper = objectMapper;
+        // Por padrão metade dos processadores, deixando o restante do pool de hashing para os logins
+        this.hashingParallelism = hashingParallelism > 0 ? hashingParallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    }
+
+    /**
+     * Importa um lote de usuários
+     * @param users Usuários a serem criados (máximo de MAX_BATCH_SIZE)
+     * @return BatchImportResultDTO com o resultado de cada linha
+     * @throws IllegalArgumentException se o lote estiver vazio ou exceder o tamanho máximo
+     */
+    public BatchImportResultDTO importUsers(List<NewUserDTO> users) {
+        if (users == null || users.isEmpty())
+            throw new IllegalArgumentException("Lote de usuários não pode ser vazio");
+
+        if (users.size() > MAX_BATCH_SIZE)
+            throw new IllegalArgumentException("Lote de usuários não pode exceder " + MAX_BATCH_SIZE + " linhas");
+
+        return importUsers(users.iterator());
+    }
+
+    /**
+     * Importa usuários a partir de um fluxo (ex.: NDJSON), processando-os em trechos
+     * de CHUNK_SIZE linhas, cada um em sua própria transação
+     * @param users Iterador com os usuários a serem criados
+     * @return BatchImportResultDTO com o resultado de cada linha
+     */
+    public BatchImportResultDTO importUsers(Iterator<NewUserDTO> users) {
+        return importRows(new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return users.hasNext();
+            }
+
+            @Override
+            public ParsedRow next() {
+                return new ParsedRow(users.next(), null);
+            }
+        });
+    }
+
+    /**
+     * Importa usuários a partir de um fluxo NDJSON (um usuário por linha, linhas em branco ignoradas).
+     * Uma linha com JSON inválido é reportada como erro daquela linha, sem interromper a importação,
+     * assim como uma linha que não passa na validação
+     * @param reader Leitor do fluxo NDJSON
+     * @return BatchImportResultDTO com o resultado de cada linha
+     */
+    public BatchImportResultDTO importUsersFromNdjson(BufferedReader reader) {
+        Iterator<String> lines = reader.lines().filter(line -> !line.isBlank()).iterator();
+        return importRows(new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return lines.hasNext();
+            }
+
+            @Override
+            public ParsedRow next() {
+                try {
+                    return new ParsedRow(objectMapper.readValue(lines.next(), NewUserDTO.class), null);
+                } catch (JsonProcessingException ex) {
+                    return new ParsedRow(null, Map.of("json", "Linha NDJSON inválida: " + ex.getOriginalMessage()));
+                }
+            }
+        });
+    }
+
+    private BatchImportResultDTO importRows(Iterator<ParsedRow> rows) {
+        uniquenessIndex.rebuildIfStale();
+
+        BatchImportResultDTO result = new BatchImportResultDTO();
+        List<ParsedRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        int firstIndex = 0;
+
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size() == CHUNK_SIZE) {
+                result.addResults(importChunk(chunk, firstIndex));
+                firstIndex += chunk.size();
+                chunk = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            result.addResults(importChunk(chunk, firstIndex));
+        }
+        return result;
+    }
+
+    private List<BatchRowResultDTO> importChunk(List<ParsedRow> rows, int firstIndex) {
+        Map<Integer, Map<String, String>> errorsByRow = new HashMap<>();
+        List<NewUserDTO> chunk = rows.stream().map(ParsedRow::user).collect(Collectors.toList());
+
+        // Validar cada linha com as mesmas regras do POST /users (linhas que nem foram lidas já trazem o erro)
+        List<Integer> validRows = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Map<String, String> errors = rows.get(i).parseErrors() != null ? rows.get(i).parseErrors() : validate(chunk.get(i));
+            if (errors.isEmpty()) {
+                validRows.add(i);
+            } else {
+                errorsByRow.put(i, errors);
+            }
+        }
+
+        // O hash das senhas (a parte mais cara da importação) é feito antes de obter a conexão
+        String[] passwordHashes = hashPasswords(chunk, validRows);
+        try {
+            return transactionTemplate.execute(status -> doImportChunk(chunk, firstIndex, validRows, new HashMap<>(errorsByRow), passwordHashes, true));
+        } catch (DataIntegrityViolationException ex) {
+            // Valor gravado por outro nó (ou por outra requisição durante o trecho) que o índice descartou:
+            // o trecho é refeito verificando todos os valores no banco, e o índice é recarregado
+            uniquenessIndex.rebuildAsync();
+            try {
+                return transactionTemplate.execute(status -> doImportChunk(chunk, firstIndex, validRows, new HashMap<>(errorsByRow), passwordHashes, false));
+            } catch (DataIntegrityViolationException retryEx) {
+                // Nova violação entre a verificação e a inserção (gravações concorrentes): cada linha é
+                // gravada na sua própria transação, e somente as linhas em conflito falham
+                return importRowByRow(chunk, firstIndex, validRows, errorsByRow, passwordHashes);
+            }
+        }
+    }
+
+    private List<BatchRowResultDTO> importRowByRow(List<NewUserDTO> chunk, int firstIndex, List<Integer> validRows,
+                                                   Map<Integer, Map<String, String>> errorsByRow, String[] passwordHashes) {
+        Set<Integer> rowsToImport = new HashSet<>(validRows);
+        List<BatchRowResultDTO> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            if (!rowsToImport.contains(i)) {
+                results.add(BatchRowResultDTO.error(firstIndex + i, errorsByRow.get(i)));
+                continue;
+            }
+
+            int row = i;
+            try {
+                results.add(transactionTemplate.execute(status ->
+                        doImportChunk(chunk, firstIndex, List.of(row), new HashMap<>(errorsByRow), passwordHashes, false)).get(row));
+            } catch (DataIntegrityViolationException ex) {
+                results.add(BatchRowResultDTO.error(firstIndex + row,
+                        Map.of("user", "Dados do usuário já estão em uso por um cadastro concorrente")));
+            }
+        }
+        return results;
+    }
+
+    private List<BatchRowResultDTO> doImportChunk(List<NewUserDTO> chunk, int firstIndex, List<Integer> validRows,
+                                                  Map<Integer, Map<String, String>> errorsByRow, String[] passwordHashes, boolean useIndex) {
+        // Verificar unicidade do lote inteiro com uma consulta por coluna, somente para os
+        // valores que o índice em memória não descarta
+        Set<String> candidateEmails = collect(chunk, validRows, UniquenessIndex.Key.EMAIL, NewUserDTO::getEmail, useIndex);
+        Set<String> candidateIdentifications = collect(chunk, validRows, UniquenessIndex.Key.USER_IDENTIFICATION, NewUserDTO::getUserIdentification, useIndex);
+        Set<String> candidateUsernames = collect(chunk, validRows, UniquenessIndex.Key.USERNAME, dto -> dto.getCredentials().getUsername(), useIndex);
+
+        Set<String> existingEmails = candidateEmails.isEmpty() ? Set.of()
+                : userRepository.findExistingEmails(candidateEmails);
+        Set<String> existingIdentifications = candidateIdentifications.isEmpty() ? Set.of()
+                : userRepository.findExistingUserIdentifications(candidateIdentifications);
+        Set<String> existingUsernames = candidateUsernames.isEmpty() ? Set.of()
+                : userCredentialsRepository.findExistingUsernames(candidateUsernames);
+
+        Set<String> batchEmails = new HashSet<>();
+        Set<String> batchIdentifications = new HashSet<>();
+        Set<String> batchUsernames = new HashSet<>();
+        List<Integer> rowsToInsert = new ArrayList<>();
+
+        for (Integer row : validRows) {
+            NewUserDTO dto = chunk.get(row);
+            String email = dto.getEmail();
+            String identification = dto.getUserIdentification();
+            String username = dto.getCredentials().getUsername();
+
+            Map<String, String> errors = new LinkedHashMap<>();
+            if (existingEmails.contains(email) || batchEmails.contains(email))
+                errors.put("email", "Email já está em uso: " + email);
+
+            if (existingIdentifications.contains(identification) || batchIdentifications.contains(identification))
+                errors.put("userIdentification", "Identificação do usuário já está em uso: " + identification);
+
+            if (existingUsernames.contains(username) || batchUsernames.contains(username))
+                errors.put("credentials.username", "Username do usuário já está em uso: " + username);
+
+            if (!errors.isEmpty()) {
+                errorsByRow.put(row, errors);
+                continue;
+            }
+
+            batchEmails.add(email);
+            batchIdentifications.add(identification);
+            batchUsernames.add(username);
+            rowsToInsert.add(row);
+        }
+
+        // Inserir as linhas válidas via batch JDBC
+        List<User> users = rowsToInsert.stream().map(row -> toUser(chunk.get(row), passwordHashes[row])).collect(Collectors.toList());
+        List<Long> ids = userJdbcRepository.insertAll(users);
+        users.forEach(user -> uniquenessIndex.add(user.getEmail(), user.getUserIdentification(), user.getUserCredentials().getUsername()));
+
+        // Eventos de criação gravados na mesma transação do lote
+        List<ResponseNewUserDTO> created = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            ResponseNewUserDTO response = userMapper.toResponseNewUserDTO(users.get(i));
+            response.setId(ids.get(i));
+            created.add(response);
+        }
+        userOutboxService.recordUserEvents(EUserEventType.user_created, created);
+
+        Map<Integer, Long> idsByRow = new HashMap<>();
+        for (int i = 0; i < rowsToInsert.size(); i++) {
+            idsByRow.put(rowsToInsert.get(i), ids.get(i));
+        }
+
+        List<BatchRowResultDTO> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            results.add(idsByRow.containsKey(i)
+                    ? BatchRowResultDTO.created(firstIndex + i, idsByRow.get(i))
+                    : BatchRowResultDTO.error(firstIndex + i, errorsByRow.get(i)));
+        }
+        return results;
+    }
+
+    private Map<String, String> validate(NewUserDTO dto) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        if (dto == null) {
+            errors.put("user", "Dados do usuário não podem ser nulos");
+            return errors;
+        }
+
+        for (ConstraintViolation<NewUserDTO> violation : validator.validate(dto)) {
+            errors.putIfAbsent(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+
+    /**
+     * Calcula o hash das senhas das linhas informadas em paralelo. Cada tarefa aguarda o pool de hashing
+     * (limitado), e no máximo hashingParallelism senhas do lote são processadas ao mesmo tempo, para não
+     * esgotar a fila do pool nem atrasar os logins
+     * @return Hashes indexados pela linha do trecho (null nas linhas não informadas)
+     */
+    private String[] hashPasswords(List<NewUserDTO> chunk, List<Integer> rows) {
+        String[] hashes = new String[chunk.size()];
+        if (rows.isEmpty()) {
+            return hashes;
+        }
+
+        AtomicInteger next = new AtomicInteger();
+        Callable<Void> worker = () -> {
+            for (int i = next.getAndIncrement(); i < rows.size(); i = next.getAndIncrement()) {
+                int row = rows.get(i);
+                hashes[row] = passwordEncoder.encode(chunk.get(row).getCredentials().getPassword());
+            }
+            return null;
+        };
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Future<Void> future : executor.invokeAll(Collections.nCopies(Math.min(hashingParallelism, rows.size()), worker))) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException("Processamento das senhas interrompido", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+        return hashes;
+    }
+
+    private User toUser(NewUserDTO dto, String passwordHash) {
+        ZonedDateTime now = ZonedDateTime.now();
+
+        Address address = addressMapper.toAddress(dto.getAddress());
+        address.setLastUpdate(now);
+
+        UserCredentials credentials = new UserCredentials();
+        credentials.setUsername(dto.getCredentials().getUsername());
+        credentials.setPassword(passwordHash);
+        credentials.setLastUpdate(now);
+
+        User user = userMapper.createUser(dto);
+        user.setAddressUser(address);
+        user.setUserCredentials(credentials);
+        return user;
+    }
+
+    // Linha do lote: o usuário lido ou, se a leitura falhou, o erro da linha
+    private record ParsedRow(NewUserDTO user, Map<String, String> parseErrors) {
+    }
+
+    private Set<String> collect(List<NewUserDTO> chunk, List<Integer> rows, UniquenessIndex.Key key, Function<NewUserDTO, String> getter,
+                                boolean useIndex) {
+        return rows.stream()
+                .map(row -> getter.apply(chunk.get(row)))
+                .filter(value -> !useIndex || uniquenessIndex.mightContain(key, value))
+                .collect(Collectors.toSet());
+    }
+}
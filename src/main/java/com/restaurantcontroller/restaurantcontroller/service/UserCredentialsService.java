@@ -1,9 +1,19 @@
 package com.restaurantcontroller.restaurantcontroller.service;
 
+import com.restaurantcontroller.restaurantcontroller.config.CacheConfig;
+import com.restaurantcontroller.restaurantcontroller.exception.PasswordHashingUnavailableException;
+import com.restaurantcontroller.restaurantcontroller.exception.UniqueConstraintViolations;
+import com.restaurantcontroller.restaurantcontroller.exception.UsernameAlreadyExistsException;
 import com.restaurantcontroller.restaurantcontroller.model.User;
 import com.restaurantcontroller.restaurantcontroller.model.UserCredentials;
 import com.restaurantcontroller.restaurantcontroller.repository.UserCredentialsRepository;
 import com.restaurantcontroller.restaurantcontroller.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -11,18 +21,26 @@ import java.time.ZonedDateTime;
 import java.util.Optional;
 
 @Service
+@Timed(value = "service.method", description = "Tempo de execução dos métodos de serviço", histogram = true)
 public class UserCredentialsService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserCredentialsService.class);
+
     // Repositório de credenciais
     private final UserCredentialsRepository userCredentialsRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserRepository userRepository;
+    private final TokenService tokenService;
+    private final UniquenessIndex uniquenessIndex;
 
     // Construtor para injeção de dependência
-    public UserCredentialsService(UserCredentialsRepository userCredentialsRepository, PasswordEncoder passwordEncoder, UserRepository userRepository) {
+    public UserCredentialsService(UserCredentialsRepository userCredentialsRepository, PasswordEncoder passwordEncoder, UserRepository userRepository,
+                                  TokenService tokenService, UniquenessIndex uniquenessIndex) {
         this.userCredentialsRepository = userCredentialsRepository;
         this.passwordEncoder = passwordEncoder;
         this.userRepository = userRepository;
+        this.tokenService = tokenService;
+        this.uniquenessIndex = uniquenessIndex;
     }
 
     /**
@@ -30,8 +48,11 @@ public class UserCredentialsService {
      * @param id ID do usuário
      * @param username Novo username
      * @throws IllegalArgumentException se o ID das credenciais for nulo ou o username for inválido
+     * @throws UsernameAlreadyExistsException se o username já estiver em uso por outro usuário
+     * @throws OptimisticLockingFailureException se as credenciais forem alteradas por outra requisição ao mesmo tempo
      * @throws RuntimeException se ocorrer um erro interno ao atualizar o username
      */
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#id")
     public void updateUsername(Long id, String username) {
         try {
 
@@ -43,9 +64,6 @@ public class UserCredentialsService {
 
             String newUsername = username.trim();
 
-            if (userCredentialsRepository.existsByUsername(newUsername)) 
-                throw new IllegalArgumentException("Username já está em uso");
-
             User user = userRepository.findById(id).orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
             UserCredentials credentials = user.getUserCredentials();
             if (credentials == null) {
@@ -54,11 +72,23 @@ public class UserCredentialsService {
 
             credentials.setUsername(newUsername);
             credentials.setLastUpdate(ZonedDateTime.now());
-            userCredentialsRepository.save(credentials);
-        } catch (IllegalArgumentException ex) {
+            try {
+                userCredentialsRepository.save(credentials);
+            } catch (DataIntegrityViolationException ex) {
+                // Username já usado por outro usuário: violação da constraint única
+                throw UniqueConstraintViolations.translate(ex, null, null, newUsername);
+            }
+
+            // O username anterior continua no filtro até a próxima reconstrução
+            uniquenessIndex.add(null, null, newUsername);
+            uniquenessIndex.recordRemoval();
+
+            // Os tokens emitidos trazem o username anterior: a nova data de atualização também os revoga
+            tokenService.revokeTokens(id);
+        } catch (IllegalArgumentException | UsernameAlreadyExistsException | PasswordHashingUnavailableException | OptimisticLockingFailureException ex) {
             throw ex;
         } catch (Exception ex) {
-            System.err.println("(UserCredentialsService.updateUsername) Error: " + ex.getMessage());
+            log.error("(UserCredentialsService.updateUsername) Error: {}", ex.getMessage());
             throw new RuntimeException("Erro interno ao atualizar credenciais: " + ex.getMessage(), ex);
         }
     }
@@ -68,6 +98,7 @@ public class UserCredentialsService {
      * @param id ID do usuário
      * @param password Nova password
      * @throws IllegalArgumentException se o ID das credenciais for nulo ou a password for inválida
+     * @throws OptimisticLockingFailureException se as credenciais forem alteradas por outra requisição ao mesmo tempo
      * @throws RuntimeException se ocorrer um erro interno ao atualizar a password
      */
     public void updatePassword(Long id, String password) {
@@ -91,10 +122,13 @@ public class UserCredentialsService {
             credentials.setPassword(passwordEncoder.encode(newPassword));
             credentials.setLastUpdate(ZonedDateTime.now());
             userCredentialsRepository.save(credentials);
-        } catch (IllegalArgumentException ex) {
+
+            // Revoga os tokens emitidos com a senha anterior
+            tokenService.revokeTokens(id);
+        } catch (IllegalArgumentException | PasswordHashingUnavailableException | OptimisticLockingFailureException ex) {
             throw ex;
         } catch (Exception ex) {
-            System.err.println("(UserCredentialsService.updatePassword) Error: " + ex.getMessage());
+            log.error("(UserCredentialsService.updatePassword) Error: {}", ex.getMessage());
             throw new RuntimeException("Erro interno ao atualizar senha: " + ex.getMessage(), ex);
         }
     }
@@ -111,5 +145,17 @@ public class UserCredentialsService {
         return userCredentialsRepository.findByUsername(username.trim());
     }
 
+    /**
+     * Encontra um usuário pelo username das credenciais
+     * @param username O username do usuário
+     * @return Um Optional contendo o usuário (com credenciais carregadas), se encontrado
+     */
+    public Optional<User> findUserByUsername(String username) {
+        if (username == null || username.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        return userRepository.findByUserCredentials_Username(username.trim());
+    }
+
 
 }
@@ -0,0 +1,20 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import com.restaurantcontroller.restaurantcontroller.dto.UserEventDTO;
+
+import java.util.List;
+
+/**
+ * Destino dos eventos do ciclo de vida do usuário drenados do outbox, escolhido pela propriedade outbox.publisher
+ */
+public interface UserEventPublisher {
+
+    /**
+     * Publica um lote de eventos, em ordem. Só deve retornar após a entrega ser confirmada pelo destino:
+     * em seguida os eventos são removidos do outbox. Em caso de falha, lança exceção e o lote inteiro é
+     * publicado novamente no próximo ciclo (consumidores descartam os IDs repetidos)
+     * @param events Eventos a serem publicados
+     * @throws Exception se o destino não confirmar a entrega
+     */
+    void publish(List<UserEventDTO> events) throws Exception;
+}
@@ -0,0 +1,103 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import com.restaurantcontroller.restaurantcontroller.dto.UserEventDTO;
+import com.restaurantcontroller.restaurantcontroller.model.UserOutboxEvent;
+import com.restaurantcontroller.restaurantcontroller.repository.UserOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Drena o outbox de eventos de usuários: em cada transação bloqueia um lote com FOR UPDATE SKIP LOCKED,
+ * publica no UserEventPublisher e remove os eventos publicados. Nós concorrentes recebem lotes disjuntos;
+ * se a publicação falhar (ou o nó cair antes do commit) o lote volta a ficar disponível e é reenviado
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class UserOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(UserOutboxRelay.class);
+
+    private final UserOutboxRepository userOutboxRepository;
+    private final UserEventPublisher userEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Counter publishedCounter;
+    private final Counter failuresCounter;
+
+    // Construtor para injeção de dependência
+    public UserOutboxRelay(UserOutboxRepository userOutboxRepository, UserEventPublisher userEventPublisher,
+                           PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                           @Value("${outbox.relay.batch-size:100}") int batchSize,
+                           @Value("${outbox.relay.max-batches-per-run:10}") int maxBatchesPerRun) {
+        this.userOutboxRepository = userOutboxRepository;
+        this.userEventPublisher = userEventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.publishedCounter = Counter.builder("outbox.events.published")
+                .description("Eventos de usuários publicados pelo outbox")
+                .register(meterRegistry);
+        this.failuresCounter = Counter.builder("outbox.publish.failures")
+                .description("Lotes do outbox cuja publicação falhou e será repetida")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publica os eventos pendentes, lote a lote, até esvaziar o outbox ou atingir max-batches-per-run
+     * @return Quantidade de eventos publicados
+     */
+    @Scheduled(initialDelayString = "${outbox.relay.interval:1s}", fixedDelayString = "${outbox.relay.interval:1s}")
+    public int relay() {
+        int published = 0;
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                int count = transactionTemplate.execute(status -> publishNextBatch());
+                published += count;
+                if (count < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            // O lote continua no outbox e é publicado novamente no próximo ciclo
+            failuresCounter.increment();
+            log.warn("(UserOutboxRelay.relay) Error: {}", ex.getMessage());
+        }
+        return published;
+    }
+
+    private int publishNextBatch() {
+        List<UserOutboxEvent> events = userOutboxRepository.lockNextBatch(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<UserEventDTO> dtos = events.stream()
+                .map(event -> new UserEventDTO(event.getId(), event.getEventType(), event.getUserId(), event.getOccurredAt(), event.getPayload()))
+                .toList();
+        try {
+            userEventPublisher.publish(dtos);
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("Falha ao publicar os eventos do outbox: " + ex.getMessage(), ex);
+        }
+
+        userOutboxRepository.deleteByIdIn(events.stream().map(UserOutboxEvent::getId).toList());
+        publishedCounter.increment(events.size());
+        return events.size();
+    }
+}
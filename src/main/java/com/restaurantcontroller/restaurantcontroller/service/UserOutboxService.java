@@ -0,0 +1,76 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurantcontroller.restaurantcontroller.dto.AddressDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.ResponseNewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.model.EUserEventType;
+import com.restaurantcontroller.restaurantcontroller.model.UserOutboxEvent;
+import com.restaurantcontroller.restaurantcontroller.repository.UserOutboxRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Grava os eventos do ciclo de vida do usuário no outbox. Os métodos exigem a transação da alteração
+ * (Propagation.MANDATORY): o evento é confirmado ou descartado junto com ela, e o UserOutboxRelay o publica depois
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class UserOutboxService {
+
+    private final UserOutboxRepository userOutboxRepository;
+    private final ObjectMapper objectMapper;
+
+    // Construtor para injeção de dependência
+    public UserOutboxService(UserOutboxRepository userOutboxRepository, ObjectMapper objectMapper) {
+        this.userOutboxRepository = userOutboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Registra um evento com os dados do usuário (criação, alteração ou exclusão)
+     * @param type Tipo do evento
+     * @param user Dados do usuário após a alteração (ou no momento da exclusão)
+     */
+    public void recordUserEvent(EUserEventType type, ResponseNewUserDTO user) {
+        userOutboxRepository.save(toEvent(type, user.getId(), user));
+    }
+
+    /**
+     * Registra um evento por usuário, gravados em batch (ex.: importação ou exclusão em lote)
+     * @param type Tipo do evento
+     * @param users Dados dos usuários
+     */
+    public void recordUserEvents(EUserEventType type, List<ResponseNewUserDTO> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        userOutboxRepository.saveAll(users.stream().map(user -> toEvent(type, user.getId(), user)).toList());
+    }
+
+    /**
+     * Registra a alteração do endereço de um usuário
+     * @param userId ID do usuário dono do endereço
+     * @param address Dados do endereço após a alteração
+     */
+    public void recordAddressUpdated(Long userId, AddressDTO address) {
+        userOutboxRepository.save(toEvent(EUserEventType.address_updated, userId, address));
+    }
+
+    private UserOutboxEvent toEvent(EUserEventType type, Long userId, Object data) {
+        UserOutboxEvent event = new UserOutboxEvent();
+        event.setUserId(userId);
+        event.setEventType(type);
+        event.setOccurredAt(ZonedDateTime.now());
+        try {
+            event.setPayload(objectMapper.writeValueAsString(data));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Erro ao serializar o evento " + type + " do usuário " + userId, ex);
+        }
+        return event;
+    }
+}
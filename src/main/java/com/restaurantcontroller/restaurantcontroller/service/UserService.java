@@ -1,32 +1,69 @@
 package com.restaurantcontroller.restaurantcontroller.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.restaurantcontroller.restaurantcontroller.config.CacheConfig;
+import com.restaurantcontroller.restaurantcontroller.config.ReplicaRoutingDataSource;
 import com.restaurantcontroller.restaurantcontroller.dto.AddressDTO;
 import com.restaurantcontroller.restaurantcontroller.dto.NewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.PageResponseDTO;
 import com.restaurantcontroller.restaurantcontroller.dto.ResponseNewUserDTO;
 import com.restaurantcontroller.restaurantcontroller.dto.UpdateUserDTO;
 import com.restaurantcontroller.restaurantcontroller.dto.UserCredentialsDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UserVersionDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.VersionedDTO;
 import com.restaurantcontroller.restaurantcontroller.exception.EmailAlreadyExistsException;
+import com.restaurantcontroller.restaurantcontroller.exception.PreconditionFailedException;
+import com.restaurantcontroller.restaurantcontroller.exception.UniqueConstraintViolations;
 import com.restaurantcontroller.restaurantcontroller.exception.UserIdentificationAlreadyExistsException;
 import com.restaurantcontroller.restaurantcontroller.exception.UsernameAlreadyExistsException;
 import com.restaurantcontroller.restaurantcontroller.mapper.AddressMapper;
+import com.restaurantcontroller.restaurantcontroller.mapper.JsonMergePatchMapper;
 import com.restaurantcontroller.restaurantcontroller.mapper.UserMapper;
 import com.restaurantcontroller.restaurantcontroller.model.Address;
+import com.restaurantcontroller.restaurantcontroller.model.EUserEventType;
 import com.restaurantcontroller.restaurantcontroller.model.User;
 import com.restaurantcontroller.restaurantcontroller.model.UserCredentials;
+import com.restaurantcontroller.restaurantcontroller.repository.UserJdbcRepository;
 import com.restaurantcontroller.restaurantcontroller.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.ZonedDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "service.method", description = "Tempo de execução dos métodos de serviço", histogram = true)
 @Transactional
 public class UserService {
+
+    // Tamanho padrão e máximo das páginas de usuários
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Quantidade máxima de IDs por exclusão em lote
+    public static final int MAX_DELETE_IDS = 1000;
     
     @Autowired
     private UserRepository userRepository;
@@ -40,6 +77,27 @@ public class UserService {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private JsonMergePatchMapper jsonMergePatchMapper;
+
+    @Autowired
+    private UniquenessIndex uniquenessIndex;
+
+    @Autowired
+    private UserJdbcRepository userJdbcRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private UserOutboxService userOutboxService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     /**
      * Cria um novo usuário no sistema
      * @param newUserDTO DTO com os dados do novo usuário
@@ -69,15 +127,6 @@ public class UserService {
         if (newUserDTO.getName() == null || newUserDTO.getName().trim().isEmpty())
             throw new IllegalArgumentException("Nome é obrigatório");
 
-        if (userRepository.existsByEmail(newUserDTO.getEmail()))
-            throw new EmailAlreadyExistsException(newUserDTO.getEmail());
-
-        if (userRepository.existsByUserIdentification(newUserDTO.getUserIdentification()))
-            throw new UserIdentificationAlreadyExistsException(newUserDTO.getUserIdentification());
-
-        if (userRepository.existsByUserCredentials_Username(newUserDTO.getCredentials().getUsername()))
-            throw new UsernameAlreadyExistsException(newUserDTO.getCredentials().getUsername());
-
         // Criar o endereço usando o mapper
         Address address = new Address();
         AddressDTO addressDTO = newUserDTO.getAddress();
@@ -107,21 +156,65 @@ public class UserService {
         user.setAddressUser(address);
         user.setUserCredentials(userCredentials);
 
-        // Salvar o usuário no banco de dados
-        User savedUser = userRepository.save(user);
+        // Salvar o usuário no banco de dados: as constraints únicas garantem a unicidade, e o flush
+        // antecipa a violação para este ponto, onde é traduzida pelo nome da constraint
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException ex) {
+            throw UniqueConstraintViolations.translate(ex, newUserDTO.getEmail(), newUserDTO.getUserIdentification(), credentialsDTO.getUsername());
+        }
+        // Só a importação consulta o índice, mas sem este registro o novo valor seria um falso "não existe" para ela
+        uniquenessIndex.add(savedUser.getEmail(), savedUser.getUserIdentification(), userCredentials.getUsername());
 
         // Converter para DTO de resposta usando o mapper
-        return userMapper.toResponseNewUserDTO(savedUser);
+        ResponseNewUserDTO response = userMapper.toResponseNewUserDTO(savedUser);
+        userOutboxService.recordUserEvent(EUserEventType.user_created, response);
+        return response;
+    }
+
+    /**
+     * Lista os usuários com paginação por cursor (keyset), usando o ID como cursor
+     * @param cursor Cursor retornado na página anterior (null para a primeira página)
+     * @param size Quantidade de usuários por página (padrão 20, máximo 100)
+     * @return PageResponseDTO com os usuários da página e o cursor da próxima página
+     * @throws IllegalArgumentException se o cursor ou o tamanho da página forem inválidos
+     */
+    @Transactional(readOnly = true)
+    public PageResponseDTO<ResponseNewUserDTO> getUsersPage(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        long lastId = decodeCursor(cursor);
+
+        // Busca um item a mais para saber se existe próxima página
+        List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(pageSize + 1));
+
+        String nextCursor = null;
+        if (users.size() > pageSize) {
+            users = users.subList(0, pageSize);
+            nextCursor = encodeCursor(users.get(pageSize - 1).getId());
+        }
+
+        List<ResponseNewUserDTO> content = users.stream().map(userMapper::toResponseNewUserDTO).collect(Collectors.toList());
+        return new PageResponseDTO<>(content, pageSize, nextCursor, null);
     }
 
     /**
-     * Lista todos os usuários do sistema
-     * @return Lista de ResponseNewUserDTO com todos os usuários
-     * @throws RuntimeException se ocorrer um erro interno durante a recuperação dos usuários
+     * Lista os usuários com paginação legada por offset
+     * @param page Número da página (iniciando em 0)
+     * @param size Quantidade de usuários por página (padrão 20, máximo 100)
+     * @return PageResponseDTO com os usuários da página
+     * @throws IllegalArgumentException se a página ou o tamanho da página forem inválidos
      */
-    public List<ResponseNewUserDTO> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        return users.stream().map(userMapper::toResponseNewUserDTO).collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public PageResponseDTO<ResponseNewUserDTO> getUsersPageByOffset(int page, Integer size) {
+        if (page < 0)
+            throw new IllegalArgumentException("Página não pode ser negativa");
+
+        int pageSize = resolvePageSize(size);
+        Page<User> users = userRepository.findAll(PageRequest.of(page, pageSize, Sort.by("id")));
+
+        List<ResponseNewUserDTO> content = users.stream().map(userMapper::toResponseNewUserDTO).collect(Collectors.toList());
+        return new PageResponseDTO<>(content, pageSize, null, page);
     }
 
     /**
@@ -130,47 +223,155 @@ public class UserService {
      * @return Optional<ResponseNewUserDTO> com os dados do usuário se encontrado
      * @throws RuntimeException se ocorrer um erro interno durante a busca
      */
+    @Transactional(readOnly = true)
     public Optional<ResponseNewUserDTO> getUserById(Long id) {
+        return getVersionedUserById(id).map(VersionedDTO::getBody);
+    }
+
+    /**
+     * Busca um usuário pelo ID junto com o ETag calculado a partir dos mesmos dados do corpo
+     * @param id ID do usuário a ser buscado
+     * @return Optional com os dados do usuário e o ETag correspondente, se encontrado
+     * @throws IllegalArgumentException se o ID fornecido for nulo
+     */
+    @Transactional(readOnly = true)
+    public Optional<VersionedDTO<ResponseNewUserDTO>> getVersionedUserById(Long id) {
+        Optional<String> currentETag = getUserETag(id);
+        if (currentETag.isEmpty()) {
+            Cache usersCache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+            if (usersCache != null)
+                usersCache.evict(id);
+            return Optional.empty();
+        }
+
+        return getVersionedUserById(id, currentETag.get());
+    }
+
+    /**
+     * Busca um usuário pelo ID a partir do ETag atual já consultado (getUserETag), usado quando o
+     * If-None-Match não corresponde. O cache guarda o corpo com a sua versão, e o acerto só é servido se
+     * o ETag guardado for o atual: uma entrada desatualizada, seja por uma escrita em outro nó, seja por uma
+     * carga concorrente gravada no cache após a invalidação, é descartada e recarregada em vez de servida.
+     * A consulta de versão segue o roteamento das leituras (réplica, com read-your-writes e atraso máximo), então
+     * um acerto fica desatualizado no máximo pelo mesmo tempo que qualquer leitura da réplica
+     * @param id ID do usuário a ser buscado
+     * @param currentETag ETag atual do usuário (sem aspas)
+     * @return Optional com os dados do usuário e o ETag da entidade carregada, vazio se o usuário não existir mais
+     * @throws IllegalArgumentException se o ID fornecido for nulo
+     */
+    @Transactional(readOnly = true)
+    public Optional<VersionedDTO<ResponseNewUserDTO>> getVersionedUserById(Long id, String currentETag) {
         if (id == null)
             throw new IllegalArgumentException("ID do usuário não pode ser nulo");
 
-        // Buscar o usuário no banco de dados
-        Optional<User> user = userRepository.findById(id);
+        Cache usersCache = cacheManager.getCache(CacheConfig.USERS_CACHE);
 
-        // Converter para DTO de resposta usando o mapper
-        return user.map(userMapper::toResponseNewUserDTO);
+        @SuppressWarnings("unchecked")
+        VersionedDTO<ResponseNewUserDTO> cached = usersCache == null ? null : usersCache.get(id, VersionedDTO.class);
+        if (cached != null && cached.getETag().equals(currentETag)) {
+            CacheConfig.recordVersionCheck(meterRegistry, CacheConfig.USERS_CACHE, CacheConfig.VERSION_CURRENT);
+            return Optional.of(cached);
+        }
+        CacheConfig.recordVersionCheck(meterRegistry, CacheConfig.USERS_CACHE, cached == null ? CacheConfig.VERSION_ABSENT : CacheConfig.VERSION_STALE);
+
+        // Ausente ou desatualizado: carga lida no primário, pois o resultado é compartilhado pelo cache e uma
+        // linha lida da réplica atrasada seria guardada como se fosse a versão atual. A carga tem a sua própria
+        // transação, já que a consulta de versão pode ter usado a réplica na transação atual. O ETag guardado
+        // vem da entidade carregada, nunca do ETag recebido
+        Optional<VersionedDTO<ResponseNewUserDTO>> loaded = ReplicaRoutingDataSource.readFromPrimaryInNewTransaction(transactionManager,
+                () -> userRepository.findById(id)
+                        .map(user -> new VersionedDTO<>(userMapper.toResponseNewUserDTO(user), UserVersionDTO.of(user).getUserETag())));
+        if (usersCache != null)
+            loaded.ifPresentOrElse(user -> usersCache.put(id, user), () -> usersCache.evict(id));
+        return loaded;
+    }
+
+    /**
+     * Percorre todos os usuários (com endereço e username) em ordem de ID, lidos do banco por cursor
+     * em vez de carregados em uma lista, para exportações completas com uso de memória constante
+     * @param consumer Recebe cada usuário à medida que é lido
+     */
+    @Transactional(readOnly = true)
+    public void exportUsers(Consumer<ResponseNewUserDTO> consumer) {
+        if (consumer == null)
+            throw new IllegalArgumentException("Consumidor da exportação não pode ser nulo");
+
+        userJdbcRepository.forEachUser(consumer);
     }
 
     /**
-     * Busca usuários pelo nome (busca parcial, case insensitive)
+     * Busca o ETag atual de um usuário sem carregar a entidade (uma consulta de projeção), para responder
+     * 304 antes de consultar o cache ou carregar o usuário
+     * @param id ID do usuário
+     * @return Optional contendo o ETag (sem aspas) se o usuário existir
+     * @throws IllegalArgumentException se o ID fornecido for nulo
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> getUserETag(Long id) {
+        if (id == null)
+            throw new IllegalArgumentException("ID do usuário não pode ser nulo");
+
+        return userRepository.findVersionById(id).map(UserVersionDTO::getUserETag);
+    }
+
+    /**
+     * Busca usuários pelo nome (busca parcial, sem distinção de maiúsculas e acentos),
+     * ordenando os resultados por relevância
      * @param name Nome ou parte do nome a ser buscado
-     * @return Lista de ResponseNewUserDTO com os usuários encontrados
-     * @throws IllegalArgumentException se o nome fornecido for nulo ou vazio
+     * @param page Número da página (iniciando em 0)
+     * @param size Quantidade de usuários por página (padrão 20, máximo 100)
+     * @return PageResponseDTO com os usuários encontrados
+     * @throws IllegalArgumentException se o nome fornecido for nulo ou vazio ou a paginação for inválida
      * @throws RuntimeException se ocorrer um erro interno durante a busca
      */
-    public List<ResponseNewUserDTO> searchUsersByName(String name) {
+    @Transactional(readOnly = true)
+    public PageResponseDTO<ResponseNewUserDTO> searchUsersByName(String name, Integer page, Integer size) {
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("Nome não pode ser nulo ou vazio");
         }
 
-        // Buscar usuários no banco de dados com busca parcial e case insensitive
-        List<User> users = userRepository.findByNameContainingIgnoreCase(name.trim());
+        int pageNumber = page == null ? 0 : page;
+        if (pageNumber < 0)
+            throw new IllegalArgumentException("Página não pode ser negativa");
 
-        // Converter para DTO de resposta usando o mapper
-        return users.stream().map(userMapper::toResponseNewUserDTO).collect(Collectors.toList());
+        int pageSize = resolvePageSize(size);
+
+        // Buscar os IDs ordenados por relevância usando o índice trigram do nome
+        String term = name.trim();
+        List<Long> ids = userRepository.searchIdsByName(term, escapeLikePattern(term), pageSize, (long) pageNumber * pageSize);
+        if (ids.isEmpty()) {
+            return new PageResponseDTO<>(List.of(), pageSize, null, pageNumber);
+        }
+
+        // Carregar os usuários da página em uma única consulta, mantendo a ordem de relevância
+        Map<Long, User> usersById = userRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<ResponseNewUserDTO> content = ids.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .map(userMapper::toResponseNewUserDTO)
+                .collect(Collectors.toList());
+        return new PageResponseDTO<>(content, pageSize, null, pageNumber);
     }
 
     /**
      * Atualiza um usuário existente no sistema (sem alterar credenciais)
      * @param id ID do usuário a ser atualizado
      * @param updateUserDTO DTO com os dados atualizados do usuário
-     * @return ResponseNewUserDTO com os dados do usuário atualizado
+     * @param ifMatch Valor do header If-Match, comparado com a versão carregada na mesma transação (null para atualização incondicional)
+     * @return VersionedDTO com os dados do usuário atualizado e o ETag da versão gravada
      * @throws IllegalArgumentException se o ID fornecido for nulo ou se os dados forem inválidos
+     * @throws PreconditionFailedException se o ETag informado em If-Match não for o atual
      * @throws EmailAlreadyExistsException se o email já estiver em uso por outro usuário
      * @throws UserIdentificationAlreadyExistsException se a identificação já estiver em uso por outro usuário
      * @throws RuntimeException se o usuário não for encontrado ou ocorrer um erro interno
      */
-    public ResponseNewUserDTO updateUser(Long id, UpdateUserDTO updateUserDTO) {
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.USER_ADDRESSES_CACHE, key = "#id")
+    })
+    public VersionedDTO<ResponseNewUserDTO> updateUser(Long id, UpdateUserDTO updateUserDTO, String ifMatch) {
         if (id == null) {
             throw new IllegalArgumentException("ID do usuário não pode ser nulo");
         }
@@ -181,21 +382,54 @@ public class UserService {
 
         // Buscar o usuário existente
         User existingUser = userRepository.findById(id).orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+        checkIfMatch(existingUser, ifMatch);
+        return applyUpdate(existingUser, updateUserDTO);
+    }
 
-        // Verificar se o email já existe em outro usuário
-        if (!existingUser.getEmail().equals(updateUserDTO.getEmail()) &&
-            userRepository.existsByEmail(updateUserDTO.getEmail())) {
-            throw new EmailAlreadyExistsException(updateUserDTO.getEmail());
+    /**
+     * Atualiza parcialmente um usuário com um JSON Merge Patch (RFC 7386).
+     * Somente as colunas alteradas entram no UPDATE; um patch sem alterações não gera escrita no banco
+     * @param id ID do usuário a ser atualizado
+     * @param patch Documento do merge patch (campos ausentes são mantidos)
+     * @param ifMatch Valor do header If-Match, comparado com a versão carregada na mesma transação (null para atualização incondicional)
+     * @return VersionedDTO com os dados do usuário e o ETag da versão gravada
+     * @throws IllegalArgumentException se o ID ou o patch forem inválidos
+     * @throws PreconditionFailedException se o ETag informado em If-Match não for o atual
+     * @throws jakarta.validation.ConstraintViolationException se o resultado do patch violar as validações
+     * @throws EmailAlreadyExistsException se o email já estiver em uso por outro usuário
+     * @throws UserIdentificationAlreadyExistsException se a identificação já estiver em uso por outro usuário
+     * @throws RuntimeException se o usuário não for encontrado
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.USER_ADDRESSES_CACHE, key = "#id")
+    })
+    public VersionedDTO<ResponseNewUserDTO> patchUser(Long id, JsonNode patch, String ifMatch) {
+        if (id == null) {
+            throw new IllegalArgumentException("ID do usuário não pode ser nulo");
         }
 
-        // Verificar se a identificação já existe em outro usuário
-        if (!existingUser.getUserIdentification().equals(updateUserDTO.getUserIdentification()) &&
-            userRepository.existsByUserIdentification(updateUserDTO.getUserIdentification())) {
-            throw new UserIdentificationAlreadyExistsException(updateUserDTO.getUserIdentification());
-        }
+        User existingUser = userRepository.findById(id).orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+        checkIfMatch(existingUser, ifMatch);
 
-        // Atualizar dados básicos do usuário usando o mapper
-        userMapper.updateUser(existingUser, updateUserDTO);
+        // O estado atual do usuário é a base sobre a qual o patch é aplicado
+        UpdateUserDTO patchedUser = jsonMergePatchMapper.apply(userMapper.toUpdateUserDTO(existingUser), patch);
+        return applyUpdate(existingUser, patchedUser);
+    }
+
+    // A pré-condição é verificada sobre o usuário carregado nesta transação: uma escrita concorrente que
+    // termine depois desta leitura faz o UPDATE (where version = ?) falhar, em vez de ser sobrescrita
+    private static void checkIfMatch(User user, String ifMatch) {
+        if (!UserVersionDTO.matches(ifMatch, UserVersionDTO.of(user).getUserETag()))
+            throw new PreconditionFailedException("O usuário foi alterado desde a versão informada em If-Match");
+    }
+
+    private VersionedDTO<ResponseNewUserDTO> applyUpdate(User existingUser, UpdateUserDTO updateUserDTO) {
+        boolean emailChanged = !Objects.equals(existingUser.getEmail(), updateUserDTO.getEmail());
+        boolean identificationChanged = !Objects.equals(existingUser.getUserIdentification(), updateUserDTO.getUserIdentification());
+
+        // Atualizar dados básicos do usuário usando o mapper (somente se algo mudou)
+        boolean changed = userMapper.updateUser(existingUser, updateUserDTO);
 
         // Atualizar endereço se fornecido
         if (updateUserDTO.getAddress() != null) {
@@ -208,14 +442,35 @@ public class UserService {
             AddressDTO addressDTO = updateUserDTO.getAddress();
 
             // Usar o mapper para atualizar o endereço existente
-            addressMapper.updateAddress(address, addressDTO);
+            changed |= addressMapper.updateAddress(address, addressDTO);
+        }
+
+        // Nada mudou: nenhuma escrita nem alteração do lastUpdate
+        if (!changed) {
+            return new VersionedDTO<>(userMapper.toResponseNewUserDTO(existingUser), UserVersionDTO.of(existingUser).getUserETag());
+        }
+
+        // Salvar as alterações no banco de dados (@DynamicUpdate grava apenas as colunas alteradas);
+        // um email ou identificação já usados por outro usuário violam a constraint única
+        User updatedUser;
+        try {
+            updatedUser = userRepository.saveAndFlush(existingUser);
+        } catch (DataIntegrityViolationException ex) {
+            throw UniqueConstraintViolations.translate(ex, updateUserDTO.getEmail(), updateUserDTO.getUserIdentification(), null);
         }
 
-        // Salvar as alterações no banco de dados
-        User updatedUser = userRepository.save(existingUser);
+        // Manter o índice de unicidade atualizado com os novos valores
+        if (emailChanged || identificationChanged) {
+            uniquenessIndex.add(updatedUser.getEmail(), updatedUser.getUserIdentification(), null);
+            uniquenessIndex.recordRemoval();
+        }
 
         // Converter para DTO de resposta usando o mapper
-        return userMapper.toResponseNewUserDTO(updatedUser);
+        ResponseNewUserDTO response = userMapper.toResponseNewUserDTO(updatedUser);
+        userOutboxService.recordUserEvent(EUserEventType.user_updated, response);
+
+        // Após o flush as versões da entidade são as gravadas por esta transação
+        return new VersionedDTO<>(response, UserVersionDTO.of(updatedUser).getUserETag());
     }
 
     /**
@@ -225,24 +480,82 @@ public class UserService {
      * @throws IllegalArgumentException se o ID fornecido for nulo
      * @throws RuntimeException se ocorrer um erro interno durante a exclusão
      */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.USER_ADDRESSES_CACHE, key = "#id")
+    })
     public Optional<ResponseNewUserDTO> deleteUser(Long id) {
         if (id == null) {
             throw new IllegalArgumentException("ID do usuário não pode ser nulo");
         }
 
-        // Buscar o usuário antes de deletar
-        Optional<User> user = userRepository.findById(id);
+        // Exclui usuário, endereço e credenciais retornando os dados excluídos em uma única ida ao banco
+        Optional<ResponseNewUserDTO> deleted = userJdbcRepository.deleteAllReturning(List.of(id)).stream().findFirst();
+        deleted.ifPresent(user -> {
+            uniquenessIndex.recordRemoval();
+            userOutboxService.recordUserEvent(EUserEventType.user_deleted, user);
+        });
+        return deleted;
+    }
+
+    /**
+     * Deleta vários usuários do sistema em uma única operação
+     * @param ids IDs dos usuários a serem deletados (máximo de MAX_DELETE_IDS)
+     * @return Lista com os dados dos usuários deletados (IDs inexistentes são ignorados)
+     * @throws IllegalArgumentException se a lista for vazia, contiver IDs nulos ou exceder o limite
+     */
+    public List<ResponseNewUserDTO> deleteUsers(List<Long> ids) {
+        if (ids == null || ids.isEmpty())
+            throw new IllegalArgumentException("Lista de IDs não pode ser vazia");
+        if (ids.stream().anyMatch(Objects::isNull))
+            throw new IllegalArgumentException("ID do usuário não pode ser nulo");
+
+        List<Long> distinctIds = ids.stream().distinct().collect(Collectors.toList());
+        if (distinctIds.size() > MAX_DELETE_IDS)
+            throw new IllegalArgumentException("Exclusão em lote não pode exceder " + MAX_DELETE_IDS + " usuários");
+
+        List<ResponseNewUserDTO> deleted = userJdbcRepository.deleteAllReturning(distinctIds);
+
+        // Invalidação feita manualmente pois as chaves vêm de uma lista
+        Cache usersCache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        Cache addressesCache = cacheManager.getCache(CacheConfig.USER_ADDRESSES_CACHE);
+        deleted.forEach(user -> {
+            if (usersCache != null)
+                usersCache.evict(user.getId());
+            if (addressesCache != null)
+                addressesCache.evict(user.getId());
+            uniquenessIndex.recordRemoval();
+        });
+        userOutboxService.recordUserEvents(EUserEventType.user_deleted, deleted);
+        return deleted;
+    }
 
-        if (user.isPresent()) {
-            // Converter para DTO antes de deletar
-            ResponseNewUserDTO userDTO = userMapper.toResponseNewUserDTO(user.get());
+    private int resolvePageSize(Integer size) {
+        if (size == null)
+            return DEFAULT_PAGE_SIZE;
 
-            // Deletar o usuário do banco de dados
-            userRepository.deleteById(id);
+        if (size <= 0)
+            throw new IllegalArgumentException("Tamanho da página deve ser maior que zero");
 
-            return Optional.of(userDTO);
-        } else {
-            return Optional.empty();
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    private static String escapeLikePattern(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank())
+            return 0L;
+
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Cursor inválido");
         }
     }
 
@@ -0,0 +1,6 @@
+-- Schema fixo: fiap, como em db/id-sequences.sql.
+-- Feed de alterações: índices sobre last_update para buscar somente as linhas alteradas após o cursor
+CREATE INDEX IF NOT EXISTS idx_users_last_update ON fiap.users (last_update, id);
+CREATE INDEX IF NOT EXISTS idx_addresse_user_last_update ON fiap.addresse_user (last_update);
+CREATE INDEX IF NOT EXISTS idx_user_credentials_last_update ON fiap.user_credentials (last_update);
+CREATE INDEX IF NOT EXISTS idx_user_tombstones_deleted_at ON fiap.user_tombstones (deleted_at, user_id);
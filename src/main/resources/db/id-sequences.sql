@@ -0,0 +1,21 @@
+-- Escrito para o schema fiap (spring.jpa.properties.hibernate.default_schema): os scripts de inicialização não
+-- resolvem {h-schema} como as consultas dos repositórios; ao trocar o schema, atualizar os nomes qualificados abaixo.
+-- IDs gerados por sequences com otimizador pooled-lo (allocationSize = 50), substituindo as colunas IDENTITY.
+-- Idempotente: posiciona cada sequence após o maior ID existente sem nunca retroceder.
+CREATE SEQUENCE IF NOT EXISTS fiap.users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS fiap.addresse_user_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS fiap.user_credentials_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE fiap.users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE fiap.addresse_user ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE fiap.user_credentials ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+SELECT setval('fiap.users_seq', GREATEST(
+    (SELECT COALESCE(MAX(id), 0) + 1 FROM fiap.users),
+    (SELECT last_value + CASE WHEN is_called THEN 50 ELSE 0 END FROM fiap.users_seq)), false);
+SELECT setval('fiap.addresse_user_seq', GREATEST(
+    (SELECT COALESCE(MAX(id), 0) + 1 FROM fiap.addresse_user),
+    (SELECT last_value + CASE WHEN is_called THEN 50 ELSE 0 END FROM fiap.addresse_user_seq)), false);
+SELECT setval('fiap.user_credentials_seq', GREATEST(
+    (SELECT COALESCE(MAX(id), 0) + 1 FROM fiap.user_credentials),
+    (SELECT last_value + CASE WHEN is_called THEN 50 ELSE 0 END FROM fiap.user_credentials_seq)), false);
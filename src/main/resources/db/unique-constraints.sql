@@ -0,0 +1,22 @@
+-- Schema fixo: fiap, como em db/id-sequences.sql.
+-- Constraints únicas nomeadas (uk_*), criadas pelo Hibernate: a violação é traduzida pelo nome da constraint.
+-- Remove as constraints únicas com nome gerado nas mesmas colunas (bancos criados antes), somente
+-- quando a constraint nomeada correspondente já existe. Idempotente.
+DO '
+DECLARE
+    legacy record;
+BEGIN
+    FOR legacy IN
+        SELECT con.conrelid::regclass AS table_name, con.conname
+        FROM pg_constraint con
+        WHERE con.contype = ''u''
+          AND con.conrelid IN (''fiap.users''::regclass, ''fiap.user_credentials''::regclass)
+          AND con.conname NOT IN (''uk_users_email'', ''uk_users_user_identification'', ''uk_user_credentials_username'')
+          AND EXISTS (SELECT 1 FROM pg_constraint named
+                      WHERE named.conrelid = con.conrelid
+                        AND named.conkey = con.conkey
+                        AND named.conname IN (''uk_users_email'', ''uk_users_user_identification'', ''uk_user_credentials_username''))
+    LOOP
+        EXECUTE format(''ALTER TABLE %s DROP CONSTRAINT %I'', legacy.table_name, legacy.conname);
+    END LOOP;
+END';
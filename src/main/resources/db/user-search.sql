@@ -0,0 +1,11 @@
+-- Schema fixo: fiap, como em db/id-sequences.sql.
+-- Busca de usuários por nome: índice trigram sobre o nome sem acentos e em minúsculas
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() não é IMMUTABLE, por isso não pode ser usada diretamente em um índice
+CREATE OR REPLACE FUNCTION fiap.immutable_unaccent(text) RETURNS text AS
+'SELECT public.unaccent(''public.unaccent'', $1)'
+LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT;
+
+CREATE INDEX IF NOT EXISTS idx_users_name_trgm ON fiap.users USING gin (fiap.immutable_unaccent(lower(name)) gin_trgm_ops);
@@ -0,0 +1,209 @@
+package com.restaurantcontroller.restaurantcontroller.config;
+
+import com.restaurantcontroller.restaurantcontroller.dto.AddressDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.NewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.ResponseNewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UpdateUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UserCredentialsDTO;
+import com.restaurantcontroller.restaurantcontroller.model.EProfile;
+import com.restaurantcontroller.restaurantcontroller.repository.UserRepository;
+import com.restaurantcontroller.restaurantcontroller.service.AddressService;
+import com.restaurantcontroller.restaurantcontroller.service.UserCredentialsService;
+import com.restaurantcontroller.restaurantcontroller.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Garante que as leituras por ID são servidas pelo cache e que cada escrita invalida as entradas afetadas
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class CacheConfigTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AddressService addressService;
+
+    @Autowired
+    private UserCredentialsService userCredentialsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userService.createUser(createNewUserDTO(SEQUENCE.incrementAndGet())).getId();
+    }
+
+    @Test
+    void getUserById_shouldServeSecondReadFromCache() {
+        ResponseNewUserDTO first = userService.getUserById(userId).orElseThrow();
+        ResponseNewUserDTO second = userService.getUserById(userId).orElseThrow();
+
+        assertSame(first, second);
+        assertNotNull(usersCache().get(userId));
+    }
+
+    @Test
+    void getUserById_shouldServeCacheHitWithOnlyTheVersionQuery() {
+        userService.getUserById(userId);
+        double current = versionChecks(CacheConfig.VERSION_CURRENT);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        userService.getUserById(userId);
+
+        // Custo de um acerto: a consulta de projeção da versão, sem carregar nem mapear as três tabelas
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(current + 1, versionChecks(CacheConfig.VERSION_CURRENT));
+    }
+
+    @Test
+    void getUserById_shouldNotCacheMissingUser() {
+        assertTrue(userService.getUserById(-1L).isEmpty());
+        assertNull(usersCache().get(-1L));
+    }
+
+    @Test
+    void getById_shouldReloadEntries_whenChangedWithoutEviction() {
+        userService.getUserById(userId);
+        addressService.getAddressByUserId(userId);
+
+        // Escrita feita em outro nó: o cache deste nó não é invalidado
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            var user = userRepository.findById(userId).orElseThrow();
+            user.setName("Nome Outro No");
+            user.getAddressUser().setCity("Santos");
+        });
+
+        assertEquals("Nome Outro No", userService.getUserById(userId).orElseThrow().getName());
+        assertEquals("Santos", addressService.getAddressByUserId(userId).orElseThrow().getCity());
+    }
+
+    @Test
+    void updateUser_shouldEvictUserAndAddress() {
+        userService.getUserById(userId);
+        addressService.getAddressByUserId(userId);
+
+        ResponseNewUserDTO current = userService.getUserById(userId).orElseThrow();
+        UpdateUserDTO update = new UpdateUserDTO();
+        update.setName("Nome Alterado");
+        update.setEmail(current.getEmail());
+        update.setUserIdentification(current.getUserIdentification());
+        update.setProfile(current.getProfile());
+        userService.updateUser(userId, update, null);
+
+        assertNull(usersCache().get(userId));
+        assertNull(userAddressesCache().get(userId));
+        assertEquals("Nome Alterado", userService.getUserById(userId).orElseThrow().getName());
+    }
+
+    @Test
+    void updateAddress_shouldEvictUserAndAddressResolvedFromAddressId() {
+        userService.getUserById(userId);
+        addressService.getAddressByUserId(userId);
+        Long addressId = userRepository.findById(userId).orElseThrow().getAddressUser().getId();
+
+        AddressDTO address = createAddressDTO();
+        address.setCity("Campinas");
+        addressService.updateAddress(addressId, address);
+
+        assertNull(usersCache().get(userId));
+        assertNull(userAddressesCache().get(userId));
+        assertEquals("Campinas", addressService.getAddressByUserId(userId).orElseThrow().getCity());
+    }
+
+    @Test
+    void updateUsername_shouldEvictUser() {
+        userService.getUserById(userId);
+
+        userCredentialsService.updateUsername(userId, "alterado" + userId);
+
+        assertNull(usersCache().get(userId));
+        assertEquals("alterado" + userId, userService.getUserById(userId).orElseThrow().getUsername());
+    }
+
+    @Test
+    void deleteUser_shouldEvictUser() {
+        userService.getUserById(userId);
+
+        userService.deleteUser(userId);
+
+        assertNull(usersCache().get(userId));
+        assertTrue(userService.getUserById(userId).isEmpty());
+    }
+
+    private double versionChecks(String result) {
+        return meterRegistry.get("cache.version.checks").tag("cache", CacheConfig.USERS_CACHE).tag("result", result).counter().count();
+    }
+
+    private Cache usersCache() {
+        return cacheManager.getCache(CacheConfig.USERS_CACHE);
+    }
+
+    private Cache userAddressesCache() {
+        return cacheManager.getCache(CacheConfig.USER_ADDRESSES_CACHE);
+    }
+
+    private NewUserDTO createNewUserDTO(int index) {
+        UserCredentialsDTO credentials = new UserCredentialsDTO();
+        credentials.setUsername("cache" + index);
+        credentials.setPassword("Senha@123");
+
+        NewUserDTO dto = new NewUserDTO();
+        dto.setName("Usuário Cache");
+        dto.setEmail("cache" + index + "@example.com");
+        dto.setUserIdentification(String.format("%011d", 90000 + index));
+        dto.setProfile(EProfile.client);
+        dto.setAddress(createAddressDTO());
+        dto.setCredentials(credentials);
+        return dto;
+    }
+
+    private AddressDTO createAddressDTO() {
+        AddressDTO address = new AddressDTO();
+        address.setStreet("Rua das Flores");
+        address.setNumber(100);
+        address.setComplement("Casa");
+        address.setNeighborhood("Centro");
+        address.setCity("São Paulo");
+        address.setState("SP");
+        address.setCountry("Brasil");
+        address.setCep("01000-000");
+        return address;
+    }
+}
@@ -0,0 +1,49 @@
+package com.restaurantcontroller.restaurantcontroller.config;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CorrelationIdFilterTest {
+
+    private final CorrelationIdFilter filter = new CorrelationIdFilter();
+
+    @Test
+    void doFilter_shouldReuseValidCorrelationIdFromHeader() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(CorrelationIdFilter.CORRELATION_ID_HEADER, "pedido-123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> duringRequest = new AtomicReference<>();
+
+        filter.doFilter(request, response, new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                duringRequest.set(MDC.get(CorrelationIdFilter.CORRELATION_ID_MDC_KEY));
+            }
+        });
+
+        assertEquals("pedido-123", duringRequest.get());
+        assertEquals("pedido-123", response.getHeader(CorrelationIdFilter.CORRELATION_ID_HEADER));
+        assertNull(MDC.get(CorrelationIdFilter.CORRELATION_ID_MDC_KEY));
+    }
+
+    @Test
+    void doFilter_shouldGenerateCorrelationId_whenHeaderIsInvalid() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(CorrelationIdFilter.CORRELATION_ID_HEADER, "linha\nforjada");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        String correlationId = response.getHeader(CorrelationIdFilter.CORRELATION_ID_HEADER);
+        assertNotNull(correlationId);
+        assertNotEquals("linha\nforjada", correlationId);
+        assertEquals(36, correlationId.length());
+    }
+}
@@ -0,0 +1,77 @@
+package com.restaurantcontroller.restaurantcontroller.config;
+
+import com.restaurantcontroller.restaurantcontroller.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que os timers dos serviços e as métricas de pool e Hibernate estão registrados
+ */
+@SpringBootTest
+@AutoConfigureObservability(tracing = false)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class MetricsConfigTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PrometheusMeterRegistry prometheusMeterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void serviceMethods_shouldBeTimedWithHistogram() {
+        userService.getUsersPage(null, 10);
+
+        Timer timer = meterRegistry.find("service.method")
+                .tag("class", UserService.class.getName())
+                .tag("method", "getUsersPage")
+                .timer();
+
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+        assertTrue(prometheusMeterRegistry.scrape().contains("service_method_seconds_bucket{"));
+    }
+
+    @Test
+    void poolHibernateAndCacheMetrics_shouldBeRegistered() {
+        assertNotNull(meterRegistry.find("hikaricp.connections.active").meter());
+        assertNotNull(meterRegistry.find("hikaricp.connections.acquire").timer());
+        assertNotNull(meterRegistry.find("hibernate.query.executions").meter());
+        assertNotNull(meterRegistry.find("hibernate.statements").meter());
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", CacheConfig.USERS_CACHE).tag("result", "hit").meter());
+        assertNotNull(meterRegistry.find("cache.evictions").tag("cache", CacheConfig.USER_ADDRESSES_CACHE).meter());
+    }
+
+    @Test
+    void prometheusEndpoint_shouldRequireAdminToken() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/actuator/prometheus").with(jwt().authorities(new SimpleGrantedAuthority("ROLE_client"))))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/actuator/prometheus").with(jwt().authorities(new SimpleGrantedAuthority("ROLE_admin"))))
+                .andExpect(status().isOk());
+    }
+}
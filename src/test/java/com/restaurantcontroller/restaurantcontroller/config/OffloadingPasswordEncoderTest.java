@@ -0,0 +1,64 @@
+package com.restaurantcontroller.restaurantcontroller.config;
+
+import com.restaurantcontroller.restaurantcontroller.exception.PasswordHashingUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffloadingPasswordEncoderTest {
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), new ThreadPoolExecutor.AbortPolicy());
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void encodeAndMatches_shouldRunOnHashingPool() {
+        PasswordEncoder encoder = new OffloadingPasswordEncoder(new BCryptPasswordEncoder(4), executor, Duration.ofSeconds(5));
+
+        String hash = encoder.encode("Senha@123");
+
+        assertTrue(encoder.matches("Senha@123", hash));
+        assertFalse(encoder.matches("outraSenha", hash));
+        assertEquals(3, executor.getTaskCount());
+    }
+
+    @Test
+    void encode_shouldThrowUnavailable_whenQueueIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> { release.await(); return null; });
+        executor.submit(() -> null);
+
+        PasswordEncoder encoder = new OffloadingPasswordEncoder(new BCryptPasswordEncoder(4), executor, Duration.ofSeconds(5));
+        try {
+            assertThrows(PasswordHashingUnavailableException.class, () -> encoder.encode("Senha@123"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void encode_shouldThrowUnavailable_whenTimeoutExpires() {
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> { release.await(); return null; });
+
+        PasswordEncoder encoder = new OffloadingPasswordEncoder(new BCryptPasswordEncoder(4), executor, Duration.ofMillis(50));
+        try {
+            assertThrows(PasswordHashingUnavailableException.class, () -> encoder.encode("Senha@123"));
+        } finally {
+            release.countDown();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.restaurantcontroller.restaurantcontroller.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHashingAlgorithmTest {
+
+    @Test
+    void pbkdf2_shouldStoreIterationsInHash() {
+        PasswordEncoder encoder = PasswordHashingAlgorithm.pbkdf2.encoder(1000);
+
+        String hash = encoder.encode("Senha@123");
+
+        assertTrue(hash.startsWith("1000$"));
+        assertTrue(encoder.matches("Senha@123", hash));
+        assertFalse(encoder.matches("outraSenha", hash));
+        assertFalse(encoder.matches("Senha@123", "hash-invalido"));
+        // Hashes gravados com outra quantidade de iterações continuam válidos
+        assertTrue(PasswordHashingAlgorithm.pbkdf2.encoder(2000).matches("Senha@123", hash));
+    }
+
+    @Test
+    void pbkdf2_shouldRequestUpgrade_whenHashHasFewerIterations() {
+        String hash = PasswordHashingAlgorithm.pbkdf2.encoder(1000).encode("Senha@123");
+
+        assertTrue(PasswordHashingAlgorithm.pbkdf2.encoder(2000).upgradeEncoding(hash));
+        assertFalse(PasswordHashingAlgorithm.pbkdf2.encoder(1000).upgradeEncoding(hash));
+    }
+
+    @Test
+    void delegatingEncoder_shouldMatchLegacyBcryptHashAndRequestUpgrade() {
+        PasswordEncoder encoder = PasswordHashingAlgorithm.delegatingEncoder(PasswordHashingAlgorithm.bcrypt, 4);
+        String legacyHash = new BCryptPasswordEncoder(4).encode("Senha@123");
+
+        assertTrue(encoder.matches("Senha@123", legacyHash));
+        assertTrue(encoder.upgradeEncoding(legacyHash));
+
+        String hash = encoder.encode("Senha@123");
+        assertTrue(hash.startsWith("{bcrypt}$2a$04$"));
+        assertFalse(encoder.upgradeEncoding(hash));
+    }
+
+    @Test
+    void delegatingEncoder_shouldRequestUpgrade_whenAlgorithmOrWorkFactorChanges() {
+        String bcryptHash = PasswordHashingAlgorithm.delegatingEncoder(PasswordHashingAlgorithm.bcrypt, 4).encode("Senha@123");
+
+        PasswordEncoder pbkdf2 = PasswordHashingAlgorithm.delegatingEncoder(PasswordHashingAlgorithm.pbkdf2, 1000);
+        assertTrue(pbkdf2.matches("Senha@123", bcryptHash));
+        assertTrue(pbkdf2.upgradeEncoding(bcryptHash));
+        assertTrue(pbkdf2.encode("Senha@123").startsWith("{pbkdf2}1000$"));
+
+        assertTrue(PasswordHashingAlgorithm.delegatingEncoder(PasswordHashingAlgorithm.bcrypt, 5).upgradeEncoding(bcryptHash));
+    }
+
+    @Test
+    void calibrate_shouldNeverGoBelowMinimumWorkFactor() {
+        assertEquals(10, PasswordHashingAlgorithm.bcrypt.calibrate(Duration.ofNanos(1)));
+        assertEquals(600_000, PasswordHashingAlgorithm.pbkdf2.calibrate(Duration.ofNanos(1)));
+    }
+
+    @Test
+    void scale_shouldPickLargestWorkFactorWithinTargetTime() {
+        long millis = 1_000_000;
+
+        // bcrypt: cada unidade dobra o custo (10ms no fator 10 -> 80ms no fator 13 para um alvo de 100ms)
+        assertEquals(13, PasswordHashingAlgorithm.bcrypt.scale(10, 10 * millis, 100 * millis));
+        assertEquals(31, PasswordHashingAlgorithm.bcrypt.scale(10, 1, Long.MAX_VALUE / 4));
+        // pbkdf2: custo linear, arredondado para baixo em múltiplos de 10000
+        assertEquals(1_460_000, PasswordHashingAlgorithm.pbkdf2.scale(600_000, 41 * millis, 100 * millis));
+    }
+}
@@ -0,0 +1,94 @@
+package com.restaurantcontroller.restaurantcontroller.config;
+
+import com.restaurantcontroller.restaurantcontroller.dto.AddressDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.NewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.ResponseNewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UserCredentialsDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.VersionedDTO;
+import com.restaurantcontroller.restaurantcontroller.model.EProfile;
+import com.restaurantcontroller.restaurantcontroller.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Roteamento das leituras por ID com a réplica habilitada. Primário e réplica apontam para o mesmo banco H2,
+ * então os dados são os mesmos e o destino de cada conexão é identificado pelas métricas de roteamento
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url = jdbc:h2:mem:read_replica_db;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;INIT=CREATE SCHEMA IF NOT EXISTS fiap",
+        "spring.datasource.replica.url = ${spring.datasource.url}",
+        "spring.datasource.replica.lag-query = SELECT 0"
+})
+@ActiveProfiles("test")
+public class ReadReplicaConfigTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void getVersionedUserById_shouldServeCacheHitWithVersionQueryOnReplica() {
+        Long userId = userService.createUser(createNewUserDTO()).getId();
+        // O ambiente MOCK associa uma requisição à thread: sem ela as leituras não são do mesmo cliente da escrita
+        // (read-your-writes) e seguem para a réplica
+        RequestContextHolder.resetRequestAttributes();
+        replicaLagMonitor.check();
+
+        // Ausente no cache: versão na réplica e carga no primário
+        VersionedDTO<ResponseNewUserDTO> loaded = userService.getVersionedUserById(userId).orElseThrow();
+
+        double replicaConnections = routedConnections(ReplicaRoutingDataSource.Target.REPLICA);
+        double fallbacks = replicaFallbacks();
+        VersionedDTO<ResponseNewUserDTO> cached = userService.getVersionedUserById(userId).orElseThrow();
+
+        assertSame(loaded, cached);
+        assertEquals(0, replicaFallbacks() - fallbacks);
+        assertEquals(1, routedConnections(ReplicaRoutingDataSource.Target.REPLICA) - replicaConnections);
+    }
+
+    private double replicaFallbacks() {
+        return meterRegistry.get("datasource.replica.fallbacks").counter().count();
+    }
+
+    private double routedConnections(ReplicaRoutingDataSource.Target target) {
+        return meterRegistry.get("datasource.routing").tag("target", target.name().toLowerCase(Locale.ROOT)).counter().count();
+    }
+
+    private NewUserDTO createNewUserDTO() {
+        UserCredentialsDTO credentials = new UserCredentialsDTO();
+        credentials.setUsername("replica1");
+        credentials.setPassword("Senha@123");
+
+        AddressDTO address = new AddressDTO();
+        address.setStreet("Rua das Flores");
+        address.setNumber(100);
+        address.setComplement("Casa");
+        address.setNeighborhood("Centro");
+        address.setCity("São Paulo");
+        address.setState("SP");
+        address.setCountry("Brasil");
+        address.setCep("01000-000");
+
+        NewUserDTO dto = new NewUserDTO();
+        dto.setName("Usuário Réplica");
+        dto.setEmail("replica1@example.com");
+        dto.setUserIdentification("00000070001");
+        dto.setProfile(EProfile.client);
+        dto.setAddress(address);
+        dto.setCredentials(credentials);
+        return dto;
+    }
+}
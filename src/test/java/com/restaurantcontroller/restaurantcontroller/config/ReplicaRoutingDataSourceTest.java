@@ -0,0 +1,140 @@
+package com.restaurantcontroller.restaurantcontroller.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Roteamento entre primário e réplica, usando dois bancos H2 em memória no lugar do PostgreSQL
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private final String primaryName = "primary_" + SEQUENCE.incrementAndGet();
+    private final String replicaName = "replica_" + SEQUENCE.incrementAndGet();
+
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readOnlyTransaction;
+    private DataSourceTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransaction_shouldUseReplica() {
+        setUp("SELECT 0");
+
+        assertEquals(replicaName, readOnlyTransaction.execute(status -> currentDatabase()));
+        assertEquals(primaryName, writeTransaction.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void readOnlyTransaction_shouldUsePrimary_whenReplicaLagExceedsTolerance() {
+        setUp("SELECT 10");
+
+        assertEquals(primaryName, readOnlyTransaction.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void readOnlyTransaction_shouldUsePrimary_whenLagCannotBeMeasured() {
+        setUp("SELECT * FROM tabela_inexistente");
+
+        assertEquals(primaryName, readOnlyTransaction.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void readOnlyTransaction_shouldReadYourWrites_afterCommittedWrite() {
+        setUp("SELECT 0");
+        bindRequest("10.0.0.1");
+
+        writeTransaction.executeWithoutResult(status -> currentDatabase());
+        assertEquals(primaryName, readOnlyTransaction.execute(status -> currentDatabase()));
+
+        // Outro cliente continua lendo da réplica
+        bindRequest("10.0.0.2");
+        assertEquals(replicaName, readOnlyTransaction.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void readOnlyTransaction_shouldUseReplica_whenWriteWasRolledBack() {
+        setUp("SELECT 0");
+        bindRequest("10.0.0.1");
+
+        writeTransaction.executeWithoutResult(status -> {
+            currentDatabase();
+            status.setRollbackOnly();
+        });
+
+        assertEquals(replicaName, readOnlyTransaction.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void readFromPrimary_shouldUsePrimaryInsideReadOnlyTransaction() {
+        setUp("SELECT 0");
+
+        assertEquals(primaryName, readOnlyTransaction.execute(status -> ReplicaRoutingDataSource.readFromPrimary(this::currentDatabase)));
+        assertEquals(replicaName, readOnlyTransaction.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void readFromPrimaryInNewTransaction_shouldUsePrimary_afterReplicaReadInCurrentTransaction() {
+        setUp("SELECT 0");
+
+        assertEquals(replicaName + "," + primaryName, readOnlyTransaction.execute(status -> currentDatabase() + ","
+                + ReplicaRoutingDataSource.readFromPrimaryInNewTransaction(transactionManager, this::currentDatabase)));
+    }
+
+    private void setUp(String lagQuery) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DataSource primary = h2(primaryName);
+        DataSource replica = h2(replicaName);
+
+        // Intervalo longo: a medição é feita somente pelo teste, sem verificações em segundo plano
+        lagMonitor = new ReplicaLagMonitor(replica, lagQuery, Duration.ofSeconds(5), Duration.ofHours(1), meterRegistry);
+        lagMonitor.check();
+
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primary, replica, lagMonitor,
+                Duration.ofMinutes(1), 100, meterRegistry);
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT DATABASE()", String.class).toLowerCase();
+    }
+
+    private static void bindRequest(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,53 @@
+package com.restaurantcontroller.restaurantcontroller.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestClientTest {
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void current_shouldUseAuthenticatedUser() {
+        fromRemoteAddress("10.0.0.1");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("joao", null, AuthorityUtils.createAuthorityList("ROLE_client")));
+
+        assertEquals(Optional.of("user:joao"), RequestClient.current());
+    }
+
+    @Test
+    void current_shouldUseRemoteAddress_whenAnonymous() {
+        fromRemoteAddress("10.0.0.1");
+        SecurityContextHolder.getContext().setAuthentication(
+                new AnonymousAuthenticationToken("chave", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+
+        assertEquals(Optional.of("ip:10.0.0.1"), RequestClient.current());
+    }
+
+    @Test
+    void current_shouldBeEmpty_outsideHttpRequest() {
+        assertTrue(RequestClient.current().isEmpty());
+    }
+
+    private static void fromRemoteAddress(String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddress);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
@@ -0,0 +1,144 @@
+package com.restaurantcontroller.restaurantcontroller.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurantcontroller.restaurantcontroller.dto.AddressDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.NewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UserCredentialsDTO;
+import com.restaurantcontroller.restaurantcontroller.model.EProfile;
+import com.restaurantcontroller.restaurantcontroller.service.ChangeFeedStreamer;
+import com.restaurantcontroller.restaurantcontroller.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Feed de alterações de usuários (consulta paginada e SSE)
+ */
+@SpringBootTest(properties = {"change-feed.settle-time=0s", "change-feed.stream.poll-interval=1h"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ChangeFeedTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ChangeFeedStreamer changeFeedStreamer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String headCursor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        headCursor = getChanges("now").get("nextCursor").asText();
+        Thread.sleep(2);
+    }
+
+    @Test
+    void getChanges_shouldReturnUpsertsAndTombstonesAfterCursor() throws Exception {
+        Long updatedId = userService.createUser(createNewUserDTO(SEQUENCE.incrementAndGet())).getId();
+        Long deletedId = userService.createUser(createNewUserDTO(SEQUENCE.incrementAndGet())).getId();
+        mockMvc.perform(patch("/addresses/user/{userId}", updatedId)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"city\":\"Campinas\"}"))
+                .andExpect(status().isOk());
+        userService.deleteUser(deletedId);
+
+        List<JsonNode> changes = new ArrayList<>();
+        getChanges(headCursor).get("changes").forEach(changes::add);
+
+        assertEquals(2, changes.size());
+        assertEquals("upsert", changes.get(0).get("type").asText());
+        assertEquals(updatedId, changes.get(0).get("id").asLong());
+        assertEquals("Campinas", changes.get(0).at("/user/address/city").asText());
+        assertEquals("delete", changes.get(1).get("type").asText());
+        assertEquals(deletedId, changes.get(1).get("id").asLong());
+        assertTrue(changes.get(1).get("user").isNull());
+
+        // Retomando pelo cursor da primeira alteração, somente a exclusão é entregue
+        JsonNode resumed = getChanges(changes.get(0).get("cursor").asText());
+        assertEquals(1, resumed.get("changes").size());
+        assertEquals(deletedId, resumed.at("/changes/0/id").asLong());
+    }
+
+    @Test
+    void getChanges_shouldReturnBadRequest_whenCursorIsInvalid() throws Exception {
+        mockMvc.perform(get("/users/changes").param("since", "invalido"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamChanges_shouldPushNewChanges() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/users/changes/stream").param("since", headCursor))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        Long userId = userService.createUser(createNewUserDTO(SEQUENCE.incrementAndGet())).getId();
+        changeFeedStreamer.poll();
+
+        // Os eventos são escritos na conexão pela virtual thread do assinante, após o poll
+        String events = stream.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        for (int attempt = 0; attempt < 50 && !events.contains("\"id\":" + userId); attempt++) {
+            Thread.sleep(100);
+            events = stream.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        }
+        assertTrue(events.contains("event:upsert"), events);
+        assertTrue(events.contains("\"id\":" + userId), events);
+    }
+
+    private JsonNode getChanges(String since) throws Exception {
+        String body = mockMvc.perform(get("/users/changes").param("since", since))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        return objectMapper.readTree(body);
+    }
+
+    private NewUserDTO createNewUserDTO(int index) {
+        UserCredentialsDTO credentials = new UserCredentialsDTO();
+        credentials.setUsername("feed" + index);
+        credentials.setPassword("Senha@123");
+
+        AddressDTO address = new AddressDTO();
+        address.setStreet("Rua das Flores");
+        address.setNumber(100);
+        address.setComplement("Casa");
+        address.setNeighborhood("Centro");
+        address.setCity("São Paulo");
+        address.setState("SP");
+        address.setCountry("Brasil");
+        address.setCep("01000-000");
+
+        NewUserDTO dto = new NewUserDTO();
+        dto.setName("Usuário Feed");
+        dto.setEmail("feed" + index + "@example.com");
+        dto.setUserIdentification(String.format("%011d", 100000 + index));
+        dto.setProfile(EProfile.client);
+        dto.setAddress(address);
+        dto.setCredentials(credentials);
+        return dto;
+    }
+}
@@ -0,0 +1,258 @@
+package com.restaurantcontroller.restaurantcontroller.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurantcontroller.restaurantcontroller.dto.AddressDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.NewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UpdateUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UserCredentialsDTO;
+import com.restaurantcontroller.restaurantcontroller.model.EProfile;
+import com.restaurantcontroller.restaurantcontroller.repository.UserRepository;
+import com.restaurantcontroller.restaurantcontroller.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Requisições condicionais (ETag, If-None-Match e If-Match) de usuários e endereços
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ConditionalRequestTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userService.createUser(createNewUserDTO(SEQUENCE.incrementAndGet())).getId();
+    }
+
+    @Test
+    void getUser_shouldReturnNotModified_whenETagMatches() throws Exception {
+        String eTag = mockMvc.perform(get("/users/{id}", userId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/users/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getUserAndAddress_shouldAnswerNotModifiedWithOnlyTheVersionQuery() throws Exception {
+        String userETag = mockMvc.perform(get("/users/{id}", userId))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String addressETag = mockMvc.perform(get("/addresses/user/{userId}", userId))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // O 304 é decidido pela consulta de versão, sem carregar a entidade (nem consultar o cache)
+        mockMvc.perform(get("/users/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, userETag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/addresses/user/{userId}", userId).header(HttpHeaders.IF_NONE_MATCH, addressETag))
+                .andExpect(status().isNotModified());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void getUser_shouldReturnNewETag_afterUpdate() throws Exception {
+        String eTag = mockMvc.perform(get("/users/{id}", userId))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String updatedETag = mockMvc.perform(put("/users/{id}", userId)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateBody(userId, "Nome Alterado")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(eTag, updatedETag);
+        mockMvc.perform(get("/users/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, updatedETag));
+    }
+
+    @Test
+    void getUser_shouldNotServeCachedBodyWithNewerETag_whenChangedElsewhere() throws Exception {
+        String eTag = mockMvc.perform(get("/users/{id}", userId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Escrita que não invalida o cache deste nó (ex.: feita em outro nó)
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                userRepository.findById(userId).orElseThrow().setName("Nome Outro No"));
+
+        String updatedETag = mockMvc.perform(get("/users/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Nome Outro No"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(eTag, updatedETag);
+        mockMvc.perform(get("/users/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, updatedETag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void putUser_shouldReturnPreconditionFailed_whenIfMatchIsStale() throws Exception {
+        mockMvc.perform(put("/users/{id}", userId)
+                        .header(HttpHeaders.IF_MATCH, "\"versao-antiga\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateBody(userId, "Nome Alterado")))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals("Usuário Condicional", userService.getUserById(userId).orElseThrow().getName());
+    }
+
+    @Test
+    void getAddress_shouldReturnNotModified_untilAddressChanges() throws Exception {
+        String eTag = mockMvc.perform(get("/addresses/user/{userId}", userId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/addresses/user/{userId}", userId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        AddressDTO address = createAddressDTO();
+        address.setCity("Campinas");
+        mockMvc.perform(put("/addresses/user/{userId}", userId)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(address)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/addresses/user/{userId}", userId)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(address)))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/addresses/user/{userId}", userId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void updateUser_shouldNotOverwriteWriteCommittedAfterIfMatchCheck() throws Exception {
+        String eTag = userService.getUserETag(userId).orElseThrow();
+        UpdateUserDTO update = updateDTO(userId, "Nome Condicional");
+        UpdateUserDTO concurrentUpdate = updateDTO(userId, "Nome Concorrente");
+
+        // O usuário é carregado (e o If-Match aceito) antes de outra requisição gravar uma nova versão
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        assertThrows(OptimisticLockingFailureException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            userRepository.findById(userId).orElseThrow();
+            CompletableFuture.runAsync(() -> userService.updateUser(userId, concurrentUpdate, null)).join();
+            userService.updateUser(userId, update, "\"" + eTag + "\"");
+        }));
+
+        assertEquals("Nome Concorrente", userService.getUserById(userId).orElseThrow().getName());
+    }
+
+    @Test
+    void putAddress_shouldReturnETagOfUpdatedAddress() throws Exception {
+        AddressDTO address = createAddressDTO();
+        address.setCity("Campinas");
+
+        String updatedETag = mockMvc.perform(put("/addresses/user/{userId}", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(address)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/addresses/user/{userId}", userId).header(HttpHeaders.IF_NONE_MATCH, updatedETag))
+                .andExpect(status().isNotModified());
+    }
+
+    private UpdateUserDTO updateDTO(Long id, String name) {
+        var user = userService.getUserById(id).orElseThrow();
+        UpdateUserDTO update = new UpdateUserDTO();
+        update.setName(name);
+        update.setEmail(user.getEmail());
+        update.setUserIdentification(user.getUserIdentification());
+        update.setProfile(user.getProfile());
+        return update;
+    }
+
+    private String updateBody(Long id, String name) throws Exception {
+        var user = userService.getUserById(id).orElseThrow();
+        return objectMapper.writeValueAsString(Map.of(
+                "name", name,
+                "email", user.getEmail(),
+                "userIdentification", user.getUserIdentification(),
+                "profile", user.getProfile().name()));
+    }
+
+    private NewUserDTO createNewUserDTO(int index) {
+        UserCredentialsDTO credentials = new UserCredentialsDTO();
+        credentials.setUsername("condicional" + index);
+        credentials.setPassword("Senha@123");
+
+        NewUserDTO dto = new NewUserDTO();
+        dto.setName("Usuário Condicional");
+        dto.setEmail("condicional" + index + "@example.com");
+        dto.setUserIdentification(String.format("%011d", 80000 + index));
+        dto.setProfile(EProfile.client);
+        dto.setAddress(createAddressDTO());
+        dto.setCredentials(credentials);
+        return dto;
+    }
+
+    private AddressDTO createAddressDTO() {
+        AddressDTO address = new AddressDTO();
+        address.setStreet("Rua das Flores");
+        address.setNumber(100);
+        address.setComplement("Casa");
+        address.setNeighborhood("Centro");
+        address.setCity("São Paulo");
+        address.setState("SP");
+        address.setCountry("Brasil");
+        address.setCep("01000-000");
+        return address;
+    }
+}
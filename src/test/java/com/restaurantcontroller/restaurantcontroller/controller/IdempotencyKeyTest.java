@@ -0,0 +1,145 @@
+package com.restaurantcontroller.restaurantcontroller.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurantcontroller.restaurantcontroller.dto.AddressDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.NewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UserCredentialsDTO;
+import com.restaurantcontroller.restaurantcontroller.model.EProfile;
+import com.restaurantcontroller.restaurantcontroller.repository.UserRepository;
+import com.restaurantcontroller.restaurantcontroller.service.IdempotencyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Header Idempotency-Key na criação de usuários e na atualização do endereço
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class IdempotencyKeyTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void createUser_shouldReplayFirstResponse_whenRetriedWithSameKey() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String body = objectMapper.writeValueAsString(createNewUserDTO(SEQUENCE.incrementAndGet()));
+
+        MockHttpServletResponse first = createUser(key, body).andExpect(status().isCreated()).andReturn().getResponse();
+        long count = userRepository.count();
+        MockHttpServletResponse retry = createUser(key, body).andExpect(status().isCreated()).andReturn().getResponse();
+
+        assertEquals(count, userRepository.count());
+        assertEquals(readId(first), readId(retry));
+        assertNull(first.getHeader(IdempotencyService.REPLAYED_HEADER));
+        assertEquals("true", retry.getHeader(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void createUser_shouldReturnUnprocessableEntity_whenKeyIsReusedWithAnotherBody() throws Exception {
+        String key = UUID.randomUUID().toString();
+        createUser(key, objectMapper.writeValueAsString(createNewUserDTO(SEQUENCE.incrementAndGet())))
+                .andExpect(status().isCreated());
+
+        createUser(key, objectMapper.writeValueAsString(createNewUserDTO(SEQUENCE.incrementAndGet())))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void createUser_shouldReturnConflict_whenRetriedWithoutKey() throws Exception {
+        String body = objectMapper.writeValueAsString(createNewUserDTO(SEQUENCE.incrementAndGet()));
+
+        createUser(null, body).andExpect(status().isCreated());
+        createUser(null, body).andExpect(status().isConflict());
+    }
+
+    @Test
+    void updateAddressByUserId_shouldReplayFirstResponseWithETag_whenRetriedWithSameKey() throws Exception {
+        String key = UUID.randomUUID().toString();
+        NewUserDTO user = createNewUserDTO(SEQUENCE.incrementAndGet());
+        long userId = readId(createUser(null, objectMapper.writeValueAsString(user)).andReturn().getResponse());
+        user.getAddress().setCity("Campinas");
+        String body = objectMapper.writeValueAsString(user.getAddress());
+
+        MockHttpServletResponse first = mockMvc.perform(put("/addresses/user/{userId}", userId)
+                        .header(IdempotencyService.IDEMPOTENCY_KEY_HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        MockHttpServletResponse retry = mockMvc.perform(put("/addresses/user/{userId}", userId)
+                        .header(IdempotencyService.IDEMPOTENCY_KEY_HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertEquals(first.getHeader("ETag"), retry.getHeader("ETag"));
+        assertEquals("Campinas", objectMapper.readTree(retry.getContentAsString()).get("city").asText());
+        assertEquals("true", retry.getHeader(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    private ResultActions createUser(String key, String body) throws Exception {
+        MockHttpServletRequestBuilder request = post("/users").contentType(MediaType.APPLICATION_JSON).content(body);
+        if (key != null) {
+            request.header(IdempotencyService.IDEMPOTENCY_KEY_HEADER, key);
+        }
+        return mockMvc.perform(request);
+    }
+
+    private long readId(MockHttpServletResponse response) throws Exception {
+        JsonNode user = objectMapper.readTree(response.getContentAsString());
+        return user.get("id").asLong();
+    }
+
+    private NewUserDTO createNewUserDTO(int index) {
+        UserCredentialsDTO credentials = new UserCredentialsDTO();
+        credentials.setUsername("idempotente" + index);
+        credentials.setPassword("Senha@123");
+
+        AddressDTO address = new AddressDTO();
+        address.setStreet("Rua das Flores");
+        address.setNumber(100);
+        address.setComplement("Casa");
+        address.setNeighborhood("Centro");
+        address.setCity("São Paulo");
+        address.setState("SP");
+        address.setCountry("Brasil");
+        address.setCep("01000-000");
+
+        NewUserDTO dto = new NewUserDTO();
+        dto.setName("Usuário Idempotente");
+        dto.setEmail("idempotente" + index + "@example.com");
+        dto.setUserIdentification(String.format("%011d", 120000 + index));
+        dto.setProfile(EProfile.client);
+        dto.setAddress(address);
+        dto.setCredentials(credentials);
+        return dto;
+    }
+}
@@ -0,0 +1,173 @@
+package com.restaurantcontroller.restaurantcontroller.controller;
+
+import com.restaurantcontroller.restaurantcontroller.dto.AddressDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.NewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.ResponseNewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UserCredentialsDTO;
+import com.restaurantcontroller.restaurantcontroller.mapper.JsonMergePatchMapper;
+import com.restaurantcontroller.restaurantcontroller.model.EProfile;
+import com.restaurantcontroller.restaurantcontroller.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Atualizações parciais (JSON Merge Patch) de usuários e endereços
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class MergePatchTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userService.createUser(createNewUserDTO(SEQUENCE.incrementAndGet())).getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void patchAddress_shouldUpdateOnlyPatchedField() throws Exception {
+        mockMvc.perform(patch("/addresses/user/{userId}", userId)
+                        .contentType(JsonMergePatchMapper.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"complement\":\"Apto 12\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.complement").value("Apto 12"))
+                .andExpect(jsonPath("$.street").value("Rua das Flores"));
+
+        assertEquals(1, statistics.getEntityUpdateCount());
+        assertEquals("Apto 12", userService.getUserById(userId).orElseThrow().getAddress().getComplement());
+    }
+
+    @Test
+    void patchUser_shouldSkipWrite_whenNothingChanges() throws Exception {
+        ResponseNewUserDTO before = userService.getUserById(userId).orElseThrow();
+        String eTag = mockMvc.perform(get("/users/{id}", userId))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        statistics.clear();
+
+        String patchedETag = mockMvc.perform(patch("/users/{id}", userId)
+                        .contentType(JsonMergePatchMapper.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"name\":\"" + before.getName() + "\",\"address\":{\"city\":\"São Paulo\"}}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertEquals(0, statistics.getEntityUpdateCount());
+        assertEquals(eTag, patchedETag);
+    }
+
+    @Test
+    void patchUser_shouldMergeNestedAddress() throws Exception {
+        mockMvc.perform(patch("/users/{id}", userId)
+                        .contentType(JsonMergePatchMapper.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"address\":{\"city\":\"Campinas\"}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Usuário Patch"))
+                .andExpect(jsonPath("$.address.city").value("Campinas"))
+                .andExpect(jsonPath("$.address.street").value("Rua das Flores"));
+
+        // Somente o endereço mudou: o usuário não é reescrito
+        assertEquals(1, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    void patchUser_shouldReturnBadRequest_whenRequiredFieldIsRemoved() throws Exception {
+        mockMvc.perform(patch("/users/{id}", userId)
+                        .contentType(JsonMergePatchMapper.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"email\":null}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.validationErrors.email").exists());
+
+        assertEquals(0, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    void patchUser_shouldReturnBadRequest_whenPatchIsMalformed() throws Exception {
+        double handled = handledErrors("handleMessageNotReadable");
+
+        mockMvc.perform(patch("/users/{id}", userId)
+                        .contentType(JsonMergePatchMapper.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"name\":"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.title").value("Dados inválidos"));
+
+        assertEquals(1, handledErrors("handleMessageNotReadable") - handled);
+        assertEquals(0, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    void deleteUsers_shouldReturnBadRequest_whenIdIsNotNumeric() throws Exception {
+        mockMvc.perform(delete("/users").param("ids", "1,abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("Valor inválido para o parâmetro 'ids'"));
+
+        assertTrue(userService.getUserById(userId).isPresent());
+    }
+
+    private double handledErrors(String handler) {
+        return meterRegistry.find("http.errors.handled").tag("handler", handler).tag("status", "400").counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+
+    private NewUserDTO createNewUserDTO(int index) {
+        UserCredentialsDTO credentials = new UserCredentialsDTO();
+        credentials.setUsername("patch" + index);
+        credentials.setPassword("Senha@123");
+
+        AddressDTO address = new AddressDTO();
+        address.setStreet("Rua das Flores");
+        address.setNumber(100);
+        address.setComplement("Casa");
+        address.setNeighborhood("Centro");
+        address.setCity("São Paulo");
+        address.setState("SP");
+        address.setCountry("Brasil");
+        address.setCep("01000-000");
+
+        NewUserDTO dto = new NewUserDTO();
+        dto.setName("Usuário Patch");
+        dto.setEmail("patch" + index + "@example.com");
+        dto.setUserIdentification(String.format("%011d", 70000 + index));
+        dto.setProfile(EProfile.client);
+        dto.setAddress(address);
+        dto.setCredentials(credentials);
+        return dto;
+    }
+}
@@ -0,0 +1,117 @@
+package com.restaurantcontroller.restaurantcontroller.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurantcontroller.restaurantcontroller.dto.AddressDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.LoginRequestDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.NewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UserCredentialsDTO;
+import com.restaurantcontroller.restaurantcontroller.model.EProfile;
+import com.restaurantcontroller.restaurantcontroller.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Regravação em segundo plano, após o login, das senhas com hash desatualizado
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class PasswordRehashTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void login_shouldRehashLegacyPasswordWithoutChangingLastUpdate() throws Exception {
+        NewUserDTO dto = createNewUserDTO(SEQUENCE.incrementAndGet());
+        userService.createUser(dto);
+        String username = dto.getCredentials().getUsername();
+
+        // Hash BCrypt sem o prefixo do algoritmo, como os gravados antes do encoder configurável
+        String legacyHash = new BCryptPasswordEncoder(4).encode("Senha@123");
+        jdbcTemplate.update("UPDATE fiap.user_credentials SET password = ? WHERE username = ?", legacyHash, username);
+        Map<String, Object> before = credentials(username);
+
+        login(username, "Senha@123");
+
+        Map<String, Object> after = credentials(username);
+        for (int attempt = 0; attempt < 50 && legacyHash.equals(after.get("password")); attempt++) {
+            Thread.sleep(100);
+            after = credentials(username);
+        }
+
+        String newHash = (String) after.get("password");
+        assertTrue(newHash.startsWith("{bcrypt}$2a$04$"), newHash);
+        assertTrue(((Number) after.get("version")).longValue() > ((Number) before.get("version")).longValue());
+        assertEquals(before.get("last_update"), after.get("last_update"));
+
+        // A senha continua válida com o novo hash, que não é regravado outra vez
+        login(username, "Senha@123");
+        assertEquals(newHash, credentials(username).get("password"));
+    }
+
+    private void login(String username, String password) throws Exception {
+        LoginRequestDTO request = new LoginRequestDTO();
+        request.setUsername(username);
+        request.setPassword(password);
+
+        mockMvc.perform(post("/credentials/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+    }
+
+    private Map<String, Object> credentials(String username) {
+        return jdbcTemplate.queryForMap("SELECT password, version, last_update FROM fiap.user_credentials WHERE username = ?", username);
+    }
+
+    private NewUserDTO createNewUserDTO(int index) {
+        UserCredentialsDTO credentials = new UserCredentialsDTO();
+        credentials.setUsername("rehash" + index);
+        credentials.setPassword("Senha@123");
+
+        AddressDTO address = new AddressDTO();
+        address.setStreet("Rua das Flores");
+        address.setNumber(100);
+        address.setComplement("Casa");
+        address.setNeighborhood("Centro");
+        address.setCity("São Paulo");
+        address.setState("SP");
+        address.setCountry("Brasil");
+        address.setCep("01000-000");
+
+        NewUserDTO dto = new NewUserDTO();
+        dto.setName("Usuário Rehash");
+        dto.setEmail("rehash" + index + "@example.com");
+        dto.setUserIdentification(String.format("%011d", 140000 + index));
+        dto.setProfile(EProfile.client);
+        dto.setAddress(address);
+        dto.setCredentials(credentials);
+        return dto;
+    }
+}
@@ -0,0 +1,180 @@
+package com.restaurantcontroller.restaurantcontroller.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurantcontroller.restaurantcontroller.dto.AddressDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.NewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UserCredentialsDTO;
+import com.restaurantcontroller.restaurantcontroller.exception.EmailAlreadyExistsException;
+import com.restaurantcontroller.restaurantcontroller.model.EProfile;
+import com.restaurantcontroller.restaurantcontroller.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Unicidade de email, identificação e username garantida pelas constraints do banco,
+ * com a violação traduzida pelo nome da constraint
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class UniqueConstraintTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void createUser_shouldReturnConflict_whenEmailAlreadyExists() throws Exception {
+        NewUserDTO existing = createNewUserDTO(SEQUENCE.incrementAndGet());
+        userService.createUser(existing);
+
+        NewUserDTO duplicate = createNewUserDTO(SEQUENCE.incrementAndGet());
+        duplicate.setEmail(existing.getEmail());
+
+        createUser(duplicate)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.title").value("Email já está em uso"));
+    }
+
+    @Test
+    void createUser_shouldReturnConflict_whenUserIdentificationAlreadyExists() throws Exception {
+        NewUserDTO existing = createNewUserDTO(SEQUENCE.incrementAndGet());
+        userService.createUser(existing);
+
+        NewUserDTO duplicate = createNewUserDTO(SEQUENCE.incrementAndGet());
+        duplicate.setUserIdentification(existing.getUserIdentification());
+
+        createUser(duplicate)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.title").value("Identificação do usuário já está em uso"));
+    }
+
+    @Test
+    void createUser_shouldReturnConflict_whenUsernameAlreadyExists() throws Exception {
+        NewUserDTO existing = createNewUserDTO(SEQUENCE.incrementAndGet());
+        userService.createUser(existing);
+
+        NewUserDTO duplicate = createNewUserDTO(SEQUENCE.incrementAndGet());
+        duplicate.getCredentials().setUsername(existing.getCredentials().getUsername());
+
+        createUser(duplicate)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.title").value("Username já está em uso"));
+    }
+
+    @Test
+    void updateUser_shouldReturnConflict_whenEmailBelongsToAnotherUser() throws Exception {
+        NewUserDTO other = createNewUserDTO(SEQUENCE.incrementAndGet());
+        userService.createUser(other);
+        NewUserDTO user = createNewUserDTO(SEQUENCE.incrementAndGet());
+        Long userId = userService.createUser(user).getId();
+
+        user.setEmail(other.getEmail());
+        mockMvc.perform(put("/users/{id}", userId).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.title").value("Email já está em uso"));
+    }
+
+    @Test
+    void updateUsername_shouldReturnConflict_whenUsernameAlreadyExists() throws Exception {
+        NewUserDTO other = createNewUserDTO(SEQUENCE.incrementAndGet());
+        userService.createUser(other);
+        Long userId = userService.createUser(createNewUserDTO(SEQUENCE.incrementAndGet())).getId();
+
+        mockMvc.perform(put("/credentials/{id}/username", userId).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + other.getCredentials().getUsername() + "\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.title").value("Username já está em uso"));
+    }
+
+    @Test
+    void createUser_shouldAcceptOnlyOneUser_whenSameEmailIsCreatedConcurrently() throws Exception {
+        int threads = 8;
+        String email = "concorrente" + SEQUENCE.incrementAndGet() + "@example.com";
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                NewUserDTO dto = createNewUserDTO(SEQUENCE.incrementAndGet());
+                dto.setEmail(email);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        userService.createUser(dto);
+                        return true;
+                    } catch (EmailAlreadyExistsException ex) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int created = 0;
+            for (Future<Boolean> future : futures) {
+                created += future.get(30, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            assertEquals(1, created);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ResultActions createUser(NewUserDTO dto) throws Exception {
+        return mockMvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(dto)));
+    }
+
+    private NewUserDTO createNewUserDTO(int index) {
+        UserCredentialsDTO credentials = new UserCredentialsDTO();
+        credentials.setUsername("unico" + index);
+        credentials.setPassword("Senha@123");
+
+        AddressDTO address = new AddressDTO();
+        address.setStreet("Rua das Flores");
+        address.setNumber(100);
+        address.setComplement("Casa");
+        address.setNeighborhood("Centro");
+        address.setCity("São Paulo");
+        address.setState("SP");
+        address.setCountry("Brasil");
+        address.setCep("01000-000");
+
+        NewUserDTO dto = new NewUserDTO();
+        dto.setName("Usuário Único");
+        dto.setEmail("unico" + index + "@example.com");
+        dto.setUserIdentification(String.format("%011d", 130000 + index));
+        dto.setProfile(EProfile.client);
+        dto.setAddress(address);
+        dto.setCredentials(credentials);
+        return dto;
+    }
+}
@@ -0,0 +1,135 @@
+package com.restaurantcontroller.restaurantcontroller.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurantcontroller.restaurantcontroller.dto.AddressDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.NewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UserCredentialsDTO;
+import com.restaurantcontroller.restaurantcontroller.model.EProfile;
+import com.restaurantcontroller.restaurantcontroller.repository.UserOutboxRepository;
+import com.restaurantcontroller.restaurantcontroller.service.UserOutboxRelay;
+import com.restaurantcontroller.restaurantcontroller.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Eventos do ciclo de vida do usuário gravados no outbox e publicados pelo relay no arquivo NDJSON
+ */
+@SpringBootTest(properties = {"outbox.relay.enabled=true", "outbox.relay.interval=1h"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class UserOutboxTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserOutboxRelay userOutboxRelay;
+
+    @Autowired
+    private UserOutboxRepository userOutboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${outbox.file.path}")
+    private Path eventsFile;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // O arquivo é mantido entre execuções e os IDs do H2 recomeçam a cada execução
+        Files.deleteIfExists(eventsFile);
+    }
+
+    @Test
+    void relay_shouldPublishUserLifecycleEventsInOrderAndDrainOutbox() throws Exception {
+        Long userId = userService.createUser(createNewUserDTO(SEQUENCE.incrementAndGet())).getId();
+        mockMvc.perform(patch("/addresses/user/{userId}", userId)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"city\":\"Campinas\"}"))
+                .andExpect(status().isOk());
+        userService.deleteUser(userId);
+
+        userOutboxRelay.relay();
+
+        List<JsonNode> events = readEvents(userId);
+        assertEquals(List.of("user_created", "address_updated", "user_deleted"),
+                events.stream().map(event -> event.get("type").asText()).toList());
+        assertTrue(events.get(0).get("id").asLong() < events.get(1).get("id").asLong());
+        assertEquals("outbox" + SEQUENCE.get(), events.get(0).at("/data/username").asText());
+        assertEquals("Campinas", events.get(1).at("/data/city").asText());
+        assertEquals(userId, events.get(2).at("/data/id").asLong());
+        assertEquals(0, userOutboxRepository.count());
+    }
+
+    @Test
+    void patchAddress_shouldNotRecordEvent_whenNothingChanged() throws Exception {
+        Long userId = userService.createUser(createNewUserDTO(SEQUENCE.incrementAndGet())).getId();
+        userOutboxRelay.relay();
+
+        mockMvc.perform(patch("/addresses/user/{userId}", userId)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"city\":\"São Paulo\"}"))
+                .andExpect(status().isOk());
+
+        assertEquals(0, userOutboxRepository.count());
+        assertEquals(List.of("user_created"), readEvents(userId).stream().map(event -> event.get("type").asText()).toList());
+    }
+
+    private List<JsonNode> readEvents(Long userId) throws Exception {
+        List<JsonNode> events = new ArrayList<>();
+        for (String line : Files.readAllLines(eventsFile)) {
+            JsonNode event = objectMapper.readTree(line);
+            if (event.get("userId").asLong() == userId) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    private NewUserDTO createNewUserDTO(int index) {
+        UserCredentialsDTO credentials = new UserCredentialsDTO();
+        credentials.setUsername("outbox" + index);
+        credentials.setPassword("Senha@123");
+
+        AddressDTO address = new AddressDTO();
+        address.setStreet("Rua das Flores");
+        address.setNumber(100);
+        address.setComplement("Casa");
+        address.setNeighborhood("Centro");
+        address.setCity("São Paulo");
+        address.setState("SP");
+        address.setCountry("Brasil");
+        address.setCep("01000-000");
+
+        NewUserDTO dto = new NewUserDTO();
+        dto.setName("Usuário Outbox");
+        dto.setEmail("outbox" + index + "@example.com");
+        dto.setUserIdentification(String.format("%011d", 110000 + index));
+        dto.setProfile(EProfile.client);
+        dto.setAddress(address);
+        dto.setCredentials(credentials);
+        return dto;
+    }
+}
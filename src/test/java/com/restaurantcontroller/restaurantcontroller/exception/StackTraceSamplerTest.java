@@ -0,0 +1,34 @@
+package com.restaurantcontroller.restaurantcontroller.exception;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StackTraceSamplerTest {
+
+    @Test
+    void sample_shouldReturnOnlyFirstExceptionOfEachTypeWithinInterval() {
+        StackTraceSampler sampler = new StackTraceSampler(Duration.ofMinutes(1));
+        RuntimeException first = new RuntimeException("primeira");
+
+        assertSame(first, sampler.sample(first));
+        assertNull(sampler.sample(new RuntimeException("segunda")));
+
+        // Outro tipo de exceção tem sua própria janela
+        IllegalStateException other = new IllegalStateException("outro tipo");
+        assertSame(other, sampler.sample(other));
+    }
+
+    @Test
+    void sample_shouldReturnExceptionAgain_afterInterval() {
+        StackTraceSampler sampler = new StackTraceSampler(Duration.ZERO);
+
+        RuntimeException first = new RuntimeException("primeira");
+        RuntimeException second = new RuntimeException("segunda");
+
+        assertSame(first, sampler.sample(first));
+        assertSame(second, sampler.sample(second));
+    }
+}
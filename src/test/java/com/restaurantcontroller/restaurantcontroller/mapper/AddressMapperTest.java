@@ -5,6 +5,8 @@ import com.restaurantcontroller.restaurantcontroller.model.Address;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import org.springframework.test.util.ReflectionTestUtils;
+
 import java.time.ZonedDateTime;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -124,4 +126,25 @@ public class AddressMapperTest {
         assertNotNull(address.getLastUpdate());
         assertTrue(address.getLastUpdate().isAfter(beforeUpdate) || address.getLastUpdate().isEqual(beforeUpdate));
     }
+
+    @Test
+    void updateAddress_shouldNotTouchAddress_whenNothingChanged() {
+        Address address = new Address();
+        address.setStreet("Main Street");
+        address.setNumber(123);
+        address.setComplement("Apt 1");
+        address.setNeighborhood("Downtown");
+        address.setCity("Springfield");
+        address.setState("IL");
+        address.setCep("62701");
+        address.setCountry("USA");
+        ReflectionTestUtils.setField(address, "id", 1L);
+        ZonedDateTime lastUpdate = ZonedDateTime.now().minusDays(1);
+        address.setLastUpdate(lastUpdate);
+
+        boolean changed = addressMapper.updateAddress(address, addressMapper.toAddressDTO(address));
+
+        assertFalse(changed);
+        assertEquals(lastUpdate, address.getLastUpdate());
+    }
 }
@@ -0,0 +1,107 @@
+package com.restaurantcontroller.restaurantcontroller.mapper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.restaurantcontroller.restaurantcontroller.dto.AddressDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.ResponseNewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.model.EProfile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserExportMapperTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private UserExportMapper userExportMapper;
+
+    @BeforeEach
+    void setUp() {
+        userExportMapper = new UserExportMapper();
+        ReflectionTestUtils.setField(userExportMapper, "objectMapper", objectMapper);
+    }
+
+    @Test
+    void ndjsonWriter_shouldWriteOneJsonObjectPerLine() throws Exception {
+        String output = export(UserExportMapper.Format.NDJSON, createUser(1L, "Maria Silva"), createUser(2L, "João Souza"));
+
+        String[] lines = output.split("\n");
+        assertEquals(2, lines.length);
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals(2, second.get("id").asLong());
+        assertEquals("João Souza", second.get("name").asText());
+        assertEquals("usuario2", second.get("username").asText());
+        assertEquals("Rua das Flores", second.at("/address/street").asText());
+    }
+
+    @Test
+    void csvWriter_shouldWriteHeaderAndQuoteSpecialCharacters() throws Exception {
+        ResponseNewUserDTO user = createUser(1L, "Silva, \"Maria\"");
+        user.getAddress().setComplement("-Apto 1");
+
+        String[] lines = export(UserExportMapper.Format.CSV, user).split("\r\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("id,name,user_identification,"));
+        assertEquals("1,\"Silva, \"\"Maria\"\"\",00000000001,usuario1@example.com,usuario1,client,2024-01-02T03:04:05Z,"
+                + "Rua das Flores,100,'-Apto 1,Centro,São Paulo,SP,Brasil,01000-000", lines[1]);
+    }
+
+    @Test
+    void csvWriter_shouldLeaveAddressColumnsEmpty_whenUserHasNoAddress() throws Exception {
+        ResponseNewUserDTO user = createUser(1L, "Maria Silva");
+        user.setAddress(null);
+
+        String[] lines = export(UserExportMapper.Format.CSV, user).split("\r\n");
+
+        assertTrue(lines[1].endsWith("2024-01-02T03:04:05Z,,,,,,,,"));
+    }
+
+    @Test
+    void format_shouldRejectUnknownFormat() {
+        assertEquals(UserExportMapper.Format.CSV, UserExportMapper.Format.of(" CSV "));
+        assertThrows(IllegalArgumentException.class, () -> UserExportMapper.Format.of("xml"));
+        assertThrows(IllegalArgumentException.class, () -> UserExportMapper.Format.of(null));
+    }
+
+    private String export(UserExportMapper.Format format, ResponseNewUserDTO... users) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (UserExportMapper.RowWriter writer = userExportMapper.writer(format, out)) {
+            for (ResponseNewUserDTO user : users) {
+                writer.write(user);
+            }
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private ResponseNewUserDTO createUser(Long id, String name) {
+        AddressDTO address = new AddressDTO();
+        address.setStreet("Rua das Flores");
+        address.setNumber(100);
+        address.setComplement("Casa");
+        address.setNeighborhood("Centro");
+        address.setCity("São Paulo");
+        address.setState("SP");
+        address.setCountry("Brasil");
+        address.setCep("01000-000");
+
+        ResponseNewUserDTO user = new ResponseNewUserDTO();
+        user.setId(id);
+        user.setName(name);
+        user.setUserIdentification(String.format("%011d", id));
+        user.setEmail("usuario" + id + "@example.com");
+        user.setUsername("usuario" + id);
+        user.setProfile(EProfile.client);
+        user.setLastUpdate(ZonedDateTime.of(2024, 1, 2, 3, 4, 5, 0, ZoneOffset.UTC));
+        user.setAddress(address);
+        return user;
+    }
+}
@@ -145,4 +145,44 @@ public class UserMapperTest {
         assertNotNull(result.getLastUpdate());
         assertTrue(result.getLastUpdate().isAfter(beforeCreation) || result.getLastUpdate().isEqual(beforeCreation));
     }
+
+    @Test
+    void updateUser_shouldNotTouchUser_whenNothingChanged() {
+        User user = new User();
+        user.setName("John Doe");
+        user.setUserIdentification("12345678901");
+        user.setEmail("john@example.com");
+        user.setProfile(EProfile.owner);
+        ZonedDateTime lastUpdate = ZonedDateTime.now().minusDays(1);
+        user.setLastUpdate(lastUpdate);
+
+        UpdateUserDTO dto = new UpdateUserDTO("John Doe", "12345678901", "john@example.com", EProfile.owner, null);
+
+        boolean changed = userMapper.updateUser(user, dto);
+
+        assertFalse(changed);
+        assertEquals(lastUpdate, user.getLastUpdate());
+    }
+
+    @Test
+    void toUpdateUserDTO_shouldCopyCurrentState() {
+        Address address = new Address();
+        AddressDTO addressDTO = new AddressDTO();
+        User user = new User();
+        user.setName("John Doe");
+        user.setUserIdentification("12345678901");
+        user.setEmail("john@example.com");
+        user.setProfile(EProfile.owner);
+        user.setAddressUser(address);
+
+        when(addressMapper.toAddressDTO(address)).thenReturn(addressDTO);
+
+        UpdateUserDTO result = userMapper.toUpdateUserDTO(user);
+
+        assertEquals("John Doe", result.getName());
+        assertEquals("12345678901", result.getUserIdentification());
+        assertEquals("john@example.com", result.getEmail());
+        assertEquals(EProfile.owner, result.getProfile());
+        assertEquals(addressDTO, result.getAddress());
+    }
 }
@@ -0,0 +1,126 @@
+package com.restaurantcontroller.restaurantcontroller.repository;
+
+import com.restaurantcontroller.restaurantcontroller.model.Address;
+import com.restaurantcontroller.restaurantcontroller.service.OptimisticLockRetry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Controle de concorrência otimista (@Version): escritas concorrentes sobre o mesmo registro
+ * não se sobrescrevem, e com a repetição nenhuma alteração é perdida
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+// Cada escrita é confirmada em sua própria transação, como em requisições concorrentes
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class OptimisticLockingTest {
+
+    private static final int THREADS = 16;
+    private static final int INCREMENTS_PER_THREAD = 10;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long addressId;
+
+    @BeforeEach
+    void setUp() {
+        addressId = addressRepository.save(createAddress()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        addressRepository.deleteAll();
+    }
+
+    @Test
+    void save_shouldRejectStaleVersion() {
+        Address first = addressRepository.findById(addressId).orElseThrow();
+        Address stale = addressRepository.findById(addressId).orElseThrow();
+
+        first.setCity("Campinas");
+        addressRepository.save(first);
+
+        stale.setCity("Santos");
+        assertThrows(OptimisticLockingFailureException.class, () -> addressRepository.save(stale));
+
+        Address current = addressRepository.findById(addressId).orElseThrow();
+        assertEquals("Campinas", current.getCity());
+        assertEquals(1L, current.getVersion());
+    }
+
+    @Test
+    void execute_shouldNotLoseUpdates_underHighParallelism() throws Exception {
+        // Tentativas suficientes para que todas as escritas terminem mesmo com todas as threads no mesmo registro
+        OptimisticLockRetry retry = new OptimisticLockRetry(transactionManager, new SimpleMeterRegistry(),
+                THREADS * INCREMENTS_PER_THREAD, Duration.ofMillis(1), Duration.ofMillis(20));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < INCREMENTS_PER_THREAD; j++) {
+                        // Leitura, alteração e escrita: sem @Version, incrementos concorrentes se perderiam
+                        retry.execute(() -> {
+                            Address address = addressRepository.findById(addressId).orElseThrow();
+                            address.setNumber(address.getNumber() + 1);
+                            return address;
+                        });
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Address address = addressRepository.findById(addressId).orElseThrow();
+        assertEquals(THREADS * INCREMENTS_PER_THREAD, address.getNumber());
+        assertEquals((long) THREADS * INCREMENTS_PER_THREAD, address.getVersion());
+    }
+
+    private Address createAddress() {
+        Address address = new Address();
+        address.setStreet("Rua das Flores");
+        address.setNumber(0);
+        address.setComplement("Casa");
+        address.setNeighborhood("Centro");
+        address.setCity("São Paulo");
+        address.setState("SP");
+        address.setCountry("Brasil");
+        address.setCep("01000-000");
+        address.setLastUpdate(ZonedDateTime.now());
+        return address;
+    }
+}
@@ -0,0 +1,20 @@
+package com.restaurantcontroller.restaurantcontroller.repository;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * PostgreSQL em container para os testes do SQL específico do PostgreSQL (CTEs, pg_trgm, unaccent),
+ * na mesma versão do docker-compose. Usado com o perfil postgres
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class PostgresContainerConfig {
+
+    @Bean
+    @ServiceConnection
+    PostgreSQLContainer<?> postgresContainer() {
+        return new PostgreSQLContainer<>("postgres:13");
+    }
+}
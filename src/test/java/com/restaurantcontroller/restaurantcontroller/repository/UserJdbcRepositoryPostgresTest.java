@@ -0,0 +1,119 @@
+package com.restaurantcontroller.restaurantcontroller.repository;
+
+import com.restaurantcontroller.restaurantcontroller.dto.EChangeType;
+import com.restaurantcontroller.restaurantcontroller.dto.ResponseNewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UserChangeDTO;
+import com.restaurantcontroller.restaurantcontroller.model.Address;
+import com.restaurantcontroller.restaurantcontroller.model.EProfile;
+import com.restaurantcontroller.restaurantcontroller.model.User;
+import com.restaurantcontroller.restaurantcontroller.model.UserCredentials;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * SQL específico do PostgreSQL do UserJdbcRepository, executado em um PostgreSQL real.
+ * Ignorado quando o Docker não está disponível
+ */
+@DataJpaTest
+@ActiveProfiles({"test", "postgres"})
+@Import({UserJdbcRepository.class, PostgresContainerConfig.class})
+@Testcontainers(disabledWithoutDocker = true)
+public class UserJdbcRepositoryPostgresTest {
+
+    @Autowired
+    private UserJdbcRepository userJdbcRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoSpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deleteAllReturning_shouldDeleteUserAddressCredentialsAndRecordTombstoneInOneStatement() {
+        List<Long> ids = userJdbcRepository.insertAll(List.of(createUser(1), createUser(2), createUser(3)));
+        Long missingId = ids.get(2) + 1000;
+        ZonedDateTime before = ZonedDateTime.now().minusSeconds(1);
+        clearInvocations(jdbcTemplate);
+
+        List<ResponseNewUserDTO> deleted = userJdbcRepository.deleteAllReturning(List.of(ids.get(1), ids.get(0), missingId));
+
+        // Um único comando (CTE): nenhum SELECT ... FOR UPDATE, DELETE ou INSERT separado
+        verify(jdbcTemplate, times(1)).query(any(PreparedStatementCreator.class), any(RowMapper.class));
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+
+        assertEquals(List.of(ids.get(0), ids.get(1)), deleted.stream().map(ResponseNewUserDTO::getId).toList());
+        ResponseNewUserDTO first = deleted.get(0);
+        assertEquals("usuario1@example.com", first.getEmail());
+        assertEquals("usuario1", first.getUsername());
+        assertEquals(EProfile.owner, first.getProfile());
+        assertEquals(101, first.getAddress().getNumber());
+        assertNotNull(first.getLastUpdate());
+
+        assertEquals(1, userRepository.count());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM fiap.addresse_user", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM fiap.user_credentials", Integer.class));
+
+        List<UserChangeDTO> tombstones = userJdbcRepository.findTombstones(before, 0L, ZonedDateTime.now().plusSeconds(1), 10);
+        assertEquals(List.of(ids.get(0), ids.get(1)), tombstones.stream().map(UserChangeDTO::getId).toList());
+        assertTrue(tombstones.stream().allMatch(tombstone -> tombstone.getType() == EChangeType.delete));
+    }
+
+    @Test
+    void deleteAllReturning_shouldReturnEmptyListWithoutTombstones_whenNoUserMatches() {
+        List<Long> ids = userJdbcRepository.insertAll(List.of(createUser(1)));
+        ZonedDateTime before = ZonedDateTime.now().minusSeconds(1);
+
+        assertTrue(userJdbcRepository.deleteAllReturning(List.of(ids.get(0) + 1000)).isEmpty());
+
+        assertEquals(1, userRepository.count());
+        assertTrue(userJdbcRepository.findTombstones(before, 0L, ZonedDateTime.now().plusSeconds(1), 10).isEmpty());
+    }
+
+    private User createUser(int index) {
+        ZonedDateTime lastUpdate = ZonedDateTime.now();
+
+        Address address = new Address();
+        address.setStreet("Rua das Flores");
+        address.setNumber(100 + index);
+        address.setComplement("Casa");
+        address.setNeighborhood("Centro");
+        address.setCity("São Paulo");
+        address.setState("SP");
+        address.setCountry("Brasil");
+        address.setCep("01000-000");
+        address.setLastUpdate(lastUpdate);
+
+        UserCredentials credentials = new UserCredentials();
+        credentials.setUsername("usuario" + index);
+        credentials.setPassword("encodedPassword");
+        credentials.setLastUpdate(lastUpdate);
+
+        User user = new User();
+        user.setName("Usuário Teste");
+        user.setUserIdentification(String.format("%011d", index));
+        user.setEmail("usuario" + index + "@example.com");
+        user.setProfile(EProfile.owner);
+        user.setAddressUser(address);
+        user.setUserCredentials(credentials);
+        user.setLastUpdate(lastUpdate);
+        return user;
+    }
+}
@@ -0,0 +1,179 @@
+package com.restaurantcontroller.restaurantcontroller.repository;
+
+import com.restaurantcontroller.restaurantcontroller.dto.EChangeType;
+import com.restaurantcontroller.restaurantcontroller.dto.ResponseNewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UserChangeDTO;
+import com.restaurantcontroller.restaurantcontroller.model.Address;
+import com.restaurantcontroller.restaurantcontroller.model.EProfile;
+import com.restaurantcontroller.restaurantcontroller.model.User;
+import com.restaurantcontroller.restaurantcontroller.model.UserCredentials;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(UserJdbcRepository.class)
+public class UserJdbcRepositoryTest {
+
+    @Autowired
+    private UserJdbcRepository userJdbcRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void insertAll_shouldInsertUsersWithAddressAndCredentials() {
+        List<Long> ids = userJdbcRepository.insertAll(List.of(createUser(1), createUser(2), createUser(3)));
+
+        assertEquals(3, ids.size());
+
+        User user = userRepository.findById(ids.get(1)).orElseThrow();
+        assertEquals("usuario2@example.com", user.getEmail());
+        assertEquals("usuario2", user.getUserCredentials().getUsername());
+        assertEquals(102, user.getAddressUser().getNumber());
+        assertEquals(EProfile.owner, user.getProfile());
+    }
+
+    @Test
+    void insertAll_shouldReturnEmptyList_whenNoUsers() {
+        assertTrue(userJdbcRepository.insertAll(List.of()).isEmpty());
+    }
+
+    @Test
+    void deleteAllReturning_shouldDeleteUsersAddressesAndCredentials() {
+        List<Long> ids = userJdbcRepository.insertAll(List.of(createUser(1), createUser(2), createUser(3)));
+        Long missingId = ids.get(2) + 1000;
+
+        List<ResponseNewUserDTO> deleted = userJdbcRepository.deleteAllReturning(List.of(ids.get(0), ids.get(1), missingId));
+
+        assertEquals(2, deleted.size());
+        ResponseNewUserDTO first = deleted.get(0);
+        assertEquals(ids.get(0), first.getId());
+        assertEquals("usuario1@example.com", first.getEmail());
+        assertEquals("usuario1", first.getUsername());
+        assertEquals(EProfile.owner, first.getProfile());
+        assertEquals(101, first.getAddress().getNumber());
+        assertNotNull(first.getLastUpdate());
+
+        assertEquals(1, userRepository.count());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM fiap.addresse_user", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM fiap.user_credentials", Integer.class));
+    }
+
+    @Test
+    void deleteAllReturning_shouldReturnEmptyList_whenNoIds() {
+        assertTrue(userJdbcRepository.deleteAllReturning(List.of()).isEmpty());
+    }
+
+    @Test
+    void forEachUser_shouldStreamUsersWithAddressAndUsernameInIdOrder() {
+        List<Long> ids = userJdbcRepository.insertAll(List.of(createUser(1), createUser(2), createUser(3)));
+        List<ResponseNewUserDTO> exported = new ArrayList<>();
+
+        userJdbcRepository.forEachUser(exported::add);
+
+        assertEquals(ids, exported.stream().map(ResponseNewUserDTO::getId).toList());
+        ResponseNewUserDTO second = exported.get(1);
+        assertEquals("usuario2", second.getUsername());
+        assertEquals("usuario2@example.com", second.getEmail());
+        assertEquals(102, second.getAddress().getNumber());
+        assertEquals("Rua das Flores", second.getAddress().getStreet());
+    }
+
+    @Test
+    void deleteAllReturning_shouldRecordTombstones() {
+        List<Long> ids = userJdbcRepository.insertAll(List.of(createUser(1), createUser(2)));
+        ZonedDateTime before = ZonedDateTime.now().minusSeconds(1);
+
+        userJdbcRepository.deleteAllReturning(List.of(ids.get(1)));
+
+        List<UserChangeDTO> tombstones = userJdbcRepository.findTombstones(before, 0L, ZonedDateTime.now().plusSeconds(1), 10);
+        assertEquals(1, tombstones.size());
+        assertEquals(EChangeType.delete, tombstones.get(0).getType());
+        assertEquals(ids.get(1), tombstones.get(0).getId());
+        assertNull(tombstones.get(0).getUser());
+
+        assertEquals(1, userJdbcRepository.deleteTombstonesBefore(ZonedDateTime.now().plusSeconds(1)));
+        assertTrue(userJdbcRepository.findTombstones(before, 0L, ZonedDateTime.now().plusSeconds(1), 10).isEmpty());
+    }
+
+    @Test
+    void findChangedUsers_shouldReturnUsersChangedAfterCursorInChangeOrder() {
+        ZonedDateTime base = ZonedDateTime.now().minusHours(1).truncatedTo(ChronoUnit.MICROS);
+        List<Long> ids = userJdbcRepository.insertAll(List.of(
+                createUser(1, base), createUser(2, base.plusMinutes(1)), createUser(3, base.plusMinutes(2))));
+
+        // Somente o endereço do primeiro usuário muda: a alteração passa a valer pela data do endereço
+        jdbcTemplate.update("UPDATE fiap.addresse_user SET city = 'Campinas', last_update = ? WHERE id = (SELECT address_id FROM fiap.users WHERE id = ?)",
+                base.plusMinutes(3).toOffsetDateTime(), ids.get(0));
+
+        List<UserChangeDTO> changes = userJdbcRepository.findChangedUsers(base, 0L, base.plusMinutes(10), 10);
+
+        assertEquals(List.of(ids.get(1), ids.get(2), ids.get(0)), changes.stream().map(UserChangeDTO::getId).toList());
+        UserChangeDTO addressChange = changes.get(2);
+        assertEquals(EChangeType.upsert, addressChange.getType());
+        assertEquals(base.plusMinutes(3).toInstant(), addressChange.getChangedAt().toInstant());
+        assertEquals("Campinas", addressChange.getUser().getAddress().getCity());
+        assertEquals("usuario1", addressChange.getUser().getUsername());
+    }
+
+    @Test
+    void findChangedUsers_shouldRespectCursorTieBreakUntilAndLimit() {
+        ZonedDateTime base = ZonedDateTime.now().minusHours(1).truncatedTo(ChronoUnit.MICROS);
+        List<Long> ids = userJdbcRepository.insertAll(List.of(
+                createUser(1, base), createUser(2, base), createUser(3, base.plusMinutes(5))));
+
+        // Mesma data do cursor: somente IDs maiores
+        assertEquals(List.of(ids.get(1)), userJdbcRepository.findChangedUsers(base, ids.get(0), base.plusMinutes(1), 10)
+                .stream().map(UserChangeDTO::getId).toList());
+        // Alterações após 'until' ficam para a próxima consulta
+        assertEquals(2, userJdbcRepository.findChangedUsers(base.minusSeconds(1), 0L, base.plusMinutes(1), 10).size());
+        assertEquals(1, userJdbcRepository.findChangedUsers(base.minusSeconds(1), 0L, base.plusMinutes(10), 1).size());
+    }
+
+    private User createUser(int index) {
+        return createUser(index, ZonedDateTime.now());
+    }
+
+    private User createUser(int index, ZonedDateTime lastUpdate) {
+        Address address = new Address();
+        address.setStreet("Rua das Flores");
+        address.setNumber(100 + index);
+        address.setComplement("Casa");
+        address.setNeighborhood("Centro");
+        address.setCity("São Paulo");
+        address.setState("SP");
+        address.setCountry("Brasil");
+        address.setCep("01000-000");
+        address.setLastUpdate(lastUpdate);
+
+        UserCredentials credentials = new UserCredentials();
+        credentials.setUsername("usuario" + index);
+        credentials.setPassword("encodedPassword");
+        credentials.setLastUpdate(lastUpdate);
+
+        User user = new User();
+        user.setName("Usuário Teste");
+        user.setUserIdentification(String.format("%011d", index));
+        user.setEmail("usuario" + index + "@example.com");
+        user.setProfile(EProfile.owner);
+        user.setAddressUser(address);
+        user.setUserCredentials(credentials);
+        user.setLastUpdate(lastUpdate);
+        return user;
+    }
+}
@@ -0,0 +1,99 @@
+package com.restaurantcontroller.restaurantcontroller.repository;
+
+import com.restaurantcontroller.restaurantcontroller.model.EUserEventType;
+import com.restaurantcontroller.restaurantcontroller.model.UserOutboxEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+// Cada transação é confirmada de fato, para que duas transações concorrentes disputem os mesmos eventos
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UserOutboxRepositoryTest {
+
+    @Autowired
+    private UserOutboxRepository userOutboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        userOutboxRepository.deleteAll();
+    }
+
+    @Test
+    void lockNextBatch_shouldReturnOldestEventsUpToLimit() {
+        List<UserOutboxEvent> saved = userOutboxRepository.saveAll(List.of(createEvent(1L), createEvent(2L), createEvent(3L)));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        List<UserOutboxEvent> batch = transaction.execute(status -> userOutboxRepository.lockNextBatch(2));
+
+        assertEquals(List.of(saved.get(0).getId(), saved.get(1).getId()), batch.stream().map(UserOutboxEvent::getId).toList());
+        assertEquals(EUserEventType.user_created, batch.get(0).getEventType());
+        assertEquals("{\"id\":1}", batch.get(0).getPayload());
+    }
+
+    @Test
+    void lockNextBatch_shouldSkipEventsLockedByAnotherTransaction() throws Exception {
+        List<UserOutboxEvent> saved = userOutboxRepository.saveAll(List.of(createEvent(1L), createEvent(2L), createEvent(3L)));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Primeiro "nó": bloqueia os dois eventos mais antigos e mantém a transação aberta
+        CompletableFuture<List<UserOutboxEvent>> first = CompletableFuture.supplyAsync(() -> transaction.execute(status -> {
+            List<UserOutboxEvent> batch = userOutboxRepository.lockNextBatch(2);
+            locked.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return batch;
+        }));
+
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+        // Segundo "nó": recebe somente o evento que não está bloqueado, sem esperar o primeiro
+        List<UserOutboxEvent> second = transaction.execute(status -> userOutboxRepository.lockNextBatch(10));
+        release.countDown();
+
+        assertEquals(List.of(saved.get(2).getId()), second.stream().map(UserOutboxEvent::getId).toList());
+        assertEquals(2, first.get(5, TimeUnit.SECONDS).size());
+    }
+
+    @Test
+    void deleteByIdIn_shouldRemoveOnlyPublishedEvents() {
+        List<UserOutboxEvent> saved = userOutboxRepository.saveAll(List.of(createEvent(1L), createEvent(2L)));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        int removed = transaction.execute(status -> userOutboxRepository.deleteByIdIn(List.of(saved.get(0).getId())));
+
+        assertEquals(1, removed);
+        assertEquals(List.of(saved.get(1).getId()), userOutboxRepository.findAll().stream().map(UserOutboxEvent::getId).toList());
+    }
+
+    private UserOutboxEvent createEvent(Long userId) {
+        UserOutboxEvent event = new UserOutboxEvent();
+        event.setUserId(userId);
+        event.setEventType(EUserEventType.user_created);
+        event.setPayload("{\"id\":" + userId + "}");
+        event.setOccurredAt(ZonedDateTime.now());
+        return event;
+    }
+}
@@ -0,0 +1,118 @@
+package com.restaurantcontroller.restaurantcontroller.repository;
+
+import com.restaurantcontroller.restaurantcontroller.model.Address;
+import com.restaurantcontroller.restaurantcontroller.model.EProfile;
+import com.restaurantcontroller.restaurantcontroller.model.User;
+import com.restaurantcontroller.restaurantcontroller.model.UserCredentials;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Busca por nome (pg_trgm e unaccent, db/user-search.sql) executada em um PostgreSQL real.
+ * Ignorado quando o Docker não está disponível
+ */
+@DataJpaTest
+@ActiveProfiles({"test", "postgres"})
+@Import({UserJdbcRepository.class, PostgresContainerConfig.class})
+@Testcontainers(disabledWithoutDocker = true)
+public class UserRepositoryPostgresTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserJdbcRepository userJdbcRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        ids = userJdbcRepository.insertAll(List.of(
+                createUser(1, "Ana Silveira"),
+                createUser(2, "José da Silva"),
+                createUser(3, "Pedro Alves"),
+                createUser(4, "JOSE SANTOS")));
+    }
+
+    @Test
+    void searchIdsByName_shouldRankExactWordBeforeSimilarWord() {
+        // "Silva" contém o termo; "Silveira" só é semelhante e vem depois, mesmo com ID menor
+        assertEquals(List.of(ids.get(1), ids.get(0)), userRepository.searchIdsByName("silva", "silva", 20, 0L));
+    }
+
+    @Test
+    void searchIdsByName_shouldIgnoreAccentsAndCase() {
+        assertEquals(List.of(ids.get(1), ids.get(3)), userRepository.searchIdsByName("JOSÉ", "JOSÉ", 20, 0L));
+        assertEquals(List.of(ids.get(1), ids.get(3)), userRepository.searchIdsByName("jose", "jose", 20, 0L));
+    }
+
+    @Test
+    void searchIdsByName_shouldApplyLimitAndOffset() {
+        assertEquals(List.of(ids.get(3)), userRepository.searchIdsByName("jose", "jose", 1, 1L));
+    }
+
+    @Test
+    void searchIdsByName_shouldUseTrigramIndex() throws NoSuchMethodException {
+        // Com poucas linhas o planejador prefere a varredura sequencial: desabilitada somente nesta transação
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+
+        // A mesma consulta declarada no repositório, com o schema e os parâmetros resolvidos
+        String sql = UserRepository.class
+                .getMethod("searchIdsByName", String.class, String.class, int.class, long.class)
+                .getAnnotation(Query.class).value()
+                .replace("{h-schema}", "fiap.")
+                .replace(":likeTerm", "'silva'")
+                .replace(":term", "'silva'")
+                .replace(":limit", "20")
+                .replace(":offset", "0");
+
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+
+        assertTrue(plan.contains("idx_users_name_trgm"), plan);
+    }
+
+    private User createUser(int index, String name) {
+        ZonedDateTime lastUpdate = ZonedDateTime.now();
+
+        Address address = new Address();
+        address.setStreet("Rua das Flores");
+        address.setNumber(100 + index);
+        address.setComplement("Casa");
+        address.setNeighborhood("Centro");
+        address.setCity("São Paulo");
+        address.setState("SP");
+        address.setCountry("Brasil");
+        address.setCep("01000-000");
+        address.setLastUpdate(lastUpdate);
+
+        UserCredentials credentials = new UserCredentials();
+        credentials.setUsername("busca" + index);
+        credentials.setPassword("encodedPassword");
+        credentials.setLastUpdate(lastUpdate);
+
+        User user = new User();
+        user.setName(name);
+        user.setUserIdentification(String.format("%011d", index));
+        user.setEmail("busca" + index + "@example.com");
+        user.setProfile(EProfile.owner);
+        user.setAddressUser(address);
+        user.setUserCredentials(credentials);
+        user.setLastUpdate(lastUpdate);
+        return user;
+    }
+}
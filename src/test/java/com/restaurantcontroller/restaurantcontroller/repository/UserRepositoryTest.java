@@ -0,0 +1,196 @@
+package com.restaurantcontroller.restaurantcontroller.repository;
+
+import com.restaurantcontroller.restaurantcontroller.dto.ResponseNewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UserVersionDTO;
+import com.restaurantcontroller.restaurantcontroller.mapper.AddressMapper;
+import com.restaurantcontroller.restaurantcontroller.mapper.UserMapper;
+import com.restaurantcontroller.restaurantcontroller.model.Address;
+import com.restaurantcontroller.restaurantcontroller.model.EProfile;
+import com.restaurantcontroller.restaurantcontroller.model.User;
+import com.restaurantcontroller.restaurantcontroller.model.UserCredentials;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Garante que as leituras de usuários carregam endereço e credenciais
+ * em um número fixo de consultas (sem N+1)
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({UserMapper.class, AddressMapper.class})
+public class UserRepositoryTest {
+
+    private static final int USER_COUNT = 5;
+    private static final int BATCH_USER_COUNT = 40;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < USER_COUNT; i++) {
+            entityManager.persist(createUser(i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findByIdGreaterThan_shouldLoadPageInSingleStatement() {
+        List<ResponseNewUserDTO> result = map(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(USER_COUNT + 1)));
+
+        assertEquals(USER_COUNT, result.size());
+        assertAddressAndUsernameLoaded(result);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllPaged_shouldLoadPageInSingleStatement() {
+        List<ResponseNewUserDTO> result = map(userRepository.findAll(PageRequest.of(0, 20, Sort.by("id"))).getContent());
+
+        assertEquals(USER_COUNT, result.size());
+        assertAddressAndUsernameLoaded(result);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByIdIn_shouldLoadSearchResultsInSingleStatement() {
+        List<Long> ids = userRepository.findAll().stream().map(User::getId).collect(Collectors.toList());
+        entityManager.clear();
+        statistics.clear();
+
+        List<ResponseNewUserDTO> result = map(userRepository.findByIdIn(ids));
+
+        assertEquals(USER_COUNT, result.size());
+        assertAddressAndUsernameLoaded(result);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findById_shouldLoadUserInSingleStatement() {
+        Long id = userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(1)).get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        ResponseNewUserDTO result = userRepository.findById(id).map(userMapper::toResponseNewUserDTO).orElseThrow();
+
+        assertAddressAndUsernameLoaded(List.of(result));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findVersionById_shouldReadVersionWithoutLoadingEntities() {
+        User user = userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(1)).get(0);
+        entityManager.clear();
+        statistics.clear();
+
+        UserVersionDTO version = userRepository.findVersionById(user.getId()).orElseThrow();
+
+        assertEquals(user.getId(), version.getId());
+        assertEquals(user.getAddressUser().getId(), version.getAddressId());
+        assertNotNull(version.getUserETag());
+        assertNotNull(version.getAddressETag());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void saveAll_shouldBatchInsertsAndPoolSequenceCalls() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < BATCH_USER_COUNT; i++) {
+            users.add(createUser(USER_COUNT + i));
+        }
+
+        userRepository.saveAll(users);
+        entityManager.flush();
+
+        // Sem batching seriam 3 * BATCH_USER_COUNT inserts mais as chamadas às sequences
+        assertEquals(3L * BATCH_USER_COUNT, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 6,
+                "Esperado no máximo 3 chamadas de sequence e 3 batches de insert, mas foram " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void save_shouldNotRevalidateEntity() {
+        // As regras ficam nos DTOs; o Hibernate não executa uma segunda validação no persist
+        User user = createUser(USER_COUNT);
+        user.getAddressUser().setCep("01000000");
+
+        assertDoesNotThrow(() -> {
+            userRepository.save(user);
+            entityManager.flush();
+        });
+    }
+
+    private List<ResponseNewUserDTO> map(List<User> users) {
+        return users.stream().map(userMapper::toResponseNewUserDTO).collect(Collectors.toList());
+    }
+
+    private void assertAddressAndUsernameLoaded(List<ResponseNewUserDTO> users) {
+        users.forEach(user -> {
+            assertNotNull(user.getUsername());
+            assertNotNull(user.getAddress());
+            assertNotNull(user.getAddress().getStreet());
+        });
+    }
+
+    private User createUser(int index) {
+        Address address = new Address();
+        address.setStreet("Rua das Flores");
+        address.setNumber(100 + index);
+        address.setComplement("Casa");
+        address.setNeighborhood("Centro");
+        address.setCity("São Paulo");
+        address.setState("SP");
+        address.setCountry("Brasil");
+        address.setCep("01000-000");
+        address.setLastUpdate(ZonedDateTime.now());
+
+        UserCredentials credentials = new UserCredentials();
+        credentials.setUsername("usuario" + index);
+        credentials.setPassword("encodedPassword");
+        credentials.setLastUpdate(ZonedDateTime.now());
+
+        User user = new User();
+        user.setName("Usuário Teste");
+        user.setUserIdentification(String.format("%011d", index));
+        user.setEmail("usuario" + index + "@example.com");
+        user.setProfile(EProfile.client);
+        user.setAddressUser(address);
+        user.setUserCredentials(credentials);
+        user.setLastUpdate(ZonedDateTime.now());
+        return user;
+    }
+}
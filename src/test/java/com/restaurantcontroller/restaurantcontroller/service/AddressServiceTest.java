@@ -1,16 +1,30 @@
 package com.restaurantcontroller.restaurantcontroller.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.restaurantcontroller.restaurantcontroller.config.CacheConfig;
 import com.restaurantcontroller.restaurantcontroller.dto.AddressDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UserVersionDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.VersionedDTO;
+import com.restaurantcontroller.restaurantcontroller.exception.PreconditionFailedException;
 import com.restaurantcontroller.restaurantcontroller.mapper.AddressMapper;
+import com.restaurantcontroller.restaurantcontroller.mapper.JsonMergePatchMapper;
 import com.restaurantcontroller.restaurantcontroller.model.Address;
 import com.restaurantcontroller.restaurantcontroller.model.User;
 import com.restaurantcontroller.restaurantcontroller.repository.AddressRepository;
 import com.restaurantcontroller.restaurantcontroller.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.Optional;
 
@@ -29,6 +43,21 @@ public class AddressServiceTest {
     @Mock
     private AddressMapper addressMapper;
 
+    @Mock
+    private JsonMergePatchMapper jsonMergePatchMapper;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private UserOutboxService userOutboxService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private AddressService addressService;
 
@@ -59,25 +88,23 @@ public class AddressServiceTest {
     @Test
     void getAddressByUserId_shouldThrowException_whenUserNotFound() {
         Long userId = 1L;
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.findVersionById(userId)).thenReturn(Optional.empty());
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
                 () -> addressService.getAddressByUserId(userId));
         assertEquals("Usuário com ID 1 não encontrado", exception.getMessage());
-        verify(userRepository).findById(userId);
+        verify(userRepository, never()).findById(userId);
     }
 
     @Test
     void getAddressByUserId_shouldReturnEmpty_whenUserHasNoAddress() {
         Long userId = 1L;
-        User user = new User();
-        user.setAddressUser(null);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.findVersionById(userId)).thenReturn(Optional.of(new UserVersionDTO(userId, 0L, null, null, null)));
 
         Optional<AddressDTO> result = addressService.getAddressByUserId(userId);
 
         assertTrue(result.isEmpty());
-        verify(userRepository).findById(userId);
+        verify(userRepository, never()).findById(userId);
         verifyNoInteractions(addressMapper);
     }
 
@@ -85,10 +112,12 @@ public class AddressServiceTest {
     void getAddressByUserId_shouldReturnAddressDTO_whenUserHasAddress() {
         Long userId = 1L;
         Address address = new Address();
+        ReflectionTestUtils.setField(address, "id", 5L);
         User user = new User();
         user.setAddressUser(address);
         AddressDTO addressDTO = new AddressDTO();
 
+        when(userRepository.findVersionById(userId)).thenReturn(Optional.of(new UserVersionDTO(userId, 0L, 5L, null, null)));
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(addressMapper.toAddressDTO(address)).thenReturn(addressDTO);
 
@@ -100,6 +129,53 @@ public class AddressServiceTest {
         verify(addressMapper).toAddressDTO(address);
     }
 
+    @Test
+    void getVersionedAddressByUserId_shouldReloadCachedAddress_whenVersionIsStale() {
+        Long userId = 1L;
+        Address address = new Address();
+        ReflectionTestUtils.setField(address, "id", 5L);
+        ReflectionTestUtils.setField(address, "version", 3L);
+        User user = new User();
+        user.setAddressUser(address);
+        AddressDTO current = new AddressDTO();
+        Cache userAddressesCache = mock(Cache.class);
+
+        when(cacheManager.getCache(CacheConfig.USER_ADDRESSES_CACHE)).thenReturn(userAddressesCache);
+        when(userRepository.findVersionById(userId)).thenReturn(Optional.of(new UserVersionDTO(userId, 0L, 5L, 3L, null)));
+        when(userAddressesCache.get(userId, VersionedDTO.class)).thenReturn(new VersionedDTO<>(new AddressDTO(), "5.2"));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(addressMapper.toAddressDTO(address)).thenReturn(current);
+
+        VersionedDTO<AddressDTO> result = addressService.getVersionedAddressByUserId(userId).orElseThrow();
+
+        assertSame(current, result.getBody());
+        assertEquals("5.3", result.getETag());
+        verify(userAddressesCache).put(userId, result);
+    }
+
+    @Test
+    void getAddressETag_shouldReturnEmpty_whenUserHasNoAddress() {
+        Long userId = 1L;
+        when(userRepository.findVersionById(userId)).thenReturn(Optional.of(new UserVersionDTO(userId, 0L, null, null, null)));
+
+        assertTrue(addressService.getAddressETag(userId).isEmpty());
+    }
+
+    @Test
+    void getVersionedAddressByUserId_withCurrentETag_shouldServeCachedAddressWithoutQueries() {
+        Long userId = 1L;
+        VersionedDTO<AddressDTO> cached = new VersionedDTO<>(new AddressDTO(), "5.3");
+        Cache userAddressesCache = mock(Cache.class);
+
+        when(cacheManager.getCache(CacheConfig.USER_ADDRESSES_CACHE)).thenReturn(userAddressesCache);
+        when(userAddressesCache.get(userId, VersionedDTO.class)).thenReturn(cached);
+
+        Optional<VersionedDTO<AddressDTO>> result = addressService.getVersionedAddressByUserId(userId, "5.3");
+
+        assertSame(cached, result.orElseThrow());
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     void getAddressById_shouldThrowException_whenIdIsNull() {
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
@@ -157,7 +233,7 @@ public class AddressServiceTest {
     void updateAddressByUserId_shouldThrowException_whenUserIdIsNull() {
         AddressDTO addressDTO = new AddressDTO();
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
-                () -> addressService.updateAddressByUserId(null, addressDTO));
+                () -> addressService.updateAddressByUserId(null, addressDTO, null));
         assertEquals("ID do usuário deve ser válido", exception.getMessage());
     }
 
@@ -165,14 +241,14 @@ public class AddressServiceTest {
     void updateAddressByUserId_shouldThrowException_whenUserIdIsInvalid() {
         AddressDTO addressDTO = new AddressDTO();
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
-                () -> addressService.updateAddressByUserId(0L, addressDTO));
+                () -> addressService.updateAddressByUserId(0L, addressDTO, null));
         assertEquals("ID do usuário deve ser válido", exception.getMessage());
     }
 
     @Test
     void updateAddressByUserId_shouldThrowException_whenAddressDTOIsNull() {
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
-                () -> addressService.updateAddressByUserId(1L, null));
+                () -> addressService.updateAddressByUserId(1L, null, null));
         assertEquals("Dados do endereço não podem ser nulos", exception.getMessage());
     }
 
@@ -183,7 +259,7 @@ public class AddressServiceTest {
         when(userRepository.findById(userId)).thenReturn(Optional.empty());
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
-                () -> addressService.updateAddressByUserId(userId, addressDTO));
+                () -> addressService.updateAddressByUserId(userId, addressDTO, null));
         assertEquals("Usuário com ID 1 não encontrado", exception.getMessage());
         verify(userRepository).findById(userId);
     }
@@ -198,7 +274,7 @@ public class AddressServiceTest {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
-                () -> addressService.updateAddressByUserId(userId, addressDTO));
+                () -> addressService.updateAddressByUserId(userId, addressDTO, null));
         assertEquals("Usuário não possui endereço cadastrado", exception.getMessage());
         verify(userRepository).findById(userId);
     }
@@ -213,16 +289,18 @@ public class AddressServiceTest {
         AddressDTO updatedAddressDTO = new AddressDTO();
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(addressRepository.save(address)).thenReturn(address);
+        when(addressMapper.updateAddress(address, addressDTO)).thenReturn(true);
+        when(addressRepository.saveAndFlush(address)).thenReturn(address);
         when(addressMapper.toAddressDTO(address)).thenReturn(updatedAddressDTO);
 
-        AddressDTO result = addressService.updateAddressByUserId(userId, addressDTO);
+        AddressDTO result = addressService.updateAddressByUserId(userId, addressDTO, null).getBody();
 
         assertEquals(updatedAddressDTO, result);
         verify(userRepository).findById(userId);
         verify(addressMapper).updateAddress(address, addressDTO);
-        verify(addressRepository).save(address);
+        verify(addressRepository).saveAndFlush(address);
         verify(addressMapper).toAddressDTO(address);
+        verify(userOutboxService).recordAddressUpdated(userId, updatedAddressDTO);
     }
 
     @Test
@@ -268,8 +346,10 @@ public class AddressServiceTest {
         AddressDTO updatedAddressDTO = new AddressDTO();
 
         when(addressRepository.findById(id)).thenReturn(Optional.of(address));
+        when(addressMapper.updateAddress(address, addressDTO)).thenReturn(true);
         when(addressRepository.save(address)).thenReturn(address);
         when(addressMapper.toAddressDTO(address)).thenReturn(updatedAddressDTO);
+        when(userRepository.findIdByAddressId(id)).thenReturn(Optional.of(5L));
 
         AddressDTO result = addressService.updateAddress(id, addressDTO);
 
@@ -278,5 +358,76 @@ public class AddressServiceTest {
         verify(addressMapper).updateAddress(address, addressDTO);
         verify(addressRepository).save(address);
         verify(addressMapper).toAddressDTO(address);
+        verify(userOutboxService).recordAddressUpdated(5L, updatedAddressDTO);
+    }
+
+    @Test
+    void updateAddressByUserId_shouldSkipSave_whenNothingChanged() {
+        Long userId = 1L;
+        Address address = new Address();
+        User user = new User();
+        user.setAddressUser(address);
+        AddressDTO addressDTO = new AddressDTO();
+        AddressDTO currentAddressDTO = new AddressDTO();
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(addressMapper.updateAddress(address, addressDTO)).thenReturn(false);
+        when(addressMapper.toAddressDTO(address)).thenReturn(currentAddressDTO);
+
+        AddressDTO result = addressService.updateAddressByUserId(userId, addressDTO, null).getBody();
+
+        assertEquals(currentAddressDTO, result);
+        verify(addressRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(userOutboxService);
+    }
+
+    @Test
+    void patchAddressByUserId_shouldApplyPatchOverCurrentAddress() {
+        Long userId = 1L;
+        Address address = new Address();
+        User user = new User();
+        user.setAddressUser(address);
+        AddressDTO currentAddressDTO = new AddressDTO();
+        AddressDTO patchedAddressDTO = new AddressDTO();
+        JsonNode patch = JsonNodeFactory.instance.objectNode().put("complement", "Apto 12");
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(addressMapper.toAddressDTO(address)).thenReturn(currentAddressDTO);
+        when(jsonMergePatchMapper.apply(currentAddressDTO, patch)).thenReturn(patchedAddressDTO);
+        when(addressMapper.updateAddress(address, patchedAddressDTO)).thenReturn(true);
+        when(addressRepository.saveAndFlush(address)).thenReturn(address);
+
+        addressService.patchAddressByUserId(userId, patch, null);
+
+        verify(addressMapper).updateAddress(address, patchedAddressDTO);
+        verify(addressRepository).saveAndFlush(address);
+    }
+
+    @Test
+    void updateAddressByUserId_shouldThrowPreconditionFailed_whenIfMatchIsStale() {
+        Long userId = 1L;
+        Address address = new Address();
+        ReflectionTestUtils.setField(address, "id", 10L);
+        ReflectionTestUtils.setField(address, "version", 2L);
+        User user = new User();
+        user.setAddressUser(address);
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> addressService.updateAddressByUserId(userId, new AddressDTO(), "\"10.1\""));
+        verifyNoInteractions(addressMapper, userOutboxService);
+        verify(addressRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void patchAddressByUserId_shouldThrowException_whenUserHasNoAddress() {
+        Long userId = 1L;
+        when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> addressService.patchAddressByUserId(userId, JsonNodeFactory.instance.objectNode(), null));
+        assertEquals("Usuário não possui endereço cadastrado", exception.getMessage());
+        verifyNoInteractions(jsonMergePatchMapper);
     }
 }
@@ -0,0 +1,56 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BloomFilterTest {
+
+    private static final int INSERTIONS = 10_000;
+
+    @Test
+    void mightContain_shouldNeverReturnFalseNegatives() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("usuario" + i + "@example.com");
+        }
+
+        for (int i = 0; i < INSERTIONS; i++) {
+            assertTrue(filter.mightContain("usuario" + i + "@example.com"));
+        }
+    }
+
+    @Test
+    void mightContain_shouldKeepFalsePositiveRateNearConfiguredValue() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("usuario" + i + "@example.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < INSERTIONS; i++) {
+            if (filter.mightContain("outro" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < INSERTIONS * 0.02, "Falsos positivos: " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveProbability() < 0.02);
+        assertTrue(filter.memoryBytes() > 0);
+    }
+
+    @Test
+    void mightContain_shouldReturnFalse_whenValueIsNull() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+        filter.put(null);
+
+        assertFalse(filter.mightContain(null));
+        assertEquals(0.0, filter.expectedFalsePositiveProbability());
+    }
+
+    @Test
+    void constructor_shouldThrowException_whenParametersAreInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(INSERTIONS, 1.0));
+    }
+}
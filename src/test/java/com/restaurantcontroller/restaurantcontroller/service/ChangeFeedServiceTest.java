@@ -0,0 +1,120 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import com.restaurantcontroller.restaurantcontroller.dto.ChangeFeedPageDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.EChangeType;
+import com.restaurantcontroller.restaurantcontroller.dto.ResponseNewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UserChangeDTO;
+import com.restaurantcontroller.restaurantcontroller.repository.UserJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ChangeFeedServiceTest {
+
+    @Mock
+    private UserJdbcRepository userJdbcRepository;
+
+    private ChangeFeedService changeFeedService;
+
+    @BeforeEach
+    void setUp() {
+        changeFeedService = new ChangeFeedService(userJdbcRepository, Duration.ofSeconds(10), Duration.ofDays(30));
+    }
+
+    @Test
+    void getChanges_shouldMergeUpsertsAndTombstonesInChangeOrder() {
+        ZonedDateTime base = ZonedDateTime.now().minusMinutes(5).truncatedTo(ChronoUnit.MICROS);
+        when(userJdbcRepository.findChangedUsers(any(), anyLong(), any(), eq(3)))
+                .thenReturn(List.of(upsert(1L, base), upsert(3L, base.plusSeconds(2))));
+        when(userJdbcRepository.findTombstones(any(), anyLong(), any(), eq(3)))
+                .thenReturn(List.of(tombstone(2L, base.plusSeconds(1))));
+
+        ChangeFeedPageDTO page = changeFeedService.getChanges(null, 2);
+
+        assertEquals(List.of(1L, 2L), page.getChanges().stream().map(UserChangeDTO::getId).toList());
+        assertEquals(EChangeType.delete, page.getChanges().get(1).getType());
+        assertTrue(page.isHasMore());
+        assertEquals(page.getChanges().get(1).getCursor(), page.getNextCursor());
+    }
+
+    @Test
+    void getChanges_shouldResumeFromCursor() {
+        ZonedDateTime changedAt = ZonedDateTime.now().minusMinutes(5).truncatedTo(ChronoUnit.MICROS);
+        when(userJdbcRepository.findChangedUsers(any(), anyLong(), any(), anyInt())).thenReturn(List.of(upsert(7L, changedAt)));
+        when(userJdbcRepository.findTombstones(any(), anyLong(), any(), anyInt())).thenReturn(List.of());
+        String cursor = changeFeedService.getChanges(null, 10).getChanges().get(0).getCursor();
+
+        changeFeedService.getChanges(cursor, 10);
+
+        verify(userJdbcRepository).findChangedUsers(argThat(time -> time.toInstant().equals(changedAt.toInstant())), eq(7L), any(), eq(11));
+    }
+
+    @Test
+    void getChanges_shouldAdvanceCursorToSettledTime_whenThereAreNoMoreChanges() {
+        when(userJdbcRepository.findChangedUsers(any(), anyLong(), any(), anyInt())).thenReturn(List.of());
+        when(userJdbcRepository.findTombstones(any(), anyLong(), any(), anyInt())).thenReturn(List.of());
+
+        ChangeFeedPageDTO page = changeFeedService.getChanges(null, 10);
+
+        assertTrue(page.getChanges().isEmpty());
+        assertFalse(page.isHasMore());
+        String[] cursor = new String(Base64.getUrlDecoder().decode(page.getNextCursor()), StandardCharsets.UTF_8).split("\\.");
+        long settledMicros = ChronoUnit.MICROS.between(Instant.EPOCH, ZonedDateTime.now().minusSeconds(10).toInstant());
+        assertTrue(Math.abs(settledMicros - Long.parseLong(cursor[0])) < 5_000_000L);
+        assertEquals(String.valueOf(Long.MAX_VALUE), cursor[1]);
+    }
+
+    @Test
+    void getChanges_shouldThrowException_whenCursorIsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> changeFeedService.getChanges("invalido", 10));
+        verifyNoInteractions(userJdbcRepository);
+    }
+
+    @Test
+    void getChanges_shouldThrowException_whenCursorIsOlderThanTombstoneRetention() {
+        String expired = Base64.getUrlEncoder().withoutPadding().encodeToString("1000.1".getBytes(StandardCharsets.UTF_8));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> changeFeedService.getChanges(expired, 10));
+        assertTrue(exception.getMessage().startsWith("Cursor expirado"));
+        verifyNoInteractions(userJdbcRepository);
+    }
+
+    @Test
+    void getChanges_shouldThrowException_whenLimitIsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> changeFeedService.getChanges(null, ChangeFeedService.MAX_LIMIT + 1));
+        assertThrows(IllegalArgumentException.class, () -> changeFeedService.getChanges(null, 0));
+    }
+
+    @Test
+    void purgeTombstones_shouldDeleteTombstonesOlderThanRetention() {
+        changeFeedService.purgeTombstones();
+
+        verify(userJdbcRepository).deleteTombstonesBefore(argThat(before ->
+                Math.abs(Duration.between(ZonedDateTime.now().minusDays(30), before).toSeconds()) < 5));
+    }
+
+    private static UserChangeDTO upsert(Long id, ZonedDateTime changedAt) {
+        ResponseNewUserDTO user = new ResponseNewUserDTO();
+        user.setId(id);
+        return new UserChangeDTO(EChangeType.upsert, id, changedAt, user);
+    }
+
+    private static UserChangeDTO tombstone(Long id, ZonedDateTime deletedAt) {
+        return new UserChangeDTO(EChangeType.delete, id, deletedAt, null);
+    }
+}
@@ -0,0 +1,30 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import com.restaurantcontroller.restaurantcontroller.exception.ChangeFeedUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class ChangeFeedStreamerTest {
+
+    private final ChangeFeedService changeFeedService = mock(ChangeFeedService.class);
+
+    @Test
+    void subscribe_shouldRejectSubscriber_whenLimitIsReached() {
+        ChangeFeedStreamer streamer = new ChangeFeedStreamer(changeFeedService, new SimpleMeterRegistry(),
+                Duration.ofMinutes(30), Duration.ofSeconds(15), 1, 2000);
+
+        assertNotNull(streamer.subscribe(null));
+        assertThrows(ChangeFeedUnavailableException.class, () -> streamer.subscribe(null));
+    }
+
+    @Test
+    void constructor_shouldRejectSendQueueSmallerThanFeedPage() {
+        assertThrows(IllegalArgumentException.class, () -> new ChangeFeedStreamer(changeFeedService, new SimpleMeterRegistry(),
+                Duration.ofMinutes(30), Duration.ofSeconds(15), 1, ChangeFeedService.MAX_LIMIT));
+    }
+}
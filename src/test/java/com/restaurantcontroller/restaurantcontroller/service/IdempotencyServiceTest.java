@@ -0,0 +1,210 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurantcontroller.restaurantcontroller.exception.IdempotencyKeyReusedException;
+import com.restaurantcontroller.restaurantcontroller.exception.IdempotentRequestInProgressException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdempotencyServiceTest {
+
+    private IdempotencyService idempotencyService;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(new ObjectMapper(), new SimpleMeterRegistry(), 100, Duration.ofMinutes(10), Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void execute_shouldReplayStoredResponse_whenKeyIsRepeated() {
+        ResponseEntity<String> first = idempotencyService.execute("chave-1", "POST /users", Map.of("email", "a@example.com"), this::create);
+        ResponseEntity<String> second = idempotencyService.execute("chave-1", "POST /users", Map.of("email", "a@example.com"), this::create);
+
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.CREATED, second.getStatusCode());
+        assertEquals(first.getBody(), second.getBody());
+        assertEquals("\"v1\"", second.getHeaders().getETag());
+        assertEquals("true", second.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertNull(first.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void execute_shouldExecuteEveryTime_whenKeyIsAbsent() {
+        idempotencyService.execute(null, "POST /users", Map.of(), this::create);
+        idempotencyService.execute(null, "POST /users", Map.of(), this::create);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void execute_shouldKeepKeysOfDifferentOperationsApart() {
+        idempotencyService.execute("chave-1", "PUT /users/1", Map.of(), this::create);
+        idempotencyService.execute("chave-1", "PUT /users/2", Map.of(), this::create);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void execute_shouldKeepKeysOfDifferentAnonymousClientsApart() {
+        fromRemoteAddress("10.0.0.1");
+        idempotencyService.execute("chave-1", "POST /users", Map.of("email", "a@example.com"), this::create);
+
+        fromRemoteAddress("10.0.0.2");
+        ResponseEntity<String> other = idempotencyService.execute("chave-1", "POST /users", Map.of("email", "b@example.com"), this::create);
+
+        assertEquals(2, executions.get());
+        assertNull(other.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void execute_shouldRejectReusedKey_whenRequestBodyDiffers() {
+        idempotencyService.execute("chave-1", "POST /users", Map.of("email", "a@example.com"), this::create);
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> idempotencyService.execute("chave-1", "POST /users", Map.of("email", "b@example.com"), this::create));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_shouldRejectInvalidKey() {
+        assertThrows(IllegalArgumentException.class, () -> idempotencyService.execute(" ", "POST /users", Map.of(), this::create));
+        assertThrows(IllegalArgumentException.class,
+                () -> idempotencyService.execute("x".repeat(IdempotencyService.MAX_KEY_LENGTH + 1), "POST /users", Map.of(), this::create));
+    }
+
+    @Test
+    void execute_shouldReleaseKey_whenActionFails() {
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("chave-1", "POST /users", Map.of(), () -> {
+            executions.incrementAndGet();
+            throw new IllegalStateException("Falha");
+        }));
+        ResponseEntity<String> notFound = idempotencyService.execute("chave-1", "POST /users", Map.of(), () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.notFound().build();
+        });
+        ResponseEntity<String> retried = idempotencyService.execute("chave-1", "POST /users", Map.of(), this::create);
+
+        assertEquals(HttpStatus.NOT_FOUND, notFound.getStatusCode());
+        assertEquals(HttpStatus.CREATED, retried.getStatusCode());
+        assertNull(retried.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(3, executions.get());
+    }
+
+    @Test
+    void execute_shouldCoalesceConcurrentDuplicatesOntoInFlightRequest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<ResponseEntity<String>> first = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute("chave-1", "POST /users", Map.of(), () -> {
+                    started.countDown();
+                    await(release);
+                    return create();
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<ResponseEntity<String>> duplicate = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute("chave-1", "POST /users", Map.of(), this::create));
+        Thread.sleep(50);
+        assertFalse(duplicate.isDone());
+
+        release.countDown();
+
+        assertEquals(first.get(5, TimeUnit.SECONDS).getBody(), duplicate.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals("true", duplicate.get().getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_shouldCoalesceDuplicateOntoInFlightRequest_whenCacheIsFull() throws Exception {
+        idempotencyService = new IdempotencyService(new ObjectMapper(), new SimpleMeterRegistry(), 1, Duration.ofMinutes(10), Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<ResponseEntity<String>> first = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute("chave-1", "POST /users", Map.of(), () -> {
+                    started.countDown();
+                    await(release);
+                    return create();
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Outras chaves concluídas enchem o cache (máximo de 1 entrada) enquanto a primeira ainda executa
+        for (int i = 2; i <= 5; i++) {
+            idempotencyService.execute("chave-" + i, "POST /users", Map.of(), this::create);
+        }
+
+        CompletableFuture<ResponseEntity<String>> duplicate = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute("chave-1", "POST /users", Map.of(), this::create));
+        Thread.sleep(50);
+        assertFalse(duplicate.isDone());
+
+        release.countDown();
+
+        assertEquals(first.get(5, TimeUnit.SECONDS).getBody(), duplicate.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals("true", duplicate.get().getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(5, executions.get());
+    }
+
+    @Test
+    void execute_shouldFailDuplicate_whenInFlightRequestExceedsWaitTimeout() throws Exception {
+        idempotencyService = new IdempotencyService(new ObjectMapper(), new SimpleMeterRegistry(), 100, Duration.ofMinutes(10), Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<ResponseEntity<String>> first = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute("chave-1", "POST /users", Map.of(), () -> {
+                    started.countDown();
+                    await(release);
+                    return create();
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(IdempotentRequestInProgressException.class,
+                () -> idempotencyService.execute("chave-1", "POST /users", Map.of(), this::create));
+
+        release.countDown();
+        assertEquals(HttpStatus.CREATED, first.get(5, TimeUnit.SECONDS).getStatusCode());
+    }
+
+    private ResponseEntity<String> create() {
+        return ResponseEntity.status(HttpStatus.CREATED).eTag("v1").body("usuario-" + executions.incrementAndGet());
+    }
+
+    private static void fromRemoteAddress(String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddress);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
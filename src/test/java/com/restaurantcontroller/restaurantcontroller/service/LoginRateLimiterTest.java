@@ -0,0 +1,80 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import com.restaurantcontroller.restaurantcontroller.exception.LoginRateLimitedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoginRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // 3 tentativas por username (1 reposta a cada 10s) e 5 por IP (1 reposta a cada 1s)
+        limiter = new LoginRateLimiter(meterRegistry, true, 3, Duration.ofSeconds(10), 5, Duration.ofSeconds(1),
+                1000, Duration.ofMinutes(15), 8, now::get);
+    }
+
+    @Test
+    void acquire_shouldRejectUsername_afterCapacityIsExhausted() {
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("joao", "10.0.0." + i);
+        }
+
+        LoginRateLimitedException exception = assertThrows(LoginRateLimitedException.class,
+                () -> limiter.acquire("JOAO ", "10.0.0.9"));
+        assertEquals(10, exception.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("login.attempts.rejected").tag("key", "username").counter().count());
+
+        // Outro username não é afetado
+        assertDoesNotThrow(() -> limiter.acquire("maria", "10.0.0.9"));
+    }
+
+    @Test
+    void acquire_shouldRejectIp_beforeConsumingUsernameTokens() {
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire("usuario" + i, "10.0.0.1");
+        }
+
+        assertThrows(LoginRateLimitedException.class, () -> limiter.acquire("joao", "10.0.0.1"));
+        assertEquals(1.0, meterRegistry.get("login.attempts.rejected").tag("key", "ip").counter().count());
+
+        // A tentativa barrada pelo IP não consumiu a cota do username
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("joao", "10.0.1." + i);
+        }
+    }
+
+    @Test
+    void acquire_shouldRefillTokensOverTime() {
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("joao", "10.0.0." + i);
+        }
+        assertThrows(LoginRateLimitedException.class, () -> limiter.acquire("joao", "10.0.0.9"));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        assertDoesNotThrow(() -> limiter.acquire("joao", "10.0.0.9"));
+        assertThrows(LoginRateLimitedException.class, () -> limiter.acquire("joao", "10.0.0.9"));
+    }
+
+    @Test
+    void acquire_shouldAllowEverything_whenDisabled() {
+        LoginRateLimiter disabled = new LoginRateLimiter(new SimpleMeterRegistry(), false, 1, Duration.ofMinutes(1), 1, Duration.ofMinutes(1),
+                1000, Duration.ofMinutes(15), 8, now::get);
+
+        for (int i = 0; i < 10; i++) {
+            disabled.acquire("joao", "10.0.0.1");
+        }
+    }
+}
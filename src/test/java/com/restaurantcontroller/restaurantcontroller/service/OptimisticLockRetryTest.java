@@ -0,0 +1,98 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OptimisticLockRetryTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private OptimisticLockRetry optimisticLockRetry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        optimisticLockRetry = new OptimisticLockRetry(transactionManager, meterRegistry, 3, Duration.ofMillis(1), Duration.ofMillis(5));
+    }
+
+    @Test
+    void execute_shouldRetryInNewTransaction_whenVersionConflicts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = optimisticLockRetry.execute(() -> {
+            if (attempts.incrementAndGet() < 3)
+                throw new OptimisticLockingFailureException("Versão desatualizada");
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, attempts.get());
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager).commit(any());
+        assertEquals(2, meterRegistry.counter("optimistic.lock.retries").count());
+        assertEquals(0, meterRegistry.counter("optimistic.lock.retries.exhausted").count());
+    }
+
+    @Test
+    void execute_shouldThrowConflict_whenAttemptsAreExhausted() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(OptimisticLockingFailureException.class, () -> optimisticLockRetry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("Versão desatualizada");
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(2, meterRegistry.counter("optimistic.lock.retries").count());
+        assertEquals(1, meterRegistry.counter("optimistic.lock.retries.exhausted").count());
+    }
+
+    @Test
+    void execute_shouldNotRetryOtherExceptions() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalArgumentException.class, () -> optimisticLockRetry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException("Usuário não encontrado");
+        }));
+
+        assertEquals(1, attempts.get());
+        assertEquals(0, meterRegistry.counter("optimistic.lock.retries").count());
+    }
+
+    @Test
+    void execute_shouldRunOnce_whenTransactionIsAlreadyActive() {
+        AtomicInteger attempts = new AtomicInteger();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThrows(OptimisticLockingFailureException.class, () -> optimisticLockRetry.execute(() -> {
+                attempts.incrementAndGet();
+                throw new OptimisticLockingFailureException("Versão desatualizada");
+            }));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertEquals(1, attempts.get());
+        verifyNoInteractions(transactionManager);
+    }
+}
@@ -0,0 +1,97 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import com.restaurantcontroller.restaurantcontroller.exception.PasswordHashingUnavailableException;
+import com.restaurantcontroller.restaurantcontroller.model.UserCredentials;
+import com.restaurantcontroller.restaurantcontroller.repository.UserCredentialsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.ZonedDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PasswordRehashServiceTest {
+
+    @Mock
+    private UserCredentialsRepository userCredentialsRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private PasswordRehashService passwordRehashService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        passwordRehashService = new PasswordRehashService(userCredentialsRepository, passwordEncoder, transactionManager, meterRegistry);
+    }
+
+    @Test
+    void rehashIfNeeded_shouldDoNothing_whenHashIsCurrent() {
+        UserCredentials credentials = createCredentials("{bcrypt}atual");
+        when(passwordEncoder.upgradeEncoding("{bcrypt}atual")).thenReturn(false);
+
+        assertFalse(passwordRehashService.rehashIfNeeded(credentials, "Senha@123"));
+        verify(passwordEncoder, never()).encode(any());
+    }
+
+    @Test
+    void rehash_shouldReplaceHashWithoutTouchingLastUpdate() {
+        UserCredentials current = createCredentials("antigo");
+        ZonedDateTime lastUpdate = current.getLastUpdate();
+        when(passwordEncoder.encode("Senha@123")).thenReturn("{bcrypt}novo");
+        when(userCredentialsRepository.findById(1L)).thenReturn(Optional.of(current));
+
+        passwordRehashService.rehash(1L, "antigo", "Senha@123");
+
+        assertEquals("{bcrypt}novo", current.getPassword());
+        assertEquals(lastUpdate, current.getLastUpdate());
+        assertEquals(1, meterRegistry.counter("password.rehash", "result", "upgraded").count());
+    }
+
+    @Test
+    void rehash_shouldSkip_whenPasswordChangedSinceLogin() {
+        UserCredentials current = createCredentials("{bcrypt}trocada");
+        when(passwordEncoder.encode("Senha@123")).thenReturn("{bcrypt}novo");
+        when(userCredentialsRepository.findById(1L)).thenReturn(Optional.of(current));
+
+        passwordRehashService.rehash(1L, "antigo", "Senha@123");
+
+        assertEquals("{bcrypt}trocada", current.getPassword());
+        assertEquals(1, meterRegistry.counter("password.rehash", "result", "skipped").count());
+    }
+
+    @Test
+    void rehash_shouldSkip_whenHashingPoolIsBusy() {
+        when(passwordEncoder.encode("Senha@123")).thenThrow(new PasswordHashingUnavailableException("Servidor ocupado", null));
+
+        passwordRehashService.rehash(1L, "antigo", "Senha@123");
+
+        verifyNoInteractions(userCredentialsRepository, transactionManager);
+        assertEquals(1, meterRegistry.counter("password.rehash", "result", "skipped").count());
+    }
+
+    private UserCredentials createCredentials(String password) {
+        UserCredentials credentials = new UserCredentials();
+        ReflectionTestUtils.setField(credentials, "id", 1L);
+        credentials.setUsername("usuario");
+        credentials.setPassword(password);
+        credentials.setLastUpdate(ZonedDateTime.now());
+        return credentials;
+    }
+}
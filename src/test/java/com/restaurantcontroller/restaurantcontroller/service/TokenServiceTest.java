@@ -0,0 +1,123 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.restaurantcontroller.restaurantcontroller.dto.LoginResponseDTO;
+import com.restaurantcontroller.restaurantcontroller.model.EProfile;
+import com.restaurantcontroller.restaurantcontroller.model.User;
+import com.restaurantcontroller.restaurantcontroller.model.UserCredentials;
+import com.restaurantcontroller.restaurantcontroller.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TokenServiceTest {
+
+    private static final SecretKey SECRET_KEY = new SecretKeySpec(
+            "segredo-de-teste-com-mais-de-32-bytes".getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+
+    private UserRepository userRepository;
+    private TokenService tokenService;
+    private NimbusJwtDecoder jwtDecoder;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        tokenService = new TokenService(new NimbusJwtEncoder(new ImmutableSecret<>(SECRET_KEY)), userRepository,
+                "restaurantcontroller", Duration.ofMinutes(15), 100, Duration.ofMinutes(1));
+        jwtDecoder = NimbusJwtDecoder.withSecretKey(SECRET_KEY).macAlgorithm(MacAlgorithm.HS256).build();
+    }
+
+    @Test
+    void issueToken_shouldReturnSignedTokenWithUserClaims() {
+        User user = createUser(7L, ZonedDateTime.now());
+        when(userRepository.findCredentialsLastUpdateById(7L)).thenReturn(Optional.of(user.getUserCredentials().getLastUpdate()));
+
+        LoginResponseDTO result = tokenService.issueToken(user);
+
+        assertEquals("Bearer", result.getTokenType());
+        assertEquals(900, result.getExpiresIn());
+
+        Jwt jwt = jwtDecoder.decode(result.getAccessToken());
+        assertEquals("7", jwt.getSubject());
+        assertEquals("johndoe", jwt.getClaimAsString(TokenService.USERNAME_CLAIM));
+        assertEquals(List.of("client"), jwt.getClaimAsStringList(TokenService.PROFILE_CLAIM));
+        assertFalse(tokenService.isRevoked(jwt));
+    }
+
+    @Test
+    void isRevoked_shouldRejectTokensIssuedBeforePasswordChange() {
+        ZonedDateTime firstPassword = ZonedDateTime.now().minusMinutes(1);
+        ZonedDateTime newPassword = ZonedDateTime.now();
+        when(userRepository.findCredentialsLastUpdateById(7L)).thenReturn(Optional.of(newPassword));
+
+        Jwt oldToken = jwtDecoder.decode(tokenService.issueToken(createUser(7L, firstPassword)).getAccessToken());
+        Jwt newToken = jwtDecoder.decode(tokenService.issueToken(createUser(7L, newPassword)).getAccessToken());
+
+        assertTrue(tokenService.isRevoked(oldToken));
+        assertFalse(tokenService.isRevoked(newToken));
+    }
+
+    @Test
+    void isRevoked_shouldCacheVersionUntilTokensAreRevoked() {
+        ZonedDateTime firstPassword = ZonedDateTime.now().minusMinutes(1);
+        ZonedDateTime newPassword = ZonedDateTime.now();
+        when(userRepository.findCredentialsLastUpdateById(7L)).thenReturn(Optional.of(firstPassword), Optional.of(newPassword));
+        Jwt oldToken = jwtDecoder.decode(tokenService.issueToken(createUser(7L, firstPassword)).getAccessToken());
+
+        assertFalse(tokenService.isRevoked(oldToken));
+        assertFalse(tokenService.isRevoked(oldToken));
+        verify(userRepository, times(1)).findCredentialsLastUpdateById(7L);
+
+        tokenService.revokeTokens(7L);
+
+        assertTrue(tokenService.isRevoked(oldToken));
+        verify(userRepository, times(2)).findCredentialsLastUpdateById(7L);
+    }
+
+    @Test
+    void isRevoked_shouldNotAffectOtherUsers() {
+        ZonedDateTime password = ZonedDateTime.now().minusMinutes(1);
+        when(userRepository.findCredentialsLastUpdateById(8L)).thenReturn(Optional.of(password));
+        Jwt token = jwtDecoder.decode(tokenService.issueToken(createUser(8L, password)).getAccessToken());
+
+        tokenService.revokeTokens(7L);
+
+        assertFalse(tokenService.isRevoked(token));
+    }
+
+    @Test
+    void isRevoked_shouldRejectTokensOfMissingUser() {
+        when(userRepository.findCredentialsLastUpdateById(7L)).thenReturn(Optional.empty());
+        Jwt token = jwtDecoder.decode(tokenService.issueToken(createUser(7L, ZonedDateTime.now())).getAccessToken());
+
+        assertTrue(tokenService.isRevoked(token));
+    }
+
+    private User createUser(Long id, ZonedDateTime passwordLastUpdate) {
+        UserCredentials credentials = new UserCredentials();
+        credentials.setUsername("johndoe");
+        credentials.setPassword("encodedPassword");
+        credentials.setLastUpdate(passwordLastUpdate);
+
+        User user = new User();
+        ReflectionTestUtils.setField(user, "id", id);
+        user.setProfile(EProfile.client);
+        user.setUserCredentials(credentials);
+        return user;
+    }
+}
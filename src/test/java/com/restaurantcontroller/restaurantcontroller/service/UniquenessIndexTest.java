@@ -0,0 +1,97 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import com.restaurantcontroller.restaurantcontroller.repository.UserJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class UniquenessIndexTest {
+
+    @Mock
+    private UserJdbcRepository userJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private UniquenessIndex uniquenessIndex;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        uniquenessIndex = new UniquenessIndex(userJdbcRepository, transactionManager, meterRegistry, 1000, 0.01, 0.1);
+    }
+
+    @Test
+    void mightContain_shouldReturnTrue_whenIndexIsNotLoaded() {
+        assertTrue(uniquenessIndex.mightContain(UniquenessIndex.Key.EMAIL, "novo@example.com"));
+    }
+
+    @Test
+    void rebuild_shouldLoadExistingValuesFromDatabase() {
+        doAnswer(invocation -> {
+            UserJdbcRepository.UniqueKeyConsumer consumer = invocation.getArgument(0);
+            consumer.accept("existente@example.com", "12345678901", "existente");
+            return null;
+        }).when(userJdbcRepository).forEachUniqueKey(any());
+
+        uniquenessIndex.rebuild();
+
+        assertTrue(uniquenessIndex.mightContain(UniquenessIndex.Key.EMAIL, "existente@example.com"));
+        assertTrue(uniquenessIndex.mightContain(UniquenessIndex.Key.USER_IDENTIFICATION, "12345678901"));
+        assertTrue(uniquenessIndex.mightContain(UniquenessIndex.Key.USERNAME, "existente"));
+        assertFalse(uniquenessIndex.mightContain(UniquenessIndex.Key.EMAIL, "novo@example.com"));
+
+        // Cada coluna tem seu próprio filtro
+        assertFalse(uniquenessIndex.mightContain(UniquenessIndex.Key.USERNAME, "existente@example.com"));
+    }
+
+    @Test
+    void add_shouldMakeValueVisibleAfterLoad() {
+        uniquenessIndex.rebuild();
+        uniquenessIndex.add("novo@example.com", "98765432100", "novo");
+
+        assertTrue(uniquenessIndex.mightContain(UniquenessIndex.Key.EMAIL, "novo@example.com"));
+        assertTrue(uniquenessIndex.mightContain(UniquenessIndex.Key.USER_IDENTIFICATION, "98765432100"));
+        assertTrue(uniquenessIndex.mightContain(UniquenessIndex.Key.USERNAME, "novo"));
+    }
+
+    @Test
+    void recordRemoval_shouldOnlyRebuildWhenImportChecksIndex() {
+        uniquenessIndex.rebuild();
+        uniquenessIndex.add("novo@example.com", "98765432100", "novo");
+        uniquenessIndex.recordRemoval();
+        uniquenessIndex.recordRemoval();
+
+        // As escritas individuais não disparam a reconstrução
+        verify(userJdbcRepository, times(1)).forEachUniqueKey(any());
+
+        uniquenessIndex.rebuildIfStale();
+
+        verify(userJdbcRepository, timeout(5000).times(2)).forEachUniqueKey(any());
+    }
+
+    @Test
+    void metrics_shouldExposeMemoryFalsePositiveRateAndChecks() {
+        uniquenessIndex.rebuild();
+        uniquenessIndex.mightContain(UniquenessIndex.Key.EMAIL, "novo@example.com");
+
+        assertTrue(meterRegistry.get("uniqueness.index.memory").tag("key", "email").gauge().value() > 0);
+        assertNotNull(meterRegistry.get("uniqueness.index.false.positive.probability").tag("key", "username").gauge());
+        assertEquals(1.0, meterRegistry.get("uniqueness.index.checks")
+                .tag("key", "email").tag("result", "definite_miss").counter().count());
+    }
+}
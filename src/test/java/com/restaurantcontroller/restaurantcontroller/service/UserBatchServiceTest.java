@@ -0,0 +1,301 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurantcontroller.restaurantcontroller.dto.AddressDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.BatchImportResultDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.BatchRowResultDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.NewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.ResponseNewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UserCredentialsDTO;
+import com.restaurantcontroller.restaurantcontroller.mapper.AddressMapper;
+import com.restaurantcontroller.restaurantcontroller.mapper.UserMapper;
+import com.restaurantcontroller.restaurantcontroller.model.EProfile;
+import com.restaurantcontroller.restaurantcontroller.model.EUserEventType;
+import com.restaurantcontroller.restaurantcontroller.model.User;
+import com.restaurantcontroller.restaurantcontroller.repository.UserCredentialsRepository;
+import com.restaurantcontroller.restaurantcontroller.repository.UserJdbcRepository;
+import com.restaurantcontroller.restaurantcontroller.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserBatchServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserCredentialsRepository userCredentialsRepository;
+
+    @Mock
+    private UserJdbcRepository userJdbcRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private UserOutboxService userOutboxService;
+
+    @Mock
+    private UniquenessIndex uniquenessIndex;
+
+    private UserBatchService userBatchService;
+
+    @BeforeEach
+    void setUp() {
+        AddressMapper addressMapper = new AddressMapper();
+        UserMapper userMapper = new UserMapper();
+        ReflectionTestUtils.setField(userMapper, "addressMapper", addressMapper);
+
+        userBatchService = new UserBatchService(userRepository, userCredentialsRepository, userJdbcRepository, userMapper,
+                addressMapper, passwordEncoder, Validation.buildDefaultValidatorFactory().getValidator(), transactionManager,
+                uniquenessIndex, userOutboxService, new ObjectMapper(), 2);
+
+        // Índice ainda não carregado: todos os valores são verificados no banco
+        lenient().when(uniquenessIndex.mightContain(any(), any())).thenReturn(true);
+    }
+
+    @Test
+    void importUsers_shouldThrowException_whenBatchIsEmpty() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> userBatchService.importUsers(List.of()));
+        assertEquals("Lote de usuários não pode ser vazio", exception.getMessage());
+    }
+
+    @Test
+    void importUsers_shouldThrowException_whenBatchIsTooLarge() {
+        List<NewUserDTO> users = new ArrayList<>();
+        for (int i = 0; i <= UserBatchService.MAX_BATCH_SIZE; i++) {
+            users.add(createNewUserDTO(i));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> userBatchService.importUsers(users));
+        verifyNoInteractions(userJdbcRepository);
+    }
+
+    @Test
+    void importUsers_shouldReportInvalidRowsAndInsertValidOnes() {
+        NewUserDTO valid = createNewUserDTO(1);
+        NewUserDTO invalid = createNewUserDTO(2);
+        invalid.setEmail("email-invalido");
+
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        when(userRepository.findExistingUserIdentifications(anyCollection())).thenReturn(Set.of());
+        when(userCredentialsRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userJdbcRepository.insertAll(anyList())).thenReturn(List.of(10L));
+
+        BatchImportResultDTO result = userBatchService.importUsers(List.of(valid, invalid));
+
+        assertEquals(2, result.getTotal());
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getFailed());
+
+        BatchRowResultDTO created = result.getResults().get(0);
+        assertEquals(BatchRowResultDTO.STATUS_CREATED, created.getStatus());
+        assertEquals(10L, created.getId());
+
+        BatchRowResultDTO failed = result.getResults().get(1);
+        assertEquals(BatchRowResultDTO.STATUS_ERROR, failed.getStatus());
+        assertEquals(1, failed.getIndex());
+        assertEquals("Email deve ter um formato válido", failed.getErrors().get("email"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<User>> captor = ArgumentCaptor.forClass(List.class);
+        verify(userJdbcRepository).insertAll(captor.capture());
+        User inserted = captor.getValue().get(0);
+        assertEquals("encodedPassword", inserted.getUserCredentials().getPassword());
+        assertNotNull(inserted.getAddressUser().getLastUpdate());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ResponseNewUserDTO>> eventsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(userOutboxService).recordUserEvents(eq(EUserEventType.user_created), eventsCaptor.capture());
+        assertEquals(10L, eventsCaptor.getValue().get(0).getId());
+        assertEquals(valid.getEmail(), eventsCaptor.getValue().get(0).getEmail());
+    }
+
+    @Test
+    void importUsersFromNdjson_shouldReportMalformedLinesAndInsertTheOthers() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        String ndjson = objectMapper.writeValueAsString(createNewUserDTO(1)) + "\n"
+                + "{\"name\": \"Usuário\", \"email\": \n"
+                + "\n"
+                + objectMapper.writeValueAsString(createNewUserDTO(2)) + "\n";
+
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        when(userRepository.findExistingUserIdentifications(anyCollection())).thenReturn(Set.of());
+        when(userCredentialsRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userJdbcRepository.insertAll(anyList())).thenReturn(List.of(10L, 11L));
+
+        BatchImportResultDTO result = userBatchService.importUsersFromNdjson(new BufferedReader(new StringReader(ndjson)));
+
+        assertEquals(3, result.getTotal());
+        assertEquals(2, result.getCreated());
+        assertEquals(10L, result.getResults().get(0).getId());
+        BatchRowResultDTO malformed = result.getResults().get(1);
+        assertEquals(BatchRowResultDTO.STATUS_ERROR, malformed.getStatus());
+        assertEquals(1, malformed.getIndex());
+        assertTrue(malformed.getErrors().get("json").startsWith("Linha NDJSON inválida"));
+        assertEquals(11L, result.getResults().get(2).getId());
+    }
+
+    @Test
+    void importUsers_shouldRejectDuplicatesInDatabaseAndWithinBatch() {
+        NewUserDTO existing = createNewUserDTO(1);
+        NewUserDTO first = createNewUserDTO(2);
+        NewUserDTO duplicateOfFirst = createNewUserDTO(3);
+        duplicateOfFirst.getCredentials().setUsername(first.getCredentials().getUsername());
+
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of(existing.getEmail()));
+        when(userRepository.findExistingUserIdentifications(anyCollection())).thenReturn(Set.of());
+        when(userCredentialsRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userJdbcRepository.insertAll(anyList())).thenReturn(List.of(20L));
+
+        BatchImportResultDTO result = userBatchService.importUsers(List.of(existing, first, duplicateOfFirst));
+
+        assertEquals(1, result.getCreated());
+        assertEquals("Email já está em uso: " + existing.getEmail(), result.getResults().get(0).getErrors().get("email"));
+        assertEquals(20L, result.getResults().get(1).getId());
+        assertTrue(result.getResults().get(2).getErrors().containsKey("credentials.username"));
+        verify(userRepository, times(1)).findExistingEmails(anyCollection());
+    }
+
+    @Test
+    void importUsers_shouldRecheckChunkWithoutIndex_whenIndexMissesExistingValue() {
+        // Índice carregado sem o email existente (ex.: gravado por outro nó após a última reconstrução)
+        UniquenessIndex uniquenessIndex = new UniquenessIndex(mock(UserJdbcRepository.class), transactionManager, new SimpleMeterRegistry(), 1000, 0.01, 0.1);
+        uniquenessIndex.rebuild();
+        AddressMapper addressMapper = new AddressMapper();
+        UserMapper userMapper = new UserMapper();
+        ReflectionTestUtils.setField(userMapper, "addressMapper", addressMapper);
+        userBatchService = new UserBatchService(userRepository, userCredentialsRepository, userJdbcRepository, userMapper,
+                addressMapper, passwordEncoder, Validation.buildDefaultValidatorFactory().getValidator(), transactionManager,
+                uniquenessIndex, userOutboxService, new ObjectMapper(), 2);
+
+        NewUserDTO existing = createNewUserDTO(1);
+        NewUserDTO created = createNewUserDTO(2);
+
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of(existing.getEmail()));
+        when(userRepository.findExistingUserIdentifications(anyCollection())).thenReturn(Set.of());
+        when(userCredentialsRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userJdbcRepository.insertAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint \"uk_users_email\""))
+                .thenReturn(List.of(30L));
+
+        BatchImportResultDTO result = userBatchService.importUsers(List.of(existing, created));
+
+        assertEquals(1, result.getCreated());
+        assertEquals("Email já está em uso: " + existing.getEmail(), result.getResults().get(0).getErrors().get("email"));
+        assertEquals(30L, result.getResults().get(1).getId());
+        // A primeira tentativa confiou no índice e não consultou o banco
+        verify(userRepository, times(1)).findExistingEmails(anyCollection());
+        verify(userJdbcRepository, times(2)).insertAll(anyList());
+    }
+
+    @Test
+    void importUsers_shouldImportRowByRow_whenRecheckedChunkStillViolatesConstraint() {
+        NewUserDTO created = createNewUserDTO(1);
+        NewUserDTO conflicting = createNewUserDTO(2);
+
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        when(userRepository.findExistingUserIdentifications(anyCollection())).thenReturn(Set.of());
+        when(userCredentialsRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        // Outro cadastro grava o email da segunda linha durante as duas tentativas do trecho
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("duplicate key value violates unique constraint \"uk_users_email\"");
+        when(userJdbcRepository.insertAll(anyList()))
+                .thenThrow(violation)
+                .thenThrow(violation)
+                .thenReturn(List.of(40L))
+                .thenThrow(violation);
+
+        BatchImportResultDTO result = userBatchService.importUsers(List.of(created, conflicting));
+
+        assertEquals(2, result.getTotal());
+        assertEquals(1, result.getCreated());
+        assertEquals(40L, result.getResults().get(0).getId());
+        BatchRowResultDTO failed = result.getResults().get(1);
+        assertEquals(BatchRowResultDTO.STATUS_ERROR, failed.getStatus());
+        assertEquals(1, failed.getIndex());
+        assertTrue(failed.getErrors().containsKey("user"));
+        verify(userJdbcRepository, times(4)).insertAll(anyList());
+    }
+
+    @Test
+    void importUsers_shouldHashPasswordsBeforeOpeningTransaction() {
+        List<NewUserDTO> users = List.of(createNewUserDTO(1), createNewUserDTO(2), createNewUserDTO(3));
+
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        when(userRepository.findExistingUserIdentifications(anyCollection())).thenReturn(Set.of());
+        when(userCredentialsRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hash:" + invocation.getArgument(0));
+        when(userJdbcRepository.insertAll(anyList())).thenReturn(List.of(1L, 2L, 3L));
+
+        BatchImportResultDTO result = userBatchService.importUsers(users);
+
+        assertEquals(3, result.getCreated());
+        InOrder inOrder = inOrder(passwordEncoder, transactionManager);
+        inOrder.verify(passwordEncoder, times(3)).encode(anyString());
+        inOrder.verify(transactionManager).getTransaction(any());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<User>> captor = ArgumentCaptor.forClass(List.class);
+        verify(userJdbcRepository).insertAll(captor.capture());
+        for (int i = 0; i < users.size(); i++) {
+            assertEquals("hash:" + users.get(i).getCredentials().getPassword(), captor.getValue().get(i).getUserCredentials().getPassword());
+        }
+    }
+
+    private NewUserDTO createNewUserDTO(int index) {
+        AddressDTO address = new AddressDTO();
+        address.setStreet("Rua das Flores");
+        address.setNumber(10);
+        address.setComplement("Casa");
+        address.setNeighborhood("Centro");
+        address.setCity("São Paulo");
+        address.setState("SP");
+        address.setCountry("Brasil");
+        address.setCep("01000-000");
+
+        UserCredentialsDTO credentials = new UserCredentialsDTO();
+        credentials.setUsername("usuario" + index);
+        credentials.setPassword("Senha@123");
+
+        NewUserDTO dto = new NewUserDTO();
+        dto.setName("João da Silva");
+        dto.setUserIdentification(String.format("%011d", index));
+        dto.setEmail("usuario" + index + "@example.com");
+        dto.setProfile(EProfile.client);
+        dto.setAddress(address);
+        dto.setCredentials(credentials);
+        return dto;
+    }
+}
@@ -0,0 +1,104 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import com.restaurantcontroller.restaurantcontroller.dto.UserEventDTO;
+import com.restaurantcontroller.restaurantcontroller.model.EUserEventType;
+import com.restaurantcontroller.restaurantcontroller.model.UserOutboxEvent;
+import com.restaurantcontroller.restaurantcontroller.repository.UserOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserOutboxRelayTest {
+
+    @Mock
+    private UserOutboxRepository userOutboxRepository;
+
+    @Mock
+    private UserEventPublisher userEventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private UserOutboxRelay userOutboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userOutboxRelay = new UserOutboxRelay(userOutboxRepository, userEventPublisher, transactionManager, meterRegistry, 2, 10);
+    }
+
+    @Test
+    void relay_shouldPublishAndDeleteBatchesUntilOutboxIsDrained() throws Exception {
+        UserOutboxEvent first = createEvent(1L, 10L);
+        UserOutboxEvent second = createEvent(2L, 11L);
+        UserOutboxEvent third = createEvent(3L, 12L);
+        when(userOutboxRepository.lockNextBatch(2)).thenReturn(List.of(first, second), List.of(third));
+
+        int published = userOutboxRelay.relay();
+
+        assertEquals(3, published);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<UserEventDTO>> captor = ArgumentCaptor.forClass(List.class);
+        verify(userEventPublisher, times(2)).publish(captor.capture());
+        UserEventDTO event = captor.getAllValues().get(0).get(0);
+        assertEquals(1L, event.getId());
+        assertEquals(10L, event.getUserId());
+        assertEquals(EUserEventType.user_created, event.getType());
+        assertEquals("{\"id\":10}", event.getData());
+
+        verify(userOutboxRepository).deleteByIdIn(List.of(1L, 2L));
+        verify(userOutboxRepository).deleteByIdIn(List.of(3L));
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(3, meterRegistry.counter("outbox.events.published").count());
+    }
+
+    @Test
+    void relay_shouldKeepEventsInOutbox_whenPublishFails() throws Exception {
+        when(userOutboxRepository.lockNextBatch(2)).thenReturn(List.of(createEvent(1L, 10L)));
+        doThrow(new IOException("Conexão recusada")).when(userEventPublisher).publish(anyList());
+
+        int published = userOutboxRelay.relay();
+
+        assertEquals(0, published);
+        verify(userOutboxRepository, never()).deleteByIdIn(any());
+        verify(transactionManager).rollback(any());
+        assertEquals(1, meterRegistry.counter("outbox.publish.failures").count());
+    }
+
+    @Test
+    void relay_shouldNotPublish_whenOutboxIsEmpty() throws Exception {
+        when(userOutboxRepository.lockNextBatch(2)).thenReturn(List.of());
+
+        assertEquals(0, userOutboxRelay.relay());
+
+        verifyNoInteractions(userEventPublisher);
+    }
+
+    private UserOutboxEvent createEvent(Long id, Long userId) {
+        UserOutboxEvent event = new UserOutboxEvent();
+        ReflectionTestUtils.setField(event, "id", id);
+        event.setUserId(userId);
+        event.setEventType(EUserEventType.user_created);
+        event.setPayload("{\"id\":" + userId + "}");
+        event.setOccurredAt(ZonedDateTime.now());
+        return event;
+    }
+}
@@ -0,0 +1,180 @@
+package com.restaurantcontroller.restaurantcontroller.service;
+
+import com.restaurantcontroller.restaurantcontroller.dto.PageResponseDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.ResponseNewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.mapper.AddressMapper;
+import com.restaurantcontroller.restaurantcontroller.mapper.JsonMergePatchMapper;
+import com.restaurantcontroller.restaurantcontroller.mapper.UserMapper;
+import com.restaurantcontroller.restaurantcontroller.model.Address;
+import com.restaurantcontroller.restaurantcontroller.model.EProfile;
+import com.restaurantcontroller.restaurantcontroller.model.User;
+import com.restaurantcontroller.restaurantcontroller.model.UserCredentials;
+import com.restaurantcontroller.restaurantcontroller.repository.UserJdbcRepository;
+import com.restaurantcontroller.restaurantcontroller.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+
+/**
+ * Garante que as listagens e a busca do UserService, incluindo o mapeamento para DTO,
+ * executam um número fixo de consultas, independente do tamanho da página (sem N+1)
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({UserService.class, UserMapper.class, AddressMapper.class})
+public class UserServiceStatementCountTest {
+
+    private static final int USER_COUNT = 5;
+
+    @Autowired
+    private UserService userService;
+
+    @MockitoSpyBean
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private JsonMergePatchMapper jsonMergePatchMapper;
+
+    @MockitoBean
+    private UniquenessIndex uniquenessIndex;
+
+    @MockitoBean
+    private UserJdbcRepository userJdbcRepository;
+
+    @MockitoBean
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private UserOutboxService userOutboxService;
+
+    @MockitoBean
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<Long> ids;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        ids = new ArrayList<>();
+        for (int i = 0; i < USER_COUNT; i++) {
+            ids.add(entityManager.persistAndGetId(createUser(i), Long.class));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getUsersPage_shouldLoadAndMapPageInSingleStatement() {
+        PageResponseDTO<ResponseNewUserDTO> result = userService.getUsersPage(null, USER_COUNT - 1);
+
+        assertEquals(USER_COUNT - 1, result.getContent().size());
+        assertNotNull(result.getNextCursor());
+        assertAddressAndUsernameLoaded(result.getContent());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getUsersPageByOffset_shouldLoadAndMapPageWithoutExtraStatementsPerUser() {
+        PageResponseDTO<ResponseNewUserDTO> fullPage = userService.getUsersPageByOffset(0, USER_COUNT - 1);
+
+        // Página cheia: a consulta da página e a contagem do total
+        assertEquals(USER_COUNT - 1, fullPage.getContent().size());
+        assertAddressAndUsernameLoaded(fullPage.getContent());
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        entityManager.clear();
+        statistics.clear();
+
+        PageResponseDTO<ResponseNewUserDTO> lastPage = userService.getUsersPageByOffset(0, USER_COUNT + 1);
+
+        assertEquals(USER_COUNT, lastPage.getContent().size());
+        assertAddressAndUsernameLoaded(lastPage.getContent());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void searchUsersByName_shouldLoadAndMapResultsInSingleStatementAfterSearch() {
+        // O operador de similaridade (pg_trgm) não existe no H2: a busca dos IDs, uma única consulta
+        // no PostgreSQL, é simulada, e a carga dos usuários encontrados é executada de fato
+        List<Long> ranked = ids.reversed();
+        doReturn(ranked).when(userRepository).searchIdsByName(anyString(), anyString(), anyInt(), anyLong());
+
+        PageResponseDTO<ResponseNewUserDTO> result = userService.searchUsersByName("Usuário", 0, USER_COUNT);
+
+        assertEquals(ranked, result.getContent().stream().map(ResponseNewUserDTO::getId).collect(Collectors.toList()));
+        assertAddressAndUsernameLoaded(result.getContent());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private void assertAddressAndUsernameLoaded(List<ResponseNewUserDTO> users) {
+        users.forEach(user -> {
+            assertNotNull(user.getUsername());
+            assertNotNull(user.getAddress());
+            assertNotNull(user.getAddress().getStreet());
+        });
+    }
+
+    private User createUser(int index) {
+        Address address = new Address();
+        address.setStreet("Rua das Flores");
+        address.setNumber(100 + index);
+        address.setComplement("Casa");
+        address.setNeighborhood("Centro");
+        address.setCity("São Paulo");
+        address.setState("SP");
+        address.setCountry("Brasil");
+        address.setCep("01000-000");
+        address.setLastUpdate(ZonedDateTime.now());
+
+        UserCredentials credentials = new UserCredentials();
+        credentials.setUsername("usuario" + index);
+        credentials.setPassword("encodedPassword");
+        credentials.setLastUpdate(ZonedDateTime.now());
+
+        User user = new User();
+        user.setName("Usuário Teste");
+        user.setUserIdentification(String.format("%011d", index));
+        user.setEmail("usuario" + index + "@example.com");
+        user.setProfile(EProfile.client);
+        user.setAddressUser(address);
+        user.setUserCredentials(credentials);
+        user.setLastUpdate(ZonedDateTime.now());
+        return user;
+    }
+}
@@ -1,28 +1,57 @@
 package com.restaurantcontroller.restaurantcontroller.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.restaurantcontroller.restaurantcontroller.config.CacheConfig;
 import com.restaurantcontroller.restaurantcontroller.dto.AddressDTO;
 import com.restaurantcontroller.restaurantcontroller.dto.NewUserDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.PageResponseDTO;
 import com.restaurantcontroller.restaurantcontroller.dto.ResponseNewUserDTO;
 import com.restaurantcontroller.restaurantcontroller.dto.UpdateUserDTO;
 import com.restaurantcontroller.restaurantcontroller.dto.UserCredentialsDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.UserVersionDTO;
+import com.restaurantcontroller.restaurantcontroller.dto.VersionedDTO;
 import com.restaurantcontroller.restaurantcontroller.exception.EmailAlreadyExistsException;
+import com.restaurantcontroller.restaurantcontroller.exception.PreconditionFailedException;
 import com.restaurantcontroller.restaurantcontroller.exception.UserIdentificationAlreadyExistsException;
+import com.restaurantcontroller.restaurantcontroller.exception.UsernameAlreadyExistsException;
 import com.restaurantcontroller.restaurantcontroller.mapper.AddressMapper;
+import com.restaurantcontroller.restaurantcontroller.mapper.JsonMergePatchMapper;
 import com.restaurantcontroller.restaurantcontroller.mapper.UserMapper;
 import com.restaurantcontroller.restaurantcontroller.model.Address;
 import com.restaurantcontroller.restaurantcontroller.model.EProfile;
+import com.restaurantcontroller.restaurantcontroller.model.EUserEventType;
 import com.restaurantcontroller.restaurantcontroller.model.User;
+import com.restaurantcontroller.restaurantcontroller.model.UserCredentials;
+import com.restaurantcontroller.restaurantcontroller.repository.UserJdbcRepository;
 import com.restaurantcontroller.restaurantcontroller.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -42,6 +71,28 @@ public class UserServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private JsonMergePatchMapper jsonMergePatchMapper;
+
+    @Mock
+    private UserJdbcRepository userJdbcRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private UserOutboxService userOutboxService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Índice ainda não carregado: todo valor é tratado como possível acerto e confirmado no banco
+    @Spy
+    private UniquenessIndex uniquenessIndex = new UniquenessIndex(null, null, new SimpleMeterRegistry(), 1000, 0.01, 0.1);
+
     @InjectMocks
     private UserService userService;
 
@@ -112,11 +163,15 @@ public class UserServiceTest {
         dto.setName("John Doe");
         dto.setCredentials(createUserCredentialsDTO(RANDOM_USERNAME, RANDOM_PASSWORD));
 
-        when(userRepository.existsByEmail(dto.getEmail())).thenReturn(true);
+        User user = new User();
+        when(userMapper.createUser(dto)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenThrow(uniqueViolation("fiap.uk_users_email"));
 
-        assertThrows(EmailAlreadyExistsException.class,
+        EmailAlreadyExistsException exception = assertThrows(EmailAlreadyExistsException.class,
                 () -> userService.createUser(dto));
-        verify(userRepository).existsByEmail(dto.getEmail());
+        assertTrue(exception.getMessage().contains(dto.getEmail()));
+        verify(uniquenessIndex, never()).add(any(), any(), any());
+        verifyNoInteractions(userOutboxService);
     }
 
     @Test
@@ -127,13 +182,47 @@ public class UserServiceTest {
         dto.setName("John Doe");
         dto.setCredentials(createUserCredentialsDTO(RANDOM_USERNAME, RANDOM_PASSWORD));
 
-        when(userRepository.existsByEmail(dto.getEmail())).thenReturn(false);
-        when(userRepository.existsByUserIdentification(dto.getUserIdentification())).thenReturn(true);
+        User user = new User();
+        when(userMapper.createUser(dto)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenThrow(uniqueViolation(User.USER_IDENTIFICATION_CONSTRAINT));
 
         assertThrows(UserIdentificationAlreadyExistsException.class,
                 () -> userService.createUser(dto));
     }
 
+    @Test
+    void createUser_shouldThrowException_whenUsernameAlreadyExists() {
+        NewUserDTO dto = new NewUserDTO();
+        dto.setEmail("test@example.com");
+        dto.setUserIdentification("123456789");
+        dto.setName("John Doe");
+        dto.setCredentials(createUserCredentialsDTO(RANDOM_USERNAME, RANDOM_PASSWORD));
+
+        User user = new User();
+        when(userMapper.createUser(dto)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenThrow(uniqueViolation(UserCredentials.USERNAME_CONSTRAINT));
+
+        UsernameAlreadyExistsException exception = assertThrows(UsernameAlreadyExistsException.class,
+                () -> userService.createUser(dto));
+        assertTrue(exception.getMessage().contains(RANDOM_USERNAME));
+    }
+
+    @Test
+    void createUser_shouldRethrowViolation_whenConstraintIsNotUnique() {
+        NewUserDTO dto = new NewUserDTO();
+        dto.setEmail("test@example.com");
+        dto.setUserIdentification("123456789");
+        dto.setName("John Doe");
+        dto.setCredentials(createUserCredentialsDTO(RANDOM_USERNAME, RANDOM_PASSWORD));
+
+        User user = new User();
+        DataIntegrityViolationException violation = uniqueViolation("users_profile_check");
+        when(userMapper.createUser(dto)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenThrow(violation);
+
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class, () -> userService.createUser(dto)));
+    }
+
     @Test
     void createUser_shouldThrowException_whenCredentialsAreNull() {
         NewUserDTO dto = new NewUserDTO();
@@ -158,8 +247,6 @@ public class UserServiceTest {
         credentialsDTO.setPassword("password123");
         dto.setCredentials(credentialsDTO);
 
-        when(userRepository.existsByEmail(dto.getEmail())).thenReturn(false);
-
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
                 () -> userService.createUser(dto));
         assertEquals("Username é obrigatório", exception.getMessage());
@@ -176,8 +263,6 @@ public class UserServiceTest {
         credentialsDTO.setPassword(null);
         dto.setCredentials(credentialsDTO);
 
-        when(userRepository.existsByEmail(dto.getEmail())).thenReturn(false);
-
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
                 () -> userService.createUser(dto));
         assertEquals("Senha é obrigatória", exception.getMessage());
@@ -206,30 +291,49 @@ public class UserServiceTest {
         ResponseNewUserDTO responseDTO = new ResponseNewUserDTO();
         Address address = new Address();
 
-        when(userRepository.existsByEmail(dto.getEmail())).thenReturn(false);
-        when(userRepository.existsByUserIdentification(dto.getUserIdentification())).thenReturn(false);
-        when(userRepository.existsByUserCredentials_Username(username)).thenReturn(false);
         when(addressMapper.toAddress(addressDTO)).thenReturn(address);
         when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
         when(userMapper.createUser(dto)).thenReturn(user);
-        when(userRepository.save(user)).thenReturn(savedUser);
+        when(userRepository.saveAndFlush(user)).thenReturn(savedUser);
         when(userMapper.toResponseNewUserDTO(savedUser)).thenReturn(responseDTO);
 
         ResponseNewUserDTO result = userService.createUser(dto);
 
         assertNotNull(result);
         assertEquals(responseDTO, result);
-        verify(userRepository).existsByEmail(dto.getEmail());
-        verify(userRepository).existsByUserIdentification(dto.getUserIdentification());
         verify(addressMapper).toAddress(addressDTO);
         verify(passwordEncoder).encode("password123");
         verify(userMapper).createUser(dto);
-        verify(userRepository).save(user);
+        verify(userRepository).saveAndFlush(user);
         verify(userMapper).toResponseNewUserDTO(savedUser);
+        verify(uniquenessIndex).add(savedUser.getEmail(), savedUser.getUserIdentification(), username);
+        verify(userOutboxService).recordUserEvent(EUserEventType.user_created, responseDTO);
     }
 
     @Test
-    void getAllUsers_shouldReturnListOfUsers() {
+    void createUser_shouldInsertWithoutUniquenessQueries() {
+        NewUserDTO dto = new NewUserDTO();
+        dto.setEmail("test@example.com");
+        dto.setUserIdentification("123456789");
+        dto.setName("John Doe");
+        dto.setProfile(EProfile.client);
+        dto.setCredentials(createUserCredentialsDTO(RANDOM_USERNAME, RANDOM_PASSWORD));
+
+        User user = new User();
+        when(passwordEncoder.encode(RANDOM_PASSWORD)).thenReturn("encodedPassword");
+        when(userMapper.createUser(dto)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
+
+        userService.createUser(dto);
+
+        // A unicidade fica a cargo das constraints: o INSERT é a única escrita e não há consultas prévias
+        verify(userRepository).saveAndFlush(user);
+        verifyNoMoreInteractions(userRepository);
+        verify(uniquenessIndex, never()).mightContain(any(), any());
+    }
+
+    @Test
+    void getUsersPage_shouldReturnFirstPageWithoutCursor_whenNoMoreUsers() {
         User user1 = new User();
         User user2 = new User();
         List<User> users = Arrays.asList(user1, user2);
@@ -237,18 +341,89 @@ public class UserServiceTest {
         ResponseNewUserDTO dto1 = new ResponseNewUserDTO();
         ResponseNewUserDTO dto2 = new ResponseNewUserDTO();
 
-        when(userRepository.findAll()).thenReturn(users);
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(21))).thenReturn(users);
         when(userMapper.toResponseNewUserDTO(user1)).thenReturn(dto1);
         when(userMapper.toResponseNewUserDTO(user2)).thenReturn(dto2);
 
-        List<ResponseNewUserDTO> result = userService.getAllUsers();
+        PageResponseDTO<ResponseNewUserDTO> result = userService.getUsersPage(null, null);
 
         assertNotNull(result);
-        assertEquals(2, result.size());
-        verify(userRepository).findAll();
+        assertEquals(2, result.getContent().size());
+        assertEquals(20, result.getSize());
+        assertNull(result.getNextCursor());
         verify(userMapper, times(2)).toResponseNewUserDTO(any(User.class));
     }
 
+    @Test
+    void getUsersPage_shouldReturnNextCursor_whenMoreUsersExist() {
+        User user1 = createUserWithId(10L);
+        User user2 = createUserWithId(11L);
+        User user3 = createUserWithId(12L);
+
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(Arrays.asList(user1, user2, user3));
+        when(userMapper.toResponseNewUserDTO(any(User.class))).thenReturn(new ResponseNewUserDTO());
+
+        PageResponseDTO<ResponseNewUserDTO> firstPage = userService.getUsersPage(null, 2);
+
+        assertEquals(2, firstPage.getContent().size());
+        assertNotNull(firstPage.getNextCursor());
+
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(11L, Limit.of(3))).thenReturn(List.of(user3));
+
+        PageResponseDTO<ResponseNewUserDTO> secondPage = userService.getUsersPage(firstPage.getNextCursor(), 2);
+
+        assertEquals(1, secondPage.getContent().size());
+        assertNull(secondPage.getNextCursor());
+        verify(userRepository).findByIdGreaterThanOrderByIdAsc(11L, Limit.of(3));
+    }
+
+    @Test
+    void getUsersPage_shouldLimitPageSize() {
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(101))).thenReturn(List.of());
+
+        PageResponseDTO<ResponseNewUserDTO> result = userService.getUsersPage(null, 5000);
+
+        assertEquals(100, result.getSize());
+        assertTrue(result.getContent().isEmpty());
+    }
+
+    @Test
+    void getUsersPage_shouldThrowException_whenCursorIsInvalid() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> userService.getUsersPage("cursor-invalido", null));
+        assertEquals("Cursor inválido", exception.getMessage());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getUsersPage_shouldThrowException_whenSizeIsInvalid() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> userService.getUsersPage(null, 0));
+        assertEquals("Tamanho da página deve ser maior que zero", exception.getMessage());
+    }
+
+    @Test
+    void getUsersPageByOffset_shouldReturnRequestedPage() {
+        User user = new User();
+        ResponseNewUserDTO dto = new ResponseNewUserDTO();
+
+        when(userRepository.findAll(PageRequest.of(1, 20, Sort.by("id")))).thenReturn(new PageImpl<>(List.of(user)));
+        when(userMapper.toResponseNewUserDTO(user)).thenReturn(dto);
+
+        PageResponseDTO<ResponseNewUserDTO> result = userService.getUsersPageByOffset(1, null);
+
+        assertEquals(1, result.getContent().size());
+        assertEquals(1, result.getPage());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getUsersPageByOffset_shouldThrowException_whenPageIsNegative() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> userService.getUsersPageByOffset(-1, null));
+        assertEquals("Página não pode ser negativa", exception.getMessage());
+    }
+
     @Test
     void getUserById_shouldThrowException_whenIdIsNull() {
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
@@ -260,20 +435,22 @@ public class UserServiceTest {
     @Test
     void getUserById_shouldReturnEmpty_whenUserNotFound() {
         Long id = 1L;
-        when(userRepository.findById(id)).thenReturn(Optional.empty());
+        when(userRepository.findVersionById(id)).thenReturn(Optional.empty());
 
         Optional<ResponseNewUserDTO> result = userService.getUserById(id);
 
         assertTrue(result.isEmpty());
-        verify(userRepository).findById(id);
+        verify(userRepository, never()).findById(id);
     }
 
     @Test
     void getUserById_shouldReturnUser_whenUserFound() {
         Long id = 1L;
         User user = new User();
+        ReflectionTestUtils.setField(user, "id", id);
         ResponseNewUserDTO responseDTO = new ResponseNewUserDTO();
 
+        when(userRepository.findVersionById(id)).thenReturn(Optional.of(UserVersionDTO.of(user)));
         when(userRepository.findById(id)).thenReturn(Optional.of(user));
         when(userMapper.toResponseNewUserDTO(user)).thenReturn(responseDTO);
 
@@ -285,10 +462,80 @@ public class UserServiceTest {
         verify(userMapper).toResponseNewUserDTO(user);
     }
 
+    @Test
+    void getVersionedUserById_shouldServeCachedUser_whenVersionIsCurrent() {
+        Long id = 1L;
+        User user = new User();
+        ReflectionTestUtils.setField(user, "id", id);
+        String eTag = UserVersionDTO.of(user).getUserETag();
+        VersionedDTO<ResponseNewUserDTO> cached = new VersionedDTO<>(new ResponseNewUserDTO(), eTag);
+        Cache usersCache = mock(Cache.class);
+
+        when(cacheManager.getCache(CacheConfig.USERS_CACHE)).thenReturn(usersCache);
+        when(userRepository.findVersionById(id)).thenReturn(Optional.of(UserVersionDTO.of(user)));
+        when(usersCache.get(id, VersionedDTO.class)).thenReturn(cached);
+
+        Optional<VersionedDTO<ResponseNewUserDTO>> result = userService.getVersionedUserById(id);
+
+        assertSame(cached, result.orElseThrow());
+        verify(userRepository, never()).findById(id);
+    }
+
+    @Test
+    void getVersionedUserById_shouldReloadCachedUser_whenVersionIsStale() {
+        Long id = 1L;
+        User user = new User();
+        ReflectionTestUtils.setField(user, "id", id);
+        ReflectionTestUtils.setField(user, "version", 2L);
+        ResponseNewUserDTO current = new ResponseNewUserDTO();
+        VersionedDTO<ResponseNewUserDTO> stale = new VersionedDTO<>(new ResponseNewUserDTO(), id + ".1.0.0");
+        Cache usersCache = mock(Cache.class);
+
+        when(cacheManager.getCache(CacheConfig.USERS_CACHE)).thenReturn(usersCache);
+        when(userRepository.findVersionById(id)).thenReturn(Optional.of(UserVersionDTO.of(user)));
+        when(usersCache.get(id, VersionedDTO.class)).thenReturn(stale);
+        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        when(userMapper.toResponseNewUserDTO(user)).thenReturn(current);
+
+        VersionedDTO<ResponseNewUserDTO> result = userService.getVersionedUserById(id).orElseThrow();
+
+        assertSame(current, result.getBody());
+        assertEquals(UserVersionDTO.of(user).getUserETag(), result.getETag());
+        verify(usersCache).put(id, result);
+    }
+
+    @Test
+    void getVersionedUserById_withCurrentETag_shouldServeCachedUserWithoutQueries() {
+        Long id = 1L;
+        VersionedDTO<ResponseNewUserDTO> cached = new VersionedDTO<>(new ResponseNewUserDTO(), "1.0.0.0");
+        Cache usersCache = mock(Cache.class);
+
+        when(cacheManager.getCache(CacheConfig.USERS_CACHE)).thenReturn(usersCache);
+        when(usersCache.get(id, VersionedDTO.class)).thenReturn(cached);
+
+        Optional<VersionedDTO<ResponseNewUserDTO>> result = userService.getVersionedUserById(id, "1.0.0.0");
+
+        assertSame(cached, result.orElseThrow());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getVersionedUserById_withCurrentETag_shouldEvictCachedUser_whenDeletedSinceVersionQuery() {
+        Long id = 1L;
+        Cache usersCache = mock(Cache.class);
+
+        when(cacheManager.getCache(CacheConfig.USERS_CACHE)).thenReturn(usersCache);
+        when(userRepository.findById(id)).thenReturn(Optional.empty());
+
+        assertTrue(userService.getVersionedUserById(id, "1.0.0.0").isEmpty());
+        verify(usersCache).evict(id);
+        verify(userRepository, never()).findVersionById(id);
+    }
+
     @Test
     void searchUsersByName_shouldThrowException_whenNameIsNull() {
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
-                () -> userService.searchUsersByName(null));
+                () -> userService.searchUsersByName(null, null, null));
         assertEquals("Nome não pode ser nulo ou vazio", exception.getMessage());
         verifyNoInteractions(userRepository);
     }
@@ -296,41 +543,54 @@ public class UserServiceTest {
     @Test
     void searchUsersByName_shouldThrowException_whenNameIsEmpty() {
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
-                () -> userService.searchUsersByName("   "));
+                () -> userService.searchUsersByName("   ", null, null));
         assertEquals("Nome não pode ser nulo ou vazio", exception.getMessage());
         verifyNoInteractions(userRepository);
     }
 
     @Test
-    void searchUsersByName_shouldReturnUsers() {
-        String name = "John";
-        User user1 = new User();
-        List<User> users = Arrays.asList(user1);
+    void searchUsersByName_shouldReturnUsersInRelevanceOrder() {
+        String name = "João";
+        User user1 = createUserWithId(1L);
+        User user2 = createUserWithId(2L);
         ResponseNewUserDTO dto1 = new ResponseNewUserDTO();
+        ResponseNewUserDTO dto2 = new ResponseNewUserDTO();
 
-        when(userRepository.findByNameContainingIgnoreCase(name)).thenReturn(users);
+        when(userRepository.searchIdsByName(name, name, 20, 0L)).thenReturn(List.of(2L, 1L));
+        when(userRepository.findByIdIn(List.of(2L, 1L))).thenReturn(Arrays.asList(user1, user2));
         when(userMapper.toResponseNewUserDTO(user1)).thenReturn(dto1);
+        when(userMapper.toResponseNewUserDTO(user2)).thenReturn(dto2);
 
-        List<ResponseNewUserDTO> result = userService.searchUsersByName(name);
+        PageResponseDTO<ResponseNewUserDTO> result = userService.searchUsersByName(name, null, null);
 
         assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(userRepository).findByNameContainingIgnoreCase(name);
-        verify(userMapper).toResponseNewUserDTO(user1);
+        assertEquals(List.of(dto2, dto1), result.getContent());
+        assertEquals(0, result.getPage());
+        verify(userRepository).searchIdsByName(name, name, 20, 0L);
+    }
+
+    @Test
+    void searchUsersByName_shouldEscapeLikeWildcardsAndApplyOffset() {
+        when(userRepository.searchIdsByName("50%_a", "50\\%\\_a", 10, 20L)).thenReturn(List.of());
+
+        PageResponseDTO<ResponseNewUserDTO> result = userService.searchUsersByName(" 50%_a ", 2, 10);
+
+        assertTrue(result.getContent().isEmpty());
+        verify(userRepository, never()).findByIdIn(any());
     }
 
     @Test
     void updateUser_shouldThrowException_whenIdIsNull() {
         UpdateUserDTO dto = new UpdateUserDTO();
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
-                () -> userService.updateUser(null, dto));
+                () -> userService.updateUser(null, dto, null));
         assertEquals("ID do usuário não pode ser nulo", exception.getMessage());
     }
 
     @Test
     void updateUser_shouldThrowException_whenDTOIsNull() {
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
-                () -> userService.updateUser(1L, null));
+                () -> userService.updateUser(1L, null, null));
         assertEquals("Dados do usuário não podem ser nulos", exception.getMessage());
     }
 
@@ -341,7 +601,7 @@ public class UserServiceTest {
         when(userRepository.findById(id)).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class,
-                () -> userService.updateUser(id, dto));
+                () -> userService.updateUser(id, dto, null));
         assertEquals("Usuário não encontrado", exception.getMessage());
         verify(userRepository).findById(id);
     }
@@ -356,10 +616,12 @@ public class UserServiceTest {
         dto.setEmail("new@example.com");
 
         when(userRepository.findById(id)).thenReturn(Optional.of(existingUser));
-        when(userRepository.existsByEmail(dto.getEmail())).thenReturn(true);
+        when(userMapper.updateUser(existingUser, dto)).thenReturn(true);
+        when(userRepository.saveAndFlush(existingUser)).thenThrow(uniqueViolation(User.EMAIL_CONSTRAINT));
 
         assertThrows(EmailAlreadyExistsException.class,
-                () -> userService.updateUser(id, dto));
+                () -> userService.updateUser(id, dto, null));
+        verify(uniquenessIndex, never()).recordRemoval();
     }
 
     @Test
@@ -374,10 +636,11 @@ public class UserServiceTest {
         dto.setUserIdentification("456");
 
         when(userRepository.findById(id)).thenReturn(Optional.of(existingUser));
-        when(userRepository.existsByUserIdentification(dto.getUserIdentification())).thenReturn(true);
+        when(userMapper.updateUser(existingUser, dto)).thenReturn(true);
+        when(userRepository.saveAndFlush(existingUser)).thenThrow(uniqueViolation(User.USER_IDENTIFICATION_CONSTRAINT));
 
         assertThrows(UserIdentificationAlreadyExistsException.class,
-                () -> userService.updateUser(id, dto));
+                () -> userService.updateUser(id, dto, null));
     }
 
     @Test
@@ -396,15 +659,17 @@ public class UserServiceTest {
         ResponseNewUserDTO responseDTO = new ResponseNewUserDTO();
 
         when(userRepository.findById(id)).thenReturn(Optional.of(existingUser));
-        when(userRepository.save(existingUser)).thenReturn(updatedUser);
+        when(userMapper.updateUser(existingUser, dto)).thenReturn(true);
+        when(userRepository.saveAndFlush(existingUser)).thenReturn(updatedUser);
         when(userMapper.toResponseNewUserDTO(updatedUser)).thenReturn(responseDTO);
 
-        ResponseNewUserDTO result = userService.updateUser(id, dto);
+        ResponseNewUserDTO result = userService.updateUser(id, dto, null).getBody();
 
         assertNotNull(result);
         assertEquals(responseDTO, result);
         verify(userMapper).updateUser(existingUser, dto);
-        verify(userRepository).save(existingUser);
+        verify(userRepository).saveAndFlush(existingUser);
+        verify(userOutboxService).recordUserEvent(EUserEventType.user_updated, responseDTO);
     }
 
     @Test
@@ -426,15 +691,122 @@ public class UserServiceTest {
         ResponseNewUserDTO responseDTO = new ResponseNewUserDTO();
 
         when(userRepository.findById(id)).thenReturn(Optional.of(existingUser));
-        when(userRepository.save(existingUser)).thenReturn(updatedUser);
+        when(addressMapper.updateAddress(existingAddress, addressDTO)).thenReturn(true);
+        when(userRepository.saveAndFlush(existingUser)).thenReturn(updatedUser);
         when(userMapper.toResponseNewUserDTO(updatedUser)).thenReturn(responseDTO);
 
-        ResponseNewUserDTO result = userService.updateUser(id, dto);
+        ResponseNewUserDTO result = userService.updateUser(id, dto, null).getBody();
 
         assertNotNull(result);
         verify(addressMapper).updateAddress(existingAddress, addressDTO);
     }
 
+    @Test
+    void updateUser_shouldSkipSave_whenNothingChanged() {
+        Long id = 1L;
+        User existingUser = new User();
+        existingUser.setEmail("test@example.com");
+        existingUser.setUserIdentification("123");
+
+        UpdateUserDTO dto = new UpdateUserDTO();
+        dto.setEmail("test@example.com");
+        dto.setUserIdentification("123");
+
+        ResponseNewUserDTO responseDTO = new ResponseNewUserDTO();
+
+        when(userRepository.findById(id)).thenReturn(Optional.of(existingUser));
+        when(userMapper.updateUser(existingUser, dto)).thenReturn(false);
+        when(userMapper.toResponseNewUserDTO(existingUser)).thenReturn(responseDTO);
+
+        ResponseNewUserDTO result = userService.updateUser(id, dto, null).getBody();
+
+        assertEquals(responseDTO, result);
+        verify(userRepository, never()).saveAndFlush(any());
+        verify(uniquenessIndex, never()).recordRemoval();
+        verifyNoInteractions(userOutboxService);
+    }
+
+    @Test
+    void updateUser_shouldThrowPreconditionFailed_whenIfMatchIsStale() {
+        Long id = 1L;
+        User existingUser = new User();
+        ReflectionTestUtils.setField(existingUser, "id", id);
+        ReflectionTestUtils.setField(existingUser, "version", 3L);
+        String staleETag = UserVersionDTO.of(existingUser).getUserETag();
+        ReflectionTestUtils.setField(existingUser, "version", 4L);
+
+        when(userRepository.findById(id)).thenReturn(Optional.of(existingUser));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> userService.updateUser(id, new UpdateUserDTO(), "\"" + staleETag + "\""));
+        verifyNoInteractions(userMapper);
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void updateUser_shouldReturnETagOfSavedVersion_whenIfMatchIsCurrent() {
+        Long id = 1L;
+        User existingUser = new User();
+        ReflectionTestUtils.setField(existingUser, "id", id);
+        ReflectionTestUtils.setField(existingUser, "version", 3L);
+        String currentETag = UserVersionDTO.of(existingUser).getUserETag();
+
+        UpdateUserDTO dto = new UpdateUserDTO();
+        ResponseNewUserDTO responseDTO = new ResponseNewUserDTO();
+
+        when(userRepository.findById(id)).thenReturn(Optional.of(existingUser));
+        when(userMapper.updateUser(existingUser, dto)).thenReturn(true);
+        when(userRepository.saveAndFlush(existingUser)).thenAnswer(invocation -> {
+            // O flush incrementa a versão gravada
+            ReflectionTestUtils.setField(existingUser, "version", 4L);
+            return existingUser;
+        });
+        when(userMapper.toResponseNewUserDTO(existingUser)).thenReturn(responseDTO);
+
+        VersionedDTO<ResponseNewUserDTO> result = userService.updateUser(id, dto, "\"" + currentETag + "\"");
+
+        assertEquals(responseDTO, result.getBody());
+        assertEquals(UserVersionDTO.of(existingUser).getUserETag(), result.getETag());
+        assertNotEquals(currentETag, result.getETag());
+    }
+
+    @Test
+    void patchUser_shouldApplyPatchOverCurrentUser() {
+        Long id = 1L;
+        User existingUser = new User();
+        existingUser.setEmail("test@example.com");
+        existingUser.setUserIdentification("123");
+
+        UpdateUserDTO currentDTO = new UpdateUserDTO();
+        UpdateUserDTO patchedDTO = new UpdateUserDTO();
+        patchedDTO.setName("Nome Alterado");
+        patchedDTO.setEmail("test@example.com");
+        patchedDTO.setUserIdentification("123");
+        JsonNode patch = JsonNodeFactory.instance.objectNode().put("name", "Nome Alterado");
+        ResponseNewUserDTO responseDTO = new ResponseNewUserDTO();
+
+        when(userRepository.findById(id)).thenReturn(Optional.of(existingUser));
+        when(userMapper.toUpdateUserDTO(existingUser)).thenReturn(currentDTO);
+        when(jsonMergePatchMapper.apply(currentDTO, patch)).thenReturn(patchedDTO);
+        when(userMapper.updateUser(existingUser, patchedDTO)).thenReturn(true);
+        when(userRepository.saveAndFlush(existingUser)).thenReturn(existingUser);
+        when(userMapper.toResponseNewUserDTO(existingUser)).thenReturn(responseDTO);
+
+        ResponseNewUserDTO result = userService.patchUser(id, patch, null).getBody();
+
+        assertEquals(responseDTO, result);
+        verify(userRepository).saveAndFlush(existingUser);
+    }
+
+    @Test
+    void patchUser_shouldThrowException_whenUserNotFound() {
+        Long id = 1L;
+        when(userRepository.findById(id)).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> userService.patchUser(id, JsonNodeFactory.instance.objectNode(), null));
+        verifyNoInteractions(jsonMergePatchMapper);
+    }
+
     @Test
     void deleteUser_shouldThrowException_whenIdIsNull() {
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
@@ -446,31 +818,88 @@ public class UserServiceTest {
     @Test
     void deleteUser_shouldReturnEmpty_whenUserNotFound() {
         Long id = 1L;
-        when(userRepository.findById(id)).thenReturn(Optional.empty());
+        when(userJdbcRepository.deleteAllReturning(List.of(id))).thenReturn(List.of());
 
         Optional<ResponseNewUserDTO> result = userService.deleteUser(id);
 
         assertTrue(result.isEmpty());
-        verify(userRepository).findById(id);
-        verify(userRepository, never()).deleteById(any());
+        verify(uniquenessIndex, never()).recordRemoval();
+        verifyNoInteractions(userRepository);
     }
 
     @Test
     void deleteUser_shouldDeleteAndReturnUser() {
         Long id = 1L;
-        User user = new User();
         ResponseNewUserDTO responseDTO = new ResponseNewUserDTO();
+        responseDTO.setId(id);
 
-        when(userRepository.findById(id)).thenReturn(Optional.of(user));
-        when(userMapper.toResponseNewUserDTO(user)).thenReturn(responseDTO);
+        when(userJdbcRepository.deleteAllReturning(List.of(id))).thenReturn(List.of(responseDTO));
 
         Optional<ResponseNewUserDTO> result = userService.deleteUser(id);
 
         assertTrue(result.isPresent());
         assertEquals(responseDTO, result.get());
-        verify(userRepository).findById(id);
-        verify(userRepository).deleteById(id);
-        verify(userMapper).toResponseNewUserDTO(user);
+        verify(userJdbcRepository).deleteAllReturning(List.of(id));
+        verify(uniquenessIndex).recordRemoval();
+        verify(userOutboxService).recordUserEvent(EUserEventType.user_deleted, responseDTO);
+        verifyNoInteractions(userRepository, userMapper);
+    }
+
+    @Test
+    void exportUsers_shouldStreamUsersFromJdbcRepository() {
+        Consumer<ResponseNewUserDTO> consumer = user -> { };
+
+        userService.exportUsers(consumer);
+
+        verify(userJdbcRepository).forEachUser(consumer);
+        verifyNoInteractions(userRepository, userMapper);
+    }
+
+    @Test
+    void exportUsers_shouldThrowException_whenConsumerIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> userService.exportUsers(null));
+        verifyNoInteractions(userJdbcRepository);
+    }
+
+    @Test
+    void deleteUsers_shouldThrowException_whenIdsAreEmpty() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> userService.deleteUsers(List.of()));
+        assertEquals("Lista de IDs não pode ser vazia", exception.getMessage());
+        verifyNoInteractions(userJdbcRepository);
+    }
+
+    @Test
+    void deleteUsers_shouldThrowException_whenLimitExceeded() {
+        List<Long> ids = LongStream.rangeClosed(1, UserService.MAX_DELETE_IDS + 1).boxed().collect(Collectors.toList());
+
+        assertThrows(IllegalArgumentException.class, () -> userService.deleteUsers(ids));
+        verifyNoInteractions(userJdbcRepository);
+    }
+
+    @Test
+    void deleteUsers_shouldDeleteDistinctIdsAndEvictCaches() {
+        ResponseNewUserDTO first = new ResponseNewUserDTO();
+        first.setId(1L);
+        ResponseNewUserDTO second = new ResponseNewUserDTO();
+        second.setId(2L);
+        Cache usersCache = mock(Cache.class);
+        Cache addressesCache = mock(Cache.class);
+
+        when(userJdbcRepository.deleteAllReturning(List.of(1L, 2L, 3L))).thenReturn(List.of(first, second));
+        when(cacheManager.getCache(CacheConfig.USERS_CACHE)).thenReturn(usersCache);
+        when(cacheManager.getCache(CacheConfig.USER_ADDRESSES_CACHE)).thenReturn(addressesCache);
+
+        List<ResponseNewUserDTO> result = userService.deleteUsers(List.of(1L, 2L, 2L, 3L));
+
+        assertEquals(List.of(first, second), result);
+        verify(usersCache).evict(1L);
+        verify(usersCache).evict(2L);
+        verify(addressesCache).evict(1L);
+        verify(addressesCache).evict(2L);
+        verify(usersCache, never()).evict(3L);
+        verify(uniquenessIndex, times(2)).recordRemoval();
+        verify(userOutboxService).recordUserEvents(EUserEventType.user_deleted, List.of(first, second));
     }
 
     private UserCredentialsDTO createUserCredentialsDTO(String username, String password) {
@@ -479,4 +908,16 @@ public class UserServiceTest {
         credentialsDTO.setPassword(password);
         return credentialsDTO;
     }
+
+    // Violação como a retornada pelo Hibernate, com o nome da constraint extraído da mensagem do banco
+    private DataIntegrityViolationException uniqueViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicate key value", new SQLException("duplicate key value", "23505"), constraintName));
+    }
+
+    private User createUserWithId(Long id) {
+        User user = new User();
+        ReflectionTestUtils.setField(user, "id", id);
+        return user;
+    }
 }